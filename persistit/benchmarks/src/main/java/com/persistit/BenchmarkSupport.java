@@ -0,0 +1,134 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Properties;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.persistit.exception.PersistitException;
+
+/**
+ * Shared setup for the Persistit JMH benchmarks. Each benchmark state creates
+ * a private Persistit instance in a fresh temporary directory so that runs do
+ * not interfere with one another, and removes it on tear-down.
+ */
+public final class BenchmarkSupport {
+
+    public final static String VOLUME_NAME = "persistit";
+
+    public final static String TREE_NAME = "bench";
+
+    private BenchmarkSupport() {
+    }
+
+    /**
+     * Create a temporary data directory for one benchmark trial.
+     *
+     * @return the directory
+     * @throws IOException
+     */
+    public static File createDataPath() throws IOException {
+        final File file = File.createTempFile("persistit_bench", "");
+        if (!file.delete() || !file.mkdirs()) {
+            throw new IOException("Unable to create directory " + file);
+        }
+        return file;
+    }
+
+    /**
+     * @param dataPath
+     *            directory holding the volume and journal files
+     * @param bufferCount
+     *            number of 16K buffers to allocate
+     * @return Properties suitable for a benchmark Persistit instance
+     */
+    public static Properties properties(final File dataPath, final int bufferCount) {
+        final Properties p = new Properties();
+        p.setProperty("datapath", dataPath.getAbsolutePath());
+        p.setProperty("buffer.count.16384", Integer.toString(bufferCount));
+        p.setProperty("volume.1", "${datapath}/" + VOLUME_NAME + ",create,"
+                + "pageSize:16384,initialPages:1000,extensionPages:1000,maximumPages:10000000");
+        p.setProperty("sysvolume", VOLUME_NAME);
+        p.setProperty("journalpath", "${datapath}/persistit_journal");
+        p.setProperty("logfile", "${datapath}/persistit.log");
+        p.setProperty("tmpvoldir", "${datapath}");
+        p.setProperty("jmx", "false");
+        return p;
+    }
+
+    /**
+     * Start a Persistit instance configured by {@link #properties(File, int)}.
+     */
+    public static Persistit start(final File dataPath, final int bufferCount) throws PersistitException {
+        return start(properties(dataPath, bufferCount));
+    }
+
+    /**
+     * Start a Persistit instance with the supplied properties, typically
+     * obtained from {@link #properties(File, int)} and then adjusted.
+     */
+    public static Persistit start(final Properties properties) throws PersistitException {
+        final Persistit persistit = new Persistit();
+        persistit.setProperties(properties);
+        persistit.initialize();
+        return persistit;
+    }
+
+    /**
+     * Close the Persistit instance without flushing and delete its files.
+     */
+    public static void stop(final Persistit persistit, final File dataPath) throws PersistitException {
+        if (persistit != null) {
+            persistit.close(false);
+        }
+        delete(dataPath);
+    }
+
+    private static void delete(final File file) {
+        if (file == null) {
+            return;
+        }
+        final File[] files = file.listFiles();
+        if (files != null) {
+            for (final File child : files) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+    /**
+     * Run the benchmarks matching the supplied pattern with the GC profiler
+     * enabled, so that each result reports allocation rate per operation and
+     * GC counts alongside latency.
+     *
+     * @param include
+     *            regular expression selecting benchmarks
+     * @throws RunnerException
+     */
+    public static void run(final String include) throws RunnerException {
+        final Options opt = new OptionsBuilder().include(include).addProfiler(GCProfiler.class).build();
+        new Runner(opt).run();
+    }
+}
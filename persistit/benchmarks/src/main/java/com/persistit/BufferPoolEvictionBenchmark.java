@@ -0,0 +1,117 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.io.File;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Throughput of {@link BufferPool} buffer allocation when every lookup misses.
+ * Each operation asks the pool for a page that is not resident, so the pool
+ * must run its clock to find and evict a victim. Pages are requested as new
+ * pages, so no disk I/O is involved and the measurement isolates contention on
+ * the clock hands. Run {@link #main(String[])} to measure each segment setting
+ * at increasing thread counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class BufferPoolEvictionBenchmark {
+
+    private final static int PAGE_SIZE = 1024;
+
+    private final static int BUFFER_COUNT = 16384;
+
+    /**
+     * Pages are addressed far beyond the end of the volume so that the blank
+     * images created by the benchmark never alias real pages.
+     */
+    private final static long FIRST_PAGE = 1L << 32;
+
+    /**
+     * Number of clock segments; zero selects one per available processor.
+     */
+    @Param({ "1", "0" })
+    public int segments;
+
+    private File dataPath;
+    private Persistit persistit;
+    private BufferPool pool;
+    private Volume volume;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        final Random random = new Random();
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataPath = BenchmarkSupport.createDataPath();
+        final Properties properties = BenchmarkSupport.properties(dataPath, 256);
+        properties.setProperty("buffer.count." + PAGE_SIZE, Integer.toString(BUFFER_COUNT));
+        properties.setProperty("buffersegments", Integer.toString(segments));
+        properties.setProperty("volume.2", "${datapath}/eviction,create,pageSize:" + PAGE_SIZE
+                + ",initialPages:100,extensionPages:100,maximumPages:1000000");
+        persistit = BenchmarkSupport.start(properties);
+        pool = persistit.getBufferPool(PAGE_SIZE);
+        volume = persistit.getVolume("eviction");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.stop(persistit, dataPath);
+    }
+
+    @Benchmark
+    public void allocate(final ThreadState state) throws Exception {
+        final long page = FIRST_PAGE + state.random.nextInt(BUFFER_COUNT * 64);
+        final Buffer buffer = pool.get(volume, page, false, false);
+        buffer.release();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= processors; threads *= 2) {
+            final Options opt = new OptionsBuilder().include(BufferPoolEvictionBenchmark.class.getSimpleName())
+                    .threads(threads).build();
+            new Runner(opt).run();
+        }
+    }
+}
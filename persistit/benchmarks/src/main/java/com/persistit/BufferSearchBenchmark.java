@@ -0,0 +1,121 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Cost of {@link Buffer#findKey(Key)} on a full data page and on a full index
+ * page. The pages are private copies obtained through
+ * {@link Exchange#fetchBufferCopy(int)}, so the measurement excludes claim
+ * and hash table lookup overhead.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class BufferSearchBenchmark {
+
+    private final static int KEY_COUNT = 200000;
+
+    private File dataPath;
+    private Persistit persistit;
+    private Buffer dataPage;
+    private Buffer indexPage;
+    private Key[] dataKeys;
+    private Key[] indexKeys;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataPath = BenchmarkSupport.createDataPath();
+        persistit = BenchmarkSupport.start(dataPath, 4096);
+        final Exchange exchange = persistit.getExchange(BenchmarkSupport.VOLUME_NAME, BenchmarkSupport.TREE_NAME,
+                true);
+        for (int i = 0; i < KEY_COUNT; i++) {
+            exchange.getValue().put(i);
+            exchange.clear().append("key").append(i).store();
+        }
+        exchange.clear().append("key").append(KEY_COUNT / 2);
+        dataPage = exchange.fetchBufferCopy(0);
+        indexPage = exchange.fetchBufferCopy(1);
+        dataKeys = sampleKeys(dataPage);
+        indexKeys = sampleKeys(indexPage);
+        persistit.releaseExchange(exchange);
+    }
+
+    /*
+     * Collect the keys stored in the page plus a shuffled order so that the
+     * search does not benefit from a predictable access pattern.
+     */
+    private Key[] sampleKeys(final Buffer buffer) throws Exception {
+        final Key[] keys = new Key[buffer.getKeyCount()];
+        final Key key = new Key(persistit);
+        int count = 0;
+        for (int p = Buffer.KEY_BLOCK_START; p < buffer.getKeyBlockEnd() && count < keys.length; p += Buffer.KEYBLOCK_LENGTH) {
+            buffer.nextKey(key, p);
+            keys[count++] = new Key(key);
+        }
+        final Random random = new Random(1);
+        for (int i = count - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final Key k = keys[i];
+            keys[i] = keys[j];
+            keys[j] = k;
+        }
+        return keys;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.stop(persistit, dataPath);
+    }
+
+    @Benchmark
+    public int findKeyDataPage() throws Exception {
+        final Key key = dataKeys[next++ % dataKeys.length];
+        return dataPage.findKey(key);
+    }
+
+    @Benchmark
+    public int findKeyIndexPage() throws Exception {
+        final Key key = indexKeys[next++ % indexKeys.length];
+        return indexPage.findKey(key);
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        BenchmarkSupport.run(BufferSearchBenchmark.class.getSimpleName());
+    }
+}
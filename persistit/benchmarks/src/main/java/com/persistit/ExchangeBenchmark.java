@@ -0,0 +1,119 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.io.File;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Latency of the basic {@link Exchange} operations against a tree that fits
+ * in the buffer pool: fetch and store of random keys, a forward traversal
+ * step, and a store/remove pair on keys outside the preloaded range.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ExchangeBenchmark {
+
+    @Param({ "100000" })
+    int keyCount;
+
+    @Param({ "100" })
+    int valueSize;
+
+    private File dataPath;
+    private Persistit persistit;
+    private Exchange exchange;
+    private Random random;
+    private String payload;
+    private long nextRemoveKey;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataPath = BenchmarkSupport.createDataPath();
+        persistit = BenchmarkSupport.start(dataPath, 4096);
+        exchange = persistit.getExchange(BenchmarkSupport.VOLUME_NAME, BenchmarkSupport.TREE_NAME, true);
+        final StringBuilder sb = new StringBuilder(valueSize);
+        while (sb.length() < valueSize) {
+            sb.append((char) ('a' + sb.length() % 26));
+        }
+        payload = sb.toString();
+        for (int i = 0; i < keyCount; i++) {
+            exchange.getValue().put(payload);
+            exchange.clear().append(i).store();
+        }
+        random = new Random(1);
+        nextRemoveKey = keyCount;
+        exchange.clear().append(Key.BEFORE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        persistit.releaseExchange(exchange);
+        BenchmarkSupport.stop(persistit, dataPath);
+    }
+
+    @Benchmark
+    public Value fetch() throws Exception {
+        return exchange.clear().append(random.nextInt(keyCount)).fetch().getValue();
+    }
+
+    @Benchmark
+    public Exchange store() throws Exception {
+        exchange.getValue().put(payload);
+        return exchange.clear().append(random.nextInt(keyCount)).store();
+    }
+
+    @Benchmark
+    public boolean traverse() throws Exception {
+        if (!exchange.next()) {
+            exchange.clear().append(Key.BEFORE);
+            return exchange.next();
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean storeAndRemove() throws Exception {
+        exchange.getValue().put(payload);
+        exchange.clear().append(nextRemoveKey++).store();
+        return exchange.remove();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        BenchmarkSupport.run(ExchangeBenchmark.class.getSimpleName());
+    }
+}
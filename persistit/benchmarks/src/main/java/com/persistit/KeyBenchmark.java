@@ -0,0 +1,109 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Encoding and decoding cost of {@link Key} segments for the common key
+ * types. Runs without a started Persistit instance since no coder lookup is
+ * needed for primitive and String segments.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class KeyBenchmark {
+
+    private final static String STRING_SEGMENT = "uid=user.12345,ou=People,dc=example,dc=com";
+
+    private Persistit persistit;
+    private Key key;
+    private Key encoded;
+    private int intValue = 12345;
+    private long longValue = 1234567890123L;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        persistit = new Persistit();
+        key = new Key(persistit);
+        encoded = new Key(persistit);
+        encoded.append(intValue).append(longValue).append(STRING_SEGMENT);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        persistit.close(false);
+    }
+
+    @Benchmark
+    public Key appendInt() {
+        return key.clear().append(intValue);
+    }
+
+    @Benchmark
+    public Key appendLong() {
+        return key.clear().append(longValue);
+    }
+
+    @Benchmark
+    public Key appendString() {
+        return key.clear().append(STRING_SEGMENT);
+    }
+
+    @Benchmark
+    public Key appendComposite() {
+        return key.clear().append(intValue).append(longValue).append(STRING_SEGMENT);
+    }
+
+    @Benchmark
+    public int decodeInt() {
+        return encoded.reset().decodeInt();
+    }
+
+    @Benchmark
+    public long decodeLong() {
+        encoded.indexTo(1);
+        return encoded.decodeLong();
+    }
+
+    @Benchmark
+    public String decodeString() {
+        encoded.indexTo(2);
+        return encoded.decodeString();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        BenchmarkSupport.run(KeyBenchmark.class.getSimpleName());
+    }
+}
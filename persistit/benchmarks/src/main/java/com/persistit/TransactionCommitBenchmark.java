@@ -0,0 +1,104 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import com.persistit.Transaction.CommitPolicy;
+
+/**
+ * Latency of a small update transaction under each {@link CommitPolicy}. The
+ * benchmark runs several threads so that GROUP commit has concurrent
+ * committers to amortize the journal force over.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+@Threads(4)
+public class TransactionCommitBenchmark {
+
+    @Param({ "SOFT", "HARD", "GROUP" })
+    public CommitPolicy policy;
+
+    private File dataPath;
+    private Persistit persistit;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        Exchange exchange;
+        int counter;
+
+        @Setup(Level.Trial)
+        public void setUp(final TransactionCommitBenchmark benchmark) throws Exception {
+            exchange = benchmark.persistit.getExchange(BenchmarkSupport.VOLUME_NAME, BenchmarkSupport.TREE_NAME,
+                    true);
+            exchange.getValue().put("transaction-value");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown(final TransactionCommitBenchmark benchmark) {
+            benchmark.persistit.releaseExchange(exchange);
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataPath = BenchmarkSupport.createDataPath();
+        persistit = BenchmarkSupport.start(dataPath, 1024);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.stop(persistit, dataPath);
+    }
+
+    @Benchmark
+    public void commit(final ThreadState state) throws Exception {
+        final Transaction txn = persistit.getTransaction();
+        txn.begin();
+        try {
+            state.exchange.clear().append(Thread.currentThread().getId()).append(state.counter++ & 0xFFFF).store();
+            txn.commit(policy);
+        } finally {
+            txn.end();
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        BenchmarkSupport.run(TransactionCommitBenchmark.class.getSimpleName());
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+/**
+ * Throughput of {@link TransactionIndex#getStatus(long)} lookups while other
+ * threads register, commit and complete transactions in the same buckets.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class TransactionIndexBenchmark {
+
+    private final static int RECENT = 256;
+
+    private final static int CACHE_UPDATE_INTERVAL = 1024;
+
+    @Param({ "16", "256" })
+    public int hashTableSize;
+
+    private final TimestampAllocator timestampAllocator = new TimestampAllocator();
+    private final AtomicLongArray recent = new AtomicLongArray(RECENT);
+    private TransactionIndex index;
+
+    @State(Scope.Thread)
+    public static class ThreadState {
+        int counter;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        index = new TransactionIndex(timestampAllocator, hashTableSize);
+        for (int i = 0; i < RECENT; i++) {
+            recent.set(i, commitOne());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        index.cleanup();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public TransactionStatus lookup(final ThreadState state) {
+        return index.getStatus(recent.get(state.counter++ & (RECENT - 1)));
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void commit(final ThreadState state) throws Exception {
+        recent.set(state.counter & (RECENT - 1), commitOne());
+        if (++state.counter % CACHE_UPDATE_INTERVAL == 0) {
+            index.updateActiveTransactionCache();
+        }
+    }
+
+    private long commitOne() throws Exception {
+        final TransactionStatus status = index.registerTransaction();
+        status.commit(timestampAllocator.updateTimestamp());
+        index.notifyCompleted(status, timestampAllocator.updateTimestamp());
+        return status.getTs();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        BenchmarkSupport.run(TransactionIndexBenchmark.class.getSimpleName());
+    }
+}
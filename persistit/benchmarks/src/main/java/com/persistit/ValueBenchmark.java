@@ -0,0 +1,137 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+
+import com.persistit.encoding.CoderManager;
+
+/**
+ * Encoding and decoding cost of {@link Value} for primitive, String and
+ * object values. Objects are serialized through a {@link DefaultValueCoder}
+ * registered for {@link Record} so that the reflective coder path is measured
+ * rather than default Java serialization.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 2, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class ValueBenchmark {
+
+    public static class Record implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        int id;
+        long timestamp;
+        String name;
+
+        public Record() {
+        }
+
+        Record(final int id, final long timestamp, final String name) {
+            this.id = id;
+            this.timestamp = timestamp;
+            this.name = name;
+        }
+    }
+
+    private File dataPath;
+    private Persistit persistit;
+    private Value value;
+    private Value encodedString;
+    private Value encodedLong;
+    private Value encodedRecord;
+    private String string;
+    private Record record;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        dataPath = BenchmarkSupport.createDataPath();
+        persistit = BenchmarkSupport.start(dataPath, 256);
+        final CoderManager cm = persistit.getCoderManager();
+        cm.registerValueCoder(Record.class, new DefaultValueCoder(persistit, Record.class));
+        value = new Value(persistit);
+        string = "The quick brown fox jumps over the lazy dog";
+        record = new Record(42, System.currentTimeMillis(), string);
+        encodedString = new Value(persistit);
+        encodedString.put(string);
+        encodedLong = new Value(persistit);
+        encodedLong.put(Long.MAX_VALUE / 3);
+        encodedRecord = new Value(persistit);
+        encodedRecord.put(record);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkSupport.stop(persistit, dataPath);
+    }
+
+    @Benchmark
+    public Value putLong() {
+        value.put(Long.MAX_VALUE / 3);
+        return value;
+    }
+
+    @Benchmark
+    public Value putString() {
+        value.put(string);
+        return value;
+    }
+
+    @Benchmark
+    public Value putObject() {
+        value.put(record);
+        return value;
+    }
+
+    @Benchmark
+    public long getLong() {
+        return encodedLong.getLong();
+    }
+
+    @Benchmark
+    public String getString() {
+        return encodedString.getString();
+    }
+
+    @Benchmark
+    public Object getObject() {
+        return encodedRecord.get();
+    }
+
+    public static void main(final String[] args) throws RunnerException {
+        BenchmarkSupport.run(ValueBenchmark.class.getSimpleName());
+    }
+}
@@ -20,6 +20,7 @@ import java.lang.ref.WeakReference;
 import java.util.Comparator;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import com.persistit.exception.PersistitException;
 import com.persistit.exception.PersistitInterruptedException;
@@ -86,6 +87,15 @@ import com.persistit.exception.PersistitInterruptedException;
  * transactionally accurate.
  * </p>
  * <p>
+ * The live value of a <code>SumAccumulator</code>, <code>MinAccumulator</code>
+ * or <code>MaxAccumulator</code> is initially held in a single
+ * <code>AtomicLong</code>. When concurrent updates first collide, the
+ * Accumulator adds an array of cells, and from then on each thread applies its
+ * updates to one of the cells, chosen by thread id, rather than all threads
+ * updating the same memory location. The cells are combined only when
+ * {@link #getLiveValue()} is called.
+ * </p>
+ * <p>
  * <a name="_SeqAccumulator" />
  * <h3>SeqAccumulator</h3>
  * The <code>SeqAccumulator</code> is a combination of
@@ -101,6 +111,15 @@ import com.persistit.exception.PersistitInterruptedException;
  * the shutdown. Note that a transaction that allocates a value and then aborts
  * leaves a gap in the numerical sequence.
  * </p>
+ * <p>
+ * A <code>SeqAccumulator</code> on which many threads allocate values can be
+ * given an allocation range with
+ * {@link com.persistit.Accumulator.SeqAccumulator#setAllocationRange(int)}.
+ * Each thread then reserves that many consecutive values from the live value in
+ * one atomic operation and hands them out one at a time. Values remain unique,
+ * but values allocated by different threads are no longer in allocation order,
+ * and values reserved but not allocated before shutdown are skipped.
+ * </p>
  * 
  * @author peter
  */
@@ -133,11 +152,29 @@ public abstract class Accumulator {
 
     final static int MAX_SERIALIZED_SIZE = Tree.MAX_SERIALIZED_SIZE + 24;
 
+    /*
+     * Number of cells used to stripe the live value once updates contend: the
+     * smallest power of two at least twice the number of processors, up to 64
+     */
+    final static int CELL_COUNT = Math.min(64,
+            Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 4 - 1));
+
+    /*
+     * Distance in longs between adjacent cells, so that each cell occupies its
+     * own cache line
+     */
+    private final static int CELL_SPACING = 8;
+
     protected final Tree _tree;
     private final int _index;
     private final TransactionIndex _transactionIndex;
 
     private final AtomicLong _liveValue = new AtomicLong();
+    /*
+     * Striped cells holding contributions to the live value. Created the first
+     * time two threads collide while updating _liveValue.
+     */
+    private volatile AtomicLongArray _cells;
     /*
      * Check-pointed value read during recovery.
      */
@@ -202,6 +239,11 @@ public abstract class Accumulator {
             return value;
         }
 
+        @Override
+        long identityValue() {
+            return 0;
+        }
+
         @Override
         Type getType() {
             return Type.SUM;
@@ -252,6 +294,11 @@ public abstract class Accumulator {
             return value;
         }
 
+        @Override
+        long identityValue() {
+            return Long.MAX_VALUE;
+        }
+
         @Override
         Type getType() {
             return Type.MIN;
@@ -302,6 +349,11 @@ public abstract class Accumulator {
             return value;
         }
 
+        @Override
+        long identityValue() {
+            return Long.MIN_VALUE;
+        }
+
         @Override
         Type getType() {
             return Type.MAX;
@@ -338,6 +390,19 @@ public abstract class Accumulator {
      */
     public final static class SeqAccumulator extends Accumulator {
 
+        /*
+         * Per-thread range of reserved values: element 0 is the last value
+         * allocated, element 1 the last value reserved.
+         */
+        private final ThreadLocal<long[]> _ranges = new ThreadLocal<long[]>() {
+            @Override
+            protected long[] initialValue() {
+                return new long[2];
+            }
+        };
+
+        private volatile int _allocationRange = 1;
+
         private SeqAccumulator(final Tree tree, final int index, final long baseValue,
                 final TransactionIndex transactionIndex) {
             super(tree, index, baseValue, transactionIndex);
@@ -364,11 +429,57 @@ public abstract class Accumulator {
             return updated;
         }
 
+        @Override
+        long identityValue() {
+            return 0;
+        }
+
+        @Override
+        long updateLiveValue(final long value) {
+            final int range = _allocationRange;
+            if (range == 1 || value != 1) {
+                return updateSharedValue(value);
+            }
+            final long[] reserved = _ranges.get();
+            if (reserved[0] == reserved[1]) {
+                reserved[1] = updateSharedValue(range);
+                reserved[0] = reserved[1] - range;
+            }
+            return ++reserved[0];
+        }
+
         @Override
         Type getType() {
             return Type.SEQ;
         }
 
+        /**
+         * Set the number of consecutive values each thread reserves at once.
+         * With the default of 1 every call to {@link #allocate()} updates the
+         * shared live value, and values are allocated in increasing order.
+         * With a larger range, a thread updates the shared live value only once
+         * per <code>range</code> allocations; values allocated by different
+         * threads are then not in allocation order, and the live value may be
+         * larger than any value yet returned. The setting lasts as long as this
+         * <code>SeqAccumulator</code> instance.
+         * 
+         * @param range
+         *            number of values to reserve at once, at least 1
+         */
+        public void setAllocationRange(final int range) {
+            if (range < 1) {
+                throw new IllegalArgumentException("Allocation range must be positive: " + range);
+            }
+            _allocationRange = range;
+        }
+
+        /**
+         * @return the number of consecutive values each thread reserves at once
+         */
+        public int getAllocationRange() {
+            return _allocationRange;
+        }
+
         /**
          * <p>
          * Allocate a sequence number. The value returned is guaranteed to be
@@ -377,8 +488,9 @@ public abstract class Accumulator {
          * sequence.
          * </p>
          * <p>
-         * The value returned is equal to the <a href="#_SnapshotValue">live
-         * value</a> the instant it is updated. However, note that the following
+         * With the default allocation range, the value returned is equal to
+         * the <a href="#_SnapshotValue">live value</a> the instant it is
+         * updated. However, note that the following
          * code is <em>not</em> guaranteed to generate a unique value:
          * <code><pre>
          *    seqAccumulator.allocate();
@@ -559,6 +671,12 @@ public abstract class Accumulator {
      */
     abstract long selectValue(long value, long updated);
 
+    /**
+     * @return a value v such that applyValue(v, x) == x for every x, used to
+     *         initialize striped cells
+     */
+    abstract long identityValue();
+
     abstract Type getType();
 
     void aggregate(final int hashIndex, final Delta delta) {
@@ -641,7 +759,14 @@ public abstract class Accumulator {
      * @return the live value
      */
     public long getLiveValue() {
-        return _liveValue.get();
+        long value = _liveValue.get();
+        final AtomicLongArray cells = _cells;
+        if (cells != null) {
+            for (int index = 0; index < CELL_COUNT; index++) {
+                value = applyValue(value, cells.get(index * CELL_SPACING));
+            }
+        }
+        return value;
     }
 
     /**
@@ -689,6 +814,12 @@ public abstract class Accumulator {
     void updateBaseValue(final long value, final long commitTimestamp) {
         _baseValue = applyValue(_baseValue, value);
         _liveValue.set(_baseValue);
+        final AtomicLongArray cells = _cells;
+        if (cells != null) {
+            for (int index = 0; index < CELL_COUNT; index++) {
+                cells.set(index * CELL_SPACING, identityValue());
+            }
+        }
         /*
          * This method is called during recovery processing to handle a delta
          * operation that was part of a transaction that committed after the
@@ -714,18 +845,7 @@ public abstract class Accumulator {
         if (status.getTc() != TransactionStatus.UNCOMMITTED) {
             throw new IllegalStateException("Transaction has already committed or aborted");
         }
-        /*
-         * Update the live value using compare-and-set
-         */
-        long previous;
-        long updated;
-        for (;;) {
-            previous = _liveValue.get();
-            updated = updateValue(previous, value);
-            if (_liveValue.compareAndSet(previous, updated)) {
-                break;
-            }
-        }
+        final long updated = updateLiveValue(value);
         /*
          * Add a Delta to the TransactionStatus
          */
@@ -734,6 +854,64 @@ public abstract class Accumulator {
         return updated;
     }
 
+    /**
+     * Apply a contribution to the live value. Until two threads collide, this
+     * method updates the shared live value using compare-and-set. After that
+     * it updates the striped cell selected by the current thread, and the
+     * value returned is the updated content of that cell.
+     * 
+     * @param value
+     *            The delta value
+     * @return the updated live value or cell
+     */
+    long updateLiveValue(final long value) {
+        AtomicLongArray cells = _cells;
+        if (cells == null) {
+            final long previous = _liveValue.get();
+            final long updated = updateValue(previous, value);
+            if (_liveValue.compareAndSet(previous, updated)) {
+                return updated;
+            }
+            cells = cells();
+        }
+        final int index = ((int) Thread.currentThread().getId() & (CELL_COUNT - 1)) * CELL_SPACING;
+        for (;;) {
+            final long previous = cells.get(index);
+            final long updated = updateValue(previous, value);
+            if (cells.compareAndSet(index, previous, updated)) {
+                return updated;
+            }
+        }
+    }
+
+    /**
+     * Update the shared live value using compare-and-set
+     * 
+     * @param value
+     *            The delta value
+     * @return the updated live value
+     */
+    long updateSharedValue(final long value) {
+        for (;;) {
+            final long previous = _liveValue.get();
+            final long updated = updateValue(previous, value);
+            if (_liveValue.compareAndSet(previous, updated)) {
+                return updated;
+            }
+        }
+    }
+
+    private synchronized AtomicLongArray cells() {
+        if (_cells == null) {
+            final AtomicLongArray cells = new AtomicLongArray(CELL_COUNT * CELL_SPACING);
+            for (int index = 0; index < CELL_COUNT; index++) {
+                cells.set(index * CELL_SPACING, identityValue());
+            }
+            _cells = cells;
+        }
+        return _cells;
+    }
+
     Tree getTree() {
         return _tree;
     }
@@ -749,7 +927,7 @@ public abstract class Accumulator {
      */
     public String toString() {
         return String.format("Accumulator(tree=%s index=%d type=%s base=%,d live=%,d)",
-                _tree == null ? "null" : _tree.getName(), _index, getType(), _baseValue, _liveValue.get());
+                _tree == null ? "null" : _tree.getName(), _index, getType(), _baseValue, getLiveValue());
     }
 
     void store(final Value value) {
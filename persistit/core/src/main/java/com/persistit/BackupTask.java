@@ -18,13 +18,37 @@ package com.persistit;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FileReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -34,6 +58,7 @@ import com.persistit.CLI.Cmd;
 import com.persistit.CheckpointManager.Checkpoint;
 import com.persistit.Management.JournalInfo;
 import com.persistit.Management.VolumeInfo;
+import com.persistit.exception.InvalidPageStructureException;
 import com.persistit.util.Util;
 
 /**
@@ -58,6 +83,14 @@ import com.persistit.util.Util;
  * form a complete backup, and as a convenience, a mechanism to compress and
  * copy them.
  * </p>
+ * <p>
+ * Files may be copied either into a single ZIP archive, or into a directory
+ * (or any {@link BackupSink}) through a pipeline that reads each file in large
+ * chunks and compresses the chunks concurrently on several threads. Each
+ * compressed chunk is a complete gzip member; the concatenated members form
+ * a standard gzip file that <code>gunzip</code> or {@link GZIPInputStream}
+ * can expand.
+ * </p>
  * 
  * @author peter
  * 
@@ -66,6 +99,15 @@ public class BackupTask extends Task {
 
     private final static int BUFFER_SIZE = 1024 * 1024;
     private final static int PROGRESS_MARK_AT = 100 * 1000 * 1000;
+    private final static int CHUNK_SIZE = 4 * 1024 * 1024;
+    private final static int MAX_THREADS = 64;
+    final static String MANIFEST_NAME = "backup.manifest";
+    final static String GZIP_SUFFIX = ".gz";
+    final static String PAGES_SUFFIX = ".pages";
+    final static String MANIFEST_TIMESTAMP = "#timestamp";
+    final static String MANIFEST_BASE = "#base";
+    final static String MANIFEST_PAGES = "pages";
+    final static int PAGE_IMAGE_SIGNATURE = 0x50474931;
     private boolean _start;
     private boolean _end;
     private boolean _showFiles;
@@ -73,7 +115,15 @@ public class BackupTask extends Task {
     private boolean _checkpoint;
     private boolean _copyback;
     private String _toFile;
+    private String _toDirectory;
+    private int _threads = 1;
+    private BackupSink _sink;
+    private String _baseDirectory;
+    private long _baseTimestamp = -1;
+    private long _backupTimestamp = -1;
+    private final List<String> _restoreDirectories = new ArrayList<String>();
     final List<String> _files = new ArrayList<String>();
+    final Map<String, Integer> _volumePageSizes = new HashMap<String, Integer>();
     private volatile String _backupStatus;
 
     @Cmd("backup")
@@ -83,9 +133,16 @@ public class BackupTask extends Task {
             @Arg("_flag|c|Request checkpoint before backup") final boolean checkpoint,
             @Arg("_flag|z|Compress output to ZIP format") final boolean compressed,
             @Arg("_flag|f|Emit a list of files that need to be copied") final boolean showFiles,
-            @Arg("_flag|y|Copyback pages before starting") final boolean copyback) throws Exception {
+            @Arg("_flag|y|Copyback pages before starting") final boolean copyback,
+            @Arg("dir|string|Backup directory path") final String dir,
+            @Arg("threads|int:1:1:64|Number of compression threads") final int threads,
+            @Arg("base|string|Directory of an earlier backup on which to base an incremental backup") final String base)
+            throws Exception {
         final BackupTask task = new BackupTask();
         task._toFile = file;
+        task._toDirectory = dir;
+        task._threads = threads;
+        task._baseDirectory = base;
         task._start = start;
         task._end = end;
         task._showFiles = showFiles;
@@ -95,15 +152,144 @@ public class BackupTask extends Task {
         return task;
     }
 
+    @Cmd("restore")
+    static Task setupRestoreTask(
+            @Arg("dirs|string|Backup directories separated by commas, full backup first") final String dirs)
+            throws Exception {
+        final BackupTask task = new BackupTask();
+        for (final String dir : dirs.split(",")) {
+            if (!dir.trim().isEmpty()) {
+                task._restoreDirectories.add(dir.trim());
+            }
+        }
+        return task;
+    }
+
+    /**
+     * Receives the content of each file in the backup set when a backup is
+     * performed through the parallel pipeline.
+     */
+    public interface BackupSink {
+        /**
+         * Open a stream to receive the content of one file. The caller writes
+         * the content and closes the stream before opening the next one.
+         * 
+         * @param path
+         *            absolute path of the file being backed up
+         * @param compressed
+         *            <code>true</code> if the content will be in gzip format
+         * @param pageImages
+         *            <code>true</code> if the content is the page images of a
+         *            volume written by an incremental backup rather than a
+         *            copy of the file
+         * @return the stream
+         * @throws IOException
+         */
+        OutputStream open(String path, boolean compressed, boolean pageImages) throws IOException;
+    }
+
+    /**
+     * Set the path of a directory to which files are copied by the parallel
+     * pipeline. The directory is created if necessary. A manifest named
+     * {@value #MANIFEST_NAME} records the original path of each copied file.
+     * 
+     * @param toDirectory
+     *            the directory path
+     */
+    public void setToDirectory(final String toDirectory) {
+        _toDirectory = toDirectory;
+    }
+
+    /**
+     * Set a {@link BackupSink} to receive the content of the files copied by
+     * the parallel pipeline.
+     * 
+     * @param sink
+     *            the sink
+     */
+    public void setSink(final BackupSink sink) {
+        _sink = sink;
+    }
+
+    /**
+     * Control whether files copied by the parallel pipeline are compressed.
+     * 
+     * @param compressed
+     *            <code>true</code> to write files in gzip format
+     */
+    public void setCompressed(final boolean compressed) {
+        _compressed = compressed;
+    }
+
+    /**
+     * Set the number of threads that compress chunks concurrently.
+     * 
+     * @param threads
+     *            the thread count, between 1 and {@value #MAX_THREADS}
+     */
+    public void setThreadCount(final int threads) {
+        _threads = Util.rangeCheck(threads, 1, MAX_THREADS);
+    }
+
+    /**
+     * Make the backup incremental: volumes are written as the images of only
+     * those pages whose timestamps are not earlier than the supplied base
+     * timestamp. Journal files are copied in full. The base timestamp is
+     * normally the {@link #getBackupTimestamp()} of an earlier backup.
+     * 
+     * @param baseTimestamp
+     *            the base timestamp, or -1 for a full backup
+     */
+    public void setBaseTimestamp(final long baseTimestamp) {
+        _baseTimestamp = baseTimestamp;
+    }
+
+    /**
+     * @return the base timestamp of an incremental backup, or -1 for a full
+     *         backup
+     */
+    public long getBaseTimestamp() {
+        return _baseTimestamp;
+    }
+
+    /**
+     * Return the timestamp of the last completed backup. Every page modified
+     * after the backup was taken, and every page whose image had not yet been
+     * copied from the journal to its volume, has a timestamp no earlier than
+     * this one, so it is a suitable base for a later incremental backup.
+     * 
+     * @return the backup timestamp, or -1 if no backup has been performed
+     */
+    public long getBackupTimestamp() {
+        return _backupTimestamp;
+    }
+
+    boolean isIncremental() {
+        return _baseTimestamp >= 0;
+    }
+
     private void validate() {
         if (_toFile == null) {
             _toFile = "";
         }
+        if (_toDirectory == null) {
+            _toDirectory = "";
+        }
     }
 
     @Override
     protected void runTask() throws Exception {
+        if (!_restoreDirectories.isEmpty()) {
+            doRestoreChain(_restoreDirectories);
+            return;
+        }
         validate();
+        if (_baseDirectory != null && !_baseDirectory.isEmpty()) {
+            _baseTimestamp = Manifest.read(new File(_baseDirectory))._timestamp;
+        }
+        if (isIncremental() && !_toFile.isEmpty()) {
+            throw new IllegalArgumentException("Incremental backup requires the dir argument");
+        }
         final Management management = _persistit.getManagement();
         final boolean wasAppendOnly = management.getJournalInfo().isAppendOnly();
         if (_checkpoint) {
@@ -123,15 +309,21 @@ public class BackupTask extends Task {
             postMessage((end - start) + " pages copied", 0);
         }
         try {
-            if (_showFiles || !_toFile.isEmpty()) {
+            if (_showFiles || !_toFile.isEmpty() || !_toDirectory.isEmpty() || _sink != null) {
                 management.setAppendOnly(true);
                 populateBackupFiles();
+                _backupTimestamp = _persistit.getJournalManager().getEarliestUncopiedTimestamp();
                 if (!_toFile.isEmpty()) {
                     doBackup();
+                } else if (!_toDirectory.isEmpty()) {
+                    doDirectoryBackup();
+                } else if (_sink != null) {
+                    doParallelBackup(_sink);
                 }
             }
         } catch (final Exception e) {
             _backupStatus = "Failed: " + e;
+            throw e;
         } finally {
             management.setAppendOnly(_start ? true : _end ? false : wasAppendOnly);
         }
@@ -148,6 +340,7 @@ public class BackupTask extends Task {
         for (final VolumeInfo info : volumes) {
             if (!info.isTransient()) {
                 _files.add(info.getPath());
+                _volumePageSizes.put(info.getPath(), info.getPageSize());
             }
         }
         final JournalInfo info = _persistit.getManagement().getJournalInfo();
@@ -217,6 +410,335 @@ public class BackupTask extends Task {
         }
     }
 
+    /**
+     * Copy the backup set into a directory through the parallel pipeline, then
+     * write a manifest that records the timestamp of the backup, its base
+     * timestamp if it is incremental, and the original path of each copied
+     * file.
+     * 
+     * @throws Exception
+     */
+    private void doDirectoryBackup() throws Exception {
+        final File directory = new File(_toDirectory);
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Unable to create directory " + directory);
+        }
+        final File manifestFile = new File(directory, MANIFEST_NAME);
+        if (manifestFile.exists() && !manifestFile.delete()) {
+            throw new IOException("Unable to delete " + manifestFile);
+        }
+        final List<String> manifest = new ArrayList<String>();
+        final Set<String> names = new HashSet<String>();
+        manifest.add(MANIFEST_TIMESTAMP + "\t" + _backupTimestamp);
+        if (isIncremental()) {
+            manifest.add(MANIFEST_BASE + "\t" + _baseTimestamp);
+        }
+        doParallelBackup(new BackupSink() {
+            @Override
+            public OutputStream open(final String path, final boolean compressed, final boolean pageImages)
+                    throws IOException {
+                final String suffix = (pageImages ? PAGES_SUFFIX : "") + (compressed ? GZIP_SUFFIX : "");
+                String name = new File(path).getName() + suffix;
+                for (int k = 1; !names.add(name); k++) {
+                    name = new File(path).getName() + "~" + k + suffix;
+                }
+                manifest.add(name + "\t" + path + (pageImages ? "\t" + MANIFEST_PAGES : ""));
+                return new FileOutputStream(new File(directory, name));
+            }
+        });
+        final PrintWriter pw = new PrintWriter(manifestFile);
+        try {
+            for (final String line : manifest) {
+                pw.println(line);
+            }
+        } finally {
+            pw.close();
+        }
+    }
+
+    /**
+     * Copy each file of the backup set to a stream opened by the supplied
+     * sink. The task's thread reads each file in chunks of
+     * {@value #CHUNK_SIZE} bytes; when compression is enabled, the chunks are
+     * compressed concurrently by a pool of threads and written in order. In
+     * an incremental backup each volume is written as page images.
+     * 
+     * @param sink
+     *            the {@link BackupSink} that receives the files
+     * @throws Exception
+     */
+    private void doParallelBackup(final BackupSink sink) throws Exception {
+        long size = 0;
+        for (final String file : _files) {
+            size += new File(file).length();
+        }
+        postMessage("Total size of files in backup set: " + formatedSize(size), 0);
+        final ExecutorService executor = _compressed ? Executors.newFixedThreadPool(_threads,
+                new BackupThreadFactory()) : null;
+        final long start = System.nanoTime();
+        long total = 0;
+        try {
+            for (final String path : _files) {
+                final File file = new File(path);
+                final Integer pageSize = isIncremental() ? _volumePageSizes.get(path) : null;
+                postMessage("Backing up " + path + " size=" + formatedSize(file.length()), 1);
+                final OutputStream sinkStream = sink.open(path, _compressed, pageSize != null);
+                final OutputStream os = executor == null ? new BufferedOutputStream(sinkStream, BUFFER_SIZE)
+                        : new ParallelGzipOutputStream(sinkStream, executor);
+                try {
+                    if (pageSize != null) {
+                        total += writePageImages(file, pageSize, os, start, total);
+                    } else {
+                        total += copyFile(file, os, start, total);
+                    }
+                } finally {
+                    os.close();
+                }
+            }
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+        postMessage("Backup of " + _files.size() + " files completed: " + formatedSize(total) + " at "
+                + formatedRate(total, System.nanoTime() - start), 0);
+    }
+
+    private long copyFile(final File file, final OutputStream os, final long start, final long priorBytes)
+            throws Exception {
+        final byte[] bytes = new byte[CHUNK_SIZE];
+        final FileInputStream is = new FileInputStream(file);
+        long fileSize = 0;
+        long progress = 0;
+        try {
+            final FileChannel channel = is.getChannel();
+            while (true) {
+                poll();
+                final ByteBuffer bb = ByteBuffer.wrap(bytes);
+                while (bb.hasRemaining() && channel.read(bb) != -1) {
+                    // fill the chunk
+                }
+                if (bb.position() == 0) {
+                    break;
+                }
+                os.write(bytes, 0, bb.position());
+                fileSize += bb.position();
+                progress += bb.position();
+                if (progress > PROGRESS_MARK_AT) {
+                    progress -= PROGRESS_MARK_AT;
+                    appendMessage(" (" + formatedSize(fileSize) + " "
+                            + formatedRate(priorBytes + fileSize, System.nanoTime() - start) + ")", 1);
+                }
+            }
+        } finally {
+            is.close();
+        }
+        return fileSize;
+    }
+
+    /**
+     * Write the pages of a volume file whose timestamps are not earlier than
+     * the base timestamp, plus the volume header page, in the page image
+     * format: a header holding {@value #PAGE_IMAGE_SIGNATURE}, the page size,
+     * the base timestamp and the page count of the volume file, followed by
+     * (page address, page image) pairs and a terminating address of -1.
+     * 
+     * @return the number of bytes read from the volume file
+     */
+    private long writePageImages(final File file, final int pageSize, final OutputStream os, final long start,
+            final long priorBytes) throws Exception {
+        final DataOutputStream dos = new DataOutputStream(os);
+        final byte[] bytes = new byte[Math.max(1, CHUNK_SIZE / pageSize) * pageSize];
+        final byte[] scratch = new byte[pageSize];
+        final PageCompressor compressor = new PageCompressor(pageSize);
+        final FileInputStream is = new FileInputStream(file);
+        long page = 0;
+        long written = 0;
+        long progress = 0;
+        try {
+            final FileChannel channel = is.getChannel();
+            final long pageCount = channel.size() / pageSize;
+            dos.writeInt(PAGE_IMAGE_SIGNATURE);
+            dos.writeInt(pageSize);
+            dos.writeLong(_baseTimestamp);
+            dos.writeLong(pageCount);
+            while (page < pageCount) {
+                poll();
+                final int length = (int) Math.min(bytes.length, (pageCount - page) * pageSize);
+                final ByteBuffer bb = ByteBuffer.wrap(bytes, 0, length);
+                while (bb.hasRemaining() && channel.read(bb, page * pageSize + bb.position()) != -1) {
+                    // fill the chunk
+                }
+                final int count = bb.position() / pageSize;
+                if (count == 0) {
+                    break;
+                }
+                for (int index = 0; index < count; index++, page++) {
+                    final int offset = index * pageSize;
+                    if (page == 0 || pageTimestamp(bytes, offset, scratch, compressor, page) >= _baseTimestamp) {
+                        dos.writeLong(page);
+                        dos.write(bytes, offset, pageSize);
+                        written++;
+                    }
+                }
+                progress += count * pageSize;
+                if (progress > PROGRESS_MARK_AT) {
+                    progress -= PROGRESS_MARK_AT;
+                    appendMessage(" (" + formatedSize(page * pageSize) + " "
+                            + formatedRate(priorBytes + page * pageSize, System.nanoTime() - start) + ")", 1);
+                }
+            }
+            dos.writeLong(-1);
+            dos.flush();
+        } finally {
+            compressor.close();
+            is.close();
+        }
+        postMessage(String.format("  %,d of %,d pages changed since timestamp %,d", written, page, _baseTimestamp),
+                1);
+        return page * pageSize;
+    }
+
+    /**
+     * Read the timestamp of a page image as stored in a volume file,
+     * expanding it first if the volume is compressed.
+     * 
+     * @return the timestamp, or <code>Long.MAX_VALUE</code> if a compressed
+     *         image cannot be expanded, so that the page is copied
+     */
+    private long pageTimestamp(final byte[] bytes, final int offset, final byte[] scratch,
+            final PageCompressor compressor, final long page) {
+        if ((bytes[offset] & 0xFF) == PageCompressor.COMPRESSED_PAGE_TYPE) {
+            System.arraycopy(bytes, offset, scratch, 0, scratch.length);
+            try {
+                compressor.expand(scratch, page);
+            } catch (final InvalidPageStructureException e) {
+                return Long.MAX_VALUE;
+            }
+            return Util.getLong(scratch, Buffer.TIMESTAMP_OFFSET);
+        }
+        return Util.getLong(bytes, offset + Buffer.TIMESTAMP_OFFSET);
+    }
+
+    /**
+     * Collects written bytes into chunks of {@value #CHUNK_SIZE} bytes, which
+     * are compressed concurrently by an <code>ExecutorService</code> and
+     * written to the underlying stream in order as complete gzip members. At
+     * most two chunks per thread are in flight.
+     */
+    private class ParallelGzipOutputStream extends OutputStream {
+
+        private final OutputStream _out;
+        private final ExecutorService _executor;
+        private final ArrayDeque<Future<ChunkCompressor>> _pending = new ArrayDeque<Future<ChunkCompressor>>();
+        private final ArrayDeque<byte[]> _free = new ArrayDeque<byte[]>();
+        private byte[] _chunk;
+        private int _length;
+
+        ParallelGzipOutputStream(final OutputStream out, final ExecutorService executor) {
+            _out = out;
+            _executor = executor;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            write(new byte[] { (byte) b }, 0, 1);
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            int from = offset;
+            int remaining = length;
+            while (remaining > 0) {
+                if (_chunk == null) {
+                    _chunk = _free.isEmpty() ? new byte[CHUNK_SIZE] : _free.poll();
+                    _length = 0;
+                }
+                final int size = Math.min(remaining, CHUNK_SIZE - _length);
+                System.arraycopy(bytes, from, _chunk, _length, size);
+                _length += size;
+                from += size;
+                remaining -= size;
+                if (_length == CHUNK_SIZE) {
+                    submit();
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (_length > 0) {
+                    submit();
+                }
+                drain(true);
+            } finally {
+                for (final Future<ChunkCompressor> future : _pending) {
+                    future.cancel(false);
+                }
+                _out.close();
+            }
+        }
+
+        private void submit() throws IOException {
+            _pending.add(_executor.submit(new ChunkCompressor(_chunk, _length)));
+            _chunk = null;
+            _length = 0;
+            drain(false);
+        }
+
+        private void drain(final boolean all) throws IOException {
+            while (_pending.size() > _threads * 2 || !_pending.isEmpty() && (all || _pending.peek().isDone())) {
+                final ChunkCompressor chunk;
+                try {
+                    chunk = _pending.poll().get();
+                } catch (final ExecutionException e) {
+                    throw new IOException(e.getCause());
+                } catch (final InterruptedException e) {
+                    throw new IOException(e);
+                }
+                chunk._compressed.writeTo(_out);
+                _free.add(chunk._bytes);
+            }
+        }
+    }
+
+    /**
+     * Compresses one chunk of a file into a complete gzip member.
+     */
+    private static class ChunkCompressor implements Callable<ChunkCompressor> {
+
+        private final byte[] _bytes;
+        private final int _length;
+        private final ByteArrayOutputStream _compressed;
+
+        ChunkCompressor(final byte[] bytes, final int length) {
+            _bytes = bytes;
+            _length = length;
+            _compressed = new ByteArrayOutputStream(length / 2);
+        }
+
+        @Override
+        public ChunkCompressor call() throws IOException {
+            final GZIPOutputStream gos = new GZIPOutputStream(_compressed, 65536);
+            gos.write(_bytes, 0, _length);
+            gos.close();
+            return this;
+        }
+    }
+
+    private static class BackupThreadFactory implements ThreadFactory {
+
+        private final static AtomicInteger COUNTER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "BACKUP_COMPRESSOR:" + COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     /**
      * A convenience method for unit tests to unzip a backup created by
      * {@link #doBackup()}. In production it is expected a backup produced by
@@ -226,6 +748,10 @@ public class BackupTask extends Task {
      */
     public void doRestore(final String path) throws Exception {
         final File zipFile = new File(path);
+        if (zipFile.isDirectory()) {
+            doRestoreFromDirectory(Manifest.read(zipFile));
+            return;
+        }
         final byte[] buffer = new byte[65536];
         postMessage("Unzipping files from " + zipFile + " size=" + formatedSize(zipFile.length()), 0);
         final ZipInputStream zis = new ZipInputStream(
@@ -255,6 +781,156 @@ public class BackupTask extends Task {
         zis.close();
     }
 
+    /**
+     * Restore a full backup followed by a chain of incremental backups, each
+     * created in a directory. Each incremental backup must be based on a
+     * timestamp no later than that of the backup preceding it in the chain.
+     * 
+     * @param directories
+     *            the backup directories, full backup first
+     * @throws Exception
+     */
+    public void doRestoreChain(final List<String> directories) throws Exception {
+        final List<Manifest> manifests = new ArrayList<Manifest>();
+        for (final String path : directories) {
+            final Manifest manifest = Manifest.read(new File(path));
+            if (manifests.isEmpty()) {
+                if (manifest._base >= 0) {
+                    throw new IOException("Backup " + path
+                            + " is incremental; the chain must start with a full backup");
+                }
+            } else {
+                final Manifest previous = manifests.get(manifests.size() - 1);
+                if (manifest._base < 0) {
+                    throw new IOException("Backup " + path + " is not incremental");
+                }
+                if (manifest._base > previous._timestamp) {
+                    throw new IOException(String.format("Backup %s is based on timestamp %,d which is later than "
+                            + "timestamp %,d of the preceding backup", path, manifest._base, previous._timestamp));
+                }
+            }
+            manifests.add(manifest);
+        }
+        for (final Manifest manifest : manifests) {
+            doRestoreFromDirectory(manifest);
+        }
+    }
+
+    /**
+     * Restore the files listed in the manifest of a directory created by a
+     * directory backup to their original paths, expanding compressed files.
+     * The page images of an incremental backup are written into the existing
+     * volume files.
+     * 
+     * @throws Exception
+     */
+    private void doRestoreFromDirectory(final Manifest manifest) throws Exception {
+        final byte[] buffer = new byte[65536];
+        for (final String[] entry : manifest._entries) {
+            final String name = entry[0];
+            final File file = new File(entry[1]);
+            final boolean pageImages = entry.length > 2 && MANIFEST_PAGES.equals(entry[2]);
+            postMessage("Restoring " + file + " from " + name, 0);
+            if (pageImages && !file.exists()) {
+                throw new IOException("Volume file " + file + " must be restored from a full backup before "
+                        + "applying incremental backup " + manifest._directory);
+            }
+            if (!pageImages && file.exists()) {
+                rename(file);
+            }
+            InputStream is = new BufferedInputStream(new FileInputStream(new File(manifest._directory, name)),
+                    BUFFER_SIZE);
+            try {
+                if (name.endsWith(GZIP_SUFFIX)) {
+                    is = new GZIPInputStream(is, 65536);
+                }
+                if (pageImages) {
+                    applyPageImages(is, file);
+                } else {
+                    final OutputStream os = new BufferedOutputStream(new FileOutputStream(file, false), BUFFER_SIZE);
+                    try {
+                        int count;
+                        while ((count = is.read(buffer)) != -1) {
+                            os.write(buffer, 0, count);
+                        }
+                    } finally {
+                        os.close();
+                    }
+                }
+            } finally {
+                is.close();
+            }
+        }
+    }
+
+    /**
+     * Write page images created by {@link #writePageImages} into a volume
+     * file, then set the length of the file to the page count recorded when
+     * the images were taken.
+     */
+    private void applyPageImages(final InputStream is, final File file) throws IOException {
+        final DataInputStream dis = new DataInputStream(is);
+        if (dis.readInt() != PAGE_IMAGE_SIGNATURE) {
+            throw new IOException("Invalid page image signature for " + file);
+        }
+        final int pageSize = dis.readInt();
+        dis.readLong();
+        final long pageCount = dis.readLong();
+        final byte[] bytes = new byte[pageSize];
+        final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        long count = 0;
+        try {
+            for (long page = dis.readLong(); page != -1; page = dis.readLong()) {
+                dis.readFully(bytes);
+                raf.seek(page * pageSize);
+                raf.write(bytes);
+                count++;
+            }
+            raf.setLength(pageCount * pageSize);
+        } finally {
+            raf.close();
+        }
+        appendMessage(String.format(" (%,d pages)", count), 0);
+    }
+
+    /**
+     * The content of the manifest written by a directory backup.
+     */
+    private static class Manifest {
+        final File _directory;
+        long _timestamp = -1;
+        long _base = -1;
+        final List<String[]> _entries = new ArrayList<String[]>();
+
+        private Manifest(final File directory) {
+            _directory = directory;
+        }
+
+        static Manifest read(final File directory) throws IOException {
+            final Manifest manifest = new Manifest(directory);
+            final BufferedReader reader = new BufferedReader(new FileReader(new File(directory, MANIFEST_NAME)));
+            try {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    final String[] fields = line.split("\t");
+                    if (fields.length < 2) {
+                        continue;
+                    }
+                    if (MANIFEST_TIMESTAMP.equals(fields[0])) {
+                        manifest._timestamp = Long.parseLong(fields[1]);
+                    } else if (MANIFEST_BASE.equals(fields[0])) {
+                        manifest._base = Long.parseLong(fields[1]);
+                    } else {
+                        manifest._entries.add(fields);
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+            return manifest;
+        }
+    }
+
     private void rename(final File file) throws Exception {
         for (int k = 0; k < 1000; k++) {
             final String candidate = k == 0 ? file.getAbsolutePath() + "~" : file.getAbsoluteFile() + "~" + k;
@@ -277,6 +953,10 @@ public class BackupTask extends Task {
         return String.format("%,d", value) + " KMGTPE".substring(scale, scale + 1);
     }
 
+    private String formatedRate(final long bytes, final long elapsedNanos) {
+        return formatedSize(elapsedNanos > 0 ? (long) ((double) bytes * Util.NS_PER_S / elapsedNanos) : 0) + "/s";
+    }
+
     @Override
     public String getStatus() {
         return _backupStatus;
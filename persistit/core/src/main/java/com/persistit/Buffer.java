@@ -529,6 +529,28 @@ public class Buffer extends SharedResource {
         }
     }
 
+    /**
+     * Write the page directly to its volume file, bypassing the journal, and
+     * leave the buffer clean. This is safe only for a page that has never been
+     * written to the journal, such as a page built by {@link BulkLoader} in
+     * newly allocated space at the end of the volume.
+     * 
+     * @param timestamp
+     *            the timestamp to record in the page
+     */
+    void writePageToVolume(final long timestamp) throws PersistitException {
+        assert isOwnedAsWriterByMe();
+        assert !isDirty() : "Dirty page must be written through the journal: " + this;
+        _persistit.checkFatal();
+        _timestamp = timestamp;
+        clearSlack();
+        save();
+        _byteBuffer.position(0).limit(_bufferSize);
+        _vol.getStorage().writePage(_byteBuffer, _page);
+        _vol.getStatistics().bumpWriteCounter();
+        _pool.bumpWriteCounter();
+    }
+
     @Override
     boolean clearDirty() {
         if (super.clearDirty()) {
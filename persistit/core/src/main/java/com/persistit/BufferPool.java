@@ -28,6 +28,15 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -61,6 +70,16 @@ public class BufferPool {
 
     private final static int PAGE_WRITER_TRANCHE_SIZE = 5000;
 
+    /**
+     * Default PageReader polling interval
+     */
+    private final static long DEFAULT_READER_POLL_INTERVAL = 1000;
+
+    /**
+     * Maximum number of read-ahead requests waiting for PAGE_READER
+     */
+    private final static int PREFETCH_QUEUE_SIZE = 1024;
+
     /**
      * Sleep time when buffers are exhausted
      */
@@ -80,11 +99,22 @@ public class BufferPool {
      */
     public final static int MAXIMUM_POOL_COUNT = Integer.MAX_VALUE;
 
+    /**
+     * Maximum number of threads used to preload this pool
+     */
+    public final static int MAXIMUM_PRELOAD_THREADS = 64;
+
     /**
      * The maximum number of lock buckets
      */
     private final static int HASH_LOCKS = 4096;
 
+    /**
+     * Minimum number of buffers in each clock segment when the segment count
+     * is computed automatically
+     */
+    final static int MINIMUM_SEGMENT_SIZE = 1024;
+
     /**
      * Ratio determines which of two volume invalidation algorithms to invoke.
      */
@@ -106,6 +136,11 @@ public class BufferPool {
      */
     private final static long INVENTORY_PRELOAD_LOG_MESSAGE_NS = 60L * NS_PER_S;
 
+    /**
+     * Maximum size of one read of adjacent pages while preloading
+     */
+    private final static int PRELOAD_RUN_BYTES = 1024 * 1024;
+
     /**
      * The Persistit instance that references this BufferPool.
      */
@@ -142,7 +177,16 @@ public class BufferPool {
      */
     private final AtomicLongArray _availablePagesBits;
 
-    private final AtomicBoolean _availablePages = new AtomicBoolean();
+    /**
+     * Partitions of the buffer array, each with its own clock hand and
+     * available-page indicator
+     */
+    private final Segment[] _segments;
+
+    /**
+     * Number of buffers in each segment except possibly the last
+     */
+    private final int _segmentSize;
 
     /**
      * The maximum number of keys allowed Buffers in this pool
@@ -150,9 +194,9 @@ public class BufferPool {
     private final int _maxKeys;
 
     /**
-     * Pointer to next location to look for a replacement buffer
+     * Policy that decides which buffer the clock hand replaces
      */
-    private final AtomicInteger _clock = new AtomicInteger();
+    private volatile EvictionPolicy _evictionPolicy;
 
     /**
      * Count of buffer pool misses (buffer not found in pool)
@@ -164,6 +208,13 @@ public class BufferPool {
      */
     private final AtomicLong _hitCounter = new AtomicLong();
 
+    /**
+     * Counts of buffer pool hits and misses by {@link PageCategory}
+     */
+    private final StripedCounters _pageHitCounters = new StripedCounters(PageCategory.values().length);
+
+    private final StripedCounters _pageMissCounters = new StripedCounters(PageCategory.values().length);
+
     /**
      * Count of newly created pages
      */
@@ -174,6 +225,12 @@ public class BufferPool {
      */
     private final AtomicLong _evictCounter = new AtomicLong();
 
+    /**
+     * Count of buffers allocated from a segment other than the requesting
+     * thread's home segment
+     */
+    private final AtomicLong _stealCounter = new AtomicLong();
+
     /**
      * Count of dirty pages
      */
@@ -198,6 +255,11 @@ public class BufferPool {
      */
     private final AtomicBoolean _closed = new AtomicBoolean(false);
 
+    /**
+     * Set to stop a preload running in the background
+     */
+    private volatile boolean _stopPreload;
+
     /**
      * Oldest update timestamp found during PAGE_WRITER's most recent scan.
      */
@@ -221,6 +283,97 @@ public class BufferPool {
      */
     private PageWriter _writer;
 
+    /**
+     * The PAGE_READER IOTaskRunnable
+     */
+    private PageReader _reader;
+
+    /**
+     * Pages queued for read-ahead by {@link #prefetch(Volume, long[], int)}
+     */
+    private final BlockingQueue<PrefetchRequest> _prefetchQueue = new ArrayBlockingQueue<PrefetchRequest>(
+            PREFETCH_QUEUE_SIZE);
+
+    /**
+     * A contiguous range of buffers with its own clock hand. Each thread
+     * prefers a home segment chosen by its thread id so that threads missing
+     * at the same time do not contend on a single clock hand, but allocates
+     * from another segment when its home segment has turned over more of its
+     * buffers. See {@link BufferPool#allocBuffer()}.
+     */
+    static class Segment {
+        /**
+         * Index of first buffer in the segment
+         */
+        private final int _start;
+        /**
+         * Index following the last buffer in the segment
+         */
+        private final int _end;
+        /**
+         * Pointer to next location to look for a replacement buffer
+         */
+        private final AtomicInteger _clock;
+        /**
+         * Indicates that the segment may contain invalidated buffers
+         */
+        private final AtomicBoolean _availablePages = new AtomicBoolean();
+        /**
+         * Count of buffers allocated from this segment
+         */
+        private final AtomicLong _allocations = new AtomicLong();
+
+        Segment(final int start, final int end) {
+            _start = start;
+            _end = end;
+            _clock = new AtomicInteger(start);
+        }
+
+        int getStart() {
+            return _start;
+        }
+
+        int getEnd() {
+            return _end;
+        }
+
+        int size() {
+            return _end - _start;
+        }
+
+        long getAllocations() {
+            return _allocations.get();
+        }
+
+        /**
+         * @return <code>true</code> if this segment has allocated fewer buffers
+         *         in proportion to its size than the other segment
+         */
+        boolean isLessPressedThan(final Segment other) {
+            return _allocations.get() * other.size() < other._allocations.get() * size();
+        }
+
+        /**
+         * Advance the clock hand by one position.
+         *
+         * @return the position of the hand before it was advanced
+         */
+        int advance() {
+            for (;;) {
+                final int clock = _clock.get();
+                final int next = clock + 1 == _end ? _start : clock + 1;
+                if (_clock.compareAndSet(clock, next)) {
+                    return clock;
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Segment[" + _start + "-" + _end + "] clock=" + _clock.get();
+        }
+    }
+
     /**
      * Construct a BufferPool with the specified count of <code>Buffer</code>s
      * of the specified size.
@@ -231,6 +384,23 @@ public class BufferPool {
      *            The size (in bytes) of each buffer
      */
     BufferPool(final int count, final int size, final Persistit persistit) {
+        this(count, size, 1, persistit);
+    }
+
+    /**
+     * Construct a BufferPool with the specified count of <code>Buffer</code>s
+     * of the specified size divided into the specified number of clock
+     * segments.
+     *
+     * @param count
+     *            The number of buffers in the pool
+     * @param size
+     *            The size (in bytes) of each buffer
+     * @param segments
+     *            number of clock segments, or zero to choose a number based on
+     *            the buffer count and the number of available processors
+     */
+    BufferPool(final int count, final int size, final int segments, final Persistit persistit) {
         _persistit = persistit;
         if (count < MINIMUM_POOL_COUNT) {
             throw new IllegalArgumentException("Buffer pool count too small: " + count);
@@ -254,6 +424,19 @@ public class BufferPool {
         _bufferSize = size;
         _buffers = new Buffer[_bufferCount];
         _availablePagesBits = new AtomicLongArray((count + 63) / 64);
+        /*
+         * Segment boundaries fall on 64-buffer multiples so that each word of
+         * the available page bit map belongs to exactly one segment.
+         */
+        int segmentCount = segments > 0 ? segments : Math.min(Runtime.getRuntime().availableProcessors(), count
+                / MINIMUM_SEGMENT_SIZE);
+        segmentCount = Math.max(1, Math.min(segmentCount, count / 64));
+        _segmentSize = ((count + segmentCount - 1) / segmentCount + 63) / 64 * 64;
+        segmentCount = (count + _segmentSize - 1) / _segmentSize;
+        _segments = new Segment[segmentCount];
+        for (int index = 0; index < segmentCount; index++) {
+            _segments[index] = new Segment(index * _segmentSize, Math.min(count, (index + 1) * _segmentSize));
+        }
         _hashTable = new Buffer[_bufferCount * HASH_MULTIPLE];
         _hashLocks = new ReentrantLock[HASH_LOCKS];
         _maxKeys = (_bufferSize - Buffer.HEADER_SIZE) / Buffer.MAX_KEY_RATIO;
@@ -290,15 +473,21 @@ public class BufferPool {
             System.err.println(_persistit.getAvailableHeap());
             throw e;
         }
+        _evictionPolicy = EvictionPolicy.create(EvictionPolicy.CLOCK_NAME, _bufferCount);
         _writer = new PageWriter();
+        _reader = new PageReader();
     }
 
     void startThreads() throws PersistitException {
         _writer.start();
+        _reader.start();
     }
 
     void close() {
         _closed.set(true);
+        _persistit.waitForIOTaskStop(_reader);
+        _prefetchQueue.clear();
+        _reader = null;
         _persistit.waitForIOTaskStop(_writer);
         _writer = null;
     }
@@ -308,6 +497,7 @@ public class BufferPool {
      * collector threads. This method should be used only by tests.
      */
     void crash() {
+        IOTaskRunnable.crash(_reader);
         IOTaskRunnable.crash(_writer);
     }
 
@@ -323,6 +513,18 @@ public class BufferPool {
         return _flushTimestamp.get() != 0;
     }
 
+    Segment segment(final int index) {
+        return _segments[index / _segmentSize];
+    }
+
+    /**
+     * @return Position of the first segment's clock hand. Used as the starting
+     *         point of full scans of the buffer array.
+     */
+    int clockPosition() {
+        return _segments[0]._clock.get();
+    }
+
     int hashIndex(final Volume vol, final long page) {
         return (int) (((page ^ vol.hashCode()) & Integer.MAX_VALUE) % _hashTable.length);
     }
@@ -350,6 +552,10 @@ public class BufferPool {
         info.writeCount = _writeCounter.get();
         info.forcedCheckpointWriteCount = _forcedCheckpointWriteCounter.get();
         info.forcedWriteCount = _forcedWriteCounter.get();
+        info.evictionPolicy = _evictionPolicy.getName();
+        info.ghostHitCount = _evictionPolicy.getGhostHitCounter();
+        info.segmentCount = _segments.length;
+        info.stealCount = _stealCounter.get();
         int validPages = 0;
         int readerClaimedPages = 0;
         int writerClaimedPages = 0;
@@ -441,6 +647,26 @@ public class BufferPool {
         return _hitCounter.get();
     }
 
+    /**
+     * @param category
+     *            the kind of page
+     * @return The portion of the hit counter for pages of the specified
+     *         category
+     */
+    public long getPageHitCounter(final PageCategory category) {
+        return _pageHitCounters.get(category.ordinal());
+    }
+
+    /**
+     * @param category
+     *            the kind of page
+     * @return The portion of the miss counter for pages of the specified
+     *         category
+     */
+    public long getPageMissCounter(final PageCategory category) {
+        return _pageMissCounters.get(category.ordinal());
+    }
+
     /**
      * @return The count of buffers newly created in this pool. Each time a new
      *         page is added to a Volume, this counter is incremented.
@@ -473,26 +699,88 @@ public class BufferPool {
         return _forcedCheckpointWriteCounter.get();
     }
 
+    /**
+     * @return The number of segments, each with its own clock hand, into
+     *         which this pool is partitioned
+     */
+    public int getSegmentCount() {
+        return _segments.length;
+    }
+
+    /**
+     * @return The count of buffers allocated from a segment other than the
+     *         requesting thread's home segment, either because another
+     *         segment was under less pressure or because the home segment had
+     *         no buffer available
+     */
+    public long getStealCounter() {
+        return _stealCounter.get();
+    }
+
+    /**
+     * @return The name of the policy used to select buffers for replacement
+     */
+    public String getEvictionPolicy() {
+        return _evictionPolicy.getName();
+    }
+
+    /**
+     * Replace the policy used to select buffers for replacement. The new
+     * policy starts with no history.
+     *
+     * @param name
+     *            Name of the policy
+     * @throws IllegalArgumentException
+     *             if there is no policy with the supplied name
+     */
+    void setEvictionPolicy(final String name) {
+        _evictionPolicy = EvictionPolicy.create(name, _bufferCount);
+    }
+
+    /**
+     * @return The count of pages read into this pool that had recently been
+     *         evicted from it. A high ghost hit count relative to the miss
+     *         count indicates that the eviction policy is discarding pages
+     *         that are still in use.
+     */
+    public long getGhostHitCounter() {
+        return _evictionPolicy.getGhostHitCounter();
+    }
+
     /**
      * Resets the get and hit counters to zero.
      */
     public void resetCounters() {
         _missCounter.set(0);
         _hitCounter.set(0);
+        _pageHitCounters.reset();
+        _pageMissCounters.reset();
         _newCounter.set(0);
         _evictCounter.set(0);
+        _stealCounter.set(0);
+        _evictionPolicy.resetCounters();
     }
 
     int getMaxKeys() {
         return _maxKeys;
     }
 
-    private void bumpHitCounter() {
+    private void bumpHitCounter(final Buffer buffer, final Tree tree) {
         _hitCounter.incrementAndGet();
+        final PageCategory category = PageCategory.forPageType(buffer.getPageType());
+        _pageHitCounters.increment(category.ordinal());
+        if (tree != null) {
+            tree.getStatistics().bumpPageHitCounter(category);
+        }
     }
 
-    private void bumpMissCounter() {
+    private void bumpMissCounter(final Buffer buffer, final Tree tree) {
         _missCounter.incrementAndGet();
+        final PageCategory category = PageCategory.forPageType(buffer.getPageType());
+        _pageMissCounters.increment(category.ordinal());
+        if (tree != null) {
+            tree.getStatistics().bumpPageMissCounter(category);
+        }
     }
 
     private void bumpNewCounter() {
@@ -558,7 +846,6 @@ public class BufferPool {
 
     boolean invalidateSmallVolume(final Volume volume, final boolean mustWrite) throws PersistitException {
         boolean result = true;
-        int markedAvailable = 0;
         for (long page = 1; page < volume.getStorage().getNextAvailablePage(); page++) {
             final int hashIndex = hashIndex(volume, page);
             _hashLocks[hashIndex % HASH_LOCKS].lock();
@@ -585,7 +872,7 @@ public class BufferPool {
                                 final int p = buffer.getIndex() % 64;
                                 final long bits = _availablePagesBits.get(q);
                                 if (_availablePagesBits.compareAndSet(q, bits, bits | (1L << p))) {
-                                    markedAvailable++;
+                                    segment(buffer.getIndex())._availablePages.set(true);
                                 }
                             }
                         } else {
@@ -597,16 +884,12 @@ public class BufferPool {
                 _hashLocks[hashIndex % HASH_LOCKS].unlock();
             }
         }
-        if (markedAvailable > 0) {
-            _availablePages.set(true);
-        }
         return result;
 
     }
 
     boolean invalidateLargeVolume(final Volume volume, final boolean mustWrite) throws PersistitException {
         boolean result = true;
-        int markedAvailable = 0;
         for (int index = 0; index < _bufferCount; index++) {
             final Buffer buffer = _buffers[index];
             if ((buffer.getVolume() == volume || volume == null) && !buffer.isFixed() && buffer.isValid()) {
@@ -629,7 +912,7 @@ public class BufferPool {
                         final int p = buffer.getIndex() % 64;
                         final long bits = _availablePagesBits.get(q);
                         if (_availablePagesBits.compareAndSet(q, bits, bits | (1L << p))) {
-                            markedAvailable++;
+                            segment(buffer.getIndex())._availablePages.set(true);
                         }
                     }
                 } else {
@@ -637,9 +920,6 @@ public class BufferPool {
                 }
             }
         }
-        if (markedAvailable > 0) {
-            _availablePages.set(true);
-        }
         return result;
     }
 
@@ -741,6 +1021,36 @@ public class BufferPool {
      */
     Buffer get(final Volume vol, final long page, final boolean writer, final boolean wantRead, final long timeout)
             throws PersistitException {
+        return get(vol, page, writer, wantRead, timeout, null);
+    }
+
+    /**
+     * Find or load a page given its Volume and address, as
+     * {@link #get(Volume, long, boolean, boolean, long)}, and charge the hit or
+     * miss to the statistics of the supplied <code>Tree</code>.
+     *
+     * @param vol
+     *            The Volume
+     * @param page
+     *            The address of the page
+     * @param writer
+     *            <i>true</i> if a write lock is required.
+     * @param wantRead
+     *            <i>true</i> if the caller wants the page read from disk.
+     *            <i>false</i> to allocate a new blank page.)
+     * @param timeout
+     *            maximum time to wait for the page to become available before
+     *            throwing an InUseException
+     * @param tree
+     *            The Tree to which the page belongs, or <code>null</code> if
+     *            it is not known
+     * @return Buffer The Buffer describing the buffer containing the page.
+     * @throws InUseException
+     *             if the specific lock could not be acquired within the
+     *             specified timeout
+     */
+    Buffer get(final Volume vol, final long page, final boolean writer, final boolean wantRead, final long timeout,
+            final Tree tree) throws PersistitException {
         final int hash = hashIndex(vol, page);
         Buffer buffer = null;
 
@@ -760,7 +1070,8 @@ public class BufferPool {
                         //
                         if (buffer.claim(writer, 0)) {
                             vol.getStatistics().bumpGetCounter();
-                            bumpHitCounter();
+                            bumpHitCounter(buffer, tree);
+                            notePrefetchHit(buffer);
                             assert !buffer.isOwnedAsWriterByOther();
                             return buffer;
                         } else {
@@ -776,27 +1087,7 @@ public class BufferPool {
                     // Page not found. Allocate an available buffer and read
                     // in the page from the Volume.
                     //
-                    buffer = allocBuffer();
-                    Debug.$assert1.t(!buffer.isDirty());
-                    Debug.$assert0.t(buffer != _hashTable[hash]);
-                    Debug.$assert0.t(buffer.getNext() != buffer);
-
-                    buffer.setPageAddressAndVolume(page, vol);
-                    buffer.setNext(_hashTable[hash]);
-                    _hashTable[hash] = buffer;
-                    //
-                    // It's not really valid yet, but it does have a writer
-                    // claim on it so no other Thread can access it. In the
-                    // meantime, any other Thread seeking access to the same
-                    // page will find it.
-                    //
-                    buffer.setValid();
-                    if (vol.isTemporary() || vol.isLockVolume()) {
-                        buffer.setTemporary();
-                    } else {
-                        buffer.clearTemporary();
-                    }
-                    Debug.$assert0.t(buffer.getNext() != buffer);
+                    buffer = install(vol, page, hash, wantRead);
                 }
             } finally {
                 _hashLocks[hash % HASH_LOCKS].unlock();
@@ -828,7 +1119,8 @@ public class BufferPool {
                         // If so, then we're done.
                         //
                         vol.getStatistics().bumpGetCounter();
-                        bumpHitCounter();
+                        bumpHitCounter(buffer, tree);
+                        notePrefetchHit(buffer);
                         assert !buffer.isOwnedAsWriterByOther();
                         return buffer;
                     } else {
@@ -862,7 +1154,7 @@ public class BufferPool {
                         buffer.load(vol, page);
                         loaded = true;
                         vol.getStatistics().bumpGetCounter();
-                        bumpMissCounter();
+                        bumpMissCounter(buffer, tree);
                     } finally {
                         if (!loaded) {
                             invalidate(buffer);
@@ -882,6 +1174,154 @@ public class BufferPool {
         }
     }
 
+    /**
+     * Allocate a buffer for a page that is not in the pool and put it on the
+     * hash chain. The caller must hold the hash lock. The returned buffer has
+     * a writer claim held by this thread.
+     */
+    private Buffer install(final Volume vol, final long page, final int hash, final boolean wantRead)
+            throws PersistitException {
+        return install(vol, page, hash, wantRead, allocBuffer());
+    }
+
+    private Buffer install(final Volume vol, final long page, final int hash, final boolean wantRead,
+            final Buffer buffer) {
+        Debug.$assert1.t(!buffer.isDirty());
+        Debug.$assert0.t(buffer != _hashTable[hash]);
+        Debug.$assert0.t(buffer.getNext() != buffer);
+
+        buffer.setPageAddressAndVolume(page, vol);
+        buffer.clearPrefetched();
+        buffer.setNext(_hashTable[hash]);
+        _hashTable[hash] = buffer;
+        _evictionPolicy.admit(buffer, wantRead);
+        //
+        // It's not really valid yet, but it does have a writer
+        // claim on it so no other Thread can access it. In the
+        // meantime, any other Thread seeking access to the same
+        // page will find it.
+        //
+        buffer.setValid();
+        if (vol.isTemporary() || vol.isLockVolume()) {
+            buffer.setTemporary();
+        } else {
+            buffer.clearTemporary();
+        }
+        Debug.$assert0.t(buffer.getNext() != buffer);
+        return buffer;
+    }
+
+    /**
+     * Queue pages to be read into the pool by the PAGE_READER thread. This
+     * method does not block: requests that do not fit in the read-ahead
+     * queue are dropped. Read-ahead is advisory, so the caller must still
+     * {@link #get} each page when it needs it.
+     *
+     * @param vol
+     *            The Volume
+     * @param pages
+     *            Addresses of the pages to read
+     * @param count
+     *            Number of elements of <code>pages</code> to queue
+     * @return the number of pages queued
+     */
+    int prefetch(final Volume vol, final long[] pages, final int count) {
+        final PageReader reader = _reader;
+        if (reader == null || _closed.get()) {
+            return 0;
+        }
+        int queued = 0;
+        for (int index = 0; index < count; index++) {
+            if (!_prefetchQueue.offer(new PrefetchRequest(vol, pages[index]))) {
+                break;
+            }
+            queued++;
+        }
+        if (queued > 0) {
+            _persistit.getIOMeter().chargePrefetchRequest(queued);
+            reader.kick();
+        }
+        return queued;
+    }
+
+    /**
+     * Return the buffer holding a page if the page is already in the pool and
+     * a reader claim can be acquired without waiting. Unlike {@link #get} this
+     * method never reads the page from disk and does not count a hit, so
+     * read-ahead can use it on the caller's thread.
+     *
+     * @param vol
+     *            The Volume
+     * @param page
+     *            The page address
+     * @return the Buffer with a reader claim, or <code>null</code> if the
+     *         page is not in the pool or is busy
+     */
+    Buffer getIfPresent(final Volume vol, final long page) throws PersistitInterruptedException {
+        final int hash = hashIndex(vol, page);
+        _hashLocks[hash % HASH_LOCKS].lock();
+        try {
+            for (Buffer buffer = _hashTable[hash]; buffer != null; buffer = buffer.getNext()) {
+                if (buffer.getPageAddress() == page && buffer.getVolume() == vol) {
+                    if (buffer.claim(false, 0)) {
+                        if (buffer.isValid()) {
+                            return buffer;
+                        }
+                        buffer.release();
+                    }
+                    return null;
+                }
+            }
+        } finally {
+            _hashLocks[hash % HASH_LOCKS].unlock();
+        }
+        return null;
+    }
+
+    /**
+     * Read one queued page into the pool unless it is already present. Called
+     * only by the PAGE_READER thread. The buffer is marked so that the first
+     * {@link #get} that finds it can be counted as a read-ahead hit.
+     */
+    private void prefetchPage(final Volume vol, final long page) throws PersistitException {
+        if (vol.isClosed() || page <= 0 || page >= vol.getNextAvailablePage()) {
+            return;
+        }
+        final int hash = hashIndex(vol, page);
+        _hashLocks[hash % HASH_LOCKS].lock();
+        try {
+            for (Buffer buffer = _hashTable[hash]; buffer != null; buffer = buffer.getNext()) {
+                if (buffer.getPageAddress() == page && buffer.getVolume() == vol) {
+                    return;
+                }
+            }
+        } finally {
+            _hashLocks[hash % HASH_LOCKS].unlock();
+        }
+        final Buffer buffer;
+        try {
+            buffer = get(vol, page, false, true, 0);
+        } catch (final InUseException e) {
+            // Another thread is reading or modifying the page
+            return;
+        }
+        buffer.setPrefetched();
+        buffer.release();
+        _persistit.getIOMeter().chargePrefetchRead();
+    }
+
+    private void notePrefetchHit(final Buffer buffer) {
+        if (buffer.isPrefetched() && buffer.clearPrefetched()) {
+            _persistit.getIOMeter().chargePrefetchHit();
+        }
+    }
+
+    private void notePrefetchEvicted(final Buffer buffer) {
+        if (buffer.isPrefetched() && buffer.clearPrefetched()) {
+            _persistit.getIOMeter().chargePrefetchEvicted();
+        }
+    }
+
     /**
      * Returns a copy of Buffer. The returned buffer is newly created, is not a
      * member of the buffer pool, and is not claimed. There is no guarantee that
@@ -946,9 +1386,16 @@ public class BufferPool {
 
     /**
      * Returns an available buffer. The replacement policy is to return a buffer
-     * that's already been marked invalid, if available. Otherwise use the Clock
-     * algorithm to choose a page for replacement that is approximately the
-     * least-recently-used page.
+     * that's already been marked invalid, if available. Otherwise advance the
+     * clock hand, asking the {@link EvictionPolicy} whether each buffer it
+     * passes may be replaced.
+     * <p>
+     * When the pool has several segments the thread's home segment is compared
+     * with one other segment chosen at random, and the buffer is taken from
+     * whichever has allocated fewer buffers in proportion to its size. All
+     * clock hands therefore turn at about the same rate and a page stays in
+     * the pool about as long as it would with a single clock, even when a few
+     * threads account for most of the misses.
      *
      * @return Buffer An available buffer, or <i>null</i> if no buffer is
      *         currently available. The buffer has a writer claim.
@@ -958,30 +1405,94 @@ public class BufferPool {
      */
 
     private Buffer allocBuffer() throws PersistitException {
+        final int count = _segments.length;
+        final int home = (int) (Thread.currentThread().getId() % count);
+        int first = home;
+        if (count > 1) {
+            final int other = (home + 1 + ThreadLocalRandom.current().nextInt(count - 1)) % count;
+            if (_segments[other].isLessPressedThan(_segments[home])) {
+                first = other;
+            }
+        }
+        final Buffer buffer = allocBuffer(first);
+        if (segment(buffer.getIndex()) != _segments[home]) {
+            _stealCounter.incrementAndGet();
+        }
+        return buffer;
+    }
+
+    /**
+     * Returns an available buffer from segment <code>first</code>, or from the
+     * next segment that has one.
+     *
+     * @param first
+     *            index of the segment to try first
+     * @return Buffer An available buffer with a writer claim
+     * @throws PersistitException
+     * @throws IllegalStateException
+     *             if there is no available buffer.
+     */
+    private Buffer allocBuffer(final int first) throws PersistitException {
+        final int count = _segments.length;
+        for (int index = 0; index < count; index++) {
+            final Segment segment = _segments[(first + index) % count];
+            final Buffer buffer = allocBuffer(segment);
+            if (buffer != null) {
+                segment._allocations.incrementAndGet();
+                return buffer;
+            }
+        }
+        throw new IllegalStateException("No available Buffers");
+    }
+
+    /**
+     * @return index of the segment that has allocated the fewest buffers in
+     *         proportion to its size
+     */
+    private int leastPressedSegment() {
+        int least = 0;
+        for (int index = 1; index < _segments.length; index++) {
+            if (_segments[index].isLessPressedThan(_segments[least])) {
+                least = index;
+            }
+        }
+        return least;
+    }
+
+    /**
+     * Returns an available buffer from the specified segment, or
+     * <code>null</code> if the segment has none.
+     *
+     * @param segment
+     *            The segment
+     * @return Buffer An available buffer with a writer claim, or
+     *         <code>null</code>
+     * @throws PersistitException
+     */
+    private Buffer allocBuffer(final Segment segment) throws PersistitException {
         //
         // Start by searching for an invalid page. It's preferable
         // since no valid page will need to be evicted.
         //
-        if (_availablePages.get()) {
-            final int start = (_clock.get() / 64) * 64;
-            for (int q = start;;) {
-                q += 64;
-                if (q >= _bufferCount) {
-                    q = 0;
-                }
-                long bits = _availablePagesBits.get(q / 64);
+        if (segment._availablePages.get()) {
+            final int first = segment._start / 64;
+            final int words = (segment.size() + 63) / 64;
+            final int start = (segment._clock.get() - segment._start) / 64;
+            for (int w = 1; w <= words; w++) {
+                final int q = first + (start + w) % words;
+                long bits = _availablePagesBits.get(q);
                 if (bits != 0) {
                     for (int p = 0; p < 64; p++) {
                         if ((bits & (1L << p)) != 0) {
-                            final Buffer buffer = _buffers[q + p];
+                            final Buffer buffer = _buffers[q * 64 + p];
                             //
                             // Note: need to verify that there are no claims -
                             // including those of the current thread.
                             //
                             if ((buffer.getStatus() & SharedResource.CLAIMED_MASK) == 0 && buffer.claim(true, 0)) {
                                 if (!buffer.isValid()) {
-                                    bits = _availablePagesBits.get(q / 64);
-                                    if (_availablePagesBits.compareAndSet(q / 64, bits, bits & ~(1L << p))) {
+                                    bits = _availablePagesBits.get(q);
+                                    if (_availablePagesBits.compareAndSet(q, bits, bits & ~(1L << p))) {
                                         buffer.clearDirty();
                                         return buffer;
                                     }
@@ -991,26 +1502,17 @@ public class BufferPool {
                         }
                     }
                 }
-                if (q == start) {
-                    break;
-                }
-
             }
-            _availablePages.set(false);
+            segment._availablePages.set(false);
         }
         //
         // Look for a page to evict.
         //
-        for (int retry = 0; retry < _bufferCount * 2;) {
-            final int clock = _clock.get();
-            assert clock < _bufferCount;
-            if (!_clock.compareAndSet(clock, (clock + 1) % _bufferCount)) {
-                continue;
-            }
-            final Buffer buffer = _buffers[clock];
-            if (buffer.isTouched()) {
-                buffer.clearTouched();
-            } else {
+        final EvictionPolicy policy = _evictionPolicy;
+        final int size = segment.size();
+        for (int retry = 0; retry < size * 3; retry++) {
+            final Buffer buffer = _buffers[segment.advance()];
+            if (policy.isReplaceable(buffer, retry >= size * 2)) {
                 //
                 // Note: need to verify that there are no claims - including
                 // those of the current thread.
@@ -1030,6 +1532,8 @@ public class BufferPool {
                         try {
                             buffer.writePage();
                             if (detach(buffer)) {
+                                policy.evicted(buffer);
+                                notePrefetchEvicted(buffer);
                                 buffer.clearValid();
                                 _forcedWriteCounter.incrementAndGet();
                                 _evictCounter.incrementAndGet();
@@ -1045,6 +1549,8 @@ public class BufferPool {
                         }
                     } else {
                         if (buffer.isValid() && detach(buffer)) {
+                            policy.evicted(buffer);
+                            notePrefetchEvicted(buffer);
                             buffer.clearValid();
                             _evictCounter.incrementAndGet();
                             _persistit.getIOMeter().chargeEvictPageFromPool(buffer.getVolume(),
@@ -1058,9 +1564,8 @@ public class BufferPool {
                     }
                 }
             }
-            retry++;
         }
-        throw new IllegalStateException("No available Buffers");
+        return null;
     }
 
     enum Result {
@@ -1134,7 +1639,7 @@ public class BufferPool {
     int selectDirtyBuffers(final int[] priorities, final BufferHolder[] holders) throws PersistitException {
         Debug.suspend();
         int count = 0;
-        final int clock = _clock.get();
+        final int clock = clockPosition();
 
         final long checkpointTimestamp = _persistit.getCurrentCheckpoint().getTimestamp();
         final long currentTimestamp = _persistit.getCurrentTimestamp();
@@ -1247,7 +1752,12 @@ public class BufferPool {
         // compute "distance" between this buffer and the clock. A larger
         // distance results in lower priority.
         //
-        int distance = (buffer.getIndex() - _clock.get() + _bufferCount) % _bufferCount;
+        // Segment hands advance at roughly the same rate, so a distance within
+        // a segment is scaled to the equivalent distance in the whole pool.
+        //
+        final Segment segment = segment(buffer.getIndex());
+        final int size = segment.size();
+        int distance = (int) ((long) ((buffer.getIndex() - segment._clock.get() + size) % size) * _bufferCount / size);
         int age = 0;
         //
         // If this buffer has been touched, then it won't be evicted for at
@@ -1391,6 +1901,47 @@ public class BufferPool {
         }
     }
 
+    /**
+     * A page waiting to be read by PAGE_READER
+     */
+    private static class PrefetchRequest {
+        private final Volume _volume;
+        private final long _page;
+
+        private PrefetchRequest(final Volume volume, final long page) {
+            _volume = volume;
+            _page = page;
+        }
+    }
+
+    /**
+     * Implementation of PAGE_READER thread. Reads pages queued by sequential
+     * scans ahead of the Exchange that will visit them.
+     */
+    class PageReader extends IOTaskRunnable {
+
+        PageReader() {
+            super(BufferPool.this._persistit);
+        }
+
+        void start() {
+            start("PAGE_READER:" + _bufferSize, DEFAULT_READER_POLL_INTERVAL);
+        }
+
+        @Override
+        public void runTask() throws PersistitException {
+            PrefetchRequest request;
+            while (!_closed.get() && (request = _prefetchQueue.poll()) != null) {
+                prefetchPage(request._volume, request._page);
+            }
+        }
+
+        @Override
+        protected boolean shouldStop() {
+            return _closed.get();
+        }
+    }
+
     @Override
     public String toString() {
         return "BufferPool[" + _bufferCount + "@" + _bufferSize + (_closed.get() ? ":closed" : "") + "]";
@@ -1456,7 +2007,7 @@ public class BufferPool {
             int total = 0;
             exchange.clear().append(_bufferSize).append(timestamp).append(Key.BEFORE);
             final Value value = exchange.getValue();
-            final int clockValueBefore = _clock.get();
+            final int clockValueBefore = clockPosition();
             for (int index = 0; index < _buffers.length; index++) {
                 final Buffer buffer = _buffers[index];
                 long page1 = -1, page2 = -1;
@@ -1481,7 +2032,7 @@ public class BufferPool {
                     }
                 }
             }
-            final int clockValueAfter = _clock.get();
+            final int clockValueAfter = clockPosition();
             exchange.cut();
             value.clear().setStreamMode(true);
             value.put(_bufferCount);
@@ -1502,10 +2053,22 @@ public class BufferPool {
     }
 
     void preloadBufferInventory() {
-        int count = 0;
-        int total = 0;
-        final long startTime = System.nanoTime();
-        long reportTime = startTime;
+        preloadBufferInventory(1);
+    }
+
+    /**
+     * Read the pages recorded in the most recent buffer inventory into this
+     * pool. The pages of each volume are read in address order, and runs of
+     * adjacent pages are read with one I/O operation. With a
+     * <code>threadCount</code> greater than one, the pages of each volume are
+     * divided into that many batches that are read concurrently. The reading
+     * threads inherit the priority of the calling thread.
+     *
+     * @param threadCount
+     *            number of threads to read pages on
+     */
+    void preloadBufferInventory(final int threadCount) {
+        final PreloadProgress progress = new PreloadProgress();
 
         try {
             final JournalManager jman = _persistit.getJournalManager();
@@ -1525,7 +2088,7 @@ public class BufferPool {
             }
             value.setStreamMode(true);
             /* int bufferCount = */value.getInt();
-            total = value.getInt();
+            progress._total = value.getInt();
             /* int clockValueBefore = */value.getInt();
             /* int clockValueAfter = */value.getInt();
             final long systemTime = value.getLong();
@@ -1541,39 +2104,240 @@ public class BufferPool {
                 final PageNode pn = new PageNode(volumeHandle, pageAddress);
                 pageNodes.add(pn);
             }
-
+            _persistit.releaseExchange(exchange);
+            //
+            // If the buffer pool is now smaller, no need to load more pages
+            //
             Collections.sort(pageNodes, PageNode.READ_COMPARATOR);
-            for (final PageNode pn : pageNodes) {
-                final Volume vol = jman.volumeForHandle(pn.getVolumeHandle());
-                if (vol == null) {
-                    continue;
+            if (pageNodes.size() > _bufferCount) {
+                pageNodes.subList(_bufferCount, pageNodes.size()).clear();
+            }
+            final List<PreloadBatch> batches = new ArrayList<PreloadBatch>();
+            for (int from = 0; from < pageNodes.size();) {
+                final int volumeHandle = pageNodes.get(from).getVolumeHandle();
+                int to = from + 1;
+                while (to < pageNodes.size() && pageNodes.get(to).getVolumeHandle() == volumeHandle) {
+                    to++;
                 }
-                try {
-                    final Buffer buff = get(vol, pn.getPageAddress(), false, true);
-                    buff.release();
-                    count++;
-                    final long now = System.nanoTime();
-                    if (now - reportTime >= INVENTORY_PRELOAD_LOG_MESSAGE_NS) {
-                        _persistit.getLogBase().bufferInventoryProgress
-                                .log(count, total, (now - reportTime) / NS_PER_S);
-                        reportTime = now;
+                final Volume vol = jman.volumeForHandle(volumeHandle);
+                if (vol != null) {
+                    final long[] pages = new long[to - from];
+                    for (int index = 0; index < pages.length; index++) {
+                        pages[index] = pageNodes.get(from + index).getPageAddress();
                     }
-                    if (count >= _bufferCount) {
-                        //
-                        // If the buffer pool is now smaller, no need to load
-                        // more pages
-                        //
-                        break;
+                    final int batchCount = Math.max(1, Math.min(threadCount, pages.length));
+                    for (int batch = 0; batch < batchCount; batch++) {
+                        batches.add(new PreloadBatch(vol, pages, (int) ((long) pages.length * batch / batchCount),
+                                (int) ((long) pages.length * (batch + 1) / batchCount), progress));
                     }
-                } catch (final PersistitException e) {
-                    // ignore it
                 }
+                from = to;
+            }
+            if (threadCount <= 1 || batches.size() <= 1) {
+                for (final PreloadBatch batch : batches) {
+                    batch.call();
+                }
+            } else {
+                preloadConcurrently(batches, threadCount);
             }
         } catch (final PersistitException e) {
             _persistit.getLogBase().bufferInventoryException.log(e);
         } finally {
             final long now = System.nanoTime();
-            _persistit.getLogBase().bufferInventoryProgress.log(count, total, (now - reportTime) / NS_PER_S);
+            _persistit.getLogBase().bufferInventoryProgress.log(progress._count.get(), progress._total,
+                    (now - progress._reportTime.get()) / NS_PER_S);
+        }
+    }
+
+    private void preloadConcurrently(final List<PreloadBatch> batches, final int threadCount)
+            throws PersistitException {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threadCount, batches.size()),
+                new PreloadThreadFactory(_bufferSize));
+        try {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (final PreloadBatch batch : batches) {
+                futures.add(executor.submit(batch));
+            }
+            for (final Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof PersistitException) {
+                        throw (PersistitException) cause;
+                    } else if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    } else if (cause instanceof Error) {
+                        throw (Error) cause;
+                    } else {
+                        throw new RuntimeException(cause);
+                    }
+                } catch (final InterruptedException e) {
+                    throw new PersistitInterruptedException(e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Stop a preload in progress. Pages already being read are completed.
+     */
+    void stopPreload() {
+        _stopPreload = true;
+    }
+
+    private int preloadRunLength() {
+        return Math.max(1, PRELOAD_RUN_BYTES / _bufferSize);
+    }
+
+    /**
+     * Read pages <code>from</code> through <code>to - 1</code> of the sorted
+     * array <code>pages</code> into the pool. Adjacent pages not already in the
+     * pool are claimed together and read in one operation.
+     */
+    private void preloadPages(final Volume vol, final long[] pages, final int from, final int to,
+            final PreloadProgress progress) {
+        final Buffer[] buffers = new Buffer[preloadRunLength()];
+        int index = from;
+        while (index < to && !_stopPreload && !_closed.get() && !vol.isClosed()) {
+            int count = 0;
+            long previous = -1;
+            try {
+                while (index < to && count < buffers.length) {
+                    final long page = pages[index];
+                    if (count > 0 && page != previous + 1) {
+                        break;
+                    }
+                    index++;
+                    final Buffer buffer = page > 0 && page < vol.getNextAvailablePage() ? claimForPreload(vol, page)
+                            : null;
+                    if (buffer == null) {
+                        if (count > 0) {
+                            break;
+                        }
+                        continue;
+                    }
+                    buffers[count++] = buffer;
+                    previous = page;
+                }
+                if (count > 0) {
+                    loadPages(vol, buffers, count);
+                    progress.loaded(count);
+                }
+            } catch (final PersistitException e) {
+                // ignore it
+            } finally {
+                for (int i = 0; i < count; i++) {
+                    if (buffers[i] != null) {
+                        invalidate(buffers[i]);
+                        buffers[i].release();
+                        buffers[i] = null;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a new buffer for the page, with a writer claim held by this
+     *         thread, or <code>null</code> if the page is already in the pool.
+     *         The buffer comes from the least pressed segment rather than the
+     *         thread's home segment, so that the few preload threads spread
+     *         the pages they load over every segment.
+     */
+    private Buffer claimForPreload(final Volume vol, final long page) throws PersistitException {
+        final int hash = hashIndex(vol, page);
+        _hashLocks[hash % HASH_LOCKS].lock();
+        try {
+            for (Buffer buffer = _hashTable[hash]; buffer != null; buffer = buffer.getNext()) {
+                if (buffer.getPageAddress() == page && buffer.getVolume() == vol) {
+                    return null;
+                }
+            }
+            return install(vol, page, hash, true, allocBuffer(leastPressedSegment()));
+        } finally {
+            _hashLocks[hash % HASH_LOCKS].unlock();
+        }
+    }
+
+    /**
+     * Read and load claimed buffers holding adjacent pages, then release them.
+     * An element of <code>buffers</code> is set to <code>null</code> once it
+     * has been released.
+     */
+    private void loadPages(final Volume vol, final Buffer[] buffers, final int count) throws PersistitException {
+        vol.getStorage().readPages(buffers, count);
+        for (int index = 0; index < count; index++) {
+            final Buffer buffer = buffers[index];
+            buffer.load();
+            vol.getStatistics().bumpGetCounter();
+            bumpMissCounter(buffer, null);
+            buffer.release();
+            buffers[index] = null;
+        }
+    }
+
+    /**
+     * Pages loaded by a preload and the time of the last progress message
+     */
+    private class PreloadProgress {
+        private final AtomicInteger _count = new AtomicInteger();
+        private final AtomicLong _reportTime = new AtomicLong(System.nanoTime());
+        private int _total;
+
+        private void loaded(final int pages) {
+            final int count = _count.addAndGet(pages);
+            final long now = System.nanoTime();
+            final long reportTime = _reportTime.get();
+            if (now - reportTime >= INVENTORY_PRELOAD_LOG_MESSAGE_NS && _reportTime.compareAndSet(reportTime, now)) {
+                _persistit.getLogBase().bufferInventoryProgress.log(count, _total, (now - reportTime) / NS_PER_S);
+            }
+        }
+    }
+
+    /**
+     * A range of the sorted page addresses of one volume to preload
+     */
+    private class PreloadBatch implements Callable<Void> {
+        private final Volume _volume;
+        private final long[] _pages;
+        private final int _from;
+        private final int _to;
+        private final PreloadProgress _progress;
+
+        private PreloadBatch(final Volume volume, final long[] pages, final int from, final int to,
+                final PreloadProgress progress) {
+            _volume = volume;
+            _pages = pages;
+            _from = from;
+            _to = to;
+            _progress = progress;
+        }
+
+        @Override
+        public Void call() {
+            preloadPages(_volume, _pages, _from, _to, _progress);
+            return null;
+        }
+    }
+
+    private static class PreloadThreadFactory implements ThreadFactory {
+        private final static AtomicInteger _counter = new AtomicInteger();
+
+        private final int _bufferSize;
+
+        private PreloadThreadFactory(final int bufferSize) {
+            _bufferSize = bufferSize;
+        }
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "BUFFER_PRELOAD:" + _bufferSize + ":"
+                    + _counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
         }
     }
 
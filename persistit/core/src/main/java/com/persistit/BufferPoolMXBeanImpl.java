@@ -244,4 +244,46 @@ class BufferPoolMXBeanImpl implements BufferPoolMXBean {
         return recent().getEarliestDirtyTimestamp();
     }
 
+    /**
+     * @return The name of the policy used to select pages for eviction
+     */
+    @Override
+    @Description("The name of the policy used to select pages for eviction")
+    public String getEvictionPolicy() {
+        return recent().getEvictionPolicy();
+    }
+
+    /**
+     * Return the count of pages read into this pool that had recently been
+     * evicted from it.
+     * 
+     * @return The ghost hit count
+     */
+    @Override
+    @Description("Count of pages read that had recently been evicted")
+    public long getGhostHitCount() {
+        return recent().getGhostHitCount();
+    }
+
+    /**
+     * @return The number of segments into which this pool is partitioned
+     */
+    @Override
+    @Description("Number of clock segments")
+    public int getSegmentCount() {
+        return recent().getSegmentCount();
+    }
+
+    /**
+     * Return the count of buffers allocated from a segment other than the
+     * requesting thread's home segment.
+     * 
+     * @return The steal count
+     */
+    @Override
+    @Description("Count of buffers allocated from another thread's home segment")
+    public long getStealCount() {
+        return recent().getStealCount();
+    }
+
 }
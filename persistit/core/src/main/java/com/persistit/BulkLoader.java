@@ -0,0 +1,514 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import static com.persistit.Buffer.KEYBLOCK_LENGTH;
+import static com.persistit.Buffer.KEY_BLOCK_START;
+import static com.persistit.Buffer.PAGE_TYPE_DATA;
+import static com.persistit.Buffer.PAGE_TYPE_INDEX_MIN;
+import static com.persistit.Buffer.TAILBLOCK_HDR_SIZE_DATA;
+import static com.persistit.Buffer.TAILBLOCK_HDR_SIZE_INDEX;
+import static com.persistit.Buffer.TAILBLOCK_MASK;
+import static com.persistit.Key.LEFT_GUARD_KEY;
+import static com.persistit.Key.RIGHT_GUARD_KEY;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.persistit.ValueHelper.RawValueWriter;
+import com.persistit.exception.InUseException;
+import com.persistit.exception.PersistitException;
+
+/**
+ * <p>
+ * Builds the pages of an empty {@link Tree} from key-value pairs supplied in
+ * ascending key order. Rather than inserting each record through
+ * {@link Exchange#store()}, which searches the tree and splits pages as they
+ * fill, this class appends records to a data page until the page reaches its
+ * fill limit, then starts a new page and records its first key in the index
+ * level above. Index levels are built the same way, so the tree grows bottom-up
+ * with no searches and no splits.
+ * </p>
+ * <p>
+ * Pages are allocated from space at the end of the volume that has never been
+ * used, and are written directly to the volume file rather than to the
+ * journal. Because no earlier image of such a page can exist in the journal,
+ * neither recovery nor the journal copier can overwrite them. The volume file
+ * is forced before the new root page is installed in the tree; the caller
+ * makes the result durable by performing a checkpoint once loading is done.
+ * Direct writes are not permitted in append-only mode, during which
+ * {@link BackupTask} copies the volume files: a tree is not eligible for bulk
+ * loading while append-only mode is enabled, and enabling it waits for loads
+ * already in progress to finish. A loader created after append-only mode was
+ * enabled writes its pages through the journal instead.
+ * </p>
+ * <p>
+ * A large load can be divided into key ranges that are built concurrently.
+ * Each range is loaded by a partition created with {@link #newPartition}; a
+ * partition builds only the data pages of its range. When every partition is
+ * done, {@link #finishPartitions} links the last data page of each range to
+ * the first page of the next and builds the index levels over all of them.
+ * </p>
+ * <p>
+ * The destination tree must be empty when loading starts and must not be
+ * modified by other threads until {@link #finish()} returns. If a record is
+ * stored concurrently, {@link #finish()} discards the pages it built and
+ * throws an <code>IllegalStateException</code>.
+ * </p>
+ */
+class BulkLoader {
+
+    private final Persistit _persistit;
+    private Exchange _exchange;
+    private final Tree _tree;
+    private final Volume _volume;
+    private final BufferPool _pool;
+    private final float _fillFactor;
+    private final int _fillLimit;
+    private final int _reserve;
+    private final List<Buffer> _levels = new ArrayList<Buffer>();
+    private final List<Long> _firstPages = new ArrayList<Long>();
+    private final Key _lastKey;
+    private final Value _pointerValue;
+    private final RawValueWriter _valueWriter = new RawValueWriter();
+    private final RawValueWriter _pointerWriter = new RawValueWriter();
+    private final long _rootPage;
+    private final boolean _partition;
+    private final boolean _leftmost;
+    private final List<byte[]> _leafKeys = new ArrayList<byte[]>();
+    private final List<Long> _leafPages = new ArrayList<Long>();
+    private byte[] _firstKey;
+    private long _lastPage;
+    private final boolean _direct;
+    private boolean _registered;
+    private boolean _finished;
+
+    /**
+     * Determine whether the {@link Tree} of the supplied {@link Exchange} can
+     * be built by a <code>BulkLoader</code>: the Exchange must not be in an
+     * active transaction, the journal must not be in append-only mode, the
+     * volume must be writable and the tree must consist of a single, empty
+     * data page.
+     * 
+     * @param exchange
+     *            the Exchange
+     * @return <code>true</code> if the tree can be bulk-loaded
+     * @throws PersistitException
+     */
+    static boolean isEligible(final Exchange exchange) throws PersistitException {
+        final Tree tree = exchange.getTree();
+        if (exchange.getTransaction().isActive() || tree.getVolume().isReadOnly()
+                || tree.getPersistit().getJournalManager().isAppendOnly()) {
+            return false;
+        }
+        return isEmpty(tree, tree.getRootPageAddr());
+    }
+
+    private static boolean isEmpty(final Tree tree, final long rootPage) throws PersistitException {
+        if (tree.getDepth() != 1 || tree.getRootPageAddr() != rootPage) {
+            return false;
+        }
+        final Volume volume = tree.getVolume();
+        final Buffer buffer = volume.getPool().get(volume, rootPage, false, true);
+        try {
+            return buffer.isDataPage() && buffer.getKeyCount() == 2;
+        } finally {
+            buffer.release();
+        }
+    }
+
+    BulkLoader(final Exchange exchange, final float fillFactor) {
+        this(exchange.getTree(), exchange.getTree().getRootPageAddr(), fillFactor, false, true, exchange.getTree()
+                .getPersistit().getJournalManager().beginDirectVolumeWrites());
+        _exchange = exchange;
+        _registered = _direct;
+    }
+
+    private BulkLoader(final Tree tree, final long rootPage, final float fillFactor, final boolean partition,
+            final boolean leftmost, final boolean direct) {
+        _tree = tree;
+        _volume = tree.getVolume();
+        _persistit = tree.getPersistit();
+        _pool = _volume.getPool();
+        _rootPage = rootPage;
+        _partition = partition;
+        _leftmost = leftmost;
+        _direct = direct;
+        final int pageSize = _volume.getPageSize();
+        _fillFactor = fillFactor;
+        _fillLimit = (int) ((pageSize - KEY_BLOCK_START) * fillFactor);
+        _reserve = recordSize(Key.maxStorableKeySize(pageSize), 0, TAILBLOCK_HDR_SIZE_INDEX);
+        _lastKey = new Key(_persistit);
+        _pointerValue = new Value(_persistit);
+    }
+
+    /**
+     * Create a partition that builds the data pages for one key range of this
+     * loader's tree. Partitions may be loaded concurrently, each by a single
+     * thread; the ranges must not overlap.
+     * 
+     * @param leftmost
+     *            <code>true</code> for the partition holding the smallest
+     *            keys
+     * @return the partition
+     */
+    BulkLoader newPartition(final boolean leftmost) {
+        return new BulkLoader(_tree, _rootPage, _fillFactor, true, leftmost, _direct);
+    }
+
+    /**
+     * Append a key-value pair to the tree. Keys must be supplied in strictly
+     * ascending order.
+     * 
+     * @param key
+     *            the Key
+     * @param value
+     *            the Value
+     * @throws IllegalArgumentException
+     *             if the key is not greater than the previously appended key
+     * @throws PersistitException
+     */
+    void append(final Key key, final Value value) throws PersistitException {
+        if (_finished) {
+            throw new IllegalStateException("BulkLoader for " + _tree + " is finished");
+        }
+        if (!_levels.isEmpty() && key.compareTo(_lastKey) <= 0) {
+            throw new IllegalArgumentException("Key " + key + " is not greater than previous key " + _lastKey);
+        }
+        key.testValidForStoreAndFetch(_volume.getPageSize());
+        if (_exchange == null) {
+            _exchange = new Exchange(_tree);
+        }
+        if (_partition && _firstKey == null && !_leftmost) {
+            _firstKey = copyBytes(key);
+        }
+        final boolean isLongRecord = value.getEncodedSize() > _exchange.maxValueSize(key.getEncodedSize());
+        try {
+            if (isLongRecord) {
+                _exchange.getLongRecordHelper().storeLongRecord(value, false);
+            }
+            _valueWriter.init(value);
+            appendData(key, value.getEncodedSize(), _valueWriter);
+        } finally {
+            if (isLongRecord) {
+                value.changeLongRecordMode(false);
+            }
+        }
+        key.copyTo(_lastKey);
+    }
+
+    /**
+     * Write the right edge of each level, force the volume and install the
+     * new root page in the tree. If nothing was appended the tree is left
+     * unchanged.
+     * 
+     * @throws IllegalStateException
+     *             if the tree was modified by another thread while it was
+     *             being loaded
+     * @throws PersistitException
+     */
+    void finish() throws PersistitException {
+        if (_finished) {
+            return;
+        }
+        _finished = true;
+        if (_partition) {
+            finishPartition();
+            return;
+        }
+        try {
+            finishTree();
+        } finally {
+            endDirectWrites();
+        }
+    }
+
+    private void finishTree() throws PersistitException {
+        if (_levels.isEmpty()) {
+            return;
+        }
+        for (int level = 0; level < _levels.size(); level++) {
+            final Buffer buffer = _levels.get(level);
+            _levels.set(level, null);
+            try {
+                putEdge(buffer, level, RIGHT_GUARD_KEY);
+                writePage(buffer);
+            } finally {
+                buffer.release();
+            }
+        }
+        if (_direct) {
+            _volume.getStorage().force();
+        }
+
+        final int depth = _levels.size();
+        final long newRoot = _firstPages.get(depth - 1);
+        final VolumeStructure structure = _volume.getStructure();
+        boolean installed = false;
+        if (!_tree.claim(true)) {
+            throw new InUseException("Thread " + Thread.currentThread().getName() + " failed to get writer claim on "
+                    + _tree);
+        }
+        try {
+            if (isEmpty(_tree, _rootPage)) {
+                _tree.changeRootPageAddr(newRoot, depth - 1);
+                _tree.bumpGeneration();
+                _tree.bumpChangeCount();
+                structure.updateDirectoryTree(_tree);
+                installed = true;
+            }
+        } finally {
+            _tree.release();
+        }
+        if (installed) {
+            structure.deallocateGarbageChain(_rootPage, 0);
+        } else {
+            structure.deallocateTree(newRoot, depth);
+            throw new IllegalStateException("Tree " + _tree + " was modified during bulk load");
+        }
+    }
+
+    /**
+     * Write the last data page of a partition without its right edge. The
+     * leftmost partition always has at least one page, starting with the left
+     * guard key, even if its range is empty.
+     */
+    private void finishPartition() throws PersistitException {
+        if (_levels.isEmpty()) {
+            if (!_leftmost) {
+                return;
+            }
+            bufferForRecord(0, LEFT_GUARD_KEY, 0);
+        }
+        final Buffer buffer = _levels.get(0);
+        _levels.set(0, null);
+        try {
+            _lastPage = buffer.getPageAddress();
+            writePage(buffer);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    /**
+     * Combine finished partitions, supplied in key order, into this loader's
+     * tree. The last data page of each partition is given a right sibling
+     * pointer and edge key referring to the first page of the next non-empty
+     * partition, and the first key and address of every data page is posted
+     * to the index levels. The result is then installed as by
+     * {@link #finish()}.
+     * 
+     * @param partitions
+     *            the partitions, the leftmost first
+     * @throws IllegalArgumentException
+     *             if the key ranges of the partitions overlap or are out of
+     *             order
+     * @throws PersistitException
+     */
+    void finishPartitions(final List<BulkLoader> partitions) throws PersistitException {
+        if (!_levels.isEmpty() || partitions.isEmpty() || !partitions.get(0)._leftmost) {
+            throw new IllegalStateException("Partitions must be combined by an unused loader, leftmost first");
+        }
+        final Key key = new Key(_persistit);
+        Key previousKey = null;
+        for (final BulkLoader partition : partitions) {
+            if (!partition._finished) {
+                throw new IllegalStateException("Partition of " + _tree + " is not finished");
+            }
+            if (partition._firstKey != null && previousKey != null) {
+                toKey(key, partition._firstKey);
+                if (key.compareTo(previousKey) <= 0) {
+                    throw new IllegalArgumentException("Partition key " + key + " is not greater than previous key "
+                            + previousKey);
+                }
+            }
+            if (partition._lastKey.getEncodedSize() > 0) {
+                previousKey = partition._lastKey;
+            }
+        }
+        for (final BulkLoader partition : partitions) {
+            if (partition._lastPage == 0) {
+                continue;
+            }
+            final long firstPage = partition._firstPages.get(0);
+            if (_levels.isEmpty()) {
+                _firstPages.add(firstPage);
+                _levels.add(null);
+            } else {
+                toKey(key, partition._firstKey);
+                final Buffer buffer = _levels.get(0);
+                _levels.set(0, null);
+                try {
+                    buffer.setRightSibling(firstPage);
+                    putEdge(buffer, 0, key);
+                    writePage(buffer);
+                } finally {
+                    buffer.release();
+                }
+                appendPointer(1, key, firstPage);
+            }
+            for (int index = 0; index < partition._leafKeys.size(); index++) {
+                toKey(key, partition._leafKeys.get(index));
+                appendPointer(1, key, partition._leafPages.get(index));
+            }
+            _levels.set(0, _pool.get(_volume, partition._lastPage, true, true));
+        }
+        finish();
+    }
+
+    /**
+     * Release the pages held by an unfinished load. Pages already written
+     * become unreachable; they are not returned to the garbage chain.
+     */
+    void abandon() {
+        _finished = true;
+        for (int level = 0; level < _levels.size(); level++) {
+            final Buffer buffer = _levels.get(level);
+            if (buffer != null) {
+                _levels.set(level, null);
+                buffer.release();
+            }
+        }
+        endDirectWrites();
+    }
+
+    private void endDirectWrites() {
+        if (_registered) {
+            _registered = false;
+            _persistit.getJournalManager().endDirectVolumeWrites();
+        }
+    }
+
+    private void appendData(final Key key, final int valueSize, final ValueHelper valueHelper)
+            throws PersistitException {
+        final Buffer buffer = bufferForRecord(0, key, recordSize(key.getEncodedSize(), valueSize,
+                TAILBLOCK_HDR_SIZE_DATA));
+        if (buffer.putValue(key, valueHelper) == -1) {
+            throw new IllegalStateException("Record for key " + key + " does not fit in page " + buffer);
+        }
+    }
+
+    private void appendPointer(final int level, final Key key, final long pointer) throws PersistitException {
+        final Buffer buffer = bufferForRecord(level, key, recordSize(key.getEncodedSize(), 0,
+                TAILBLOCK_HDR_SIZE_INDEX));
+        if (putPointer(buffer, key, pointer) == -1) {
+            throw new IllegalStateException("Index record for key " + key + " does not fit in page " + buffer);
+        }
+    }
+
+    /**
+     * Return the page of the specified level into which a record of the
+     * specified size will be appended, starting the level or closing its
+     * current page as needed. A page is closed when the record would take it
+     * past the fill limit, or when the record would leave too little room for
+     * the edge key.
+     */
+    private Buffer bufferForRecord(final int level, final Key key, final int size) throws PersistitException {
+        if (level == _levels.size()) {
+            final Buffer buffer = allocPage(level);
+            _levels.add(buffer);
+            _firstPages.add(buffer.getPageAddress());
+            if (level == 0) {
+                if (!_partition || _leftmost) {
+                    buffer.putValue(LEFT_GUARD_KEY, ValueHelper.EMPTY_VALUE_WRITER);
+                }
+            } else {
+                putPointer(buffer, LEFT_GUARD_KEY, _firstPages.get(level - 1));
+            }
+        }
+        final Buffer buffer = _levels.get(level);
+        final int used = buffer.getBufferSize() - KEY_BLOCK_START - buffer.getAvailableSize();
+        if (buffer.getKeyCount() > 1 && used + size > _fillLimit || buffer.getAvailableSize() < size + _reserve) {
+            return closePage(level, key);
+        }
+        return buffer;
+    }
+
+    /**
+     * Finish the current page of a level with an edge key equal to the first
+     * key of the next page, write it, and post the first key and address of
+     * the next page to the level above.
+     */
+    private Buffer closePage(final int level, final Key key) throws PersistitException {
+        final Buffer buffer = _levels.get(level);
+        final Buffer next = allocPage(level);
+        _levels.set(level, next);
+        try {
+            buffer.setRightSibling(next.getPageAddress());
+            putEdge(buffer, level, key);
+            writePage(buffer);
+        } finally {
+            buffer.release();
+        }
+        if (_partition) {
+            _leafKeys.add(copyBytes(key));
+            _leafPages.add(next.getPageAddress());
+        } else {
+            appendPointer(level + 1, key, next.getPageAddress());
+        }
+        return next;
+    }
+
+    private void putEdge(final Buffer buffer, final int level, final Key key) throws PersistitException {
+        final int result;
+        if (level == 0) {
+            result = buffer.putValue(key, ValueHelper.EMPTY_VALUE_WRITER);
+        } else {
+            result = putPointer(buffer, key, -1);
+        }
+        if (result == -1) {
+            throw new IllegalStateException("Edge key " + key + " does not fit in page " + buffer);
+        }
+    }
+
+    private int putPointer(final Buffer buffer, final Key key, final long pointer) throws PersistitException {
+        _pointerValue.setPointerValue(pointer);
+        _pointerWriter.init(_pointerValue);
+        return buffer.putValue(key, _pointerWriter);
+    }
+
+    private Buffer allocPage(final int level) throws PersistitException {
+        final long page = _volume.getStorage().allocNewPage();
+        final Buffer buffer = _pool.get(_volume, page, true, false);
+        buffer.init(level == 0 ? PAGE_TYPE_DATA : PAGE_TYPE_INDEX_MIN + level - 1);
+        return buffer;
+    }
+
+    private void writePage(final Buffer buffer) throws PersistitException {
+        final long timestamp = _persistit.getTimestampAllocator().updateTimestamp();
+        if (_direct) {
+            buffer.writePageToVolume(timestamp);
+        } else {
+            buffer.setDirtyAtTimestamp(timestamp);
+        }
+    }
+
+    private static byte[] copyBytes(final Key key) {
+        final byte[] bytes = new byte[key.getEncodedSize()];
+        System.arraycopy(key.getEncodedBytes(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    private static void toKey(final Key key, final byte[] bytes) {
+        System.arraycopy(bytes, 0, key.getEncodedBytes(), 0, bytes.length);
+        key.setEncodedSize(bytes.length);
+    }
+
+    private static int recordSize(final int keySize, final int valueSize, final int tailHeaderSize) {
+        return KEYBLOCK_LENGTH + ((tailHeaderSize + keySize + valueSize + ~TAILBLOCK_MASK) & TAILBLOCK_MASK);
+    }
+}
@@ -158,6 +158,35 @@ public class Configuration {
      */
     public final static String JOURNAL_BLOCKSIZE_PROPERTY_NAME = "journalsize";
 
+    /**
+     * Property name to specify whether sealed journal files are read through
+     * read-only memory mappings.
+     */
+    public final static String JOURNAL_MAPPED_PROPERTY_NAME = "journalmapped";
+
+    /**
+     * Property name to specify the number of volumes to which the journal
+     * copier writes pages concurrently.
+     */
+    public final static String COPIER_CONCURRENCY_PROPERTY_NAME = "copierconcurrency";
+
+    /**
+     * Property name to specify how page images written to the journal are
+     * compressed
+     */
+    public final static String JOURNAL_PAGE_COMPRESSION_PROPERTY_NAME = "journalcompression";
+
+    /**
+     * Property name to specify the target in milliseconds for commit
+     * durability lag that enables adaptive journal flushing
+     */
+    public final static String JOURNAL_FLUSH_TARGET_PROPERTY_NAME = "journalflushtarget";
+
+    /**
+     * Property name to specify the number of threads used during recovery.
+     */
+    public final static String RECOVERY_THREADS_PROPERTY_NAME = "recoverythreads";
+
     /**
      * Default path name for the journal. Note, sequence suffix in the form
      * .nnnnnnnnnnnnnnnn (16 digits, zero-filled) will be appended.
@@ -297,11 +326,34 @@ public class Configuration {
      */
     public final static String BUFFER_PRELOAD_PROPERTY_NAME = "bufferpreload";
 
+    /**
+     * Property name to specify the number of threads used to preload each
+     * buffer pool.
+     */
+    public final static String BUFFER_PRELOAD_THREADS_PROPERTY_NAME = "bufferpreloadthreads";
+
+    /**
+     * Property name to specify whether buffer preloading continues in the
+     * background after startup.
+     */
+    public final static String BUFFER_PRELOAD_BACKGROUND_PROPERTY_NAME = "bufferpreloadbackground";
+
     /**
      * Property name to specify whether buffer inventory is enabled.
      */
     public final static String BUFFER_INVENTORY_PROPERTY_NAME = "bufferinventory";
 
+    /**
+     * Property name to specify the number of clock segments in each buffer
+     * pool.
+     */
+    public final static String BUFFER_SEGMENTS_PROPERTY_NAME = "buffersegments";
+
+    /**
+     * Property name to specify the buffer pool eviction policy.
+     */
+    public final static String BUFFER_EVICTION_POLICY_PROPERTY_NAME = "bufferpolicy";
+
     /**
      * Property name to specify the default {@link JoinPolicy}.
      */
@@ -699,6 +751,11 @@ public class Configuration {
     private final List<VolumeSpecification> volumeSpecifications = new ArrayList<VolumeSpecification>();
     private String journalPath = DEFAULT_JOURNAL_PATH;
     private long journalSize = JournalManager.DEFAULT_BLOCK_SIZE;
+    private boolean journalMapped;
+    private int copierConcurrency = JournalManager.DEFAULT_COPIER_CONCURRENCY;
+    private String journalPageCompression = JournalManager.DEFAULT_PAGE_COMPRESSION;
+    private long journalFlushTarget = JournalManager.DEFAULT_FLUSH_TARGET_MS;
+    private int recoveryThreads = RecoveryManager.DEFAULT_RECOVERY_THREADS;
     private long checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL_S;
     private String sysVolume = DEFAULT_SYSTEM_VOLUME_NAME;
     private CommitPolicy commitPolicy = DEFAULT_TRANSACTION_COMMIT_POLICY;
@@ -716,6 +773,10 @@ public class Configuration {
     private boolean appendOnly;
     private boolean bufferInventoryEnabled;
     private boolean bufferPreloadEnabled;
+    private int bufferPreloadThreads = 1;
+    private boolean bufferPreloadBackground;
+    private String bufferEvictionPolicy = EvictionPolicy.CLOCK_NAME;
+    private int bufferSegments = 1;
     private boolean ignoreMissingVolumes;
     private String tmpVolDir;
     private int tmpVolPageSize;
@@ -803,6 +864,14 @@ public class Configuration {
         setJoinPolicy(getProperty(JOIN_POLICY_PROPERTY_NAME));
         setJournalPath(getProperty(JOURNAL_PATH_PROPERTY_NAME, DEFAULT_JOURNAL_PATH));
         setJournalSize(getLongProperty(JOURNAL_BLOCKSIZE_PROPERTY_NAME, JournalManager.DEFAULT_BLOCK_SIZE));
+        setJournalMapped(getBooleanProperty(JOURNAL_MAPPED_PROPERTY_NAME, false));
+        setJournalPageCompression(getProperty(JOURNAL_PAGE_COMPRESSION_PROPERTY_NAME,
+                JournalManager.DEFAULT_PAGE_COMPRESSION));
+        setCopierConcurrency(getIntegerProperty(COPIER_CONCURRENCY_PROPERTY_NAME,
+                JournalManager.DEFAULT_COPIER_CONCURRENCY));
+        setJournalFlushTarget(getLongProperty(JOURNAL_FLUSH_TARGET_PROPERTY_NAME,
+                JournalManager.DEFAULT_FLUSH_TARGET_MS));
+        setRecoveryThreads(getIntegerProperty(RECOVERY_THREADS_PROPERTY_NAME, RecoveryManager.DEFAULT_RECOVERY_THREADS));
         setLogFile(getProperty(LOGFILE_PROPERTY_NAME));
         setLogging(getProperty(LOGGING_PROPERTIES_NAME));
         setTmpVolDir(getProperty(TEMPORARY_VOLUME_DIR_PROPERTY_NAME));
@@ -817,6 +886,10 @@ public class Configuration {
         setSysVolume(getProperty(SYSTEM_VOLUME_PROPERTY_NAME, DEFAULT_SYSTEM_VOLUME_NAME));
         setBufferInventoryEnabled(getBooleanProperty(BUFFER_INVENTORY_PROPERTY_NAME, false));
         setBufferPreloadEnabled(getBooleanProperty(BUFFER_PRELOAD_PROPERTY_NAME, false));
+        setBufferPreloadThreads(getIntegerProperty(BUFFER_PRELOAD_THREADS_PROPERTY_NAME, 1));
+        setBufferPreloadBackground(getBooleanProperty(BUFFER_PRELOAD_BACKGROUND_PROPERTY_NAME, false));
+        setBufferEvictionPolicy(getProperty(BUFFER_EVICTION_POLICY_PROPERTY_NAME, EvictionPolicy.CLOCK_NAME));
+        setBufferSegments(getIntegerProperty(BUFFER_SEGMENTS_PROPERTY_NAME, 1));
         setUseOldVSpec(getBooleanProperty(USE_OLD_VSPEC, false));
 
         loadPropertiesBufferSpecifications();
@@ -1418,6 +1491,178 @@ public class Configuration {
         this.journalSize = journalSize;
     }
 
+    /**
+     * Return the value defined by {@link #setJournalMapped}
+     * 
+     * @return <code>true</code> if sealed journal files are read through
+     *         memory mappings
+     */
+    public boolean isJournalMapped() {
+        return journalMapped;
+    }
+
+    /**
+     * <p>
+     * Control whether journal files that are no longer being written are
+     * mapped read-only into memory. When enabled, page images fetched from the
+     * journal and the records scanned during recovery are copied directly out
+     * of the mapping rather than read through a <code>FileChannel</code>. The
+     * file currently being written is always read through its channel.
+     * </p>
+     * <p>
+     * Default value is <code>false</code><br />
+     * Property name is {@value #JOURNAL_MAPPED_PROPERTY_NAME}
+     * 
+     * @param journalMapped
+     *            <code>true</code> to read sealed journal files through
+     *            memory mappings
+     */
+    public void setJournalMapped(final boolean journalMapped) {
+        this.journalMapped = journalMapped;
+    }
+
+    /**
+     * Return the value defined by {@link #setCopierConcurrency}
+     * 
+     * @return the number of volumes to which the journal copier writes
+     *         concurrently
+     */
+    public int getCopierConcurrency() {
+        return copierConcurrency;
+    }
+
+    /**
+     * <p>
+     * Set the number of volumes to which the journal copier writes pages
+     * concurrently. With a value greater than one, pages copied back from the
+     * journal are grouped by volume and each group is written in page address
+     * order by its own thread. This helps when volumes reside on separate
+     * devices; with a single device the default is generally best.
+     * </p>
+     * <p>
+     * Default value is
+     * {@value com.persistit.mxbeans.JournalManagerMXBean#DEFAULT_COPIER_CONCURRENCY}
+     * <br />
+     * Property name is {@value #COPIER_CONCURRENCY_PROPERTY_NAME}
+     * 
+     * @param copierConcurrency
+     *            the number of volumes written concurrently
+     */
+    public void setCopierConcurrency(final int copierConcurrency) {
+        Util.rangeCheck(copierConcurrency, JournalManager.MINIMUM_COPIER_CONCURRENCY,
+                JournalManager.MAXIMUM_COPIER_CONCURRENCY);
+        this.copierConcurrency = copierConcurrency;
+    }
+
+    /**
+     * Return the value defined by {@link #setJournalPageCompression}
+     * 
+     * @return the journal page compression mode
+     */
+    public String getJournalPageCompression() {
+        return journalPageCompression;
+    }
+
+    /**
+     * <p>
+     * Set how page images written to the journal are compressed. The mode is
+     * one of:
+     * <dl>
+     * <dt>NONE</dt>
+     * <dd>Page images are written as uncompressed PA records.</dd>
+     * <dt>DEFLATE</dt>
+     * <dd>A page image is deflated and written as a PC record when that is
+     * smaller than the PA record.</dd>
+     * <dt>DELTA</dt>
+     * <dd>As DEFLATE, but when the previous image of the same page is still in
+     * the journal write buffer, the page may instead be written as a deflated
+     * delta from that image.</dd>
+     * </dl>
+     * Compression reduces journal bandwidth and the frequency of journal file
+     * rollover at the cost of CPU time while pages are written to and read
+     * from the journal. A journal containing PC records can be read
+     * regardless of this setting.
+     * </p>
+     * <p>
+     * Default value is
+     * {@value com.persistit.mxbeans.JournalManagerMXBean#DEFAULT_PAGE_COMPRESSION}
+     * <br />
+     * Property name is {@value #JOURNAL_PAGE_COMPRESSION_PROPERTY_NAME}
+     * 
+     * @param mode
+     *            the compression mode, not case-sensitive
+     */
+    public void setJournalPageCompression(final String mode) {
+        this.journalPageCompression = JournalManager.checkPageCompression(mode);
+    }
+
+    /**
+     * Return the value defined by {@link #setJournalFlushTarget}
+     * 
+     * @return the target commit durability lag in milliseconds, or zero if
+     *         adaptive journal flushing is disabled
+     */
+    public long getJournalFlushTarget() {
+        return journalFlushTarget;
+    }
+
+    /**
+     * <p>
+     * Set a target, in milliseconds, for the time between a transaction commit
+     * and the moment its journal records are durable. A non-zero value enables
+     * adaptive journal flushing: the JOURNAL_FLUSHER thread measures the
+     * commit arrival rate and the duration of each flush, and from these
+     * chooses the interval between flushes and the time GROUP commits wait for
+     * other transactions to join a flush. With a value of zero the journal is
+     * flushed at the fixed interval and GROUP commits wait for the configured
+     * stall time.
+     * </p>
+     * <p>
+     * Default value is
+     * {@value com.persistit.mxbeans.JournalManagerMXBean#DEFAULT_FLUSH_TARGET_MS}
+     * <br />
+     * Property name is {@value #JOURNAL_FLUSH_TARGET_PROPERTY_NAME}
+     * 
+     * @param target
+     *            the target in milliseconds, or zero to disable adaptive
+     *            flushing
+     */
+    public void setJournalFlushTarget(final long target) {
+        Util.rangeCheck(target, JournalManager.MINIMUM_FLUSH_TARGET_MS, JournalManager.MAXIMUM_FLUSH_TARGET_MS);
+        this.journalFlushTarget = target;
+    }
+
+    /**
+     * Return the value defined by {@link #setRecoveryThreads}
+     * 
+     * @return the number of threads used during recovery
+     */
+    public int getRecoveryThreads() {
+        return recoveryThreads;
+    }
+
+    /**
+     * <p>
+     * Set the number of threads used to recover from the journal during
+     * startup. With a value greater than one, journal files required for
+     * recovery are validated concurrently and committed transactions are
+     * replayed by that many threads, each applying transactions for a
+     * disjoint subset of trees in their original commit order.
+     * </p>
+     * <p>
+     * Default value is
+     * {@value com.persistit.mxbeans.RecoveryManagerMXBean#DEFAULT_RECOVERY_THREADS}
+     * <br />
+     * Property name is {@value #RECOVERY_THREADS_PROPERTY_NAME}
+     * 
+     * @param recoveryThreads
+     *            the number of recovery threads
+     */
+    public void setRecoveryThreads(final int recoveryThreads) {
+        Util.rangeCheck(recoveryThreads, 1, RecoveryManager.MAXIMUM_RECOVERY_THREADS);
+        this.recoveryThreads = recoveryThreads;
+    }
+
     /**
      * Return the value defined by {@link #setCheckpointInterval(long)}
      * 
@@ -2037,6 +2282,135 @@ public class Configuration {
         this.bufferPreloadEnabled = bufferPreloadEnabled;
     }
 
+    /**
+     * Return the value defined by {@link #setBufferPreloadThreads}
+     * 
+     * @return the number of threads used to preload each buffer pool
+     */
+    public int getBufferPreloadThreads() {
+        return bufferPreloadThreads;
+    }
+
+    /**
+     * <p>
+     * Set the number of threads used to preload each buffer pool. The pages of
+     * each volume are read in address order, and adjacent pages are read
+     * together; with more than one thread, the pages of each volume are
+     * divided into batches that are read concurrently.
+     * </p>
+     * <p>
+     * Default value is 1<br />
+     * Property name is {@value #BUFFER_PRELOAD_THREADS_PROPERTY_NAME}
+     * </p>
+     * 
+     * @param bufferPreloadThreads
+     *            number of preload threads, at least 1
+     */
+    public void setBufferPreloadThreads(final int bufferPreloadThreads) {
+        Util.rangeCheck(bufferPreloadThreads, 1, BufferPool.MAXIMUM_PRELOAD_THREADS);
+        this.bufferPreloadThreads = bufferPreloadThreads;
+    }
+
+    /**
+     * Return the value defined by {@link #setBufferPreloadBackground}
+     * 
+     * @return <code>true</code> if buffer pools are preloaded in the
+     *         background
+     */
+    public boolean isBufferPreloadBackground() {
+        return bufferPreloadBackground;
+    }
+
+    /**
+     * <p>
+     * Control whether buffer pool preloading runs in the background. If
+     * <code>true</code>, {@link Persistit#initialize()} returns without
+     * waiting for the preload, which continues on a low-priority thread while
+     * the application uses the database. Preloading stops when Persistit is
+     * closed.
+     * </p>
+     * <p>
+     * Default value is <code>false</code><br />
+     * Property name is {@value #BUFFER_PRELOAD_BACKGROUND_PROPERTY_NAME}
+     * </p>
+     * 
+     * @param bufferPreloadBackground
+     *            <code>true</code> to preload buffer pools in the background
+     */
+    public void setBufferPreloadBackground(final boolean bufferPreloadBackground) {
+        this.bufferPreloadBackground = bufferPreloadBackground;
+    }
+
+    /**
+     * Return the value defined by {@link #setBufferEvictionPolicy}
+     * 
+     * @return the name of the buffer pool eviction policy
+     */
+    public String getBufferEvictionPolicy() {
+        return bufferEvictionPolicy;
+    }
+
+    /**
+     * <p>
+     * Set the policy buffer pools use to select a page for eviction when a
+     * page not already in the pool is needed. Supported values are:
+     * <ul>
+     * <li><code>CLOCK</code>: the single-bit CLOCK algorithm, which
+     * approximates least-recently-used replacement.</li>
+     * <li><code>2Q</code>: a scan-resistant variant that admits newly read
+     * pages to a probationary set and protects pages that are referenced again
+     * from being displaced by large scans.</li>
+     * </ul>
+     * </p>
+     * <p>
+     * Default value is <code>CLOCK</code><br />
+     * Property name is {@value #BUFFER_EVICTION_POLICY_PROPERTY_NAME}
+     * </p>
+     * 
+     * @param policyName
+     *            Name of the eviction policy, not case-sensitive
+     * @throws IllegalArgumentException
+     *             if the name is not a supported policy
+     */
+    public void setBufferEvictionPolicy(final String policyName) {
+        this.bufferEvictionPolicy = EvictionPolicy.checkName(policyName);
+    }
+
+    /**
+     * Return the value defined by {@link #setBufferSegments}
+     * 
+     * @return the number of clock segments per buffer pool, or zero if the
+     *         number is chosen automatically
+     */
+    public int getBufferSegments() {
+        return bufferSegments;
+    }
+
+    /**
+     * <p>
+     * Set the number of segments into which each buffer pool is partitioned.
+     * Each segment has its own clock hand and available-buffer indicator, and
+     * each thread prefers a home segment, so that threads missing in the pool
+     * concurrently do not contend on a single clock hand. A thread takes a
+     * buffer from another segment when that segment has turned over fewer of
+     * its buffers, so that pages stay in the pool about as long as they would
+     * with a single clock. The value zero selects one segment per available
+     * processor, limited so that each segment holds at least
+     * {@value BufferPool#MINIMUM_SEGMENT_SIZE} buffers.
+     * </p>
+     * <p>
+     * Default value is <code>1</code><br />
+     * Property name is {@value #BUFFER_SEGMENTS_PROPERTY_NAME}
+     * </p>
+     * 
+     * @param bufferSegments
+     *            the number of segments, or zero to choose automatically
+     */
+    public void setBufferSegments(final int bufferSegments) {
+        Util.rangeCheck(bufferSegments, 0, Integer.MAX_VALUE);
+        this.bufferSegments = bufferSegments;
+    }
+
     /**
      * Return the value defined by {@link #setIgnoreMissingVolumes(boolean)}
      * 
@@ -0,0 +1,311 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Replacement policy used by a {@link BufferPool} to choose which page to
+ * evict when a buffer is needed for a page that is not already in the pool.
+ * The pool's clock hand visits each buffer in turn and asks the policy whether
+ * the buffer may be replaced; the policy is informed when a page is admitted
+ * to the pool and when a valid page is evicted.
+ * </p>
+ * <p>
+ * Every policy maintains a bounded history of recently evicted pages (the
+ * "ghost" set). A miss on a page found in the ghost set is counted as a ghost
+ * hit: a read that a larger pool, or a policy that had retained the page,
+ * would have avoided. Comparing the ghost hit count between policies under
+ * the same workload indicates which policy suits that workload better.
+ * </p>
+ * <p>
+ * Two policies are available:
+ * <dl>
+ * <dt>{@value #CLOCK_NAME}</dt>
+ * <dd>The single-bit CLOCK algorithm. A page touched since the hand last
+ * passed it is spared once; otherwise it is replaced.</dd>
+ * <dt>{@value #TWO_QUEUE_NAME}</dt>
+ * <dd>A CLOCK approximation of the 2Q algorithm. Newly read pages enter a
+ * probationary cold set and are replaced unless they are referenced again
+ * after the hand first passes them. Re-referenced pages and pages found in the
+ * ghost set are promoted to a protected hot set which the hand does not evict
+ * until it grows beyond {@value TwoQueue#HOT_PERCENT}% of the pool. A large
+ * scan therefore cycles through the cold set without displacing the hot
+ * working set.</dd>
+ * </dl>
+ * </p>
+ * 
+ * @see Configuration#setBufferEvictionPolicy(String)
+ */
+abstract class EvictionPolicy {
+
+    final static String CLOCK_NAME = "CLOCK";
+
+    final static String TWO_QUEUE_NAME = "2Q";
+
+    private final static String[] NAMES = { CLOCK_NAME, TWO_QUEUE_NAME };
+
+    /**
+     * Ghost set; each element holds the fingerprint of a recently evicted page
+     * or zero.
+     */
+    private final AtomicLongArray _ghosts;
+
+    private final int _ghostMask;
+
+    private final AtomicLong _ghostHitCounter = new AtomicLong();
+
+    /**
+     * Validate a policy name.
+     * 
+     * @param name
+     *            Name of the policy, not case-sensitive
+     * @return the canonical name
+     * @throws IllegalArgumentException
+     *             if there is no policy with the supplied name
+     */
+    static String checkName(final String name) {
+        for (final String candidate : NAMES) {
+            if (candidate.equalsIgnoreCase(name)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("No such EvictionPolicy " + name);
+    }
+
+    static EvictionPolicy create(final String name, final int bufferCount) {
+        final String canonical = checkName(name);
+        if (TWO_QUEUE_NAME.equals(canonical)) {
+            return new TwoQueue(bufferCount);
+        }
+        return new Clock(bufferCount);
+    }
+
+    EvictionPolicy(final int bufferCount) {
+        int size = 1;
+        while (size < bufferCount) {
+            size <<= 1;
+        }
+        _ghosts = new AtomicLongArray(size);
+        _ghostMask = size - 1;
+    }
+
+    /**
+     * @return the name by which this policy is configured
+     */
+    abstract String getName();
+
+    /**
+     * Called by the clock hand for each buffer it passes. Implementations may
+     * clear the touched bit and update their own per-buffer state.
+     * 
+     * @param buffer
+     *            Buffer under the clock hand
+     * @param force
+     *            <code>true</code> if the hand has failed to find a victim in
+     *            several revolutions; the policy should then behave like plain
+     *            CLOCK
+     * @return <code>true</code> if the buffer may be replaced
+     */
+    abstract boolean isReplaceable(Buffer buffer, boolean force);
+
+    /**
+     * Called when a buffer has been assigned a new page.
+     * 
+     * @param buffer
+     *            The buffer
+     * @param ghost
+     *            <code>true</code> if the page was found in the ghost set
+     */
+    abstract void admitted(Buffer buffer, boolean ghost);
+
+    /**
+     * Record the admission of a page to the pool.
+     * 
+     * @param buffer
+     *            The buffer, already assigned its new volume and page
+     * @param read
+     *            <code>true</code> if the page will be read from disk rather
+     *            than newly created
+     */
+    final void admit(final Buffer buffer, final boolean read) {
+        boolean ghost = false;
+        if (read) {
+            final long fingerprint = fingerprint(buffer.getVolume(), buffer.getPageAddress());
+            final int index = ghostIndex(fingerprint);
+            if (_ghosts.get(index) == fingerprint && _ghosts.compareAndSet(index, fingerprint, 0)) {
+                _ghostHitCounter.incrementAndGet();
+                ghost = true;
+            }
+        }
+        admitted(buffer, ghost);
+    }
+
+    /**
+     * Record the eviction of a valid page. Must be called before the buffer is
+     * assigned to a different page.
+     * 
+     * @param buffer
+     *            The buffer
+     */
+    void evicted(final Buffer buffer) {
+        final long fingerprint = fingerprint(buffer.getVolume(), buffer.getPageAddress());
+        _ghosts.set(ghostIndex(fingerprint), fingerprint);
+    }
+
+    long getGhostHitCounter() {
+        return _ghostHitCounter.get();
+    }
+
+    void resetCounters() {
+        _ghostHitCounter.set(0);
+    }
+
+    private int ghostIndex(final long fingerprint) {
+        return (int) (fingerprint ^ (fingerprint >>> 32)) & _ghostMask;
+    }
+
+    private static long fingerprint(final Volume volume, final long page) {
+        final long id = volume == null ? 0 : volume.getId();
+        final long fingerprint = (page + 1) * 0x9E3779B97F4A7C15L ^ id * 0xC2B2AE3D27D4EB4FL;
+        return fingerprint == 0 ? 1 : fingerprint;
+    }
+
+    @Override
+    public String toString() {
+        return getName();
+    }
+
+    static class Clock extends EvictionPolicy {
+
+        Clock(final int bufferCount) {
+            super(bufferCount);
+        }
+
+        @Override
+        String getName() {
+            return CLOCK_NAME;
+        }
+
+        @Override
+        boolean isReplaceable(final Buffer buffer, final boolean force) {
+            if (buffer.isTouched()) {
+                buffer.clearTouched();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        void admitted(final Buffer buffer, final boolean ghost) {
+        }
+    }
+
+    static class TwoQueue extends EvictionPolicy {
+
+        /**
+         * Maximum percentage of the pool the hot set may occupy before hot
+         * pages are demoted
+         */
+        final static int HOT_PERCENT = 75;
+
+        /**
+         * Page has been admitted and the clock hand has not yet passed it
+         */
+        private final static int COLD_NEW = 0;
+        /**
+         * Page is on probation; the hand evicts it unless it is touched
+         * before the hand returns
+         */
+        private final static int COLD = 1;
+        /**
+         * Page is protected from eviction while the hot set is within its
+         * target size
+         */
+        private final static int HOT = 2;
+
+        private final AtomicIntegerArray _states;
+
+        private final AtomicInteger _hotCount = new AtomicInteger();
+
+        private final int _hotTarget;
+
+        TwoQueue(final int bufferCount) {
+            super(bufferCount);
+            _states = new AtomicIntegerArray(bufferCount);
+            _hotTarget = (int) ((long) bufferCount * HOT_PERCENT / 100);
+        }
+
+        @Override
+        String getName() {
+            return TWO_QUEUE_NAME;
+        }
+
+        @Override
+        boolean isReplaceable(final Buffer buffer, final boolean force) {
+            final int index = buffer.getIndex();
+            final boolean touched = buffer.isTouched();
+            if (touched) {
+                buffer.clearTouched();
+            }
+            if (force) {
+                return !touched;
+            }
+            switch (_states.get(index)) {
+            case HOT:
+                if (!touched && _hotCount.get() > _hotTarget && _states.compareAndSet(index, HOT, COLD)) {
+                    _hotCount.decrementAndGet();
+                }
+                return false;
+            case COLD_NEW:
+                /*
+                 * The touched bit may only reflect the access that loaded the
+                 * page, so it does not count as a re-reference yet.
+                 */
+                _states.compareAndSet(index, COLD_NEW, COLD);
+                return false;
+            default:
+                if (touched) {
+                    if (_states.compareAndSet(index, COLD, HOT)) {
+                        _hotCount.incrementAndGet();
+                    }
+                    return false;
+                }
+                return true;
+            }
+        }
+
+        @Override
+        void admitted(final Buffer buffer, final boolean ghost) {
+            final int previous = _states.getAndSet(buffer.getIndex(), ghost ? HOT : COLD_NEW);
+            if (previous == HOT) {
+                _hotCount.decrementAndGet();
+            }
+            if (ghost) {
+                _hotCount.incrementAndGet();
+            }
+        }
+
+        int getHotCount() {
+            return _hotCount.get();
+        }
+    }
+}
@@ -41,6 +41,8 @@ import com.persistit.util.Debug;
 import com.persistit.util.Util;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
 import static com.persistit.Buffer.EXACT_MASK;
@@ -259,6 +261,11 @@ public class Exchange implements ReadOnlyExchange {
   private final static int RIGHT_CLAIMED = 2;
 
   private final static int VERSIONS_OUT_OF_ORDER_RETRY_COUNT = 3;
+  /**
+   * Number of consecutive steps to an adjacent data page a traversal must
+   * take before read-ahead begins.
+   */
+  private final static int READ_AHEAD_THRESHOLD = 2;
 
   private Persistit _persistit;
 
@@ -293,6 +300,20 @@ public class Exchange implements ReadOnlyExchange {
   private boolean _ignoreMVCCFetch;
   private boolean _storeCausedSplit;
   private int _keysVisitedDuringTraverse;
+  //
+  // Read-ahead state for sequential traversals: the number of
+  // consecutive steps to an adjacent page, the direction, the last page
+  // stepped to, the number of pages requested but not yet reached, the
+  // last of those pages and the index page holding that page's pointer
+  // once a forward scan has run past the level-1 parent.
+  //
+  private int _readAheadRun;
+  private boolean _readAheadReverse;
+  private long _readAheadLastPage;
+  private int _readAheadPending;
+  private long _readAheadPage;
+  private long[] _readAheadPages;
+  private long _readAheadParent;
 
   private Object _appCache;
 
@@ -501,6 +522,7 @@ public class Exchange implements ReadOnlyExchange {
         _levelCache[level].invalidate();
       else _levelCache[level] = new LevelCache(level);
     }
+    resetReadAhead();
   }
 
   private void checkLevelCache() throws PersistitException {
@@ -1288,7 +1310,7 @@ public class Exchange implements ReadOnlyExchange {
         }
 
         if (buffer == null) {
-          buffer = _pool.get(_volume, pageAddress, writer, true, _timeoutMillis);
+          buffer = _pool.get(_volume, pageAddress, writer, true, _timeoutMillis, _tree);
         }
         checkPageType(buffer, currentLevel + PAGE_TYPE_DATA, true);
 
@@ -1361,7 +1383,9 @@ public class Exchange implements ReadOnlyExchange {
     throttle();
     int options = StoreOptions.WAIT;
     options |= (!_ignoreTransactions && _transaction.isActive()) ? StoreOptions.MVCC : 0;
+    final long start = System.nanoTime();
     storeInternal(key, value, 0, options);
+    _tree.getStatistics().getStoreLatency().record(System.nanoTime() - start);
     _treeHolder.verifyReleased();
 
     return this;
@@ -1938,6 +1962,168 @@ public class Exchange implements ReadOnlyExchange {
     }
   }
 
+  private void resetReadAhead() {
+    _readAheadRun = 0;
+    _readAheadLastPage = 0;
+    _readAheadPending = 0;
+    _readAheadPage = 0;
+    _readAheadParent = 0;
+  }
+
+  /**
+   * Called by traverse each time it steps from a data page to an adjacent
+   * one. After {@value #READ_AHEAD_THRESHOLD} consecutive steps in the same
+   * direction, this method finds the pointers to the following pages in the
+   * parent index page held by the level-1 {@link LevelCache} and asks the
+   * {@link BufferPool} to read those pages asynchronously. The number of
+   * pages kept in flight doubles with each step up to the prefetch window
+   * set in {@link IOMeter}. The parent page is claimed without waiting, so
+   * read-ahead is skipped rather than delayed when the parent is busy.
+   * <p>
+   * A forward scan that reaches the end of the parent continues with the
+   * parent's right sibling only if that page is already in the pool;
+   * otherwise the sibling is itself queued for reading and used on a later
+   * step. The index page holding the last requested pointer is generally
+   * not an ancestor of the current page, so it is remembered in a field of
+   * its own rather than in the {@link LevelCache}.
+   *
+   * @param page
+   *            address of the page just stepped to
+   * @param reverse
+   *            <code>true</code> if the traversal is moving left
+   */
+  private void readAhead(final long page, final boolean reverse) throws PersistitException {
+    final int window = _persistit.getIOMeter().getPrefetchWindow();
+    if (window == 0 || _cacheDepth < 2) {
+      return;
+    }
+    if (reverse != _readAheadReverse) {
+      resetReadAhead();
+      _readAheadReverse = reverse;
+    }
+    _readAheadLastPage = page;
+    if (_readAheadPending > 0) {
+      _readAheadPending--;
+    }
+    if (++_readAheadRun < READ_AHEAD_THRESHOLD) {
+      return;
+    }
+    final int target = Math.min(window, 1 << Math.min(_readAheadRun - READ_AHEAD_THRESHOLD + 1, 30));
+    if (_readAheadPending > target / 2) {
+      return;
+    }
+    if (_readAheadPages == null || _readAheadPages.length < window) {
+      _readAheadPages = new long[window];
+    }
+    final long from = _readAheadPending > 0 ? _readAheadPage : page;
+    final LevelCache lc = _levelCache[1];
+    Buffer parent = quicklyReclaimBuffer(lc, false);
+    int p = parent == null ? -1 : findPointer(parent, lc._foundAt > 0 ? lc._foundAt : 0, from, reverse);
+    if (p == -1 && parent != null) {
+      parent.release();
+      parent = null;
+    }
+    long indexPage = 0;
+    if (p == -1 && !reverse && _readAheadParent > 0) {
+      parent = presentIndexPage(_readAheadParent);
+      if (parent == null) {
+        //
+        // Not read yet, or evicted since: ask for it again
+        //
+        indexPage = _readAheadParent;
+      } else {
+        p = findPointer(parent, 0, from, false);
+        if (p == -1) {
+          //
+          // The scan has moved past this page. Follow it one page to
+          // the right on each step until the pointer is found again.
+          //
+          _readAheadParent = parent.getRightSibling();
+          parent.releaseTouched();
+          parent = null;
+        }
+      }
+    }
+    int count = 0;
+    if (p != -1) {
+      try {
+        while (_readAheadPending + count < target) {
+          p = reverse ? parent.previousKeyBlock(p) : parent.nextKeyBlock(p);
+          if (p == -1 || parent.getPointer(p) <= 0) {
+            //
+            // End of the parent; the last key block of an index page has
+            // no child pointer. Moving right, continue with the parent's
+            // right sibling if it is already in the pool, or else queue
+            // it and continue from it on a later step.
+            //
+            final long rightSiblingPage = parent.getRightSibling();
+            if (reverse || rightSiblingPage <= 0) {
+              break;
+            }
+            final Buffer rightSibling = presentIndexPage(rightSiblingPage);
+            _readAheadParent = parent.getPageAddress();
+            if (rightSibling == null) {
+              indexPage = rightSiblingPage;
+              break;
+            }
+            parent.releaseTouched();
+            parent = rightSibling;
+            _readAheadParent = rightSiblingPage;
+            p = parent.toKeyBlock(0);
+            if (p == -1) {
+              break;
+            }
+          }
+          final long child = parent.getPointer(p);
+          if (child <= 0) {
+            break;
+          }
+          _readAheadPages[count++] = child;
+        }
+      } finally {
+        parent.releaseTouched();
+      }
+    } else {
+      _readAheadPending = 0;
+    }
+    if (count > 0) {
+      _readAheadPage = _readAheadPages[count - 1];
+      _readAheadPending += _pool.prefetch(_volume, _readAheadPages, count);
+    }
+    if (indexPage > 0) {
+      _readAheadPages[0] = indexPage;
+      _pool.prefetch(_volume, _readAheadPages, 1);
+    }
+  }
+
+  /**
+   * @return the level-1 index page at the supplied address with a reader
+   *         claim, or <code>null</code> if it is not in the pool, is busy or
+   *         is not a level-1 index page
+   */
+  private Buffer presentIndexPage(final long page) throws PersistitException {
+    final Buffer buffer = _pool.getIfPresent(_volume, page);
+    if (buffer != null && buffer.getPageType() != PAGE_TYPE_INDEX_MIN) {
+      buffer.release();
+      return null;
+    }
+    return buffer;
+  }
+
+  /**
+   * @return the key block in an index page whose pointer is the supplied
+   *         page address, searching from <code>foundAt</code> in the
+   *         direction of the traversal, or -1 if there is none
+   */
+  private int findPointer(final Buffer parent, final int foundAt, final long pointer, final boolean reverse)
+    throws PersistitException {
+    int p = parent.toKeyBlock(foundAt);
+    while (p != -1 && parent.getPointer(p) != pointer) {
+      p = reverse ? parent.previousKeyBlock(p) : parent.nextKeyBlock(p);
+    }
+    return p;
+  }
+
   private Buffer quicklyReclaimBuffer(final LevelCache lc, final boolean writer) throws PersistitException {
     final Buffer buffer = lc._buffer;
     if (buffer == null)
@@ -2081,6 +2267,7 @@ public class Exchange implements ReadOnlyExchange {
     final int minKeyDepth, final int matchUpToIndex, final TraverseVisitor visitor) throws PersistitException {
     assertCorrectThread(true);
     _persistit.checkClosed();
+    long start = System.nanoTime();
     final Key spareKey = _spareKey1;
     final boolean doFetch = minimumBytes > 0;
     final boolean doModify = minimumBytes >= 0;
@@ -2135,9 +2322,11 @@ public class Exchange implements ReadOnlyExchange {
         // edge of the buffer, re-do with a key search - there is no
         // other way to find the left sibling page.
         //
+        boolean stepLeft = false;
         if (buffer != null && (nudgeForMVCC || (reverse && (foundAt & P_MASK) <= buffer.getKeyBlockStart()))) {
           // Going left from first record in the page requires a
           // key search.
+          stepLeft = !nudgeForMVCC;
           buffer.releaseTouched();
           buffer = null;
         }
@@ -2166,6 +2355,11 @@ public class Exchange implements ReadOnlyExchange {
           }
           foundAt = search(_key, false);
           buffer = lc._buffer;
+          if (stepLeft) {
+            readAhead(buffer.getPageAddress(), true);
+          } else if (buffer.getPageAddress() != _readAheadLastPage) {
+            resetReadAhead();
+          }
         }
 
         if (edge && (foundAt & EXACT_MASK) != 0) {
@@ -2183,7 +2377,7 @@ public class Exchange implements ReadOnlyExchange {
             Debug.$assert0.t(rightSiblingPage >= 0 && rightSiblingPage <= MAX_VALID_PAGE_ADDR);
             if (rightSiblingPage > 0) {
               final Buffer rightSibling = _pool.get(_volume, rightSiblingPage, false, true,
-                _timeoutMillis);
+                _timeoutMillis, _tree);
               buffer.releaseTouched();
               //
               // Reset foundAtNext to point to the first key block
@@ -2191,6 +2385,7 @@ public class Exchange implements ReadOnlyExchange {
               //
               buffer = rightSibling;
               checkPageType(buffer, PAGE_TYPE_DATA, false);
+              readAhead(rightSiblingPage, false);
               foundAt = buffer.traverse(_key, dir, buffer.toKeyBlock(0));
               matches = !buffer.isAfterRightEdge(foundAt);
             } else {
@@ -2336,6 +2531,9 @@ public class Exchange implements ReadOnlyExchange {
         // Done
         _volume.getStatistics().bumpTraverseCounter();
         _tree.getStatistics().bumpTraverseCounter();
+        final long now = System.nanoTime();
+        _tree.getStatistics().getTraverseLatency().record(now - start);
+        start = now;
         if (matches && visitor != null && visitor.visit(this)) {
           nudged = false;
           edge = false;
@@ -2895,7 +3093,9 @@ public class Exchange implements ReadOnlyExchange {
     _key.testValidForStoreAndFetch(_volume.getPageSize());
     int options = StoreOptions.WAIT | StoreOptions.FETCH;
     options |= (!_ignoreTransactions && _transaction.isActive()) ? StoreOptions.MVCC : 0;
+    final long start = System.nanoTime();
     storeInternal(_key, _value, 0, options);
+    _tree.getStatistics().getStoreLatency().record(System.nanoTime() - start);
     _spareValue.copyTo(_value);
     return this;
   }
@@ -3059,6 +3259,131 @@ public class Exchange implements ReadOnlyExchange {
     return this;
   }
 
+  /**
+   * Fetches the values associated with each of the supplied keys. This is
+   * equivalent to calling {@link #fetch(Value)} for each key in turn, but the
+   * keys are visited in ascending order so that a key on the same data page
+   * as the previous one is found without another search from the root of
+   * the tree, and without releasing and reclaiming the page. The returned
+   * values are in the same order as the supplied keys; the value for a key
+   * that has no associated record is undefined. The current <code>Key</code>
+   * and <code>Value</code> of this <code>Exchange</code> are not modified.
+   *
+   * @param keys
+   *            the keys to fetch
+   * @return an array of new <code>Value</code>s holding the fetched values
+   * @throws PersistitException
+   */
+  public Value[] fetchAll(final Key... keys) throws PersistitException {
+    final Value[] values = new Value[keys.length];
+    for (int index = 0; index < values.length; index++) {
+      values[index] = new Value(_persistit);
+    }
+    fetchAll(keys, values);
+    return values;
+  }
+
+  /**
+   * Fetches the values associated with each of the supplied keys into the
+   * corresponding element of <code>values</code>. See
+   * {@link #fetchAll(Key...)}.
+   *
+   * @param keys
+   *            the keys to fetch
+   * @param values
+   *            <code>Value</code>s to receive the fetched values;
+   *            <code>values[i]</code> receives the value of
+   *            <code>keys[i]</code>
+   * @return This <code>Exchange</code> to permit method call chaining
+   * @throws IllegalArgumentException
+   *             if there are fewer values than keys
+   * @throws PersistitException
+   */
+  public Exchange fetchAll(final Key[] keys, final Value[] values) throws PersistitException {
+    assertCorrectThread(true);
+    _persistit.checkClosed();
+    if (values.length < keys.length) {
+      throw new IllegalArgumentException("Fewer values (" + values.length + ") than keys (" + keys.length + ")");
+    }
+    for (final Key key : keys) {
+      key.testValidForStoreAndFetch(_volume.getPageSize());
+    }
+    Buffer buffer = null;
+    long start = System.nanoTime();
+    try {
+      for (final int index : ascendingOrder(keys)) {
+        final Key key = keys[index];
+        int foundAt = -1;
+        if (buffer != null) {
+          foundAt = buffer.findKey(key);
+          if (buffer.isBeforeLeftEdge(foundAt) || buffer.isAfterRightEdge(foundAt)) {
+            buffer.releaseTouched();
+            buffer = null;
+          }
+        }
+        if (buffer == null) {
+          foundAt = search(key, false);
+          buffer = _levelCache[0]._buffer;
+        }
+        fetchFromBufferInternal(buffer, values[index], foundAt, Integer.MAX_VALUE);
+        _volume.getStatistics().bumpFetchCounter();
+        _tree.getStatistics().bumpFetchCounter();
+        final long now = System.nanoTime();
+        _tree.getStatistics().getFetchLatency().record(now - start);
+        start = now;
+      }
+    } finally {
+      if (buffer != null) {
+        buffer.releaseTouched();
+      }
+      _treeHolder.verifyReleased();
+    }
+    return this;
+  }
+
+  /**
+   * Inserts or replaces the value associated with each of the supplied keys.
+   * This is equivalent to calling {@link #store()} for each key in turn, but
+   * the keys are stored in ascending order so that a key on the same data
+   * page as the previous one is usually found through the level cache
+   * rather than by a search from the root of the tree. The current
+   * <code>Key</code> and <code>Value</code> of this <code>Exchange</code>
+   * are not modified.
+   *
+   * @param keys
+   *            the keys to store
+   * @param values
+   *            the values to store; <code>values[i]</code> is stored with
+   *            <code>keys[i]</code>
+   * @return This <code>Exchange</code> to permit method call chaining
+   * @throws IllegalArgumentException
+   *             if there are fewer values than keys
+   * @throws PersistitException
+   */
+  public Exchange storeAll(final Key[] keys, final Value[] values) throws PersistitException {
+    if (values.length < keys.length) {
+      throw new IllegalArgumentException("Fewer values (" + values.length + ") than keys (" + keys.length + ")");
+    }
+    for (final int index : ascendingOrder(keys)) {
+      store(keys[index], values[index]);
+    }
+    return this;
+  }
+
+  private static Integer[] ascendingOrder(final Key[] keys) {
+    final Integer[] order = new Integer[keys.length];
+    for (int index = 0; index < order.length; index++) {
+      order[index] = index;
+    }
+    Arrays.sort(order, new Comparator<Integer>() {
+      @Override
+      public int compare(final Integer a, final Integer b) {
+        return keys[a].compareTo(keys[b]);
+      }
+    });
+    return order;
+  }
+
   /**
    * Helper for fully pulling a value out of a Buffer. That is, if the value
    * is a LONG_RECORD it will also be fetched.
@@ -3140,6 +3465,7 @@ public class Exchange implements ReadOnlyExchange {
    *             As thrown from {@link #search(Key, boolean)}
    */
   private void searchAndFetchInternal(final Value value, final int minimumBytes) throws PersistitException {
+    final long start = System.nanoTime();
     Buffer buffer = null;
     try {
       final int foundAt = search(_key, false);
@@ -3148,6 +3474,7 @@ public class Exchange implements ReadOnlyExchange {
       fetchFromBufferInternal(buffer, value, foundAt, minimumBytes);
       _volume.getStatistics().bumpFetchCounter();
       _tree.getStatistics().bumpFetchCounter();
+      _tree.getStatistics().getFetchLatency().record(System.nanoTime() - start);
     } finally {
       if (buffer != null) {
         buffer.releaseTouched();
@@ -3317,7 +3644,9 @@ public class Exchange implements ReadOnlyExchange {
       }
     }
 
+    final long start = System.nanoTime();
     final boolean result = removeKeyRangeInternal(_spareKey3, _spareKey4, fetchFirst);
+    _tree.getStatistics().getRemoveLatency().record(System.nanoTime() - start);
     _treeHolder.verifyReleased();
     return result;
   }
@@ -3362,7 +3691,9 @@ public class Exchange implements ReadOnlyExchange {
       throw new IllegalArgumentException("Second key must be greater than the first");
     }
 
+    final long start = System.nanoTime();
     final boolean result = removeKeyRangeInternal(_spareKey3, _spareKey4, false);
+    _tree.getStatistics().getRemoveLatency().record(System.nanoTime() - start);
     _treeHolder.verifyReleased();
     return result;
   }
@@ -4245,7 +4576,7 @@ public class Exchange implements ReadOnlyExchange {
         if (buffer.isAfterRightEdge(foundAt)) {
           final long rightSiblingPage = buffer.getRightSibling();
           if (rightSiblingPage > 0) {
-            final Buffer rightSibling = _pool.get(_volume, rightSiblingPage, false, true, _timeoutMillis);
+            final Buffer rightSibling = _pool.get(_volume, rightSiblingPage, false, true, _timeoutMillis, _tree);
             buffer.releaseTouched();
             //
             // Reset foundAtNext to point to the first key block
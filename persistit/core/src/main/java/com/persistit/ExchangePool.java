@@ -0,0 +1,88 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stack of released {@link Exchange} instances belonging to one
+ * {@link SessionId}. A session is used by at most one thread at a time, so the
+ * pool is not synchronized. To preserve the {@link Tree} and level cache state
+ * of pooled Exchanges, {@link #take(Volume, String)} prefers an Exchange that
+ * was last used on the requested tree.
+ *
+ * Hits and misses are counted in striped counters held by {@link Persistit},
+ * so that sessions on different threads do not contend on a shared counter.
+ */
+final class ExchangePool {
+
+    /*
+     * Number of Exchanges near the top of the stack examined for one that was
+     * last used on the requested tree
+     */
+    final static int TREE_MATCH_DEPTH = 8;
+
+    private final Persistit _persistit;
+
+    private final int _generation;
+
+    private final List<Exchange> _stack = new ArrayList<Exchange>();
+
+    ExchangePool(final Persistit persistit, final int generation) {
+        _persistit = persistit;
+        _generation = generation;
+    }
+
+    boolean belongsTo(final Persistit persistit, final int generation) {
+        return _persistit == persistit && _generation == generation;
+    }
+
+    /**
+     * Remove an Exchange from the pool, preferring one that was last used on
+     * the tree named <code>treeName</code> in <code>volume</code>.
+     *
+     * @param volume
+     * @param treeName
+     * @return a pooled Exchange, or <code>null</code> if the pool is empty
+     */
+    Exchange take(final Volume volume, final String treeName) {
+        final int size = _stack.size();
+        if (size == 0) {
+            _persistit.countExchangePoolTake(false);
+            return null;
+        }
+        int found = size - 1;
+        for (int index = size - 1; index >= 0 && index >= size - TREE_MATCH_DEPTH; index--) {
+            final Exchange exchange = _stack.get(index);
+            if (exchange.getVolume() == volume && exchange.getTree().getName().equals(treeName)) {
+                found = index;
+                break;
+            }
+        }
+        _persistit.countExchangePoolTake(true);
+        return _stack.remove(found);
+    }
+
+    void give(final Exchange exchange) {
+        _stack.add(exchange);
+    }
+
+    int size() {
+        return _stack.size();
+    }
+}
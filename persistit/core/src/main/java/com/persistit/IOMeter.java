@@ -63,6 +63,10 @@ class IOMeter implements IOMeterMXBean {
     private final static int MINIMUM_QUIESCENT_IO_THRESHOLD_KBYTES_PER_SEC = 0;
     private final static int MAXIMUM_QUIESCENT_IO_THRESHOLD_KBYTES_PER_SEC = 1000000;
 
+    private final static int DEFAULT_PREFETCH_WINDOW = 8;
+    private final static int MINIMUM_PREFETCH_WINDOW = 0;
+    private final static int MAXIMUM_PREFETCH_WINDOW = 256;
+
     private final static int READ_PAGE_FROM_VOLUME = 1;
     private final static int READ_PAGE_FROM_JOURNAL = 2;
     private final static int COPY_PAGE_FROM_JOURNAL = 3;
@@ -78,6 +82,13 @@ class IOMeter implements IOMeterMXBean {
 
     private long _quiescentIOthreshold = DEFAULT_QUIESCENT_IO_THRESHOLD_KBYTES_PER_SEC;
 
+    private volatile int _prefetchWindow = DEFAULT_PREFETCH_WINDOW;
+
+    private final AtomicLong _prefetchRequestCount = new AtomicLong();
+    private final AtomicLong _prefetchReadCount = new AtomicLong();
+    private final AtomicLong _prefetchHitCount = new AtomicLong();
+    private final AtomicLong _prefetchEvictedCount = new AtomicLong();
+
     private final AtomicReference<DataOutputStream> _logStream = new AtomicReference<DataOutputStream>();
 
     private String _logFileName;
@@ -175,6 +186,46 @@ class IOMeter implements IOMeterMXBean {
                 MAXIMUM_QUIESCENT_IO_THRESHOLD_KBYTES_PER_SEC);
     }
 
+    @Override
+    public int getPrefetchWindow() {
+        return _prefetchWindow;
+    }
+
+    /**
+     * An {@link Exchange} that repeatedly follows right-sibling links during
+     * traversal asks the PAGE_READER thread to read up to this many of the
+     * following pages ahead of the scan. The number of pages requested starts
+     * small and grows toward the window as the scan continues. A value of
+     * zero disables read-ahead.
+     * 
+     * @param prefetchWindow
+     *            the prefetchWindow to set
+     */
+    @Override
+    public void setPrefetchWindow(final int prefetchWindow) {
+        _prefetchWindow = Util.rangeCheck(prefetchWindow, MINIMUM_PREFETCH_WINDOW, MAXIMUM_PREFETCH_WINDOW);
+    }
+
+    @Override
+    public long getPrefetchRequestCount() {
+        return _prefetchRequestCount.get();
+    }
+
+    @Override
+    public long getPrefetchReadCount() {
+        return _prefetchReadCount.get();
+    }
+
+    @Override
+    public long getPrefetchHitCount() {
+        return _prefetchHitCount.get();
+    }
+
+    @Override
+    public long getPrefetchEvictedCount() {
+        return _prefetchEvictedCount.get();
+    }
+
     /**
      * @return the ioRate
      */
@@ -357,6 +408,22 @@ class IOMeter implements IOMeterMXBean {
         log(GET_PAGE, volume, pageAddress, size, 0, bufferIndex);
     }
 
+    public void chargePrefetchRequest(final int count) {
+        _prefetchRequestCount.addAndGet(count);
+    }
+
+    public void chargePrefetchRead() {
+        _prefetchReadCount.incrementAndGet();
+    }
+
+    public void chargePrefetchHit() {
+        _prefetchHitCount.incrementAndGet();
+    }
+
+    public void chargePrefetchEvicted() {
+        _prefetchEvictedCount.incrementAndGet();
+    }
+
     @Override
     public long totalOperations(final String opName) {
         return totalOperations(op(opName));
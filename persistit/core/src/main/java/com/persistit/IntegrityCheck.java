@@ -18,6 +18,10 @@ package com.persistit;
 
 import java.util.ArrayList;
 import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.persistit.Buffer.VerifyVisitor;
 import com.persistit.CLI.Arg;
@@ -25,6 +29,7 @@ import com.persistit.CLI.Cmd;
 import com.persistit.CleanupManager.CleanupIndexHole;
 import com.persistit.exception.InUseException;
 import com.persistit.exception.PersistitException;
+import com.persistit.exception.PersistitInterruptedException;
 import com.persistit.util.Debug;
 import com.persistit.util.Util;
 
@@ -47,6 +52,13 @@ import com.persistit.util.Util;
  * <code>Tree</code> while <code>IntegrityCheck</code> is reviewing its
  * structure, spurious faults are likely to be detected.
  * </p>
+ * <p>
+ * When the thread count is greater than one, each sufficiently deep
+ * <code>Tree</code> is split at an upper index level into subtrees which are
+ * checked concurrently on a {@link ForkJoinPool}. The results of the subtree
+ * checks are merged, and the sibling pointers that cross subtree boundaries
+ * are verified, once all subtrees have been checked.
+ * </p>
  * 
  * @version 1.0
  */
@@ -55,6 +67,8 @@ public class IntegrityCheck extends Task {
     final static int MAX_HOLES_TO_FIX = 1000;
     final static int MAX_WALK_RIGHT = 1000;
     final static int MAX_PRUNING_ERRORS = 50;
+    final static int MAX_THREADS = 64;
+    final static int SUBTREES_PER_THREAD = 4;
 
     private Volume _currentVolume;
     private Tree _currentTree;
@@ -75,6 +89,16 @@ public class IntegrityCheck extends Task {
     private boolean _prune;
     private boolean _pruneAndClear;
     private boolean _csv;
+    private int _threads = 1;
+    private int _pageBudget;
+
+    private final IntegrityCheck _parent;
+    private int _splitLevel = -1;
+    private final ArrayList<Subtree> _subtrees = new ArrayList<Subtree>();
+    private final long[] _firstPages = new long[Exchange.MAX_TREE_DEPTH];
+    private final Key[] _firstKeys = new Key[Exchange.MAX_TREE_DEPTH];
+    private long _budgetStartTime;
+    private final AtomicLong _budgetPageCount = new AtomicLong();
 
     private final ArrayList<Fault> _faults = new ArrayList<Fault>();
     private final ArrayList<CleanupIndexHole> _holes = new ArrayList<CleanupIndexHole>();
@@ -138,6 +162,23 @@ public class IntegrityCheck extends Task {
             _garbagePageCount = counters._garbagePageCount - _garbagePageCount;
         }
 
+        void add(final Counters counters) {
+            _indexPageCount += counters._indexPageCount;
+            _dataPageCount += counters._dataPageCount;
+            _indexBytesInUse += counters._indexBytesInUse;
+            _dataBytesInUse += counters._dataBytesInUse;
+            _longRecordPageCount += counters._longRecordPageCount;
+            _longRecordBytesInUse += counters._longRecordBytesInUse;
+            _indexHoleCount += counters._indexHoleCount;
+            _mvvPageCount += counters._mvvPageCount;
+            _mvvCount += counters._mvvCount;
+            _mvvOverhead += counters._mvvOverhead;
+            _mvvAntiValues += counters._mvvAntiValues;
+            _pruningErrorCount += counters._pruningErrorCount;
+            _prunedPageCount += counters._prunedPageCount;
+            _garbagePageCount += counters._garbagePageCount;
+        }
+
         @Override
         public String toString() {
             return String.format("Index pages/bytes: %,d / %,d Data pages/bytes: %,d / %,d"
@@ -205,7 +246,9 @@ public class IntegrityCheck extends Task {
             @Arg("_flag|h|Fix index holes") final boolean fixHoles,
             @Arg("_flag|p|Prune MVV values") final boolean prune,
             @Arg("_flag|P|Prune MVV values and clear TransactionIndex") final boolean pruneAndClear,
-            @Arg("_flag|v|Verbose results") final boolean verbose, @Arg("_flag|c|Format as CSV") final boolean csv)
+            @Arg("_flag|v|Verbose results") final boolean verbose, @Arg("_flag|c|Format as CSV") final boolean csv,
+            @Arg("threads|int:1:1:64|Number of threads checking subtrees concurrently") final int threads,
+            @Arg("iobudget|int:0:0:1000000|Maximum pages read per second, 0 for no limit") final int pageBudget)
             throws Exception {
         final IntegrityCheck task = new IntegrityCheck();
         task._treeSelector = TreeSelector.parseSelector(treeSelectorString, regex, '\\');
@@ -214,6 +257,8 @@ public class IntegrityCheck extends Task {
         task._pruneAndClear = pruneAndClear;
         task._suspendUpdates = !dontSuspendUpdates;
         task._csv = csv;
+        task._threads = threads;
+        task._pageBudget = pageBudget;
         task.setMessageLogVerbosity(verbose ? LOG_VERBOSE : LOG_NORMAL);
         return task;
     }
@@ -222,11 +267,28 @@ public class IntegrityCheck extends Task {
      * Package-private constructor for use in a {@link Task}.
      */
     IntegrityCheck() {
+        _parent = null;
     }
 
     public IntegrityCheck(final Persistit persistit) {
         super(persistit);
         _persistit = persistit;
+        _parent = null;
+    }
+
+    /**
+     * Construct a worker that checks one subtree of the parent's current
+     * tree.
+     */
+    private IntegrityCheck(final IntegrityCheck parent, final Subtree subtree) {
+        super(parent._persistit);
+        _parent = parent;
+        _prune = parent._prune;
+        _fixHoles = parent._fixHoles;
+        _currentVolume = parent._currentVolume;
+        _currentTree = parent._currentTree;
+        _treeDepth = parent._treeDepth;
+        System.arraycopy(subtree._path, 0, _edgePages, 0, _edgePages.length);
     }
 
     @Override
@@ -355,11 +417,16 @@ public class IntegrityCheck extends Task {
         _currentTree = tree;
         _holes.clear();
         _treeDepth = tree.getDepth();
+        _subtrees.clear();
+        _budgetStartTime = System.nanoTime();
+        _budgetPageCount.set(0);
         for (int index = Exchange.MAX_TREE_DEPTH; --index >= 0;) {
             _edgeBuffers[index] = null;
             _edgePages[index] = 0;
             _edgeKeys[index] = null;
             _edgePositions[index] = 0;
+            _firstPages[index] = 0;
+            _firstKeys[index] = null;
         }
     }
 
@@ -437,6 +504,49 @@ public class IntegrityCheck extends Task {
         _fixHoles = fixHoles;
     }
 
+    /**
+     * Indicate how many threads check the subtrees of a tree concurrently.
+     * 
+     * @return the thread count
+     */
+    public int getThreadCount() {
+        return _threads;
+    }
+
+    /**
+     * Control how many threads check the subtrees of a tree concurrently. A
+     * value of 1 checks each tree on the calling thread.
+     * 
+     * @param threads
+     *            the thread count, between 1 and {@value #MAX_THREADS}
+     */
+    public void setThreadCount(final int threads) {
+        _threads = Util.rangeCheck(threads, 1, MAX_THREADS);
+    }
+
+    /**
+     * Indicate the maximum rate, in pages per second, at which pages are
+     * read by this check.
+     * 
+     * @return the page budget, or 0 if the rate is not limited
+     */
+    public int getPageBudget() {
+        return _pageBudget;
+    }
+
+    /**
+     * Control the maximum rate, in pages per second, at which pages are read
+     * by this check. All threads performing the check share the budget and
+     * pause when they get ahead of it, leaving I/O capacity for foreground
+     * work.
+     * 
+     * @param pageBudget
+     *            the page budget, or 0 for no limit
+     */
+    public void setPageBudget(final int pageBudget) {
+        _pageBudget = Util.rangeCheck(pageBudget, 0, Integer.MAX_VALUE);
+    }
+
     /**
      * Control whether <code>IntegrityCheck</code> should attempt to prune pages
      * containing MVV values.
@@ -751,6 +861,81 @@ public class IntegrityCheck extends Task {
             }
             return _bitSet.get((int) index);
         }
+
+        /**
+         * Add all bits of the supplied set to this one.
+         * 
+         * @return a set of the bits that were present in both
+         */
+        public LongBitSet merge(final LongBitSet other) {
+            final LongBitSet both = new LongBitSet();
+            if (_bitSet.intersects(other._bitSet)) {
+                both._bitSet.or(other._bitSet);
+                both._bitSet.and(_bitSet);
+            }
+            _bitSet.or(other._bitSet);
+            return both;
+        }
+
+        public long nextSetBit(final long from) {
+            return _bitSet.nextSetBit((int) from);
+        }
+    }
+
+    /**
+     * A subtree deferred to a worker thread, and the results of the worker
+     * that must be merged in key order. Page bits and counters are merged as
+     * soon as the worker finishes.
+     */
+    private static class Subtree {
+        final Key _parentKey;
+        final long _parent;
+        final long _page;
+        final long[] _path;
+        final long[] _lastPages = new long[Exchange.MAX_TREE_DEPTH];
+        final Key[] _lastKeys = new Key[Exchange.MAX_TREE_DEPTH];
+        final long[] _firstPages = new long[Exchange.MAX_TREE_DEPTH];
+        final Key[] _firstKeys = new Key[Exchange.MAX_TREE_DEPTH];
+        List<Fault> _faults;
+        List<CleanupIndexHole> _holes;
+        PersistitException _exception;
+
+        Subtree(final Key parentKey, final long parent, final long page, final long[] path) {
+            _parentKey = new Key(parentKey);
+            _parent = parent;
+            _page = page;
+            _path = path.clone();
+        }
+    }
+
+    /**
+     * Checks a range of the deferred subtrees, splitting the range in half
+     * until a single subtree remains.
+     */
+    private class SubtreeAction extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Subtree> _list;
+        private final int _from;
+        private final int _to;
+        private final Tree _tree;
+
+        SubtreeAction(final List<Subtree> list, final int from, final int to, final Tree tree) {
+            _list = list;
+            _from = from;
+            _to = to;
+            _tree = tree;
+        }
+
+        @Override
+        protected void compute() {
+            if (_to - _from == 1) {
+                checkSubtree(_list.get(_from), _tree);
+            } else {
+                final int mid = (_from + _to) >>> 1;
+                invokeAll(new SubtreeAction(_list, _from, mid, _tree), new SubtreeAction(_list, mid, _to, _tree));
+            }
+        }
     }
 
     /**
@@ -837,7 +1022,11 @@ public class IntegrityCheck extends Task {
         try {
             try {
                 initTree(tree);
+                _splitLevel = splitLevel(tree);
                 checkTree(new Key(_persistit), 0, tree.getRootPageAddr(), _treeDepth - 1, tree);
+                if (!_subtrees.isEmpty()) {
+                    checkSubtrees(tree);
+                }
             } finally {
                 //
                 // Release all the buffers.
@@ -851,6 +1040,8 @@ public class IntegrityCheck extends Task {
                     }
                 }
                 _currentTree = null;
+                _splitLevel = -1;
+                _subtrees.clear();
             }
         } finally {
             tree.release();
@@ -934,6 +1125,8 @@ public class IntegrityCheck extends Task {
             } else {
                 key = new Key(parentKey);
                 _edgeKeys[level] = key;
+                _firstPages[level] = page;
+                _firstKeys[level] = new Key(parentKey);
             }
 
             Debug.$assert0.t(leftSibling != buffer);
@@ -982,8 +1175,13 @@ public class IntegrityCheck extends Task {
                             addFault("Invalid index pointer value " + child, page, level, foundAt);
                         }
 
-                        // Recursively check the subtree.
-                        checkTree(key, page, child, level - 1, tree);
+                        if (level - 1 == _splitLevel) {
+                            // Defer the subtree to a worker thread.
+                            _subtrees.add(new Subtree(key, page, child, _edgePages));
+                        } else {
+                            // Recursively check the subtree.
+                            checkTree(key, page, child, level - 1, tree);
+                        }
                     }
                 } else {
                     throw new RuntimeException("should never happen!");
@@ -1003,6 +1201,175 @@ public class IntegrityCheck extends Task {
         }
     }
 
+    /**
+     * Choose the level at which to split a tree into subtrees that are
+     * checked concurrently: the children of the root, or their children if
+     * the root has too few to keep all threads busy.
+     * 
+     * @return the level, or -1 if the tree should be checked on the calling
+     *         thread
+     */
+    private int splitLevel(final Tree tree) throws PersistitException {
+        if (_threads <= 1 || _parent != null || _treeDepth < 3) {
+            return -1;
+        }
+        final int rootLevel = _treeDepth - 1;
+        final Buffer root = getPage(tree.getRootPageAddr());
+        final int fanout;
+        try {
+            fanout = root.getKeyCount();
+        } finally {
+            root.release();
+        }
+        if (fanout >= _threads * SUBTREES_PER_THREAD || rootLevel < 3) {
+            return rootLevel - 1;
+        } else {
+            return rootLevel - 2;
+        }
+    }
+
+    /**
+     * Check the subtrees deferred while traversing the upper levels of the
+     * tree, then merge the faults of each in key order and check the
+     * boundaries between them.
+     */
+    private void checkSubtrees(final Tree tree) throws PersistitException {
+        final List<Subtree> subtrees = new ArrayList<Subtree>(_subtrees);
+        final ForkJoinPool pool = new ForkJoinPool(_threads);
+        try {
+            pool.invoke(new SubtreeAction(subtrees, 0, subtrees.size(), tree));
+        } finally {
+            pool.shutdown();
+        }
+        PersistitException exception = null;
+        Subtree previous = null;
+        for (final Subtree subtree : subtrees) {
+            for (final Fault fault : subtree._faults) {
+                if (_faults.size() < MAX_FAULTS) {
+                    _faults.add(fault);
+                }
+            }
+            for (final CleanupIndexHole hole : subtree._holes) {
+                if (_holes.size() < MAX_HOLES_TO_FIX) {
+                    _holes.add(hole);
+                }
+            }
+            if (exception == null) {
+                exception = subtree._exception;
+            }
+            if (previous != null && exception == null) {
+                checkBoundary(previous, subtree, tree);
+            }
+            previous = subtree;
+        }
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /**
+     * Check one subtree on a worker. Called on a {@link ForkJoinPool} thread.
+     * The worker is discarded once its results have been merged, so only the
+     * page bits of running workers are held in memory.
+     */
+    private void checkSubtree(final Subtree subtree, final Tree tree) {
+        final IntegrityCheck worker = new IntegrityCheck(this, subtree);
+        try {
+            worker.checkTree(subtree._parentKey, subtree._parent, subtree._page, _splitLevel, tree);
+        } catch (final PersistitException e) {
+            subtree._exception = e;
+        } finally {
+            for (int level = 0; level <= _splitLevel; level++) {
+                subtree._lastPages[level] = worker._edgePages[level];
+                subtree._lastKeys[level] = worker._edgeKeys[level];
+                final Buffer buffer = worker._edgeBuffers[level];
+                if (buffer != null) {
+                    buffer.release();
+                    worker._edgeBuffers[level] = null;
+                }
+            }
+            System.arraycopy(worker._firstPages, 0, subtree._firstPages, 0, subtree._firstPages.length);
+            System.arraycopy(worker._firstKeys, 0, subtree._firstKeys, 0, subtree._firstKeys.length);
+            subtree._faults = worker._faults;
+            subtree._holes = worker._holes;
+            merge(worker);
+        }
+    }
+
+    /**
+     * Add the page bits and counters of a finished worker to this
+     * <code>IntegrityCheck</code>. Called concurrently by workers.
+     */
+    private synchronized void merge(final IntegrityCheck worker) {
+        _counters.add(worker._counters);
+        _pagesVisited += worker._pagesVisited;
+        final LongBitSet both = _usedPageBits.merge(worker._usedPageBits);
+        for (long page = both.nextSetBit(0); page >= 0; page = both.nextSetBit(page + 1)) {
+            addFault("Page has more than one parent", page, 0, 0);
+        }
+    }
+
+    /**
+     * Verify the sibling pointers that link the right edge of one subtree to
+     * the left edge of the next at each level, as {@link #walkRight} does
+     * when both are checked on one thread.
+     */
+    private void checkBoundary(final Subtree left, final Subtree right, final Tree tree) throws PersistitException {
+        for (int level = _splitLevel; level >= 0; level--) {
+            final long leftPage = left._lastPages[level];
+            final long rightPage = right._firstPages[level];
+            if (leftPage == 0 || rightPage == 0) {
+                continue;
+            }
+            final Key key = left._lastKeys[level];
+            _edgeBuffers[level] = getPage(leftPage);
+            _edgePages[level] = leftPage;
+            final Buffer buffer = walkRight(level, rightPage, key, tree);
+            _edgeBuffers[level] = null;
+            _edgePages[level] = 0;
+            buffer.release();
+            final int compare = key.compareTo(right._firstKeys[level]);
+            if (compare != 0) {
+                addFault("left sibling final key is " + (compare < 0 ? "less than" : "greater than")
+                        + " parent key", rightPage, level, 0);
+            }
+        }
+    }
+
+    /**
+     * Pause if pages are being read faster than the page budget allows. The
+     * budget is shared by all workers.
+     */
+    private void throttle() throws PersistitInterruptedException {
+        if (_parent != null) {
+            _parent.throttle();
+        } else if (_pageBudget > 0) {
+            final long due = _budgetStartTime + _budgetPageCount.incrementAndGet() * Util.NS_PER_S / _pageBudget;
+            final long delay = (due - System.nanoTime()) / Util.NS_PER_MS;
+            if (delay > 0) {
+                Util.sleep(delay);
+            }
+        }
+    }
+
+    @Override
+    protected void poll() {
+        if (_parent != null) {
+            _parent.poll();
+        } else {
+            super.poll();
+        }
+    }
+
+    @Override
+    protected void postMessage(final String message, final int level) {
+        if (_parent != null) {
+            _parent.postMessage(message, level);
+        } else {
+            super.postMessage(message, level);
+        }
+    }
+
     private void checkGarbage(final long garbageRootPage) throws PersistitException {
         long garbagePageAddress = garbageRootPage;
         boolean first = true;
@@ -1248,6 +1615,7 @@ public class IntegrityCheck extends Task {
 
     private Buffer getPage(final long page) throws PersistitException {
         poll();
+        throttle();
         final BufferPool pool = _currentVolume.getPool();
         try {
             final Buffer buffer = pool
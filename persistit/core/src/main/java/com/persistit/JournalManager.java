@@ -21,11 +21,14 @@ import static com.persistit.TransactionStatus.ABORTED;
 import static com.persistit.util.SequencerConstants.PAGE_MAP_READ_INVALIDATE_A;
 import static com.persistit.util.SequencerConstants.RECOVERY_PRUNING_B;
 import static com.persistit.util.ThreadSequencer.sequence;
+import static com.persistit.util.Util.MS_PER_S;
 import static com.persistit.util.Util.NS_PER_MS;
+import static com.persistit.util.Util.NS_PER_S;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -34,13 +37,25 @@ import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -53,6 +68,7 @@ import com.persistit.JournalRecord.IV;
 import com.persistit.JournalRecord.JE;
 import com.persistit.JournalRecord.JH;
 import com.persistit.JournalRecord.PA;
+import com.persistit.JournalRecord.PC;
 import com.persistit.JournalRecord.PM;
 import com.persistit.JournalRecord.TM;
 import com.persistit.JournalRecord.TX;
@@ -85,9 +101,23 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
     final static int URGENT_COMMIT_DELAY_MILLIS = 50;
     final static int GENTLE_COMMIT_DELAY_MILLIS = 12;
     private final static int IO_MEASUREMENT_CYCLES = 8;
+    /*
+     * Adaptive flush mode: weight of the latest flush cycle in the smoothed
+     * commit arrival rate, rate per second below which the system is treated
+     * as idle, shortest flush interval and the number of commits the GROUP
+     * commit window tries to gather into one flush.
+     */
+    private final static double COMMIT_RATE_SMOOTHING = 0.25;
+    private final static double IDLE_COMMIT_RATE = 1.0;
+    private final static long MINIMUM_ADAPTIVE_FLUSH_INTERVAL_MS = 1;
+    private final static int GROUP_COMMIT_BATCH = 8;
     private final static int TOO_MANY_WARN_THRESHOLD = 5;
     private final static int TOO_MANY_ERROR_THRESHOLD = 10;
     private final static long KILO = 1024;
+    /*
+     * Number of recent page images kept as delta bases in DELTA mode
+     */
+    private final static int DELTA_BASE_CACHE_SIZE = 256;
 
     /**
      * REGEX expression that recognizes the name of a journal file.
@@ -100,6 +130,13 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
 
     private final RangeRemovingArrayList<PageNode> _pageList = new RangeRemovingArrayList<PageNode>();
 
+    /*
+     * No later than the timestamp of any PageNode in _pageMap. Lowered as
+     * pages are written and recomputed as pages are copied back, so that
+     * getEarliestUncopiedTimestamp need neither lock nor scan the map.
+     */
+    private volatile long _earliestUncopiedTimestamp = Long.MAX_VALUE;
+
     private final Map<PageNode, PageNode> _branchMap = new HashMap<PageNode, PageNode>();
 
     private final Map<Volume, Integer> _volumeToHandleMap = new HashMap<Volume, Integer>();
@@ -123,6 +160,29 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
 
     private long _writeBufferAddress = Long.MAX_VALUE;
 
+    /*
+     * A full write buffer handed off to be written by the JOURNAL_WRITER
+     * thread while appends continue in _writeBuffer. The buffer is flipped;
+     * its remaining bytes have not yet been written to _pendingChannel at
+     * _pendingBufferAddress. These fields, _spareBuffer and
+     * _lastWrittenAddress change only while _writeLock is held.
+     */
+    private volatile ByteBuffer _pendingBuffer;
+
+    private volatile long _pendingBufferAddress;
+
+    private volatile FileChannel _pendingChannel;
+
+    private volatile ByteBuffer _spareBuffer;
+
+    private volatile long _lastWrittenAddress;
+
+    private volatile long _lastForcedAddress;
+
+    private final ReentrantLock _writeLock = new ReentrantLock();
+
+    private JournalWriter _writer;
+
     private JournalFlusher _flusher;
 
     private JournalCopier _copier;
@@ -137,8 +197,17 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
 
     private final AtomicBoolean _appendOnly = new AtomicBoolean();
 
+    /*
+     * Guards _directVolumeWriters and changes to _appendOnly
+     */
+    private final Object _directVolumeWriteLock = new Object();
+
+    private int _directVolumeWriters;
+
     private final AtomicBoolean _ignoreMissingVolume = new AtomicBoolean();
 
+    private final AtomicBoolean _journalMapped = new AtomicBoolean();
+
     private String _journalFilePath;
 
     /**
@@ -157,12 +226,18 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
 
     private final Map<Long, FileChannel> _journalFileChannels = new HashMap<Long, FileChannel>();
 
+    /**
+     * Read-only mappings of sealed journal files, keyed by generation.
+     * Populated on demand when {@link #isJournalMapped()} is true.
+     */
+    private final Map<Long, MappedByteBuffer> _journalFileMappings = new HashMap<Long, MappedByteBuffer>();
+
     /**
      * Counter used to assign internal handle values to Volume and Tree records.
      */
     private int _handleCounter = 0;
 
-    private Checkpoint _lastValidCheckpoint = new Checkpoint(0, 0);
+    private volatile Checkpoint _lastValidCheckpoint = new Checkpoint(0, 0);
 
     private long _lastValidCheckpointJournalAddress = 0;
 
@@ -178,7 +253,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
 
     private volatile long _readPageCount = 0;
 
-    private volatile long _copiedPageCount = 0;
+    private final AtomicLong _copiedPageCount = new AtomicLong();
 
     private volatile long _droppedPageCount = 0;
 
@@ -190,8 +265,45 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
 
     private final AtomicLong _totalFlushIoTime = new AtomicLong();
 
+    private final AtomicLong _totalGroupCommitFlushes = new AtomicLong();
+
+    private final AtomicLong _totalMappedReads = new AtomicLong();
+
+    private volatile String _pageCompression = DEFAULT_PAGE_COMPRESSION;
+
+    private final Queue<PageCompressor> _pageCompressors = new ConcurrentLinkedQueue<PageCompressor>();
+
+    private final DeltaBaseCache _deltaBases = new DeltaBaseCache(DELTA_BASE_CACHE_SIZE);
+
+    private volatile long _compressedPageCount = 0;
+
+    private volatile long _deltaPageCount = 0;
+
+    private volatile long _pageCompressionInputBytes = 0;
+
+    private volatile long _pageCompressionOutputBytes = 0;
+
+    private final GroupCommitter _groupCommitter = new GroupCommitter();
+
     private volatile long _flushInterval = DEFAULT_FLUSH_INTERVAL_MS;
 
+    private volatile long _flushTarget = DEFAULT_FLUSH_TARGET_MS;
+
+    private volatile long _effectiveFlushInterval = DEFAULT_FLUSH_INTERVAL_MS;
+
+    private volatile long _groupCommitWindow;
+
+    private volatile double _commitArrivalRate;
+
+    private final AtomicLong _commitArrivals = new AtomicLong();
+
+    /*
+     * Accessed only by the JOURNAL_FLUSHER thread
+     */
+    private long _lastCommitArrivals;
+
+    private long _lastArrivalRateTime;
+
     private volatile long _slowIoAlertThreshold = DEFAULT_SLOW_IO_ALERT_THRESHOLD_MS;
 
     private final TransactionPlayer _player = new TransactionPlayer(new JournalTransactionPlayerSupport());
@@ -213,6 +325,17 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
 
     private volatile int _copiesPerCycle = DEFAULT_COPIES_PER_CYCLE;
 
+    private volatile int _copierConcurrency = DEFAULT_COPIER_CONCURRENCY;
+
+    /*
+     * Threads that write copied pages to their volumes when
+     * _copierConcurrency is greater than one. Created on demand by the
+     * JOURNAL_COPIER thread and replaced when the concurrency changes.
+     */
+    private ExecutorService _copyWriters;
+
+    private int _copyWriterCount;
+
     private volatile long _copierTimestampLimit = Long.MAX_VALUE;
 
     private volatile long _earliestCommittedTimestamp = Long.MAX_VALUE;
@@ -290,6 +413,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
                 }
             }
             Collections.sort(_pageList, PageNode.READ_COMPARATOR);
+            updateEarliestUncopiedTimestamp();
 
         } else {
             _journalFilePath = journalPath(path).getAbsoluteFile().toString();
@@ -306,9 +430,11 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         }
         _flusher = new JournalFlusher();
         _copier = new JournalCopier();
+        _writer = new JournalWriter();
 
         _copier.start();
         _flusher.start();
+        _writer.start();
     }
 
     /**
@@ -321,7 +447,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         if (_blockSize == 0) {
             return;
         }
-        info.copiedPageCount = _copiedPageCount;
+        info.copiedPageCount = _copiedPageCount.get();
         info.droppedPageCount = _droppedPageCount;
         info.copying = _copying.get();
         info.currentGeneration = _currentAddress;
@@ -393,9 +519,61 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         return _copyFast.get();
     }
 
+    @Override
+    public boolean isJournalMapped() {
+        return _journalMapped.get();
+    }
+
+    /**
+     * Enable or disable append-only mode. When enabling, wait until every
+     * writer registered by {@link #beginDirectVolumeWrites()} has finished,
+     * so that no page is written directly to a volume file once this method
+     * returns, for example while {@link BackupTask} copies the volume files.
+     */
     @Override
     public void setAppendOnly(final boolean appendOnly) {
-        _appendOnly.set(appendOnly);
+        synchronized (_directVolumeWriteLock) {
+            _appendOnly.set(appendOnly);
+            boolean interrupted = false;
+            while (appendOnly && _directVolumeWriters > 0) {
+                try {
+                    _directVolumeWriteLock.wait();
+                } catch (final InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Register a writer that bypasses the journal to write pages directly to
+     * a volume file. Registration is refused while append-only mode is
+     * enabled; otherwise {@link #setAppendOnly(boolean)} will not enable
+     * append-only mode until the writer calls
+     * {@link #endDirectVolumeWrites()}.
+     * 
+     * @return <code>true</code> if the writer may write directly to volume
+     *         files
+     */
+    boolean beginDirectVolumeWrites() {
+        synchronized (_directVolumeWriteLock) {
+            if (_appendOnly.get()) {
+                return false;
+            }
+            _directVolumeWriters++;
+            return true;
+        }
+    }
+
+    void endDirectVolumeWrites() {
+        synchronized (_directVolumeWriteLock) {
+            assert _directVolumeWriters > 0;
+            _directVolumeWriters--;
+            _directVolumeWriteLock.notifyAll();
+        }
     }
 
     @Override
@@ -408,6 +586,14 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         _copyFast.set(fast);
     }
 
+    @Override
+    public synchronized void setJournalMapped(final boolean mapped) {
+        _journalMapped.set(mapped);
+        if (!mapped) {
+            _journalFileMappings.clear();
+        }
+    }
+
     @Override
     public long getFlushInterval() {
         return _flusher.getPollInterval();
@@ -418,6 +604,125 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         _flusher.setPollInterval(flushInterval);
     }
 
+    @Override
+    public long getFlushTarget() {
+        return _flushTarget;
+    }
+
+    @Override
+    public void setFlushTarget(final long flushTarget) {
+        Util.rangeCheck(flushTarget, MINIMUM_FLUSH_TARGET_MS, MAXIMUM_FLUSH_TARGET_MS);
+        _flushTarget = flushTarget;
+        final JournalFlusher flusher = _flusher;
+        if (flushTarget > 0) {
+            final long ioNanos = flusher == null ? 0 : flusher._expectedIoTime;
+            _effectiveFlushInterval = adaptiveFlushInterval(flushTarget, ioNanos, _commitArrivalRate,
+                    flusher == null ? DEFAULT_FLUSH_INTERVAL_MS : flusher.getPollInterval());
+            _groupCommitWindow = adaptiveGroupCommitWindow(flushTarget, ioNanos, _commitArrivalRate);
+        }
+        if (flusher != null) {
+            flusher.kick();
+        }
+    }
+
+    @Override
+    public long getEffectiveFlushInterval() {
+        return _flushTarget > 0 ? _effectiveFlushInterval : getFlushInterval();
+    }
+
+    @Override
+    public long getGroupCommitWindow() {
+        return _flushTarget > 0 ? _groupCommitWindow : _persistit.getTransactionCommitStallTime();
+    }
+
+    @Override
+    public double getCommitArrivalRate() {
+        return _commitArrivalRate;
+    }
+
+    /**
+     * Called by the JOURNAL_FLUSHER after each flush cycle. Updates the
+     * smoothed commit arrival rate and, in adaptive mode, recomputes the flush
+     * interval and the GROUP commit window from the rate and the observed
+     * force() latency.
+     * 
+     * @param now
+     *            current System.nanoTime()
+     * @param ioNanos
+     *            expected duration of a flush cycle
+     */
+    void adaptFlushInterval(final long now, final long ioNanos) {
+        final long arrivals = _commitArrivals.get();
+        final long elapsed = now - _lastArrivalRateTime;
+        if (_lastArrivalRateTime != 0 && elapsed > 0) {
+            final double rate = (double) (arrivals - _lastCommitArrivals) * NS_PER_S / elapsed;
+            _commitArrivalRate = _commitArrivalRate + (rate - _commitArrivalRate) * COMMIT_RATE_SMOOTHING;
+        }
+        _lastCommitArrivals = arrivals;
+        _lastArrivalRateTime = now;
+        final long target = _flushTarget;
+        if (target > 0) {
+            _effectiveFlushInterval = adaptiveFlushInterval(target, ioNanos, _commitArrivalRate, getFlushInterval());
+            _groupCommitWindow = adaptiveGroupCommitWindow(target, ioNanos, _commitArrivalRate);
+        }
+    }
+
+    /**
+     * Compute the flush interval for adaptive mode. A commit may wait for a
+     * flush cycle already in progress, then for the interval, then for its own
+     * flush cycle, so the interval is the target less two flush durations.
+     * While no commits are arriving the fixed interval is used if it is
+     * longer.
+     * 
+     * @param targetMs
+     *            target durability lag in milliseconds
+     * @param ioNanos
+     *            expected duration of a flush cycle
+     * @param commitsPerSecond
+     *            smoothed commit arrival rate
+     * @param fixedIntervalMs
+     *            the configured flush interval
+     * @return the flush interval in milliseconds
+     */
+    static long adaptiveFlushInterval(final long targetMs, final long ioNanos, final double commitsPerSecond,
+            final long fixedIntervalMs) {
+        final long budget = adaptiveFlushBudget(targetMs, ioNanos);
+        if (commitsPerSecond < IDLE_COMMIT_RATE) {
+            return Math.max(budget, fixedIntervalMs);
+        }
+        return budget;
+    }
+
+    /**
+     * Compute the time a GROUP commit waits for other transactions before
+     * flushing in adaptive mode. Commits arriving while a flush is in progress
+     * already share the next one, so the window only covers the additional
+     * time needed to gather {@value #GROUP_COMMIT_BATCH} commits, and is zero
+     * when no other commit is likely to arrive within the target.
+     * 
+     * @param targetMs
+     *            target durability lag in milliseconds
+     * @param ioNanos
+     *            expected duration of a flush cycle
+     * @param commitsPerSecond
+     *            smoothed commit arrival rate
+     * @return the window in milliseconds
+     */
+    static long adaptiveGroupCommitWindow(final long targetMs, final long ioNanos, final double commitsPerSecond) {
+        final long budget = adaptiveFlushBudget(targetMs, ioNanos);
+        final double commitsPerMs = commitsPerSecond / MS_PER_S;
+        if (commitsPerMs * budget < 1) {
+            return 0;
+        }
+        final double fill = GROUP_COMMIT_BATCH / commitsPerMs - (double) ioNanos / NS_PER_MS;
+        return Math.max(0, Math.min(budget / 2, (long) fill));
+    }
+
+    private static long adaptiveFlushBudget(final long targetMs, final long ioNanos) {
+        final long ioMs = (ioNanos + NS_PER_MS - 1) / NS_PER_MS;
+        return Math.max(MINIMUM_ADAPTIVE_FLUSH_INTERVAL_MS, targetMs - 2 * ioMs);
+    }
+
     @Override
     public long getCopierInterval() {
         return _copier.getPollInterval();
@@ -428,6 +733,48 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         _copier.setPollInterval(copierInterval);
     }
 
+    @Override
+    public int getCopierConcurrency() {
+        return _copierConcurrency;
+    }
+
+    @Override
+    public void setCopierConcurrency(final int concurrency) {
+        Util.rangeCheck(concurrency, MINIMUM_COPIER_CONCURRENCY, MAXIMUM_COPIER_CONCURRENCY);
+        _copierConcurrency = concurrency;
+    }
+
+    @Override
+    public String getPageCompression() {
+        return _pageCompression;
+    }
+
+    @Override
+    public void setPageCompression(final String mode) {
+        _pageCompression = checkPageCompression(mode);
+    }
+
+    /**
+     * Validate a journal page compression mode.
+     * 
+     * @param mode
+     *            one of {@value #PAGE_COMPRESSION_NONE},
+     *            {@value #PAGE_COMPRESSION_DEFLATE} or
+     *            {@value #PAGE_COMPRESSION_DELTA}, not case-sensitive
+     * @return the canonical name of the mode
+     * @throws IllegalArgumentException
+     *             if the mode is not recognized
+     */
+    static String checkPageCompression(final String mode) {
+        for (final String candidate : new String[] { PAGE_COMPRESSION_NONE, PAGE_COMPRESSION_DEFLATE,
+                PAGE_COMPRESSION_DELTA }) {
+            if (candidate.equalsIgnoreCase(mode)) {
+                return candidate;
+            }
+        }
+        throw new IllegalArgumentException("No such page compression mode " + mode);
+    }
+
     @Override
     public void setRollbackPruningEnabled(final boolean rollbackPruning) {
         _rollbackPruning.set(rollbackPruning);
@@ -472,6 +819,26 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         return _writePageCount;
     }
 
+    @Override
+    public long getCompressedPageCount() {
+        return _compressedPageCount;
+    }
+
+    @Override
+    public long getDeltaPageCount() {
+        return _deltaPageCount;
+    }
+
+    @Override
+    public long getPageCompressionInputBytes() {
+        return _pageCompressionInputBytes;
+    }
+
+    @Override
+    public long getPageCompressionOutputBytes() {
+        return _pageCompressionOutputBytes;
+    }
+
     @Override
     public long getReadPageCount() {
         return _readPageCount;
@@ -479,7 +846,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
 
     @Override
     public long getCopiedPageCount() {
-        return _copiedPageCount;
+        return _copiedPageCount.get();
     }
 
     @Override
@@ -539,6 +906,16 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         return _totalCommitWaitTime.get() / NS_PER_MS;
     }
 
+    @Override
+    public long getTotalGroupCommitFlushes() {
+        return _totalGroupCommitFlushes.get();
+    }
+
+    @Override
+    public long getTotalMappedReads() {
+        return _totalMappedReads.get();
+    }
+
     @Override
     public long getCurrentTimestamp() {
         return _persistit.getCurrentTimestamp();
@@ -711,6 +1088,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         //
         final int position = bb.position();
         final int length = bb.remaining();
+        boolean pending = false;
         synchronized (this) {
             if (address >= _writeBufferAddress && address + length <= _currentAddress) {
                 assert _writeBufferAddress + _writeBuffer.position() == _currentAddress : String.format(
@@ -726,6 +1104,27 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
                 bb.position(position);
                 return;
             }
+            pending = _pendingBuffer != null && address + length > _pendingBufferAddress;
+        }
+        if (pending) {
+            //
+            // The record is in a buffer handed off to JOURNAL_WRITER but not
+            // yet written. Write it now rather than wait.
+            //
+            writePendingBuffer();
+        }
+
+        final MappedByteBuffer mapping = getMappedFile(address);
+        if (mapping != null) {
+            if (!readMapped(mapping, bb, addressToOffset(address))) {
+                final File file = addressToFile(address);
+                throw new CorruptJournalException(String.format("End of file at %s:%d(%,d)", file,
+                        addressToOffset(address), address));
+            }
+            _totalMappedReads.incrementAndGet();
+            bb.limit(bb.position());
+            bb.position(position);
+            return;
         }
 
         final FileChannel fc = getFileChannel(address);
@@ -815,6 +1214,9 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
             throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this) + " is incomplete");
         }
         final int type = JournalRecord.getType(bb);
+        if (type == PC.TYPE) {
+            return readCompressedPageBufferFromJournal(pn, bb);
+        }
         final int payloadSize = JournalRecord.getLength(bb) - PA.OVERHEAD;
         final int leftSize = PA.getLeftSize(bb);
         final int bufferSize = PA.getBufferSize(bb);
@@ -845,6 +1247,61 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         return pageAddress;
     }
 
+    /**
+     * Read and expand a PC record. On entry <code>bb</code> is positioned at
+     * the start of the record's header, which has already been read. A delta
+     * record's base image is read first; it is always a PA or deflated PC
+     * record in the same journal file.
+     */
+    private long readCompressedPageBufferFromJournal(final PageNode pn, final ByteBuffer bb)
+            throws PersistitIOException, CorruptJournalException {
+        final int at = bb.position();
+        final int recordSize = JournalRecord.getLength(bb);
+        final int bufferSize = PC.getBufferSize(bb);
+        final long pageAddress = PC.getPageAddress(bb);
+        if (recordSize <= PC.OVERHEAD || recordSize > PC.OVERHEAD + Buffer.MAX_BUFFER_SIZE
+                || bufferSize > Buffer.MAX_BUFFER_SIZE || at + bufferSize > bb.capacity()) {
+            throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this)
+                    + " invalid sizes: recordSize= " + recordSize + " bufferSize=" + bufferSize);
+        }
+        if (pageAddress != pn.getPageAddress() && pn.getPageAddress() != -1) {
+            throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this)
+                    + " mismatched page address: expected/actual=" + pn.getPageAddress() + "/" + pageAddress);
+        }
+        final PageCompressor compressor = allocPageCompressor();
+        try {
+            final ByteBuffer record = compressor.getRecordBuffer();
+            record.limit(recordSize);
+            readFully(record, pn.getJournalAddress());
+            if (record.remaining() < recordSize) {
+                throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this) + " is incomplete");
+            }
+            byte[] base = null;
+            if (PC.getEncoding(record) == PC.ENCODING_DELTA) {
+                final ByteBuffer baseBuffer = compressor.getBaseBuffer();
+                final PageNode basePageNode = new PageNode(pn.getVolumeHandle(), pageAddress,
+                        PC.getBaseAddress(record), -1);
+                if (PC.getBaseAddress(record) >= pn.getJournalAddress()
+                        || readPageBufferFromJournal(basePageNode, baseBuffer) != pageAddress
+                        || baseBuffer.remaining() != bufferSize) {
+                    throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this)
+                            + " has invalid base record at " + basePageNode.toStringJournalAddress(this));
+                }
+                base = baseBuffer.array();
+            }
+            compressor.expandImage(record, base, bb.array(), at);
+        } finally {
+            _pageCompressors.offer(compressor);
+        }
+        bb.limit(bb.capacity()).position(at).limit(at + bufferSize);
+        return pageAddress;
+    }
+
+    private PageCompressor allocPageCompressor() {
+        final PageCompressor compressor = _pageCompressors.poll();
+        return compressor != null ? compressor : new PageCompressor(Buffer.MAX_BUFFER_SIZE);
+    }
+
     /**
      * Method used by diagnostic tools to attempt to read a page from journal
      *
@@ -869,6 +1326,22 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         final long pageAddress = PA.getPageAddress(bb);
         final int volumeHandle = PA.getVolumeHandle(bb);
 
+        if (type == PC.TYPE) {
+            final BufferPool pool = _persistit.getBufferPool(bufferSize);
+            final Buffer buffer = new Buffer(bufferSize, -1, pool, _persistit);
+            buffer.setPageAddressAndVolume(pageAddress, volumeForHandle(volumeHandle));
+            bb = buffer.getByteBuffer();
+            bb.limit(PA.OVERHEAD).position(0);
+            readFully(bb, address);
+            readCompressedPageBufferFromJournal(new PageNode(volumeHandle, pageAddress, address, -1), bb);
+            bb.limit(bufferSize).position(0);
+            final boolean acquired = buffer.claim(true, 0);
+            assert acquired : "buffer in use";
+            buffer.load();
+            buffer.release();
+            return buffer;
+        }
+
         if (type != PA.TYPE || leftSize < 0 || payloadSize < leftSize || payloadSize > bufferSize) {
             return null;
         }
@@ -1094,12 +1567,63 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
                 rightSize = buffer.getBufferSize();
             }
 
+            recordSize = writePageRecord(buffer, handle, leftSize, rightSize);
+            final long address = _currentAddress - recordSize;
+
+            final PageNode pageNode = new PageNode(handle, buffer.getPageAddress(), address, buffer.getTimestamp());
+            _pageList.add(pageNode);
+            PageNode oldPageNode = _pageMap.put(pageNode, pageNode);
+            if (pageNode.getTimestamp() >= 0 && pageNode.getTimestamp() < _earliestUncopiedTimestamp) {
+                _earliestUncopiedTimestamp = pageNode.getTimestamp();
+            }
+
+            if (oldPageNode != null) {
+                assert oldPageNode.getTimestamp() <= pageNode.getTimestamp();
+            }
+            final long checkpointTimestamp = _persistit.getTimestampAllocator().getProposedCheckpointTimestamp();
+            if (oldPageNode != null && oldPageNode.getTimestamp() > checkpointTimestamp
+                    && buffer.getTimestamp() > checkpointTimestamp) {
+                oldPageNode.invalidate();
+                oldPageNode = oldPageNode.getPrevious();
+            }
+            pageNode.setPrevious(oldPageNode);
+            _writePageCount++;
+        }
+        _persistit.getIOMeter().chargeWritePageToJournal(volume, buffer.getPageAddress(), buffer.getBufferSize(),
+                _currentAddress - recordSize, urgency(), buffer.getIndex());
+    }
+
+    /**
+     * Write a PA record, or a PC record if page compression is enabled and
+     * the compressed form is smaller, for the supplied buffer. Called while
+     * synchronized on this JournalManager.
+     * 
+     * @return the size of the record written; the record ends at
+     *         _currentAddress
+     */
+    private int writePageRecord(final Buffer buffer, final int handle, final int leftSize, final int rightSize)
+            throws PersistitException {
+        final String compression = _pageCompression;
+        final boolean compress = !PAGE_COMPRESSION_NONE.equals(compression);
+        final boolean useDelta = PAGE_COMPRESSION_DELTA.equals(compression);
+        if (!useDelta && !_deltaBases.isEmpty()) {
+            _deltaBases.clear();
+        }
+        int recordSize = -1;
+        if (compress) {
+            final PageCompressor compressor = allocPageCompressor();
+            try {
+                recordSize = writeCompressedPageRecord(buffer, handle, leftSize, rightSize, compressor, useDelta);
+            } finally {
+                _pageCompressors.offer(compressor);
+            }
+        }
+        if (recordSize < 0) {
             recordSize = PA.OVERHEAD + leftSize + rightSize;
 
             prepareWriteBuffer(recordSize);
             Debug.$assert1.t(_writeBuffer.remaining() >= recordSize);
 
-            final long address = _currentAddress;
             final int position = _writeBuffer.position();
 
             JournalRecord.putLength(_writeBuffer, recordSize);
@@ -1119,25 +1643,91 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
             }
             Debug.$assert0.t(_writeBuffer.position() - position == recordSize);
             _currentAddress += recordSize - PA.OVERHEAD;
+            if (useDelta) {
+                _deltaBases.remember(handle, buffer, leftSize, rightSize, _currentAddress - recordSize);
+            }
+        }
+        if (compress) {
+            _pageCompressionInputBytes += PA.OVERHEAD + leftSize + rightSize;
+            _pageCompressionOutputBytes += recordSize;
+        }
+        return recordSize;
+    }
 
-            final PageNode pageNode = new PageNode(handle, buffer.getPageAddress(), address, buffer.getTimestamp());
-            _pageList.add(pageNode);
-            PageNode oldPageNode = _pageMap.put(pageNode, pageNode);
+    /**
+     * Attempt to write a PC record. A delta is considered only when a full
+     * image of the page written earlier to the current journal file is held
+     * in {@link #_deltaBases}, so that computing it requires no I/O and the
+     * base record is certain to be in the same journal file as the delta.
+     * 
+     * @return the size of the record written, or -1 if neither compressed
+     *         form is smaller than the PA record
+     */
+    private int writeCompressedPageRecord(final Buffer buffer, final int handle, final int leftSize,
+            final int rightSize, final PageCompressor compressor, final boolean useDelta) throws PersistitException {
+        final byte[] bytes = buffer.getBytes();
+        final int bufferSize = buffer.getBufferSize();
+        final int paRecordSize = PA.OVERHEAD + leftSize + rightSize;
+
+        int deflatedSize = compressor.deflateImage(bytes, bufferSize, leftSize, rightSize);
+        if (deflatedSize >= 0 && PC.OVERHEAD + deflatedSize >= paRecordSize) {
+            deflatedSize = -1;
+        }
+        int deltaSize = -1;
+        long baseAddress = -1;
+        if (useDelta) {
+            final DeltaBase base = _deltaBases.get(new PageNode(handle, buffer.getPageAddress(), -1, -1));
+            if (base != null && base._image.length == bufferSize
+                    && base._address / _blockSize == _currentAddress / _blockSize) {
+                baseAddress = base._address;
+                final int maximumSize = (deflatedSize >= 0 ? PC.OVERHEAD + deflatedSize : paRecordSize)
+                        - PC.OVERHEAD - 1;
+                deltaSize = compressor.deltaImage(bytes, bufferSize, leftSize, rightSize, base._image, maximumSize);
+            }
+        }
+        if (deflatedSize < 0 && deltaSize < 0) {
+            return -1;
+        }
 
-            if (oldPageNode != null) {
-                assert oldPageNode.getTimestamp() <= pageNode.getTimestamp();
+        prepareWriteBuffer(PC.OVERHEAD + Math.max(deflatedSize, deltaSize));
+        if (deltaSize >= 0 && baseAddress / _blockSize != _currentAddress / _blockSize) {
+            /*
+             * prepareWriteBuffer rolled over to a new journal file; the base
+             * record may be deleted before the delta.
+             */
+            deltaSize = -1;
+            if (deflatedSize < 0) {
+                return -1;
             }
-            final long checkpointTimestamp = _persistit.getTimestampAllocator().getProposedCheckpointTimestamp();
-            if (oldPageNode != null && oldPageNode.getTimestamp() > checkpointTimestamp
-                    && buffer.getTimestamp() > checkpointTimestamp) {
-                oldPageNode.invalidate();
-                oldPageNode = oldPageNode.getPrevious();
+        }
+        final boolean delta = deltaSize >= 0;
+        final int payloadSize = delta ? deltaSize : deflatedSize;
+        final int recordSize = PC.OVERHEAD + payloadSize;
+        Debug.$assert1.t(_writeBuffer.remaining() >= recordSize);
+
+        JournalRecord.putLength(_writeBuffer, recordSize);
+        PC.putType(_writeBuffer);
+        JournalRecord.putTimestamp(_writeBuffer, buffer.isTemporary() ? -1 : buffer.getTimestamp());
+        PC.putVolumeHandle(_writeBuffer, handle);
+        PC.putPageAddress(_writeBuffer, buffer.getPageAddress());
+        PC.putLeftSize(_writeBuffer, leftSize);
+        PC.putBufferSize(_writeBuffer, bufferSize);
+        PC.putRightSize(_writeBuffer, rightSize);
+        PC.putBaseAddress(_writeBuffer, delta ? baseAddress : 0);
+        PC.putEncoding(_writeBuffer, delta ? PC.ENCODING_DELTA : PC.ENCODING_DEFLATE);
+        advance(PC.OVERHEAD);
+        _writeBuffer.put(delta ? compressor.getDelta() : compressor.getDeflated(), 0, payloadSize);
+        _currentAddress += payloadSize;
+
+        if (delta) {
+            _deltaPageCount++;
+        } else {
+            _compressedPageCount++;
+            if (useDelta) {
+                _deltaBases.remember(handle, buffer, leftSize, rightSize, _currentAddress - recordSize);
             }
-            pageNode.setPrevious(oldPageNode);
-            _writePageCount++;
         }
-        _persistit.getIOMeter().chargeWritePageToJournal(volume, buffer.getPageAddress(), buffer.getBufferSize(),
-                _currentAddress - recordSize, urgency(), buffer.getIndex());
+        return recordSize;
     }
 
     /**
@@ -1311,6 +1901,14 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
             _persistit.waitForIOTaskStop(flusher);
         }
 
+        final JournalWriter writer = _writer;
+        _writer = null;
+        if (writer != null) {
+            _persistit.waitForIOTaskStop(writer);
+        }
+
+        shutdownCopyWriters(false);
+
         synchronized (this) {
             try {
                 closeAllChannels();
@@ -1323,7 +1921,9 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
                 _treeToHandleMap.clear();
                 _pageMap.clear();
                 _pageList.clear();
+                _earliestUncopiedTimestamp = Long.MAX_VALUE;
                 _writeBuffer = null;
+                _spareBuffer = null;
             }
         }
     }
@@ -1339,6 +1939,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
 
             } finally {
                 _journalFileChannels.clear();
+                _journalFileMappings.clear();
             }
         }
     }
@@ -1350,6 +1951,8 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
     void crash() throws IOException {
         IOTaskRunnable.crash(_flusher);
         IOTaskRunnable.crash(_copier);
+        IOTaskRunnable.crash(_writer);
+        shutdownCopyWriters(true);
         //
         // Even when simulating a crash do this to release
         // channels and therefore allow disk space to be returned to
@@ -1359,100 +1962,166 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
     }
 
     /**
-     * Flushes the write buffer
+     * Flushes the write buffer. This method writes any buffer previously
+     * handed off to JOURNAL_WRITER and then the current write buffer before
+     * returning. The caller holds the monitor throughout, so no other record
+     * can be appended until the write completes. Methods that need the monitor
+     * released during I/O use {@link #handOffWriteBuffer()} and
+     * {@link #writePendingBuffer()} instead.
      *
+     * @return the journal address following the last byte written, or
+     *         <code>Long.MAX_VALUE</code> if there was nothing to write
      * @throws PersistitException
      */
     synchronized long flush() throws PersistitException {
         _persistit.checkFatal();
+        if (handOffWriteBuffer()) {
+            writePendingBuffer();
+            if (_pendingBuffer != null) {
+                throw new PersistitIOException("Incomplete write to file " + addressToFile(_pendingBufferAddress));
+            }
+            return _writeBufferAddress;
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /**
+     * Hand the current write buffer, if it contains any records, to the
+     * JOURNAL_WRITER thread and continue appending into a spare buffer. The
+     * two buffers alternate: if the buffer handed off previously has not been
+     * written yet, this method writes it first.
+     *
+     * @return <code>true</code> if any bytes were handed off or remain to be
+     *         written
+     * @throws PersistitException
+     */
+    private synchronized boolean handOffWriteBuffer() throws PersistitException {
         final long address = _writeBufferAddress;
-        if (address != Long.MAX_VALUE && _writeBuffer != null) {
+        if (address == Long.MAX_VALUE || _writeBuffer == null) {
+            return false;
+        }
+        assert _writeBufferAddress + _writeBuffer.position() == _currentAddress : String.format(
+                "writeBufferAddress=%,d position=%,d currentAddress=%,d", _writeBufferAddress,
+                _writeBuffer.position(), _currentAddress);
+        if (_writeBuffer.position() == 0) {
+            return _pendingBuffer != null;
+        }
+        if (_pendingBuffer != null) {
+            writePendingBuffer();
+            if (_pendingBuffer != null) {
+                throw new PersistitIOException("Incomplete write to file " + addressToFile(_pendingBufferAddress));
+            }
+        }
+        final FileChannel channel = getFileChannel(address);
+        ByteBuffer next = _spareBuffer;
+        _spareBuffer = null;
+        if (next == null || next.capacity() != _writeBufferSize) {
+            next = ByteBuffer.allocate(_writeBufferSize);
+        }
+        final ByteBuffer full = _writeBuffer;
+        full.flip();
+        _writeBufferAddress = address + full.remaining();
+        _writeBuffer = next;
+        final long remaining = _blockSize - (_writeBufferAddress % _blockSize);
+        if (remaining < _writeBuffer.limit()) {
+            _writeBuffer.limit((int) remaining);
+        }
+        _pendingChannel = channel;
+        _pendingBufferAddress = address;
+        _pendingBuffer = full;
 
-            assert _writeBufferAddress + _writeBuffer.position() == _currentAddress : String.format(
-                    "writeBufferAddress=%,d position=%,d currentAddress=%,d", _writeBufferAddress,
-                    _writeBuffer.position(), _currentAddress);
+        final JournalWriter writer = _writer;
+        if (writer != null) {
+            writer.kick();
+        }
+        return true;
+    }
 
+    /**
+     * Write the buffer most recently handed off by
+     * {@link #handOffWriteBuffer()}, if it has not been written already. This
+     * method does not require the monitor; it is serialized by _writeLock so
+     * that buffers reach the file in address order.
+     *
+     * @throws PersistitException
+     */
+    private void writePendingBuffer() throws PersistitIOException {
+        _writeLock.lock();
+        try {
+            final ByteBuffer bb = _pendingBuffer;
+            if (bb == null) {
+                return;
+            }
+            final long address = _pendingBufferAddress;
+            final FileChannel channel = _pendingChannel;
+            final int start = bb.position();
+            boolean writeComplete = false;
             try {
-                if (_writeBuffer.position() > 0) {
-                    final FileChannel channel = getFileChannel(address);
-                    final long size = channel.size();
-                    if (size < addressToOffset(address)) {
-                        throw new CorruptJournalException(String.format(
-                                "Journal file %s size %,d does not match current address %,d", addressToFile(address),
-                                size, address));
-                    }
-
-                    _writeBuffer.flip();
-                    boolean writeComplete = false;
-                    final int written;
-                    try {
-                        /*
-                         * Note: contract for FileChannel requires write to
-                         * return normally only when all bytes have been
-                         * written. (See java.nio.channels.WritableByteChannel
-                         * #write(ByteBuffer), statement
-                         * "Unless otherwise specified...")
-                         */
-                        channel.write(_writeBuffer, _writeBufferAddress % _blockSize);
-                        /*
-                         * Surprise: FileChannel#write does not throw an
-                         * Exception if it successfully writes some bytes and
-                         * then encounters a disk full condition. (Found this
-                         * out empirically.)
-                         */
-                        writeComplete = _writeBuffer.remaining() == 0;
-                    } finally {
-                        written = _writeBuffer.position();
-                        _writeBufferAddress += written;
-                        if (writeComplete) {
-                            if (_writeBuffer.capacity() != _writeBufferSize) {
-                                _writeBuffer = ByteBuffer.allocate(_writeBufferSize);
-                            } else {
-                                _writeBuffer.clear();
-                            }
-                        } else {
-                            /*
-                             * If the buffer didn't get written, perhaps due to
-                             * an interrupt or disk-full condition, then compact
-                             * to remove any bytes from the buffer that actually
-                             * did get written and reset other measurements.
-                             */
-                            _writeBuffer.compact();
-                        }
-                        final long remaining = _blockSize - (_writeBufferAddress % _blockSize);
-                        if (remaining < (_writeBuffer.limit())) {
-                            _writeBuffer.limit((int) remaining);
-                        }
-                    }
-
-                    assert _writeBufferAddress + _writeBuffer.position() == _currentAddress : String.format(
-                            "writeBufferAddress=%,d position=%,d currentAddress=%,d", _writeBufferAddress,
-                            _writeBuffer.position(), _currentAddress);
-
-                    _persistit.getIOMeter().chargeFlushJournal(written, address);
-                    return _writeBufferAddress;
+                final long size = channel.size();
+                if (size < addressToOffset(address)) {
+                    throw new CorruptJournalException(String.format(
+                            "Journal file %s size %,d does not match current address %,d", addressToFile(address),
+                            size, address));
                 }
+                /*
+                 * Note: contract for FileChannel requires write to return
+                 * normally only when all bytes have been written. (See
+                 * java.nio.channels.WritableByteChannel #write(ByteBuffer),
+                 * statement "Unless otherwise specified...")
+                 */
+                channel.write(bb, addressToOffset(address));
+                /*
+                 * Surprise: FileChannel#write does not throw an Exception if
+                 * it successfully writes some bytes and then encounters a disk
+                 * full condition. (Found this out empirically.) In that case
+                 * the unwritten bytes remain pending.
+                 */
+                writeComplete = bb.remaining() == 0;
             } catch (final IOException e) {
                 throw new PersistitIOException("Writing to file " + addressToFile(address), e);
+            } finally {
+                final int written = bb.position() - start;
+                if (written > 0) {
+                    _pendingBufferAddress = address + written;
+                    _lastWrittenAddress = address + written;
+                    _persistit.getIOMeter().chargeFlushJournal(written, address);
+                }
+                if (writeComplete) {
+                    bb.clear();
+                    _spareBuffer = bb;
+                    _pendingBuffer = null;
+                }
             }
+        } finally {
+            _writeLock.unlock();
         }
-        return Long.MAX_VALUE;
     }
 
     /**
-     * Force all data written to the journal file to disk.
+     * Force all data written to the journal file to disk. The write buffer is
+     * handed off and written without holding the monitor, so other threads
+     * may continue to append records while the I/O is in progress.
      */
     @Override
     public void force() throws PersistitException {
-        long address = Long.MAX_VALUE;
-        try {
-            address = flush();
-            if (address != Long.MAX_VALUE) {
+        _persistit.checkFatal();
+        writePendingBuffer();
+        if (handOffWriteBuffer()) {
+            writePendingBuffer();
+        }
+        final long address = _lastWrittenAddress;
+        if (address > _lastForcedAddress) {
+            try {
                 final FileChannel channel = getFileChannel(address);
                 channel.force(false);
+            } catch (final IOException e) {
+                throw new PersistitIOException("Writing to file " + addressToFile(address), e);
+            }
+            synchronized (this) {
+                if (address > _lastForcedAddress) {
+                    _lastForcedAddress = address;
+                }
             }
-        } catch (final IOException e) {
-            throw new PersistitIOException("Writing to file " + addressToFile(address), e);
         }
     }
 
@@ -1488,8 +2157,9 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
             return newJournalFile;
         }
         //
-        // Otherwise, flush the write buffer and try again
-        flush();
+        // Otherwise, hand the write buffer off to JOURNAL_WRITER and try
+        // again with the spare
+        handOffWriteBuffer();
 
         if (_writeBuffer.remaining() > size + JE.OVERHEAD) {
             return newJournalFile;
@@ -1542,6 +2212,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
                     channel.truncate(length);
                 }
                 channel.force(true);
+                _lastForcedAddress = _lastWrittenAddress;
             } catch (final IOException ioe) {
                 throw new PersistitIOException(ioe);
             }
@@ -1644,6 +2315,78 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         return channel;
     }
 
+    /**
+     * Return a read-only mapping of the journal file containing the supplied
+     * <code>address</code>, creating it if necessary. Only sealed files - those
+     * preceding the file currently being written - are mapped.
+     * 
+     * @param address
+     *            the journal address of a record
+     * @return the mapping, or <code>null</code> if mapping is disabled, the
+     *         file is still being written, or the file is too large to map
+     * @throws PersistitIOException
+     *             if the file cannot be mapped
+     */
+    synchronized MappedByteBuffer getMappedFile(final long address) throws PersistitIOException {
+        if (!_journalMapped.get()) {
+            return null;
+        }
+        final long generation = address / _blockSize;
+        if (generation >= _currentAddress / _blockSize) {
+            return null;
+        }
+        MappedByteBuffer mapping = _journalFileMappings.get(generation);
+        if (mapping == null) {
+            try {
+                mapping = mapJournalFile(getFileChannel(address));
+            } catch (final IOException ioe) {
+                throw new PersistitIOException(ioe);
+            }
+            if (mapping != null) {
+                _journalFileMappings.put(generation, mapping);
+            }
+        }
+        return mapping;
+    }
+
+    /**
+     * Map the entire content of a journal file read-only.
+     * 
+     * @param channel
+     *            the journal file's channel
+     * @return the mapping, or <code>null</code> if the file is larger than a
+     *         single <code>MappedByteBuffer</code> can address
+     * @throws IOException
+     */
+    static MappedByteBuffer mapJournalFile(final FileChannel channel) throws IOException {
+        final long size = channel.size();
+        if (size > Integer.MAX_VALUE) {
+            return null;
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * Copy <code>bb.remaining()</code> bytes from the supplied mapping,
+     * starting at <code>offset</code>, into <code>bb</code>. The mapping's own
+     * position and limit are not modified so that concurrent readers may share
+     * it.
+     * 
+     * @return <code>false</code> if the mapping ends before the requested
+     *         range, in which case nothing is copied
+     */
+    static boolean readMapped(final MappedByteBuffer mapping, final ByteBuffer bb, final long offset) {
+        final int length = bb.remaining();
+        if (offset + length > mapping.capacity()) {
+            return false;
+        }
+        final ByteBuffer source = mapping.duplicate();
+        source.limit((int) offset + length);
+        source.position((int) offset);
+        bb.put(source);
+        return true;
+    }
+
     /**
      * Set the copyFast flag and then wait until all checkpointed pages have
      * been copied to their respective volumes, allowing the journal files to be
@@ -1837,7 +2580,17 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
             throws PersistitException {
         final JournalFlusher flusher = _flusher;
         if (flusher != null) {
-            flusher.waitForDurability(flushedTimestamp, leadTime, stallTime);
+            _commitArrivals.incrementAndGet();
+            if (leadTime > 0) {
+                flusher.waitForDurability(flushedTimestamp, leadTime, stallTime);
+            } else {
+                /*
+                 * In adaptive mode the GROUP commit stall time is replaced by
+                 * the computed window
+                 */
+                _groupCommitter.waitForDurability(flusher, flushedTimestamp,
+                        stallTime > 0 && _flushTarget > 0 ? _groupCommitWindow : stallTime);
+            }
         } else {
             throw new IllegalStateException("JOURNAL_FLUSHER is not running");
         }
@@ -2243,6 +2996,118 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         }
     }
 
+    /**
+     * Coordinates durable commits for the HARD and GROUP commit policies.
+     * Rather than waiting for the JOURNAL_FLUSHER thread, the first committing
+     * thread to arrive becomes the leader: it flushes the write buffer and
+     * forces the journal file on behalf of every transaction that has written
+     * its records so far. Threads that arrive while a leader is busy wait as
+     * followers; when the leader finishes, those whose records were covered
+     * return and one of the rest becomes the next leader. Under concurrent
+     * load each force therefore completes a batch of commits.
+     */
+    private class GroupCommitter {
+
+        /**
+         * Every transaction whose flushedTimestamp is less than this value is
+         * durable.
+         */
+        private volatile long _durableTimestamp;
+
+        private boolean _leaderActive;
+
+        private void waitForDurability(final JournalFlusher flusher, final long flushedTimestamp,
+                final long stallTime) throws PersistitException {
+            final long now = System.nanoTime();
+            if (stallTime > 0 && !isDurable(flusher, flushedTimestamp)) {
+                /*
+                 * GROUP policy: give other transactions a chance to reach
+                 * their commit points and join the batch.
+                 */
+                Util.sleep(stallTime);
+            }
+            synchronized (this) {
+                while (true) {
+                    if (isDurable(flusher, flushedTimestamp)) {
+                        _totalCommits.incrementAndGet();
+                        _totalCommitWaitTime.addAndGet(System.nanoTime() - now);
+                        return;
+                    }
+                    if (!_leaderActive) {
+                        _leaderActive = true;
+                        break;
+                    }
+                    try {
+                        wait();
+                    } catch (final InterruptedException e) {
+                        throw new PersistitInterruptedException(e);
+                    }
+                }
+            }
+            /*
+             * This thread is the leader. Every transaction that obtained its
+             * flushedTimestamp before this point has already written its
+             * records to the write buffer, so one force covers all of them.
+             */
+            final long startTimestamp = _persistit.getTimestampAllocator().updateTimestamp();
+            boolean forced = false;
+            try {
+                force();
+                forced = true;
+                _totalGroupCommitFlushes.incrementAndGet();
+            } finally {
+                synchronized (this) {
+                    if (forced && startTimestamp > _durableTimestamp) {
+                        _durableTimestamp = startTimestamp;
+                    }
+                    _leaderActive = false;
+                    notifyAll();
+                }
+            }
+            _totalCommits.incrementAndGet();
+            _totalCommitWaitTime.addAndGet(System.nanoTime() - now);
+        }
+
+        private boolean isDurable(final JournalFlusher flusher, final long flushedTimestamp) {
+            if (_durableTimestamp > flushedTimestamp) {
+                return true;
+            }
+            /*
+             * Also done if a JOURNAL_FLUSHER cycle that started after the
+             * transaction's records were written has completed.
+             */
+            final long startTimestamp = flusher._startTimestamp;
+            return startTimestamp > flushedTimestamp && flusher._endTimestamp > startTimestamp
+                    && startTimestamp == flusher._startTimestamp;
+        }
+    }
+
+    /**
+     * Implementation of JOURNAL_WRITER thread. Writes each full write buffer
+     * handed off by {@link JournalManager#handOffWriteBuffer()} so that the
+     * threads appending journal records do not wait for the I/O.
+     */
+    private class JournalWriter extends IOTaskRunnable {
+
+        JournalWriter() {
+            super(JournalManager.this._persistit);
+        }
+
+        void start() {
+            start("JOURNAL_WRITER", DEFAULT_FLUSH_INTERVAL_MS);
+        }
+
+        @Override
+        protected void runTask() throws PersistitException {
+            writePendingBuffer();
+        }
+
+        @Override
+        protected boolean shouldStop() {
+            return _closed.get();
+        }
+    }
+
     private class JournalFlusher extends IOTaskRunnable {
 
         volatile long _lastExceptionTimestamp = 0;
@@ -2370,6 +3235,19 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
             _totalCommitWaitTime.addAndGet(System.nanoTime() - now);
         }
 
+        /**
+         * In adaptive mode, wait for the interval computed from the flush
+         * target rather than the fixed poll interval.
+         */
+        @Override
+        public long pollInterval() {
+            final long pollInterval = super.getPollInterval();
+            if (pollInterval < 0 || _flushTarget == 0) {
+                return pollInterval;
+            }
+            return _effectiveFlushInterval;
+        }
+
         @Override
         protected void runTask() {
             _flushing.set(true);
@@ -2406,6 +3284,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
                     avg /= IO_MEASUREMENT_CYCLES;
 
                     _expectedIoTime = avg;
+                    adaptFlushInterval(_endTime, avg);
                     if (elapsed > _slowIoAlertThreshold * NS_PER_MS) {
                         _persistit.getLogBase().longJournalIO.log(elapsed / NS_PER_MS, IO_MEASUREMENT_CYCLES, avg
                                 / NS_PER_MS);
@@ -2455,6 +3334,34 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         }
     }
 
+    /**
+     * Return a timestamp no later than that of any page image held in the
+     * journal and not yet copied to its volume, and no later than the last
+     * valid checkpoint. Any page written to a volume from now on has a
+     * timestamp no earlier than this value.
+     * 
+     * @return the timestamp
+     */
+    long getEarliestUncopiedTimestamp() {
+        return Math.min(getLastValidCheckpointTimestamp(), _earliestUncopiedTimestamp);
+    }
+
+    /**
+     * Recompute the earliest timestamp of any page image in the page map.
+     * Called while synchronized on this JournalManager.
+     */
+    private void updateEarliestUncopiedTimestamp() {
+        long earliest = Long.MAX_VALUE;
+        for (final PageNode pageNode : _pageMap.values()) {
+            for (PageNode pn = pageNode; pn != null; pn = pn.getPrevious()) {
+                if (pn.getTimestamp() >= 0 && pn.getTimestamp() < earliest) {
+                    earliest = pn.getTimestamp();
+                }
+            }
+        }
+        _earliestUncopiedTimestamp = earliest;
+    }
+
     void readForCopy(final List<PageNode> list, final ByteBuffer bb) throws PersistitException {
         Collections.sort(list, PageNode.READ_COMPARATOR);
         bb.clear();
@@ -2517,8 +3424,117 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         }
     }
 
+    /**
+     * Write the pages read by {@link #readForCopy(List, ByteBuffer)} to their
+     * volumes. Pages are written in elevator order - by volume, then by page
+     * address. When the copier concurrency is greater than one and the list
+     * spans several volumes, the pages of each volume are written and forced
+     * by a separate copy writer thread so that volumes on different devices
+     * are written in parallel. Pages that could not be written are removed
+     * from the list.
+     */
     void writeForCopy(final List<PageNode> list, final ByteBuffer bb) throws PersistitException {
         Collections.sort(list, PageNode.WRITE_COMPARATOR);
+        final ExecutorService writers = copyWriters();
+        if (writers == null || list.isEmpty()
+                || list.get(0).getVolumeHandle() == list.get(list.size() - 1).getVolumeHandle()) {
+            writeVolumePages(list, bb);
+            return;
+        }
+        final List<List<PageNode>> batches = new ArrayList<List<PageNode>>();
+        List<PageNode> batch = null;
+        for (final PageNode pageNode : list) {
+            if (batch == null || batch.get(0).getVolumeHandle() != pageNode.getVolumeHandle()) {
+                batch = new ArrayList<PageNode>();
+                batches.add(batch);
+            }
+            batch.add(pageNode);
+        }
+        final List<Callable<Void>> tasks = new ArrayList<Callable<Void>>(batches.size());
+        for (final List<PageNode> pages : batches) {
+            tasks.add(new Callable<Void>() {
+                @Override
+                public Void call() throws PersistitException {
+                    writeVolumePages(pages, bb.duplicate());
+                    return null;
+                }
+            });
+        }
+        final List<Future<Void>> futures;
+        try {
+            futures = writers.invokeAll(tasks);
+        } catch (final InterruptedException e) {
+            throw new PersistitInterruptedException(e);
+        }
+        list.clear();
+        for (final List<PageNode> pages : batches) {
+            list.addAll(pages);
+        }
+        for (final Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (final InterruptedException e) {
+                throw new PersistitInterruptedException(e);
+            } catch (final ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof PersistitException) {
+                    throw (PersistitException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw (Error) cause;
+            }
+        }
+    }
+
+    /**
+     * Return the executor used to write copied pages to volumes in parallel,
+     * or <code>null</code> if the copier concurrency is one. The executor is
+     * replaced whenever the configured concurrency changes.
+     */
+    private synchronized ExecutorService copyWriters() {
+        final int concurrency = _copierConcurrency;
+        if (_copyWriters != null && _copyWriterCount != concurrency) {
+            _copyWriters.shutdown();
+            _copyWriters = null;
+        }
+        if (_copyWriters == null && concurrency > 1 && !_closed.get()) {
+            final AtomicInteger counter = new AtomicInteger();
+            _copyWriters = Executors.newFixedThreadPool(concurrency, new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                    final Thread thread = new Thread(runnable, "JOURNAL_COPIER_WRITER:" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            _copyWriterCount = concurrency;
+        }
+        return _copyWriters;
+    }
+
+    private void shutdownCopyWriters(final boolean now) {
+        final ExecutorService writers;
+        synchronized (this) {
+            writers = _copyWriters;
+            _copyWriters = null;
+        }
+        if (writers != null) {
+            if (now) {
+                writers.shutdownNow();
+            } else {
+                writers.shutdown();
+                try {
+                    writers.awaitTermination(Persistit.SHORT_DELAY, TimeUnit.MILLISECONDS);
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private void writeVolumePages(final List<PageNode> list, final ByteBuffer bb) throws PersistitException {
         Volume volume = null;
         int handle = -1;
         final Set<Volume> volumes = new HashSet<Volume>();
@@ -2575,7 +3591,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
                 throw ioe;
             }
 
-            _copiedPageCount++;
+            _copiedPageCount.incrementAndGet();
             _persistit.getIOMeter().chargeCopyPageToVolume(volume, pageAddress, volume.getPageSize(),
                     pageNode.getJournalAddress(), urgency());
         }
@@ -2626,6 +3642,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
             // recovery.
             //
             long recoveryBoundary = _currentAddress;
+            long earliestTimestamp = Long.MAX_VALUE;
             //
             // Detect first journal address holding a mapped page
             // required for recovery
@@ -2640,8 +3657,12 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
                     if (!pn.isInvalid() && pn.getJournalAddress() < recoveryBoundary) {
                         recoveryBoundary = pn.getJournalAddress();
                     }
+                    if (pn.getTimestamp() >= 0 && pn.getTimestamp() < earliestTimestamp) {
+                        earliestTimestamp = pn.getTimestamp();
+                    }
                 }
             }
+            _earliestUncopiedTimestamp = earliestTimestamp;
             //
             // Detect first journal address still holding an uncheckpointed
             // Transaction required for recovery.
@@ -2663,6 +3684,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
             for (deleteBoundary = _deleteBoundaryAddress; deleteBoundary + _blockSize <= _lastValidCheckpointBaseAddress; deleteBoundary += _blockSize) {
                 final long generation = deleteBoundary / _blockSize;
                 final FileChannel channel = _journalFileChannels.remove(generation);
+                _journalFileMappings.remove(generation);
                 if (channel != null) {
                     obsoleteFileChannels.add(channel);
                 }
@@ -2680,6 +3702,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
             if (_baseAddress == _currentAddress && _lastValidCheckpointBaseAddress >= _currentAddress - CP.OVERHEAD
                     && (getCurrentJournalSize() > rolloverThreshold())) {
                 final FileChannel channel = _journalFileChannels.remove(_currentAddress / _blockSize);
+                _journalFileMappings.remove(_currentAddress / _blockSize);
                 if (channel != null) {
                     obsoleteFileChannels.add(channel);
                 }
@@ -2946,6 +3969,63 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
      * Extend ArrayList to export the removeRange method.
      */
     @SuppressWarnings("serial")
+    /**
+     * Full image of a page and the journal address of the PA or deflated PC
+     * record it was written in.
+     */
+    private static class DeltaBase {
+        final byte[] _image;
+        long _address;
+
+        DeltaBase(final int bufferSize) {
+            _image = new byte[bufferSize];
+        }
+    }
+
+    /**
+     * The most recently written full images of pages, in access order. Only
+     * PA and deflated PC records are remembered, so a delta never has another
+     * delta as its base. Used while synchronized on the JournalManager.
+     */
+    private static class DeltaBaseCache extends LinkedHashMap<PageNode, DeltaBase> {
+        private static final long serialVersionUID = 1L;
+
+        private final int _capacity;
+
+        DeltaBaseCache(final int capacity) {
+            super(capacity * 2, 0.75f, true);
+            _capacity = capacity;
+        }
+
+        /**
+         * Remember the image of a page as it will be read back from the
+         * record at <code>address</code>: the bytes between
+         * <code>leftSize</code> and <code>bufferSize - rightSize</code> are
+         * zero. The image of the least recently used page is evicted, and
+         * its array reused, when the cache is full.
+         */
+        void remember(final int handle, final Buffer buffer, final int leftSize, final int rightSize,
+                final long address) {
+            final PageNode key = new PageNode(handle, buffer.getPageAddress(), -1, -1);
+            final int bufferSize = buffer.getBufferSize();
+            DeltaBase base = remove(key);
+            if (base == null && size() >= _capacity) {
+                final Iterator<DeltaBase> iterator = values().iterator();
+                base = iterator.next();
+                iterator.remove();
+            }
+            if (base == null || base._image.length != bufferSize) {
+                base = new DeltaBase(bufferSize);
+            }
+            final byte[] bytes = buffer.getBytes();
+            System.arraycopy(bytes, 0, base._image, 0, leftSize);
+            Arrays.fill(base._image, leftSize, bufferSize - rightSize, (byte) 0);
+            System.arraycopy(bytes, bufferSize - rightSize, base._image, bufferSize - rightSize, rightSize);
+            base._address = address;
+            put(key, base);
+        }
+    }
+
     static class RangeRemovingArrayList<T> extends ArrayList<T> {
         @Override
         public void removeRange(final int fromIndex, final int toIndex) {
@@ -2984,6 +4064,7 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
      */
     void unitTestInjectPageMap(final Map<PageNode, PageNode> pageMap) {
         _pageMap.putAll(pageMap);
+        updateEarliestUncopiedTimestamp();
     }
 
     void unitTestInjectTransactionMap(final Map<Long, TransactionMapItem> transactionMap) {
@@ -2998,8 +4079,12 @@ class JournalManager implements JournalManagerMXBean, VolumeHandleLookup {
         return _currentAddress % _blockSize;
     }
 
-    long getWriteBufferAddress() {
-        return _writeBufferAddress;
+    /**
+     * @return the journal address up to which records have been written to
+     *         the journal file
+     */
+    synchronized long getWriteBufferAddress() {
+        return _pendingBuffer != null ? _pendingBufferAddress : _writeBufferAddress;
     }
 
     int getJournalFileCount() {
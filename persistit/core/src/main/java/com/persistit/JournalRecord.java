@@ -194,6 +194,50 @@ import com.persistit.util.Util;
  * </tr>
  * 
  * <tr valign="top">
+ * <td>PC</td>
+ * <td>Compressed Page Image: written in place of a PA record when journal page
+ * compression is enabled and the compressed form is smaller
+ * <table>
+ * <tr valign="top">
+ * <td>+16</td>
+ * <td>Volume handle (int) - refers to a volume defined in a preceding IV record
+ * </td>
+ * </tr>
+ * <tr valign="top">
+ * <td>+20</td>
+ * <td>page address (long)</td>
+ * </tr>
+ * <tr valign="top">
+ * <td>+28</td>
+ * <td>leftSize (int)</td>
+ * </tr>
+ * <tr valign="top">
+ * <td>+32</td>
+ * <td>bufferSize (int)</td>
+ * </tr>
+ * <tr valign="top">
+ * <td>+36</td>
+ * <td>rightSize (int)</td>
+ * </tr>
+ * <tr valign="top">
+ * <td>+40</td>
+ * <td>base journal address (long) - for a delta image, the address of a PA or
+ * deflated PC record for the same page in the same journal file</td>
+ * </tr>
+ * <tr valign="top">
+ * <td>+48</td>
+ * <td>encoding (int): 1 - the leftSize and rightSize bytes of a PA record,
+ * deflated; 2 - the whole page XORed with the base image, deflated</td>
+ * </tr>
+ * <tr valign="top">
+ * <td>+52</td>
+ * <td>deflated bytes</td>
+ * </tr>
+ * </table>
+ * </td>
+ * </tr>
+ * 
+ * <tr valign="top">
  * <td>PM</td>
  * <td>Page Map: written once near the top of each journal file. Represents the
  * state of the page map at the time the journal rolled over.
@@ -441,8 +485,8 @@ public class JournalRecord {
 
     private final static Charset UTF8 = Charset.forName("UTF-8");
 
-    public final static int[] TYPES = new int[] { JE.TYPE, JH.TYPE, PA.TYPE, PM.TYPE, SR.TYPE, DR.TYPE, DT.TYPE,
-            TM.TYPE, CP.TYPE, IV.TYPE, IT.TYPE, D1.TYPE, D0.TYPE, TX.TYPE };
+    public final static int[] TYPES = new int[] { JE.TYPE, JH.TYPE, PA.TYPE, PC.TYPE, PM.TYPE, SR.TYPE, DR.TYPE,
+            DT.TYPE, TM.TYPE, CP.TYPE, IV.TYPE, IT.TYPE, D1.TYPE, D0.TYPE, TX.TYPE };
 
     public static boolean isValidType(final int t) {
         for (final int type : TYPES) {
@@ -854,6 +898,80 @@ public class JournalRecord {
 
     }
 
+    /**
+     * Compressed page
+     */
+    static class PC extends JournalRecord {
+
+        public final static int TYPE = ('P' << 8) | 'C';
+
+        public final static int OVERHEAD = 52;
+
+        public final static int ENCODING_DEFLATE = 1;
+
+        public final static int ENCODING_DELTA = 2;
+
+        public static void putType(final ByteBuffer bb) {
+            putType(bb, TYPE);
+        }
+
+        public static int getVolumeHandle(final ByteBuffer bb) {
+            return getInt(bb, 16);
+        }
+
+        public static void putVolumeHandle(final ByteBuffer bb, final int volumeHandle) {
+            putInt(bb, 16, volumeHandle);
+        }
+
+        public static long getPageAddress(final ByteBuffer bb) {
+            return getLong(bb, 20);
+        }
+
+        public static void putPageAddress(final ByteBuffer bb, final long pageAddress) {
+            putLong(bb, 20, pageAddress);
+        }
+
+        public static int getLeftSize(final ByteBuffer bb) {
+            return getInt(bb, 28);
+        }
+
+        public static void putLeftSize(final ByteBuffer bb, final int leftSize) {
+            putInt(bb, 28, leftSize);
+        }
+
+        public static int getBufferSize(final ByteBuffer bb) {
+            return getInt(bb, 32);
+        }
+
+        public static void putBufferSize(final ByteBuffer bb, final int bufferSize) {
+            putInt(bb, 32, (char) bufferSize);
+        }
+
+        public static int getRightSize(final ByteBuffer bb) {
+            return getInt(bb, 36);
+        }
+
+        public static void putRightSize(final ByteBuffer bb, final int rightSize) {
+            putInt(bb, 36, rightSize);
+        }
+
+        public static long getBaseAddress(final ByteBuffer bb) {
+            return getLong(bb, 40);
+        }
+
+        public static void putBaseAddress(final ByteBuffer bb, final long baseAddress) {
+            putLong(bb, 40, baseAddress);
+        }
+
+        public static int getEncoding(final ByteBuffer bb) {
+            return getInt(bb, 48);
+        }
+
+        public static void putEncoding(final ByteBuffer bb, final int encoding) {
+            putInt(bb, 48, encoding);
+        }
+    }
+
     /**
      * Checkpoint
      */
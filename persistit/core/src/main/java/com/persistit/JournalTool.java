@@ -47,6 +47,7 @@ import com.persistit.JournalRecord.IV;
 import com.persistit.JournalRecord.JE;
 import com.persistit.JournalRecord.JH;
 import com.persistit.JournalRecord.PA;
+import com.persistit.JournalRecord.PC;
 import com.persistit.JournalRecord.PM;
 import com.persistit.JournalRecord.SR;
 import com.persistit.JournalRecord.TM;
@@ -489,6 +490,7 @@ class JournalTool {
             break;
 
         case PA.TYPE:
+        case PC.TYPE:
             if (_selectedTypes.get(type) && _selectedTimestamps.isSelected(timestamp)) {
                 _action.pa(address, timestamp, recordSize);
             }
@@ -840,6 +842,15 @@ class JournalTool {
             if (!_selectedPages.isSelected(pageAddress)) {
                 return;
             }
+            if (PA.getType(_readBuffer) == PC.TYPE) {
+                start(address, timestamp, "PC", recordSize);
+                final String encoding = PC.getEncoding(_readBuffer) == PC.ENCODING_DELTA ? "delta base "
+                        + addressToString(PC.getBaseAddress(_readBuffer)) : "deflated";
+                appendf(" page %5d:%,12d size %,6d %s", volumeHandle, pageAddress, PC.getBufferSize(_readBuffer),
+                        encoding);
+                flush();
+                return;
+            }
             start(address, timestamp, "PA", recordSize);
             final int type = JournalRecord.getByte(_readBuffer, PA.OVERHEAD + Buffer.TYPE_OFFSET);
             final String typeString = Buffer.getPageTypeName(pageAddress, type);
@@ -0,0 +1,201 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * Concurrent histogram of elapsed times in nanoseconds. Buckets are laid out
+ * log-linearly in the manner of HdrHistogram: each power of two is divided
+ * into {@value #SUB_BUCKETS} equal sub-buckets, so that any recorded value is
+ * reported with a relative error of at most 12.5%. Values of
+ * 2<sup>{@value #MAX_EXPONENT}</sup> nanoseconds (about 18 minutes) or more
+ * are counted in the last bucket.
+ * </p>
+ * <p>
+ * Recording a value is an atomic increment of its bucket plus updates of the
+ * count, sum and maximum, so a histogram can remain enabled on frequently
+ * executed paths. The count, sum and maximum, which every recording thread
+ * updates, are held in {@link StripedCounters} so that threads recording at
+ * the same time do not contend on one cache line. The buckets are a single
+ * array, allocated when the first value is recorded; threads contend on a
+ * bucket only when they record similar values. Values read while other
+ * threads are recording are approximate.
+ * </p>
+ */
+public class LatencyHistogram {
+
+    final static int SUB_BUCKET_BITS = 3;
+
+    final static int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    final static int MAX_EXPONENT = 40;
+
+    final static int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final static int COUNT_INDEX = 0;
+
+    private final static int SUM_INDEX = 1;
+
+    private final static int MAX_INDEX = 2;
+
+    private final StripedCounters _totals = new StripedCounters(3);
+
+    private volatile AtomicLongArray _buckets;
+
+    /**
+     * Record one elapsed time.
+     *
+     * @param nanos
+     *            elapsed time in nanoseconds; negative values are recorded as
+     *            zero
+     */
+    void record(final long nanos) {
+        final long value = nanos < 0 ? 0 : nanos;
+        buckets().incrementAndGet(bucketIndex(value));
+        _totals.increment(COUNT_INDEX);
+        _totals.add(SUM_INDEX, value);
+        _totals.max(MAX_INDEX, value);
+    }
+
+    /**
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return _totals.get(COUNT_INDEX);
+    }
+
+    /**
+     * @return the largest recorded value in nanoseconds, or zero if no values
+     *         have been recorded
+     */
+    public long getMax() {
+        return _totals.getMax(MAX_INDEX);
+    }
+
+    /**
+     * @return the mean of the recorded values in nanoseconds, or zero if no
+     *         values have been recorded
+     */
+    public long getMean() {
+        final long count = getCount();
+        return count == 0 ? 0 : _totals.get(SUM_INDEX) / count;
+    }
+
+    /**
+     * Return the value at or below which the supplied percentage of recorded
+     * values fall. The result is the upper bound of the bucket containing that
+     * value, but never more than {@link #getMax()}.
+     *
+     * @param percentile
+     *            percentage between 0 and 100
+     * @return the value in nanoseconds, or zero if no values have been
+     *         recorded
+     */
+    public long getValueAtPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        final AtomicLongArray buckets = _buckets;
+        if (buckets == null) {
+            return 0;
+        }
+        final long[] snapshot = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int index = 0; index < BUCKET_COUNT; index++) {
+            snapshot[index] = buckets.get(index);
+            total += snapshot[index];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+        long seen = 0;
+        int index = 0;
+        for (; index < BUCKET_COUNT - 1; index++) {
+            seen += snapshot[index];
+            if (seen >= rank) {
+                break;
+            }
+        }
+        return Math.min(highestEquivalentValue(index), getMax());
+    }
+
+    /**
+     * Discard all recorded values.
+     */
+    void reset() {
+        final AtomicLongArray buckets = _buckets;
+        if (buckets != null) {
+            for (int index = 0; index < BUCKET_COUNT; index++) {
+                buckets.set(index, 0);
+            }
+        }
+        _totals.reset();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%,d mean=%,d p50=%,d p99=%,d max=%,d", getCount(), getMean(),
+                getValueAtPercentile(50), getValueAtPercentile(99), getMax());
+    }
+
+    private AtomicLongArray buckets() {
+        AtomicLongArray buckets = _buckets;
+        if (buckets == null) {
+            synchronized (this) {
+                buckets = _buckets;
+                if (buckets == null) {
+                    buckets = new AtomicLongArray(BUCKET_COUNT);
+                    _buckets = buckets;
+                }
+            }
+        }
+        return buckets;
+    }
+
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent >= MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long lowestEquivalentValue(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = index / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+    }
+
+    static long highestEquivalentValue(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        if (index == BUCKET_COUNT - 1) {
+            return Long.MAX_VALUE;
+        }
+        return lowestEquivalentValue(index + 1) - 1;
+    }
+}
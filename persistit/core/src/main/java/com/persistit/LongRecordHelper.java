@@ -95,7 +95,8 @@ class LongRecordHelper {
                     corrupt("Invalid LONG_RECORD remaining size=" + remainingSize + " of " + rawSize + " in page "
                             + page);
                 }
-                buffer = _volume.getPool().get(_volume, page, false, true, timeout);
+                buffer = _volume.getPool().get(_volume, page, false, true, timeout,
+                        _exchange == null ? null : _exchange.getTree());
                 if (buffer.getPageType() != PAGE_TYPE_LONG_RECORD) {
                     corrupt("LONG_RECORD chain is invalid at page " + page + " - invalid page type: " + buffer);
                 }
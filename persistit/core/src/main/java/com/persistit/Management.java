@@ -509,6 +509,51 @@ public interface Management extends Remote, ManagementMXBean {
      */
     public TreeInfo getTreeInfo(String volumeName, String treeName) throws RemoteException;
 
+    /**
+     * Return an array containing a <code>LatencyInfo</code> element for each
+     * kind of operation recorded in the {@link TreeStatistics} of the
+     * specified <code>Tree</code>: fetch, traverse, store and remove. If
+     * Persistit is not initialized, or if no volume or tree with corresponding
+     * names is found, this method returns an empty array.
+     * 
+     * @param volumeName
+     *            The name (or partial name) of the volume
+     * 
+     * @param treeName
+     *            The name of the tree
+     * 
+     * @return the array
+     */
+    public LatencyInfo[] getTreeLatencyInfoArray(String volumeName, String treeName) throws RemoteException;
+
+    /**
+     * Return an array containing a <code>LatencyInfo</code> element for each
+     * {@link Transaction.CommitPolicy}, describing the elapsed times of
+     * outermost transaction commits that used that policy.
+     * 
+     * @return the array
+     */
+    public LatencyInfo[] getCommitLatencyInfoArray() throws RemoteException;
+
+    /**
+     * Return an array containing a <code>PageHitInfo</code> element for each
+     * {@link PageCategory}. If <code>treeName</code> is <code>null</code> the
+     * counts are totals for all buffer pools; otherwise they are the counts
+     * for pages of the specified <code>Tree</code>. If no volume or tree with
+     * corresponding names is found this method returns an empty array.
+     * 
+     * @param volumeName
+     *            The name (or partial name) of the volume, or
+     *            <code>null</code> for buffer pool totals
+     * 
+     * @param treeName
+     *            The name of the tree, or <code>null</code> for buffer pool
+     *            totals
+     * 
+     * @return the array
+     */
+    public PageHitInfo[] getPageHitInfoArray(String volumeName, String treeName) throws RemoteException;
+
     /**
      * Parse the supply String to determine whether it is a valid
      * <code>KeyFilter</code> and return the index of the first incorrect
@@ -943,6 +988,10 @@ public interface Management extends Remote, ManagementMXBean {
         int readerClaimedPageCount;
         int writerClaimedPageCount;
         long earliestDirtyTimestamp;
+        String evictionPolicy;
+        long ghostHitCount;
+        int segmentCount;
+        long stealCount;
 
         public BufferPoolInfo() {
 
@@ -1124,6 +1173,41 @@ public interface Management extends Remote, ManagementMXBean {
         public long getEarliestDirtyTimestamp() {
             return earliestDirtyTimestamp;
         }
+
+        /**
+         * @return Name of the policy used to select pages for eviction
+         */
+        public String getEvictionPolicy() {
+            return evictionPolicy;
+        }
+
+        /**
+         * Return the count of pages read into this pool that had recently
+         * been evicted from it.
+         * 
+         * @return The ghost hit count
+         */
+        public long getGhostHitCount() {
+            return ghostHitCount;
+        }
+
+        /**
+         * @return Number of segments, each with its own clock hand, into which
+         *         the pool is partitioned
+         */
+        public int getSegmentCount() {
+            return segmentCount;
+        }
+
+        /**
+         * Return the count of buffers allocated from a segment other than the
+         * requesting thread's home segment.
+         * 
+         * @return The steal count
+         */
+        public long getStealCount() {
+            return stealCount;
+        }
     }
 
     /**
@@ -1477,6 +1561,14 @@ public interface Management extends Remote, ManagementMXBean {
         long storeCounter;
         long removeCounter;
         boolean isTemporary;
+        boolean isCompressed;
+        long compressCounter;
+        long compressedCounter;
+        long compressInputBytes;
+        long compressOutputBytes;
+        long compressNanos;
+        long expandCounter;
+        long expandNanos;
 
         VolumeInfo(final Volume vol) {
             super();
@@ -1507,19 +1599,31 @@ public interface Management extends Remote, ManagementMXBean {
             garbageRootPage = struc.getGarbageRoot();
             isTemporary = vol.isTemporary();
             name = vol.getName();
+            isCompressed = spec.isCompress();
+            compressCounter = stat.getCompressCounter();
+            compressedCounter = stat.getCompressedCounter();
+            compressInputBytes = stat.getCompressInputBytes();
+            compressOutputBytes = stat.getCompressOutputBytes();
+            compressNanos = stat.getCompressNanos();
+            expandCounter = stat.getExpandCounter();
+            expandNanos = stat.getExpandNanos();
         }
 
         @ConstructorProperties({ "pageSize", "path", "name", "id", "createTime", "openTime", "generation",
                 "getCounter", "readCounter", "writeCounter", "lastRead", "lastWrite", "lastExtension", "maximumPage",
                 "currentPageCount", "maximumPageCount", "extensionPageCount", "garbageRootPage", "fetchCounter",
-                "traverseCounter", "storeCounter", "removeCounter", "isTransient" })
+                "traverseCounter", "storeCounter", "removeCounter", "isTransient", "compressed", "compressCounter",
+                "compressedCounter", "compressInputBytes", "compressOutputBytes", "compressNanos", "expandCounter",
+                "expandNanos" })
         public VolumeInfo(final int pageSize, final String path, final String name, final long id,
                 final long createTime, final long openTime, final long generation, final long getCounter,
                 final long readCounter, final long writeCounter, final long lastRead, final long lastWrite,
                 final long lastExtension, final long maximumPage, final long currentPageCount,
                 final long maximumPageCount, final long extensionPageCount, final long garbageRootPage,
                 final long fetchCounter, final long traverseCounter, final long storeCounter, final long removeCounter,
-                final boolean isTransient) {
+                final boolean isTransient, final boolean isCompressed, final long compressCounter,
+                final long compressedCounter, final long compressInputBytes, final long compressOutputBytes,
+                final long compressNanos, final long expandCounter, final long expandNanos) {
             super();
             this.pageSize = pageSize;
             this.path = path;
@@ -1544,6 +1648,14 @@ public interface Management extends Remote, ManagementMXBean {
             this.storeCounter = storeCounter;
             this.removeCounter = removeCounter;
             this.isTemporary = isTransient;
+            this.isCompressed = isCompressed;
+            this.compressCounter = compressCounter;
+            this.compressedCounter = compressedCounter;
+            this.compressInputBytes = compressInputBytes;
+            this.compressOutputBytes = compressOutputBytes;
+            this.compressNanos = compressNanos;
+            this.expandCounter = expandCounter;
+            this.expandNanos = expandNanos;
         }
 
         /**
@@ -1767,6 +1879,97 @@ public interface Management extends Remote, ManagementMXBean {
             return isTemporary;
         }
 
+        /**
+         * Indicate whether pages are compressed when they are written to this
+         * <code>Volume</code>.
+         * 
+         * @return <code>true</code> if the volume specification enables
+         *         compression
+         */
+        public boolean isCompressed() {
+            return isCompressed;
+        }
+
+        /**
+         * Return the number of page images offered for compression since this
+         * <code>Volume</code> was opened.
+         * 
+         * @return the count of pages offered for compression
+         */
+        public long getCompressCounter() {
+            return compressCounter;
+        }
+
+        /**
+         * Return the number of page images written in compressed form. Pages
+         * that do not compress well enough to save space are written
+         * unchanged.
+         * 
+         * @return the count of pages written compressed
+         */
+        public long getCompressedCounter() {
+            return compressedCounter;
+        }
+
+        /**
+         * Return the total size in bytes of the page images offered for
+         * compression.
+         * 
+         * @return the uncompressed byte count
+         */
+        public long getCompressInputBytes() {
+            return compressInputBytes;
+        }
+
+        /**
+         * Return the number of bytes actually written for the page images
+         * offered for compression.
+         * 
+         * @return the compressed byte count
+         */
+        public long getCompressOutputBytes() {
+            return compressOutputBytes;
+        }
+
+        /**
+         * Return the ratio of uncompressed to written bytes for pages offered
+         * for compression, or 1.0 if no page has been offered.
+         * 
+         * @return the compression ratio
+         */
+        public double getCompressionRatio() {
+            return compressOutputBytes == 0 ? 1.0 : (double) compressInputBytes / compressOutputBytes;
+        }
+
+        /**
+         * Return the total time in nanoseconds spent compressing pages.
+         * 
+         * @return compression CPU time
+         */
+        public long getCompressNanos() {
+            return compressNanos;
+        }
+
+        /**
+         * Return the number of compressed page images expanded after being
+         * read from this <code>Volume</code>.
+         * 
+         * @return the count of pages expanded
+         */
+        public long getExpandCounter() {
+            return expandCounter;
+        }
+
+        /**
+         * Return the total time in nanoseconds spent expanding compressed
+         * pages.
+         * 
+         * @return expansion CPU time
+         */
+        public long getExpandNanos() {
+            return expandNanos;
+        }
+
         /**
          * Return the name of this Volume
          * 
@@ -1958,6 +2161,171 @@ public interface Management extends Remote, ManagementMXBean {
         }
     }
 
+    /**
+     * Exposes a summary of a {@link LatencyHistogram}. All times are in
+     * nanoseconds.
+     */
+    public static class LatencyInfo extends AcquisitionTimeBase implements Serializable {
+        public final static long serialVersionUID = 3316549205733458216L;
+
+        String name;
+        long count;
+        long mean;
+        long median;
+        long percentile90;
+        long percentile99;
+        long percentile999;
+        long max;
+
+        LatencyInfo(final String name, final LatencyHistogram histogram) {
+            super();
+            this.name = name;
+            this.count = histogram.getCount();
+            this.mean = histogram.getMean();
+            this.median = histogram.getValueAtPercentile(50);
+            this.percentile90 = histogram.getValueAtPercentile(90);
+            this.percentile99 = histogram.getValueAtPercentile(99);
+            this.percentile999 = histogram.getValueAtPercentile(99.9);
+            this.max = histogram.getMax();
+        }
+
+        @ConstructorProperties({ "name", "count", "mean", "median", "percentile90", "percentile99", "percentile999",
+                "max" })
+        public LatencyInfo(final String name, final long count, final long mean, final long median,
+                final long percentile90, final long percentile99, final long percentile999, final long max) {
+            super();
+            this.name = name;
+            this.count = count;
+            this.mean = mean;
+            this.median = median;
+            this.percentile90 = percentile90;
+            this.percentile99 = percentile99;
+            this.percentile999 = percentile999;
+            this.max = max;
+        }
+
+        /**
+         * @return the name of the operation or commit policy
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the number of recorded operations
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the mean elapsed time
+         */
+        public long getMean() {
+            return mean;
+        }
+
+        /**
+         * @return the elapsed time at the 50th percentile
+         */
+        public long getMedian() {
+            return median;
+        }
+
+        /**
+         * @return the elapsed time at the 90th percentile
+         */
+        public long getPercentile90() {
+            return percentile90;
+        }
+
+        /**
+         * @return the elapsed time at the 99th percentile
+         */
+        public long getPercentile99() {
+            return percentile99;
+        }
+
+        /**
+         * @return the elapsed time at the 99.9th percentile
+         */
+        public long getPercentile999() {
+            return percentile999;
+        }
+
+        /**
+         * @return the longest elapsed time
+         */
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s count=%,d mean=%,d p50=%,d p90=%,d p99=%,d p99.9=%,d max=%,d", name, count, mean,
+                    median, percentile90, percentile99, percentile999, max);
+        }
+    }
+
+    /**
+     * Exposes buffer pool hit and miss counts for one {@link PageCategory}.
+     */
+    public static class PageHitInfo extends AcquisitionTimeBase implements Serializable {
+        public final static long serialVersionUID = -2086404163347512389L;
+
+        String category;
+        long hitCount;
+        long missCount;
+
+        PageHitInfo(final PageCategory category, final long hitCount, final long missCount) {
+            this(category.name(), hitCount, missCount);
+        }
+
+        @ConstructorProperties({ "category", "hitCount", "missCount" })
+        public PageHitInfo(final String category, final long hitCount, final long missCount) {
+            super();
+            this.category = category;
+            this.hitCount = hitCount;
+            this.missCount = missCount;
+        }
+
+        /**
+         * @return the name of the <code>PageCategory</code>
+         */
+        public String getCategory() {
+            return category;
+        }
+
+        /**
+         * @return the count of requests for pages that were found in the
+         *         buffer pool
+         */
+        public long getHitCount() {
+            return hitCount;
+        }
+
+        /**
+         * @return the count of requests for pages that had to be read
+         */
+        public long getMissCount() {
+            return missCount;
+        }
+
+        /**
+         * @return the fraction of requests that were hits, or zero if there
+         *         were no requests
+         */
+        public double getHitRatio() {
+            final long total = hitCount + missCount;
+            return total == 0 ? 0.0 : (double) hitCount / total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s hits=%,d misses=%,d ratio=%.4f", category, hitCount, missCount, getHitRatio());
+        }
+    }
+
     /**
      * Structure that describes the current status of a long-running utility
      * task. See {@link #queryTaskStatus} for further information.
@@ -32,6 +32,7 @@ import java.util.Vector;
 
 import javax.management.ObjectName;
 
+import com.persistit.Transaction.CommitPolicy;
 import com.persistit.encoding.CoderContext;
 import com.persistit.encoding.ValueCoder;
 import com.persistit.exception.PersistitException;
@@ -157,6 +158,16 @@ class ManagementImpl implements Management {
         return getTransactionInfo().getRollbackCount();
     }
 
+    @Override
+    public long getExchangePoolHitCount() {
+        return _persistit.getExchangePoolHitCount();
+    }
+
+    @Override
+    public long getExchangePoolMissCount() {
+        return _persistit.getExchangePoolMissCount();
+    }
+
     @Override
     public VolumeInfo[] getVolumes() throws RemoteException {
         return getVolumeInfoArray();
@@ -882,22 +893,111 @@ class ManagementImpl implements Management {
      */
     @Override
     public TreeInfo getTreeInfo(final String volumeName, final String treeName) throws RemoteException {
+        final Tree tree = findTree(volumeName, treeName);
+        if (tree != null)
+            return new TreeInfo(tree);
+        return null;
+    }
+
+    /**
+     * Returns an array containing a <code>LatencyInfo</code> element for each
+     * kind of operation recorded for the specified <code>Tree</code>, or an
+     * empty array if the volume or tree is not found.
+     * 
+     * @param volumeName
+     *            The name (or partial name) of the volume
+     * 
+     * @param treeName
+     *            The name of the tree
+     * 
+     * @return the array
+     */
+    @Override
+    public LatencyInfo[] getTreeLatencyInfoArray(final String volumeName, final String treeName)
+            throws RemoteException {
+        final Tree tree = findTree(volumeName, treeName);
+        if (tree == null) {
+            return new LatencyInfo[0];
+        }
+        final TreeStatistics stats = tree.getStatistics();
+        return new LatencyInfo[] { new LatencyInfo("fetch", stats.getFetchLatency()),
+                new LatencyInfo("traverse", stats.getTraverseLatency()),
+                new LatencyInfo("store", stats.getStoreLatency()),
+                new LatencyInfo("remove", stats.getRemoveLatency()) };
+    }
+
+    /**
+     * Returns an array containing a <code>LatencyInfo</code> element for each
+     * <code>CommitPolicy</code>.
+     * 
+     * @return the array
+     */
+    @Override
+    public LatencyInfo[] getCommitLatencyInfoArray() {
+        final CommitPolicy[] policies = CommitPolicy.values();
+        final LatencyInfo[] result = new LatencyInfo[policies.length];
+        for (int index = 0; index < policies.length; index++) {
+            result[index] = new LatencyInfo(policies[index].name(), _persistit.getCommitLatency(policies[index]));
+        }
+        return result;
+    }
+
+    /**
+     * Returns an array containing a <code>PageHitInfo</code> element for each
+     * <code>PageCategory</code>, either totaled over all buffer pools or for
+     * the specified <code>Tree</code>.
+     * 
+     * @param volumeName
+     *            The name (or partial name) of the volume, or
+     *            <code>null</code> for buffer pool totals
+     * 
+     * @param treeName
+     *            The name of the tree, or <code>null</code> for buffer pool
+     *            totals
+     * 
+     * @return the array
+     */
+    @Override
+    public PageHitInfo[] getPageHitInfoArray(final String volumeName, final String treeName) throws RemoteException {
+        final PageCategory[] categories = PageCategory.values();
+        final PageHitInfo[] result = new PageHitInfo[categories.length];
+        if (treeName == null) {
+            for (int index = 0; index < categories.length; index++) {
+                long hits = 0;
+                long misses = 0;
+                for (final BufferPool pool : _persistit.getBufferPoolHashMap().values()) {
+                    hits += pool.getPageHitCounter(categories[index]);
+                    misses += pool.getPageMissCounter(categories[index]);
+                }
+                result[index] = new PageHitInfo(categories[index], hits, misses);
+            }
+        } else {
+            final Tree tree = findTree(volumeName, treeName);
+            if (tree == null) {
+                return new PageHitInfo[0];
+            }
+            final TreeStatistics stats = tree.getStatistics();
+            for (int index = 0; index < categories.length; index++) {
+                result[index] = new PageHitInfo(categories[index], stats.getPageHitCounter(categories[index]),
+                        stats.getPageMissCounter(categories[index]));
+            }
+        }
+        return result;
+    }
+
+    private Tree findTree(final String volumeName, final String treeName) throws RemoteException {
         final Volume volume = _persistit.getVolume(volumeName);
         if (volume == null)
             return null;
         try {
-            Tree tree = null;
             if (VolumeStructure.DIRECTORY_TREE_NAME.equals(treeName)) {
-                tree = volume.getDirectoryTree();
+                return volume.getDirectoryTree();
             } else {
-                tree = volume.getTree(treeName, false);
+                return volume.getTree(treeName, false);
             }
-            if (tree != null)
-                return new TreeInfo(tree);
         } catch (final PersistitException pe) {
             throw new WrappedRemoteException(pe);
         }
-        return null;
     }
 
     /**
@@ -0,0 +1,126 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.rmi.RemoteException;
+
+import com.persistit.Management.LatencyInfo;
+import com.persistit.Management.PageHitInfo;
+import com.persistit.Transaction.CommitPolicy;
+import com.persistit.mxbeans.MetricsMXBean;
+
+/**
+ * MXBean that exposes the {@link LatencyHistogram}s and page hit counts held
+ * by {@link TreeStatistics}, {@link BufferPool} and {@link Persistit}.
+ */
+class MetricsMXBeanImpl implements MetricsMXBean {
+
+    private final static String LATENCY_FORMAT = "  %-9s %,12d %,12d %,12d %,12d %,12d %,12d\n";
+
+    private final Persistit _persistit;
+
+    MetricsMXBeanImpl(final Persistit persistit) {
+        _persistit = persistit;
+    }
+
+    @Override
+    public LatencyInfo[] getCommitLatencies() throws RemoteException {
+        return _persistit.getManagement().getCommitLatencyInfoArray();
+    }
+
+    @Override
+    public PageHitInfo[] getPageHits() throws RemoteException {
+        return _persistit.getManagement().getPageHitInfoArray(null, null);
+    }
+
+    @Override
+    public LatencyInfo[] treeLatencies(final String volumeName, final String treeName) throws RemoteException {
+        return _persistit.getManagement().getTreeLatencyInfoArray(volumeName, treeName);
+    }
+
+    @Override
+    public PageHitInfo[] treePageHits(final String volumeName, final String treeName) throws RemoteException {
+        if (treeName == null) {
+            return new PageHitInfo[0];
+        }
+        return _persistit.getManagement().getPageHitInfoArray(volumeName, treeName);
+    }
+
+    @Override
+    public String report() {
+        final StringBuilder sb = new StringBuilder();
+        sb.append(String.format("  %-9s %12s %12s %12s %12s %12s %12s\n", "", "count", "mean", "p50", "p99",
+                "p99.9", "max"));
+        for (final Volume volume : _persistit.getVolumes()) {
+            if (!volume.isOpened()) {
+                continue;
+            }
+            for (final Tree tree : volume.getStructure().referencedTrees()) {
+                final TreeStatistics stats = tree.getStatistics();
+                final StringBuilder treeReport = new StringBuilder();
+                appendLatency(treeReport, "fetch", stats.getFetchLatency());
+                appendLatency(treeReport, "traverse", stats.getTraverseLatency());
+                appendLatency(treeReport, "store", stats.getStoreLatency());
+                appendLatency(treeReport, "remove", stats.getRemoveLatency());
+                boolean paged = false;
+                for (final PageCategory category : PageCategory.values()) {
+                    final long hits = stats.getPageHitCounter(category);
+                    final long misses = stats.getPageMissCounter(category);
+                    if (hits + misses > 0) {
+                        treeReport.append(paged ? " " : "  hit ratio");
+                        treeReport.append(String.format(" %s=%.4f", category, (double) hits / (hits + misses)));
+                        paged = true;
+                    }
+                }
+                if (paged) {
+                    treeReport.append('\n');
+                }
+                if (treeReport.length() > 0) {
+                    sb.append(volume.getName()).append(':').append(tree.getName()).append('\n');
+                    sb.append(treeReport);
+                }
+            }
+        }
+        sb.append("commit\n");
+        for (final CommitPolicy policy : CommitPolicy.values()) {
+            appendLatency(sb, policy.name(), _persistit.getCommitLatency(policy));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public void reset() {
+        for (final CommitPolicy policy : CommitPolicy.values()) {
+            _persistit.getCommitLatency(policy).reset();
+        }
+        for (final Volume volume : _persistit.getVolumes()) {
+            if (volume.isOpened()) {
+                for (final Tree tree : volume.getStructure().referencedTrees()) {
+                    tree.getStatistics().resetMetrics();
+                }
+            }
+        }
+    }
+
+    private void appendLatency(final StringBuilder sb, final String name, final LatencyHistogram histogram) {
+        if (histogram.getCount() > 0) {
+            sb.append(String.format(LATENCY_FORMAT, name, histogram.getCount(), histogram.getMean(),
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+                    histogram.getValueAtPercentile(99.9), histogram.getMax()));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+/**
+ * Broad classification of {@link Buffer} page types used to break down buffer
+ * pool hit and miss counts.
+ */
+public enum PageCategory {
+    /**
+     * Non-leaf pages of a B-Tree
+     */
+    INDEX,
+    /**
+     * Leaf pages of a B-Tree
+     */
+    DATA,
+    /**
+     * Pages holding the continuation bytes of long records
+     */
+    LONG_RECORD,
+    /**
+     * Head, garbage and unallocated pages
+     */
+    OTHER;
+
+    static PageCategory forPageType(final int type) {
+        if (type == Buffer.PAGE_TYPE_DATA) {
+            return DATA;
+        } else if (type >= Buffer.PAGE_TYPE_INDEX_MIN && type <= Buffer.PAGE_TYPE_INDEX_MAX) {
+            return INDEX;
+        } else if (type == Buffer.PAGE_TYPE_LONG_RECORD) {
+            return LONG_RECORD;
+        } else {
+            return OTHER;
+        }
+    }
+
+    static PageCategory forName(final String name) {
+        for (final PageCategory category : values()) {
+            if (category.name().equalsIgnoreCase(name)) {
+                return category;
+            }
+        }
+        throw new IllegalArgumentException("No such PageCategory: " + name);
+    }
+}
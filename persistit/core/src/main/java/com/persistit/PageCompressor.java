@@ -0,0 +1,387 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.persistit.JournalRecord.PC;
+import com.persistit.exception.CorruptJournalException;
+import com.persistit.exception.InvalidPageStructureException;
+import com.persistit.util.Util;
+
+/**
+ * Compresses and expands page images.
+ * <p />
+ * For a {@link Volume} whose {@link VolumeSpecification} enables compression, a
+ * compressed page still occupies its fixed-size slot in the volume file, but
+ * only the compressed image, rounded up to a multiple of
+ * {@value #COMPRESSED_BLOCK_SIZE} bytes, is written. Buffers in the
+ * {@link BufferPool} always hold uncompressed pages. A compressed image starts
+ * with a header of {@value #HEADER_SIZE} bytes:
+ * 
+ * <pre>
+ *  0  byte   COMPRESSED_PAGE_TYPE (never a valid Buffer page type)
+ *  1  byte   format version
+ *  4  int    length of the deflated data that follows
+ * </pre>
+ * 
+ * The first byte distinguishes a compressed image from an ordinary page, so a
+ * volume may hold a mix of both and can be read whether or not compression is
+ * currently enabled.
+ * <p />
+ * The {@link JournalManager} uses the same codec to encode the payload of
+ * {@link PC} records, either as the deflated bytes of a PA record or as the
+ * deflated XOR of the page with an earlier image of the same page.
+ * <p />
+ * Instances are not thread-safe; {@link VolumeStorageV2} and
+ * {@link JournalManager} each keep a pool of them.
+ */
+final class PageCompressor {
+
+    final static int COMPRESSED_PAGE_TYPE = 0xC5;
+
+    final static int FORMAT_VERSION = 1;
+
+    final static int HEADER_SIZE = 8;
+
+    final static int COMPRESSED_BLOCK_SIZE = 512;
+
+    private final static int VERSION_OFFSET = 1;
+
+    private final static int LENGTH_OFFSET = 4;
+
+    private final int _pageSize;
+
+    private final Deflater _deflater = new Deflater(Deflater.BEST_SPEED);
+
+    private final Inflater _inflater = new Inflater();
+
+    private final byte[] _bytes;
+
+    private final byte[] _overflow = new byte[1];
+
+    private byte[] _input;
+
+    private byte[] _delta;
+
+    private ByteBuffer _record;
+
+    private ByteBuffer _base;
+
+    /**
+     * @param pageSize
+     *            size of the largest page this instance will handle
+     */
+    PageCompressor(final int pageSize) {
+        _pageSize = pageSize;
+        _bytes = new byte[pageSize];
+    }
+
+    int getPageSize() {
+        return _pageSize;
+    }
+
+    /**
+     * Determine whether the supplied page image was written in compressed
+     * form.
+     * 
+     * @param bytes
+     *            page image as read from the volume file
+     * @return <code>true</code> if the image is compressed
+     */
+    static boolean isCompressed(final byte[] bytes) {
+        return (bytes[0] & 0xFF) == COMPRESSED_PAGE_TYPE;
+    }
+
+    /**
+     * Determine how many bytes of the volume file hold a compressed page image
+     * from its header alone, so that a reader need not fetch the remainder of
+     * the page slot.
+     *
+     * @param bytes
+     *            holds at least the first {@link #HEADER_SIZE} bytes of a
+     *            compressed page image
+     * @param pageSize
+     *            size of the page slot
+     * @return the number of bytes to read, rounded up to a whole number of
+     *         blocks; <code>pageSize</code> if the header is not valid, in
+     *         which case {@link #expand(byte[], long)} reports the error
+     */
+    static int imageSize(final byte[] bytes, final int pageSize) {
+        final int length = Util.getInt(bytes, LENGTH_OFFSET);
+        if ((bytes[VERSION_OFFSET] & 0xFF) != FORMAT_VERSION || length <= 0 || length > pageSize - HEADER_SIZE) {
+            return pageSize;
+        }
+        return Math.min(pageSize, roundUp(HEADER_SIZE + length));
+    }
+
+    /**
+     * Compress the page image held in the remaining bytes of the supplied
+     * <code>ByteBuffer</code>. The position of <code>bb</code> is not changed.
+     * 
+     * @param bb
+     *            holds an uncompressed page image of exactly
+     *            {@link #getPageSize()} bytes
+     * @return a <code>ByteBuffer</code> holding the compressed image, or
+     *         <code>null</code> if compression would not save at least one
+     *         block. The result is backed by storage private to this
+     *         <code>PageCompressor</code> and is valid only until the next
+     *         call.
+     */
+    ByteBuffer compress(final ByteBuffer bb) {
+        if (bb.remaining() != _pageSize) {
+            return null;
+        }
+        final byte[] input;
+        final int offset;
+        if (bb.hasArray()) {
+            input = bb.array();
+            offset = bb.arrayOffset() + bb.position();
+        } else {
+            input = input();
+            bb.duplicate().get(input);
+            offset = 0;
+        }
+        if ((input[offset] & 0xFF) == COMPRESSED_PAGE_TYPE) {
+            return null;
+        }
+        final int limit = _pageSize - COMPRESSED_BLOCK_SIZE;
+        final int length = deflate(input, offset, _pageSize, _bytes, HEADER_SIZE, limit - HEADER_SIZE);
+        if (length < 0) {
+            return null;
+        }
+        final int size = roundUp(HEADER_SIZE + length);
+        if (size > limit) {
+            return null;
+        }
+        _bytes[0] = (byte) COMPRESSED_PAGE_TYPE;
+        _bytes[VERSION_OFFSET] = (byte) FORMAT_VERSION;
+        Util.putChar(_bytes, 2, 0);
+        Util.putInt(_bytes, LENGTH_OFFSET, length);
+        for (int index = HEADER_SIZE + length; index < size; index++) {
+            _bytes[index] = 0;
+        }
+        return ByteBuffer.wrap(_bytes, 0, size);
+    }
+
+    /**
+     * Expand a compressed page image in place.
+     * 
+     * @param bytes
+     *            on entry the compressed image as read from the volume file;
+     *            on exit the uncompressed page
+     * @param page
+     *            page address, used only in error messages
+     * @throws InvalidPageStructureException
+     *             if the image cannot be expanded to exactly one page
+     */
+    void expand(final byte[] bytes, final long page) throws InvalidPageStructureException {
+        final int version = bytes[VERSION_OFFSET] & 0xFF;
+        final int length = Util.getInt(bytes, LENGTH_OFFSET);
+        if (version != FORMAT_VERSION || length <= 0 || length > _pageSize - HEADER_SIZE) {
+            throw new InvalidPageStructureException("Invalid compressed image version=" + version + " length="
+                    + length + " for page " + page);
+        }
+        System.arraycopy(bytes, HEADER_SIZE, _bytes, 0, length);
+        if (!inflate(_bytes, 0, length, bytes, 0, _pageSize)) {
+            throw new InvalidPageStructureException("Invalid compressed image for page " + page);
+        }
+    }
+
+    /**
+     * Deflate the bytes a PA record would hold for a page: the first
+     * <code>leftSize</code> and last <code>rightSize</code> bytes of the page.
+     * 
+     * @return the deflated length, held in {@link #getDeflated()}, or -1 if
+     *         the deflated form is not smaller than the PA payload
+     */
+    int deflateImage(final byte[] page, final int bufferSize, final int leftSize, final int rightSize) {
+        final byte[] input = input();
+        System.arraycopy(page, 0, input, 0, leftSize);
+        System.arraycopy(page, bufferSize - rightSize, input, leftSize, rightSize);
+        final int size = leftSize + rightSize;
+        return deflate(input, 0, size, _bytes, 0, size - 1);
+    }
+
+    /**
+     * Deflate the XOR of a page with an earlier image of the same page. The
+     * bytes between <code>leftSize</code> and
+     * <code>bufferSize - rightSize</code> are taken to be zero, as they would
+     * be after the page is read back from a PA record.
+     * 
+     * @return the deflated length, held in {@link #getDelta()}, or -1 if the
+     *         deflated form is not smaller than <code>maximumSize</code>
+     */
+    int deltaImage(final byte[] page, final int bufferSize, final int leftSize, final int rightSize,
+            final byte[] base, final int maximumSize) {
+        final byte[] input = input();
+        final int rightStart = bufferSize - rightSize;
+        for (int index = 0; index < leftSize; index++) {
+            input[index] = (byte) (page[index] ^ base[index]);
+        }
+        System.arraycopy(base, leftSize, input, leftSize, rightStart - leftSize);
+        for (int index = rightStart; index < bufferSize; index++) {
+            input[index] = (byte) (page[index] ^ base[index]);
+        }
+        if (_delta == null) {
+            _delta = new byte[_pageSize];
+        }
+        return deflate(input, 0, bufferSize, _delta, 0, Math.min(maximumSize, _pageSize));
+    }
+
+    byte[] getDeflated() {
+        return _bytes;
+    }
+
+    byte[] getDelta() {
+        return _delta;
+    }
+
+    /**
+     * @return a heap buffer large enough to hold any PC record
+     */
+    ByteBuffer getRecordBuffer() {
+        if (_record == null) {
+            _record = ByteBuffer.allocate(_pageSize + PC.OVERHEAD);
+        }
+        _record.clear();
+        return _record;
+    }
+
+    /**
+     * @return a heap buffer large enough to hold the base image of a delta
+     *         record
+     */
+    ByteBuffer getBaseBuffer() {
+        if (_base == null) {
+            _base = ByteBuffer.allocate(_pageSize);
+        }
+        _base.clear();
+        return _base;
+    }
+
+    /**
+     * Expand the payload of a {@link PC} record into a page image.
+     * 
+     * @param record
+     *            positioned at the start of a complete PC record
+     * @param base
+     *            for a delta record, the expanded image of the record at its
+     *            base address; otherwise ignored
+     * @param bytes
+     *            array to receive the page
+     * @param offset
+     *            offset within <code>bytes</code> of the page
+     * @throws CorruptJournalException
+     *             if the record cannot be expanded
+     */
+    void expandImage(final ByteBuffer record, final byte[] base, final byte[] bytes, final int offset)
+            throws CorruptJournalException {
+        final int bufferSize = PC.getBufferSize(record);
+        final int leftSize = PC.getLeftSize(record);
+        final int rightSize = PC.getRightSize(record);
+        final int encoding = PC.getEncoding(record);
+        final int length = JournalRecord.getLength(record) - PC.OVERHEAD;
+        final int from = record.position() + PC.OVERHEAD;
+        if (encoding == PC.ENCODING_DEFLATE) {
+            if (!inflate(record.array(), from, length, bytes, offset, leftSize + rightSize)) {
+                throw new CorruptJournalException("Invalid deflated page image in PC record for page "
+                        + PC.getPageAddress(record));
+            }
+            System.arraycopy(bytes, offset + leftSize, bytes, offset + bufferSize - rightSize, rightSize);
+            for (int index = offset + leftSize; index < offset + bufferSize - rightSize; index++) {
+                bytes[index] = 0;
+            }
+        } else if (encoding == PC.ENCODING_DELTA) {
+            if (!inflate(record.array(), from, length, bytes, offset, bufferSize)) {
+                throw new CorruptJournalException("Invalid delta page image in PC record for page "
+                        + PC.getPageAddress(record));
+            }
+            for (int index = 0; index < bufferSize; index++) {
+                bytes[offset + index] ^= base[index];
+            }
+        } else {
+            throw new CorruptJournalException("Unknown encoding " + encoding + " in PC record for page "
+                    + PC.getPageAddress(record));
+        }
+    }
+
+    void close() {
+        _deflater.end();
+        _inflater.end();
+    }
+
+    static int roundUp(final int size) {
+        return (size + COMPRESSED_BLOCK_SIZE - 1) / COMPRESSED_BLOCK_SIZE * COMPRESSED_BLOCK_SIZE;
+    }
+
+    private byte[] input() {
+        if (_input == null) {
+            _input = new byte[_pageSize];
+        }
+        return _input;
+    }
+
+    /**
+     * @return the deflated length, or -1 if it would exceed
+     *         <code>maximumSize</code>
+     */
+    private int deflate(final byte[] input, final int offset, final int length, final byte[] output,
+            final int outputOffset, final int maximumSize) {
+        if (maximumSize <= 0) {
+            return -1;
+        }
+        _deflater.reset();
+        _deflater.setInput(input, offset, length);
+        _deflater.finish();
+        final int size = _deflater.deflate(output, outputOffset, maximumSize);
+        return _deflater.finished() ? size : -1;
+    }
+
+    /**
+     * @return <code>true</code> if the input expanded to exactly
+     *         <code>expectedSize</code> bytes
+     */
+    private boolean inflate(final byte[] input, final int offset, final int length, final byte[] output,
+            final int outputOffset, final int expectedSize) {
+        _inflater.reset();
+        _inflater.setInput(input, offset, length);
+        try {
+            int size = 0;
+            while (size < expectedSize && !_inflater.finished()) {
+                final int n = _inflater.inflate(output, outputOffset + size, expectedSize - size);
+                if (n == 0 && (_inflater.needsInput() || _inflater.needsDictionary())) {
+                    break;
+                }
+                size += n;
+            }
+            if (size == expectedSize && !_inflater.finished()) {
+                /*
+                 * Consume the end of the stream; any further output means
+                 * the image is larger than expected.
+                 */
+                size += _inflater.inflate(_overflow);
+            }
+            return size == expectedSize && _inflater.finished();
+        } catch (final DataFormatException e) {
+            return false;
+        }
+    }
+}
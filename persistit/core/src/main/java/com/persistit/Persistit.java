@@ -40,6 +40,7 @@ import com.persistit.mxbeans.IOMeterMXBean;
 import com.persistit.mxbeans.JournalManagerMXBean;
 import com.persistit.mxbeans.MXBeanWrapper;
 import com.persistit.mxbeans.ManagementMXBean;
+import com.persistit.mxbeans.MetricsMXBean;
 import com.persistit.mxbeans.RecoveryManagerMXBean;
 import com.persistit.mxbeans.TransactionIndexMXBean;
 import com.persistit.policy.JoinPolicy;
@@ -78,6 +79,7 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -155,6 +157,9 @@ public class Persistit {
 
   private final static int MAX_FATAL_ERROR_MESSAGES = 10;
 
+  private final static int EXCHANGE_POOL_HIT = 0;
+  private final static int EXCHANGE_POOL_MISS = 1;
+
   /**
    * An Exception created when Persistit detects a fatal internal error such
    * as database corruption.
@@ -225,6 +230,8 @@ public class Persistit {
   private final AtomicBoolean _suspendUpdates = new AtomicBoolean(false);
   private final AtomicBoolean _enableBufferInventory = new AtomicBoolean(false);
 
+  private volatile Thread _bufferPreloadThread;
+
   private UtilControl _localGUI;
 
   private final AtomicReference<CoderManager> _coderManager = new AtomicReference<CoderManager>();
@@ -257,7 +264,30 @@ public class Persistit {
 
   private final TransactionIndex _transactionIndex = new TransactionIndex(_timestampAllocator, TRANSACTION_INDEX_SIZE);
 
-  private final Map<SessionId, List<Exchange>> _exchangePoolMap = new WeakHashMap<SessionId, List<Exchange>>();
+  /*
+   * Incremented on close so that Exchange pools held by SessionIds from a
+   * previous use of this instance are discarded
+   */
+  private final AtomicInteger _exchangePoolGeneration = new AtomicInteger();
+
+  /*
+   * Exchange pool hits and misses of all sessions, indexed by
+   * EXCHANGE_POOL_HIT and EXCHANGE_POOL_MISS
+   */
+  private final StripedCounters _exchangePoolCounters = new StripedCounters(2);
+
+  /*
+   * Sessions holding an ExchangePool for this instance; their pools are
+   * removed on close so that the SessionId does not keep this instance
+   * reachable.
+   */
+  private final Set<SessionId> _exchangePoolSessions = Collections
+      .newSetFromMap(new WeakHashMap<SessionId, Boolean>());
+
+  /*
+   * Elapsed times of Transaction#commit, indexed by CommitPolicy ordinal
+   */
+  private final LatencyHistogram[] _commitLatency = newCommitLatencyHistograms();
 
   private final Map<ObjectName, Object> _mxbeans = new TreeMap<ObjectName, Object>();
 
@@ -605,6 +635,8 @@ public class Persistit {
   private void initializeRecovery() throws PersistitException {
     final String journalPath = _configuration.getJournalPath();
     _recoveryManager.init(journalPath);
+    _recoveryManager.setJournalMapped(_configuration.isJournalMapped());
+    _recoveryManager.setRecoveryThreads(_configuration.getRecoveryThreads());
     _recoveryManager.buildRecoveryPlan();
   }
 
@@ -614,6 +646,10 @@ public class Persistit {
 
     _journalManager.init(_recoveryManager, journalPath, journalSize);
     _journalManager.setAppendOnly(_configuration.isAppendOnly());
+    _journalManager.setJournalMapped(_configuration.isJournalMapped());
+    _journalManager.setCopierConcurrency(_configuration.getCopierConcurrency());
+    _journalManager.setPageCompression(_configuration.getJournalPageCompression());
+    _journalManager.setFlushTarget(_configuration.getJournalFlushTarget());
     _journalManager.setIgnoreMissingVolumes(_configuration.isIgnoreMissingVolumes());
   }
 
@@ -623,7 +659,8 @@ public class Persistit {
       if (poolSize > 0) {
         final int bufferSize = config.getBufferSize();
         _logBase.allocateBuffers.log(poolSize, bufferSize);
-        final BufferPool pool = new BufferPool(poolSize, bufferSize, this);
+        final BufferPool pool = new BufferPool(poolSize, bufferSize, _configuration.getBufferSegments(), this);
+        pool.setEvictionPolicy(_configuration.getBufferEvictionPolicy());
         _bufferPoolTable.put(bufferSize, pool);
         if (_configuration.isJmxEnabled()) {
           registerBufferPoolMXBean(bufferSize);
@@ -714,8 +751,51 @@ public class Persistit {
 
   void preloadBufferPools() throws PersistitException {
     if (_configuration.isBufferPreloadEnabled()) {
+      final int threadCount = _configuration.getBufferPreloadThreads();
+      final Runnable preload = new Runnable() {
+        @Override
+        public void run() {
+          for (final BufferPool pool : _bufferPoolTable.values()) {
+            pool.preloadBufferInventory(threadCount);
+          }
+        }
+      };
+      if (_configuration.isBufferPreloadBackground()) {
+        /*
+         * Threads that read pages for the preload inherit this thread's
+         * priority
+         */
+        final Thread thread = new Thread(preload, "BUFFER_PRELOAD");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        _bufferPreloadThread = thread;
+        thread.start();
+      } else {
+        preload.run();
+      }
+    }
+  }
+
+  /**
+   * Wait for a buffer pool preload running in the background to finish.
+   * 
+   * @throws PersistitInterruptedException
+   */
+  void waitForBufferPreload() throws PersistitInterruptedException {
+    final Thread thread = _bufferPreloadThread;
+    if (thread != null) {
+      try {
+        thread.join();
+      } catch (final InterruptedException ie) {
+        throw new PersistitInterruptedException(ie);
+      }
+    }
+  }
+
+  private void stopBufferPreload() {
+    if (_bufferPreloadThread != null) {
       for (final BufferPool pool : _bufferPoolTable.values()) {
-        pool.preloadBufferInventory();
+        pool.stopPreload();
       }
     }
   }
@@ -749,6 +829,7 @@ public class Persistit {
       registerMBean(_journalManager, JournalManagerMXBean.class, JournalManagerMXBean.MXBEAN_NAME);
       registerMBean(_recoveryManager, RecoveryManagerMXBean.class, RecoveryManagerMXBean.MXBEAN_NAME);
       registerMBean(_alertMonitor, AlertMonitorMXBean.class, AlertMonitorMXBean.MXBEAN_NAME);
+      registerMBean(new MetricsMXBeanImpl(this), MetricsMXBean.class, MetricsMXBean.MXBEAN_NAME);
     } catch (final Exception exception) {
       _logBase.mbeanException.log(exception);
     }
@@ -835,6 +916,12 @@ public class Persistit {
    * method, it should return it to the pool by invoking
    * {@link #releaseExchange} so that it can be reused.
    * </p>
+   * <p>
+   * The pool belongs to the current {@link SessionId} and is used without
+   * locking. When the pool holds an <code>Exchange</code> that was last used
+   * on the same <code>Tree</code>, that <code>Exchange</code> is returned so
+   * that its cached tree and page state can be reused.
+   * </p>
    * 
    * @param volume
    *            The Volume
@@ -852,20 +939,20 @@ public class Persistit {
     throws PersistitException {
     if (volume == null)
       throw new VolumeNotFoundException();
-    List<Exchange> stack;
     final SessionId sessionId = getSessionId();
-
-    synchronized (_exchangePoolMap) {
-      stack = _exchangePoolMap.get(sessionId);
-      if (stack == null) {
-        stack = new ArrayList<Exchange>();
-        _exchangePoolMap.put(sessionId, stack);
+    final int generation = _exchangePoolGeneration.get();
+    ExchangePool pool = sessionId.getExchangePool(this);
+    if (pool == null || !pool.belongsTo(this, generation)) {
+      pool = new ExchangePool(this, generation);
+      sessionId.setExchangePool(this, pool);
+      synchronized (_exchangePoolSessions) {
+        _exchangePoolSessions.add(sessionId);
       }
     }
-    if (stack.isEmpty()) {
+    final Exchange exchange = pool.take(volume, treeName);
+    if (exchange == null) {
       return new Exchange(this, volume, treeName, create);
     } else {
-      final Exchange exchange = stack.remove(stack.size() - 1);
       exchange.init(volume, treeName, create);
       return exchange;
     }
@@ -976,20 +1063,55 @@ public class Persistit {
     if (exchange == null) {
       return;
     }
-    List<Exchange> stack;
-    final SessionId sessionId = getSessionId();
-    synchronized (_exchangePoolMap) {
-      stack = _exchangePoolMap.get(sessionId);
-      if (stack == null) {
-        throw new IllegalStateException("Release not preceded by get");
-      }
+    final ExchangePool pool = getSessionId().getExchangePool(this);
+    if (pool == null || !pool.belongsTo(this, _exchangePoolGeneration.get())) {
+      throw new IllegalStateException("Release not preceded by get");
     }
-    if (stack.size() < MAX_POOLED_EXCHANGES) {
+    if (pool.size() < MAX_POOLED_EXCHANGES) {
       exchange.removeState(secure);
-      stack.add(exchange);
+      pool.give(exchange);
     }
   }
 
+  void countExchangePoolTake(final boolean hit) {
+    _exchangePoolCounters.increment(hit ? EXCHANGE_POOL_HIT : EXCHANGE_POOL_MISS);
+  }
+
+  /**
+   * @return the number of calls to {@link #getExchange} that reused a pooled
+   *         <code>Exchange</code>
+   */
+  long getExchangePoolHitCount() {
+    return _exchangePoolCounters.get(EXCHANGE_POOL_HIT);
+  }
+
+  /**
+   * @return the number of calls to {@link #getExchange} that created a new
+   *         <code>Exchange</code> because the session's pool was empty
+   */
+  long getExchangePoolMissCount() {
+    return _exchangePoolCounters.get(EXCHANGE_POOL_MISS);
+  }
+
+  private static LatencyHistogram[] newCommitLatencyHistograms() {
+    final LatencyHistogram[] histograms = new LatencyHistogram[CommitPolicy.values().length];
+    for (int index = 0; index < histograms.length; index++) {
+      histograms[index] = new LatencyHistogram();
+    }
+    return histograms;
+  }
+
+  /**
+   * @param policy
+   *          the <code>CommitPolicy</code> supplied to
+   *          {@link Transaction#commit(CommitPolicy)}
+   * @return the elapsed times of outermost transaction commits that used the
+   *         supplied policy
+   */
+  LatencyHistogram getCommitLatency(final CommitPolicy policy) {
+    return _commitLatency[policy.ordinal()];
+  }
+
   /**
    * Get a {@link List} of all {@link Volume}s currently being managed by this
    * Persistit instance. Volumes are specified by the properties used in
@@ -1645,6 +1767,9 @@ public class Persistit {
           }
         }
       }
+      stopBufferPreload();
+      waitForBufferPreload();
+      _bufferPreloadThread = null;
       recordBufferPoolInventory();
       _cleanupManager.close(flush);
       waitForIOTaskStop(_cleanupManager);
@@ -1751,6 +1876,7 @@ public class Persistit {
    * processes. This method should be used only by tests.
    */
   public void crash() {
+    stopBufferPreload();
     final JournalManager journalManager = _journalManager;
     if (journalManager != null) {
       try {
@@ -1810,6 +1936,8 @@ public class Persistit {
 
   private void releaseAllResources() {
 
+    stopBufferPreload();
+    _bufferPreloadThread = null;
     unregisterMXBeans();
     try {
       if (_logger != null) {
@@ -1848,8 +1976,12 @@ public class Persistit {
       _cleanupManager.clear();
       _configuration = null;
     }
-    synchronized (_exchangePoolMap) {
-      _exchangePoolMap.clear();
+    _exchangePoolGeneration.incrementAndGet();
+    synchronized (_exchangePoolSessions) {
+      for (final SessionId sessionId : _exchangePoolSessions) {
+        sessionId.removeExchangePool(this);
+      }
+      _exchangePoolSessions.clear();
     }
     synchronized (_transactionSessionMap) {
       _transactionSessionMap.clear();
@@ -31,15 +31,28 @@ import java.io.FileFilter;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import com.persistit.CheckpointManager.Checkpoint;
 import com.persistit.JournalManager.PageNode;
@@ -55,6 +68,7 @@ import com.persistit.JournalRecord.IV;
 import com.persistit.JournalRecord.JE;
 import com.persistit.JournalRecord.JH;
 import com.persistit.JournalRecord.PA;
+import com.persistit.JournalRecord.PC;
 import com.persistit.JournalRecord.PM;
 import com.persistit.JournalRecord.SR;
 import com.persistit.JournalRecord.TM;
@@ -135,8 +149,18 @@ import com.persistit.util.Util;
  * are already present in the recovered B-Trees.
  * </p>
  * <p>
- * This class is not threadsafe; it is intended to be called only during the
- * single-threaded recovery process.
+ * When {@link #setRecoveryThreads(int)} specifies more than one thread, the
+ * required journal files are validated concurrently and Phase 2 distributes
+ * transactions among that many replay threads. Each transaction whose updates
+ * all fall in trees of one partition (tree handle modulo thread count) is
+ * applied by that partition's thread, which preserves commit order within
+ * each tree. A transaction that spans partitions or modifies a directory tree
+ * waits for all replay threads to finish their prior work and is then applied
+ * by the calling thread.
+ * </p>
+ * <p>
+ * This class is not threadsafe; it is intended to be called only by the thread
+ * that performs recovery.
  * </p>
  * 
  * @author peter
@@ -180,15 +204,27 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
 
     private final Map<Long, FileChannel> _journalFileChannels = new HashMap<Long, FileChannel>();
 
+    private final Map<Long, MappedByteBuffer> _journalFileMappings = new HashMap<Long, MappedByteBuffer>();
+
+    private volatile boolean _journalMapped;
+
     private volatile int _committedTransactionCount;
 
     private volatile int _uncommittedTransactionCount;
 
-    private volatile int _appliedTransactionCount;
+    private final AtomicInteger _appliedTransactionCount = new AtomicInteger();
+
+    private final AtomicInteger _abortedTransactionCount = new AtomicInteger();
+
+    private final AtomicInteger _parallelTransactionCount = new AtomicInteger();
+
+    private final AtomicInteger _errorCount = new AtomicInteger();
 
-    private volatile int _abortedTransactionCount;
+    private volatile int _recoveryThreads = DEFAULT_RECOVERY_THREADS;
 
-    private volatile int _errorCount;
+    private volatile long _planTime;
+
+    private volatile long _applyTime;
 
     private volatile boolean _recoveryDisabledForTestMode;
 
@@ -208,6 +244,8 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
 
     private final int _readBufferSize = DEFAULT_BUFFER_SIZE;
 
+    private final Queue<PageCompressor> _pageCompressors = new ConcurrentLinkedQueue<PageCompressor>();
+
     private long _readBufferAddress;
 
     private long _currentAddress;
@@ -381,7 +419,40 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
         @Override
         public void convertToLongRecord(final Value value, final int treeHandle, final long address,
                 final long commitTimestamp) throws PersistitException {
-            RecoveryManager.this.convertToLongRecord(value, treeHandle, address, commitTimestamp);
+            RecoveryManager.this.convertToLongRecord(value, treeHandle, address, commitTimestamp, this);
+        }
+
+        @Override
+        public Persistit getPersistit() {
+            return _persistit;
+        }
+    }
+
+    /**
+     * A <code>TransactionPlayerSupport</code> with a private read buffer, used
+     * by each thread that validates journal files or replays transactions
+     * concurrently with others.
+     */
+    private class RecoveryReader implements TransactionPlayerSupport {
+
+        private final ByteBuffer _buffer = ByteBuffer.allocate(_readBufferSize);
+
+        private long _bufferAddress = -1;
+
+        @Override
+        public void read(final long address, final int size) throws PersistitIOException {
+            _bufferAddress = RecoveryManager.this.read(_buffer, _bufferAddress, address, size);
+        }
+
+        @Override
+        public ByteBuffer getReadBuffer() {
+            return _buffer;
+        }
+
+        @Override
+        public void convertToLongRecord(final Value value, final int treeHandle, final long address,
+                final long commitTimestamp) throws PersistitException {
+            RecoveryManager.this.convertToLongRecord(value, treeHandle, address, commitTimestamp, this);
         }
 
         @Override
@@ -460,7 +531,7 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
         info.blockSize = _blockSize;
         info.pageMapSize = _pageMap.size();
         info.baseAddress = _baseAddress;
-        info.appliedTransactions = _appliedTransactionCount;
+        info.appliedTransactions = _appliedTransactionCount.get();
         info.committedTransactions = getCommittedCount();
         info.uncommittedTransactions = getUncommittedCount();
     }
@@ -499,12 +570,49 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
 
     @Override
     public int getAppliedTransactionCount() {
-        return _appliedTransactionCount;
+        return _appliedTransactionCount.get();
+    }
+
+    @Override
+    public int getAbortedTransactionCount() {
+        return _abortedTransactionCount.get();
+    }
+
+    @Override
+    public int getParallelTransactionCount() {
+        return _parallelTransactionCount.get();
     }
 
     @Override
     public int getErrorCount() {
-        return _errorCount;
+        return _errorCount.get();
+    }
+
+    @Override
+    public int getRecoveryThreads() {
+        return _recoveryThreads;
+    }
+
+    /**
+     * @param threads
+     *            Number of threads used to validate journal files and to
+     *            replay recovered transactions. Listeners passed to
+     *            {@link #applyAllRecoveredTransactions} must be threadsafe when
+     *            this is greater than one.
+     */
+    public void setRecoveryThreads(final int threads) {
+        Util.rangeCheck(threads, 1, MAXIMUM_RECOVERY_THREADS);
+        _recoveryThreads = threads;
+    }
+
+    @Override
+    public long getPlanTime() {
+        return _planTime / Util.NS_PER_MS;
+    }
+
+    @Override
+    public long getApplyTime() {
+        return _applyTime / Util.NS_PER_MS;
     }
 
     public Checkpoint getLastValidCheckpoint() {
@@ -672,6 +780,7 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
         _handleToTreeMap.clear();
         _readBuffer = null;
         _journalFileChannels.clear();
+        _journalFileMappings.clear();
     }
 
     /**
@@ -693,6 +802,54 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
         _recoveryDisabledForTestMode = recoveryDisabledForTestMode;
     }
 
+    /**
+     * @return <code>true</code> if journal files are scanned through read-only
+     *         memory mappings
+     */
+    boolean isJournalMapped() {
+        return _journalMapped;
+    }
+
+    /**
+     * @param journalMapped
+     *            Set this to <code>true</code> to scan journal files through
+     *            read-only memory mappings rather than channel reads
+     */
+    void setJournalMapped(final boolean journalMapped) {
+        _journalMapped = journalMapped;
+    }
+
+    /**
+     * Return a read-only mapping of the journal file containing the supplied
+     * <code>address</code>, creating it if necessary. Every file is sealed
+     * during recovery, so any of them may be mapped.
+     * 
+     * @param address
+     *            the journal address of a record
+     * @return the mapping, or <code>null</code> if mapping is disabled or the
+     *         file is too large to map
+     * @throws PersistitIOException
+     *             if the file cannot be mapped
+     */
+    synchronized MappedByteBuffer getMappedFile(final long address) throws PersistitIOException {
+        if (!_journalMapped) {
+            return null;
+        }
+        final long generation = address / _blockSize;
+        MappedByteBuffer mapping = _journalFileMappings.get(generation);
+        if (mapping == null) {
+            try {
+                mapping = JournalManager.mapJournalFile(getFileChannel(address));
+            } catch (final IOException ioe) {
+                throw new PersistitIOException(ioe);
+            }
+            if (mapping != null) {
+                _journalFileMappings.put(generation, mapping);
+            }
+        }
+        return mapping;
+    }
+
     /**
      * Return the <code>FileChannel</code> for the journal file containing the
      * supplied <code>address</code>. If necessary, create a new
@@ -873,34 +1030,64 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
     }
 
     private void read(final long address, final int size) throws PersistitIOException {
-        if (_readBufferAddress >= 0 && address >= _readBufferAddress
-                && size + address - _readBufferAddress <= _readBuffer.limit()) {
-            _readBuffer.position((int) (address - _readBufferAddress));
+        _readBufferAddress = read(_readBuffer, _readBufferAddress, address, size);
+    }
+
+    /**
+     * Position <code>readBuffer</code> at the record at <code>address</code>,
+     * refilling it from the journal unless the <code>size</code> bytes
+     * starting there are already present.
+     * 
+     * @param readBuffer
+     *            the buffer to read into
+     * @param readBufferAddress
+     *            journal address of the first byte currently held in
+     *            <code>readBuffer</code>, or -1 if it holds nothing
+     * @return the journal address of the first byte held in
+     *         <code>readBuffer</code> after the call
+     */
+    private long read(final ByteBuffer readBuffer, final long readBufferAddress, final long address, final int size)
+            throws PersistitIOException {
+        if (readBufferAddress >= 0 && address >= readBufferAddress
+                && size + address - readBufferAddress <= readBuffer.limit()) {
+            readBuffer.position((int) (address - readBufferAddress));
+            return readBufferAddress;
         } else {
             try {
                 final FileChannel fc = getFileChannel(address);
-                _readBuffer.clear();
+                readBuffer.clear();
 
-                int maxSize = _readBuffer.capacity();
+                int maxSize = readBuffer.capacity();
                 final long remainingInBlock = addressUp(address) - address;
                 if (remainingInBlock < maxSize) {
                     maxSize = (int) remainingInBlock;
                 }
 
-                _readBuffer.limit(maxSize);
-                int offset = 0;
-                while (_readBuffer.remaining() > 0) {
-                    final int readSize = fc.read(_readBuffer, offset + address % _blockSize);
-                    if (readSize < 0) {
-                        break;
+                readBuffer.limit(maxSize);
+                final MappedByteBuffer mapping = getMappedFile(address);
+                final long fileAddr = address % _blockSize;
+                if (mapping != null && fileAddr < mapping.capacity()) {
+                    //
+                    // Copy whatever the file holds up to maxSize; a short
+                    // copy is treated the same as end of file below.
+                    //
+                    readBuffer.limit((int) Math.min(maxSize, mapping.capacity() - fileAddr));
+                    JournalManager.readMapped(mapping, readBuffer, fileAddr);
+                } else {
+                    int offset = 0;
+                    while (readBuffer.remaining() > 0) {
+                        final int readSize = fc.read(readBuffer, offset + fileAddr);
+                        if (readSize < 0) {
+                            break;
+                        }
+                        offset += readSize;
                     }
-                    offset += readSize;
                 }
-                _readBufferAddress = address;
-                _readBuffer.flip();
-                if (_readBuffer.remaining() < size) {
+                readBuffer.flip();
+                if (readBuffer.remaining() < size) {
                     throw new CorruptJournalException("End of file at " + addressToString(address));
                 }
+                return address;
             } catch (final IOException e) {
                 throw new PersistitIOException("Reading from " + addressToString(address), e);
             }
@@ -959,6 +1146,7 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
             break;
 
         case PA.TYPE:
+        case PC.TYPE:
             scanLoadPage(from, timestamp, recordSize);
             break;
 
@@ -1304,27 +1492,31 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
      * transactions and to supply pages from the page map.
      * 
      * @param generation
+     * @param reader
+     *            supplies the buffer through which records are read
      * @throws PersistitIOException
      */
-    private void validateMemberFile(final long generation) throws PersistitIOException {
+    private void validateMemberFile(final long generation, final TransactionPlayerSupport reader)
+            throws PersistitIOException {
         final File file = JournalManager.generationToFile(_journalFilePath, generation);
         if (!file.exists()) {
             throw new CorruptJournalException("Missing journal file " + file);
         }
-        read(generation * _blockSize, JH.OVERHEAD);
-        int recordSize = getLength(_readBuffer);
+        reader.read(generation * _blockSize, JH.OVERHEAD);
+        final ByteBuffer bb = reader.getReadBuffer();
+        int recordSize = getLength(bb);
 
         validate(recordSize, file, 0, JH.OVERHEAD, JH.MAX_LENGTH,
                 "Journal header record size %3$,d is not in valid range " + "[%4$,d:%5$,d] at %1$s:%2$,d");
 
-        int type = getType(_readBuffer);
+        int type = getType(bb);
         validate(type, file, 0, JH.TYPE, "Invalid record type %$3,d at  at %1$s:%2$d");
 
-        final long version = JH.getVersion(_readBuffer);
-        final long currentAddress = JH.getCurrentJournalAddress(_readBuffer);
-        final long blockSize = JH.getBlockSize(_readBuffer);
-        final long baseAddress = JH.getBaseJournalAddress(_readBuffer);
-        final long journalCreatedTime = JH.getJournalCreatedTime(_readBuffer);
+        final long version = JH.getVersion(bb);
+        final long currentAddress = JH.getCurrentJournalAddress(bb);
+        final long blockSize = JH.getBlockSize(bb);
+        final long baseAddress = JH.getBaseJournalAddress(bb);
+        final long journalCreatedTime = JH.getJournalCreatedTime(bb);
 
         validate(version, file, 0, JournalManager.VERSION, "Unsupported Version %3$d at %1$s:%2$d");
 
@@ -1363,24 +1555,30 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
             }
         }
         if (lastRequiredJournalAddress > startingAddress) {
-            read(lastRequiredJournalAddress, PA.OVERHEAD);
-            type = getType(_readBuffer);
-            validate(type, file, startingAddress, PA.TYPE, "Invalid record type %3$,d at %1$s:%2$d");
-            recordSize = getLength(_readBuffer);
-            validate(recordSize, file, startingAddress, PA.OVERHEAD + Buffer.HEADER_SIZE, PA.OVERHEAD
-                    + Buffer.MAX_BUFFER_SIZE, "PA record size %3$,d not in valid range "
-                    + "[%4$,d:%5$,d] at %1$s:%2$,d");
-            final long pageAddress = PA.getPageAddress(_readBuffer);
+            reader.read(lastRequiredJournalAddress, PA.OVERHEAD);
+            type = getType(bb);
+            recordSize = getLength(bb);
+            if (type == PC.TYPE) {
+                validate(recordSize, file, startingAddress, PC.OVERHEAD + 1, PC.OVERHEAD + Buffer.MAX_BUFFER_SIZE,
+                        "PC record size %3$,d not in valid range " + "[%4$,d:%5$,d] at %1$s:%2$,d");
+            } else {
+                validate(type, file, startingAddress, PA.TYPE, "Invalid record type %3$,d at %1$s:%2$d");
+                validate(recordSize, file, startingAddress, PA.OVERHEAD + Buffer.HEADER_SIZE, PA.OVERHEAD
+                        + Buffer.MAX_BUFFER_SIZE, "PA record size %3$,d not in valid range "
+                        + "[%4$,d:%5$,d] at %1$s:%2$,d");
+            }
+            final long pageAddress = PA.getPageAddress(bb);
             validate(pageAddress, file, startingAddress, lastRequiredPageNode.getPageAddress(),
                     "Mismatched page address %3$d at %1$s:%2$d");
             // confirm that we can read the data
-            read(lastRequiredJournalAddress, recordSize);
+            reader.read(lastRequiredJournalAddress, recordSize);
 
         }
 
     }
 
     public void buildRecoveryPlan() throws PersistitIOException, PersistitInterruptedException {
+        final long start = System.nanoTime();
         try {
             //
             // Find the keystone (last) journal file and validate it.
@@ -1395,8 +1593,13 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
             //
             final long fromGeneration = _baseAddress / _blockSize;
             final long toGeneration = _keystoneAddress / _blockSize;
-            for (long generation = fromGeneration; generation < toGeneration; generation++) {
-                validateMemberFile(generation);
+            if (_recoveryThreads > 1 && toGeneration - fromGeneration > 1) {
+                validateMemberFilesConcurrently(fromGeneration, toGeneration);
+            } else {
+                final TransactionPlayerSupport reader = new RecoveryTransactionPlayerSupport();
+                for (long generation = fromGeneration; generation < toGeneration; generation++) {
+                    validateMemberFile(generation, reader);
+                }
             }
             //
             // Count committed and uncommitted transactions.
@@ -1426,10 +1629,44 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
         } catch (final PersistitIOException pe) {
             _persistit.getLogBase().recoveryFailure.log(pe);
             throw pe;
+        } finally {
+            _planTime = System.nanoTime() - start;
         }
 
     }
 
+    private void validateMemberFilesConcurrently(final long fromGeneration, final long toGeneration)
+            throws PersistitIOException, PersistitInterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(_recoveryThreads, new RecoveryThreadFactory());
+        try {
+            final List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (long generation = fromGeneration; generation < toGeneration; generation++) {
+                final long member = generation;
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws PersistitIOException {
+                        validateMemberFile(member, new RecoveryReader());
+                        return null;
+                    }
+                }));
+            }
+            for (final Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    if (e.getCause() instanceof PersistitIOException) {
+                        throw (PersistitIOException) e.getCause();
+                    }
+                    throw rethrow(e);
+                }
+            }
+        } catch (final InterruptedException e) {
+            throw new PersistitInterruptedException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Called during Phase 2 to record the FileAddress of a Transaction Update
      * record in the journal.
@@ -1494,7 +1731,7 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
     // ---------------------------- Phase 3 ------------------------------------
 
     public void applyAllRecoveredTransactions(final TransactionPlayerListener commitListener,
-            final TransactionPlayerListener rollbackListener) throws TestException {
+            final TransactionPlayerListener rollbackListener) throws TestException, PersistitInterruptedException {
 
         if (_recoveryDisabledForTestMode) {
             return;
@@ -1520,37 +1757,166 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
             assert last.getCommitTimestamp() <= _persistit.getTimestampAllocator().getCurrentTimestamp();
         }
 
-        for (final TransactionMapItem item : sorted) {
-            final TransactionPlayerListener listener = item.isCommitted() ? commitListener : rollbackListener;
-            try {
+        final long start = System.nanoTime();
+        final int threads = sorted.size() > 1 ? _recoveryThreads : 1;
+        final ExecutorService[] workers = new ExecutorService[threads > 1 ? threads : 0];
+        final TransactionPlayer[] players = new TransactionPlayer[workers.length];
+        final Future<?>[] tails = new Future<?>[workers.length];
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        try {
+            for (int index = 0; index < workers.length; index++) {
+                /*
+                 * One single-threaded executor per partition: each applies its
+                 * transactions in submission, and therefore commit, order.
+                 */
+                workers[index] = Executors.newSingleThreadExecutor(new RecoveryThreadFactory());
+                players[index] = new TransactionPlayer(new RecoveryReader());
+            }
+            for (final TransactionMapItem item : sorted) {
                 if (!started) {
-                    commitListener.startRecovery(item.getStartAddress(), item.getCommitTimestamp());
                     started = true;
+                    try {
+                        commitListener.startRecovery(item.getStartAddress(), item.getCommitTimestamp());
+                    } catch (final TestException te) {
+                        // Exception thrown by a unit test to interrupt recovery
+                        _persistit.getLogBase().recoveryException.log(te, item);
+                        throw te;
+                    } catch (final Exception pe) {
+                        _persistit.getLogBase().recoveryException.log(pe, item);
+                        _errorCount.incrementAndGet();
+                        continue;
+                    }
                 }
-
-                _player.applyTransaction(item, listener);
-                if (item.isCommitted()) {
-                    _appliedTransactionCount++;
+                int partition = -1;
+                if (workers.length > 0) {
+                    try {
+                        partition = _player.partition(item, workers.length);
+                    } catch (final PersistitException e) {
+                        // Apply serially so the failure is reported as usual
+                    }
+                }
+                if (partition >= 0) {
+                    final TransactionPlayer player = players[partition];
+                    tails[partition] = workers[partition].submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (failure.get() != null) {
+                                return;
+                            }
+                            try {
+                                applyTransaction(player, item, commitListener, rollbackListener);
+                            } catch (final RuntimeException e) {
+                                failure.compareAndSet(null, e);
+                            } catch (final Error e) {
+                                failure.compareAndSet(null, e);
+                            }
+                        }
+                    });
+                    _parallelTransactionCount.incrementAndGet();
                 } else {
-                    _abortedTransactionCount++;
+                    awaitReplay(tails, failure);
+                    applyTransaction(_player, item, commitListener, rollbackListener);
                 }
-
-                if ((_appliedTransactionCount + _abortedTransactionCount) % APPLY_TRANSACTION_LOG_COUNT == 0) {
-                    _persistit.getLogBase().recoveryProgress.log(_appliedTransactionCount, _abortedTransactionCount,
-                            _recoveredTransactionMap.size() - _appliedTransactionCount - _abortedTransactionCount);
+                if (failure.get() != null) {
+                    awaitReplay(tails, failure);
+                }
+            }
+            awaitReplay(tails, failure);
+        } finally {
+            for (final ExecutorService worker : workers) {
+                if (worker != null) {
+                    worker.shutdownNow();
                 }
-            } catch (final TestException te) {
-                // Exception thrown by a unit test to interrupt recovery
-                _persistit.getLogBase().recoveryException.log(te, item);
-                throw te;
-            } catch (final Exception pe) {
-                _persistit.getLogBase().recoveryException.log(pe, item);
-                _errorCount++;
             }
+            _applyTime = System.nanoTime() - start;
         }
         _branchMap.clear();
     }
 
+    private void applyTransaction(final TransactionPlayer player, final TransactionMapItem item,
+            final TransactionPlayerListener commitListener, final TransactionPlayerListener rollbackListener)
+            throws TestException {
+        final TransactionPlayerListener listener = item.isCommitted() ? commitListener : rollbackListener;
+        try {
+            player.applyTransaction(item, listener);
+            final int applied;
+            final int aborted;
+            if (item.isCommitted()) {
+                applied = _appliedTransactionCount.incrementAndGet();
+                aborted = _abortedTransactionCount.get();
+            } else {
+                applied = _appliedTransactionCount.get();
+                aborted = _abortedTransactionCount.incrementAndGet();
+            }
+
+            if ((applied + aborted) % APPLY_TRANSACTION_LOG_COUNT == 0) {
+                _persistit.getLogBase().recoveryProgress.log(applied, aborted,
+                        _recoveredTransactionMap.size() - applied - aborted);
+            }
+        } catch (final TestException te) {
+            // Exception thrown by a unit test to interrupt recovery
+            _persistit.getLogBase().recoveryException.log(te, item);
+            throw te;
+        } catch (final Exception pe) {
+            _persistit.getLogBase().recoveryException.log(pe, item);
+            _errorCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Wait for every transaction handed to a replay thread to be applied, then
+     * rethrow the first exception any of them threw.
+     */
+    private void awaitReplay(final Future<?>[] tails, final AtomicReference<Throwable> failure)
+            throws PersistitInterruptedException {
+        try {
+            for (int index = 0; index < tails.length; index++) {
+                if (tails[index] != null) {
+                    tails[index].get();
+                    tails[index] = null;
+                }
+            }
+        } catch (final InterruptedException e) {
+            throw new PersistitInterruptedException(e);
+        } catch (final ExecutionException e) {
+            throw rethrow(e);
+        }
+        final Throwable t = failure.get();
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+    }
+
+    /**
+     * Rethrow the unchecked cause of an <code>ExecutionException</code> from a
+     * recovery thread.
+     */
+    private static RuntimeException rethrow(final ExecutionException e) {
+        final Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new IllegalStateException(cause);
+    }
+
+    private static class RecoveryThreadFactory implements ThreadFactory {
+
+        private final static AtomicInteger COUNTER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "RECOVERY_WORKER:" + COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     /**
      * Assembles a long record into the provided Value object. This method
      * relies on finding the PAGE_TYPE_LONG_RECORD pages in the journal.
@@ -1567,12 +1933,14 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
      *            displaying error messages
      * @param timestamp
      *            timestamp of the transaction
-     * @param page
+     * @param reader
+     *            supplies the buffer through which page records are read
      * 
      * @throws PersistitException
      */
-    void convertToLongRecord(final Value value, final int treeHandle, final long from, final long timestamp)
-            throws PersistitException {
+    void convertToLongRecord(final Value value, final int treeHandle, final long from, final long timestamp,
+            final TransactionPlayerSupport reader) throws PersistitException {
+        final ByteBuffer bb = reader.getReadBuffer();
         final TreeDescriptor td = _handleToTreeMap.get(treeHandle);
         final int volumeHandle = td.getVolumeHandle();
         long page = Buffer.decodeLongRecordDescriptorPointer(value.getEncodedBytes(), 0);
@@ -1620,38 +1988,12 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
                         + " at " + addressToString(from, timestamp));
             }
 
-            _currentAddress = pn.getJournalAddress();
-            read(_currentAddress, PA.OVERHEAD);
-            final int type = PA.getType(_readBuffer);
-            final int recordSize = PA.getLength(_readBuffer);
-            final int payloadSize = recordSize - PA.OVERHEAD;
-            final int leftSize = PA.getLeftSize(_readBuffer);
-            final int bufferSize = PA.getBufferSize(_readBuffer);
-            final long pageAddress = PA.getPageAddress(_readBuffer);
-            //
-            // Verify that this is the valid and appropriate PA record
-            //
-            if (type != PA.TYPE) {
-                throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this)
-                        + " is not a PAGE record");
-            }
-
-            if (leftSize < 0 || payloadSize < leftSize || payloadSize > bufferSize) {
-                throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this)
-                        + " invalid sizes: recordSize= " + payloadSize + " leftSize=" + leftSize + " bufferSize="
-                        + bufferSize);
-            }
-
-            if (pageAddress != pn.getPageAddress()) {
-                throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this)
-                        + " mismatched page address: expected/actual=" + pn.getPageAddress() + "/" + pageAddress);
-            }
+            final byte[] bytes = readPageImage(pn, reader);
 
             //
             // Verify that this is a PAGE_TYPE_LONG_RECORD
             //
-            read(_currentAddress, recordSize);
-            final int pageType = JournalRecord.getByte(_readBuffer, PA.OVERHEAD + Buffer.TYPE_OFFSET);
+            final int pageType = Util.getByte(bytes, Buffer.TYPE_OFFSET);
 
             if (pageType != Buffer.PAGE_TYPE_LONG_RECORD) {
                 throw new CorruptJournalException("Long record chain contains invalid page type " + pageType
@@ -1659,15 +2001,14 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
                         + addressToString(from, timestamp));
             }
 
-            final int segmentSize = Math.min(remainingSize, payloadSize - Buffer.HEADER_SIZE);
+            final int segmentSize = Math.min(remainingSize, bytes.length - Buffer.HEADER_SIZE);
 
-            System.arraycopy(_readBuffer.array(), _readBuffer.position() + PA.OVERHEAD + Buffer.HEADER_SIZE,
-                    value.getEncodedBytes(), offset, segmentSize);
+            System.arraycopy(bytes, Buffer.HEADER_SIZE, value.getEncodedBytes(), offset, segmentSize);
             offset += segmentSize;
             remainingSize -= segmentSize;
 
             // Next page in chain
-            page = JournalRecord.getLong(_readBuffer, PA.OVERHEAD + Buffer.RIGHT_SIBLING_OFFSET);
+            page = Util.getLong(bytes, Buffer.RIGHT_SIBLING_OFFSET);
 
             if (count > Buffer.MAX_LONG_RECORD_CHAIN) {
                 throw new CorruptJournalException("Long record chain has more than " + Buffer.MAX_LONG_RECORD_CHAIN
@@ -1684,6 +2025,92 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
         value.setEncodedSize(size);
     }
 
+    /**
+     * Read the page image held in a PA or PC record. A delta PC record's base
+     * record is read first.
+     * 
+     * @param pn
+     *            identifies the page and the address of its record
+     * @param reader
+     *            supplies the buffer through which records are read
+     * @return the page image, in an array of the page's size
+     * @throws PersistitException
+     */
+    private byte[] readPageImage(final PageNode pn, final TransactionPlayerSupport reader)
+            throws PersistitException {
+        final ByteBuffer bb = reader.getReadBuffer();
+        final long address = pn.getJournalAddress();
+        reader.read(address, PA.OVERHEAD);
+        final int type = PA.getType(bb);
+        final int recordSize = PA.getLength(bb);
+        final int bufferSize = PA.getBufferSize(bb);
+        final long pageAddress = PA.getPageAddress(bb);
+        //
+        // Verify that this is the valid and appropriate PA or PC record
+        //
+        if (type != PA.TYPE && type != PC.TYPE) {
+            throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this)
+                    + " is not a PAGE record");
+        }
+
+        if (pageAddress != pn.getPageAddress()) {
+            throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this)
+                    + " mismatched page address: expected/actual=" + pn.getPageAddress() + "/" + pageAddress);
+        }
+
+        final byte[] bytes = new byte[bufferSize];
+        if (type == PA.TYPE) {
+            final int payloadSize = recordSize - PA.OVERHEAD;
+            final int leftSize = PA.getLeftSize(bb);
+            if (leftSize < 0 || payloadSize < leftSize || payloadSize > bufferSize) {
+                throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this)
+                        + " invalid sizes: recordSize= " + payloadSize + " leftSize=" + leftSize + " bufferSize="
+                        + bufferSize);
+            }
+            reader.read(address, recordSize);
+            final int rightSize = payloadSize - leftSize;
+            System.arraycopy(bb.array(), bb.position() + PA.OVERHEAD, bytes, 0, leftSize);
+            System.arraycopy(bb.array(), bb.position() + PA.OVERHEAD + leftSize, bytes, bufferSize - rightSize,
+                    rightSize);
+            return bytes;
+        }
+
+        if (recordSize <= PC.OVERHEAD || recordSize > PC.OVERHEAD + Buffer.MAX_BUFFER_SIZE
+                || bufferSize > Buffer.MAX_BUFFER_SIZE) {
+            throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this)
+                    + " invalid sizes: recordSize= " + recordSize + " bufferSize=" + bufferSize);
+        }
+        reader.read(address, recordSize);
+        //
+        // Copy the record: reading a base record reuses the reader's buffer
+        //
+        final ByteBuffer record = ByteBuffer.allocate(recordSize);
+        record.put(bb.array(), bb.position(), recordSize).flip();
+        byte[] base = null;
+        if (PC.getEncoding(record) == PC.ENCODING_DELTA) {
+            final long baseAddress = PC.getBaseAddress(record);
+            if (baseAddress >= address) {
+                throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this)
+                        + " has invalid base address " + baseAddress);
+            }
+            base = readPageImage(new PageNode(pn.getVolumeHandle(), pageAddress, baseAddress, -1), reader);
+            if (base.length != bufferSize) {
+                throw new CorruptJournalException("Record at " + pn.toStringJournalAddress(this)
+                        + " has mismatched base record size " + base.length);
+            }
+        }
+        PageCompressor compressor = _pageCompressors.poll();
+        if (compressor == null) {
+            compressor = new PageCompressor(Buffer.MAX_BUFFER_SIZE);
+        }
+        try {
+            compressor.expandImage(record, base, bytes, 0);
+        } finally {
+            _pageCompressors.offer(compressor);
+        }
+        return bytes;
+    }
+
     private PageNode lastPageNodeBefore(final PageNode pageNode, final long timestamp) {
         PageNode pn = pageNode;
         while (pn != null) {
@@ -1721,12 +2148,13 @@ public class RecoveryManager implements RecoveryManagerMXBean, VolumeHandleLooku
 
         final long fromGeneration = getBaseAddress() / getBlockSize();
         final long toGeneration = getKeystoneAddress() / getBlockSize();
+        final TransactionPlayerSupport reader = new RecoveryTransactionPlayerSupport();
         boolean okay = true;
         for (long generation = fromGeneration; generation < toGeneration; generation++) {
             final File file = addressToFile(generation * getBlockSize());
             println("Validating file %s", file);
             try {
-                validateMemberFile(generation);
+                validateMemberFile(generation, reader);
             } catch (final PersistitIOException ioe) {
                 println("   Unrecoverable: %s", ioe);
                 okay = false;
@@ -16,6 +16,8 @@
 
 package com.persistit;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -38,7 +40,7 @@ import java.util.concurrent.atomic.AtomicReference;
  * </p>
  * <p>
  * A session is used to maintain state, including the {@link Transaction}
- * context and map of cached {@link Exchange} maintained by
+ * context and pool of cached {@link Exchange} maintained by
  * {@link Persistit#getExchange(String, String, boolean)}. Therefore care must
  * be taken to limit the maximum number of <code>SessionId</code> instances
  * created during the lifetime of a <code>Persistit</code> instance and to
@@ -56,6 +58,13 @@ public class SessionId {
 
     private final AtomicReference<Thread> _owner = new AtomicReference<Thread>();
 
+    /*
+     * A SessionId may be used with more than one Persistit instance, so each
+     * instance has its own pool. Persistit#close removes the pools belonging
+     * to the closed instance.
+     */
+    private final Map<Persistit, ExchangePool> _exchangePools = new ConcurrentHashMap<Persistit, ExchangePool>();
+
     public SessionId() {
         assign();
     }
@@ -89,6 +98,18 @@ public class SessionId {
         _owner.set(Thread.currentThread());
     }
 
+    ExchangePool getExchangePool(final Persistit persistit) {
+        return _exchangePools.get(persistit);
+    }
+
+    void setExchangePool(final Persistit persistit, final ExchangePool pool) {
+        _exchangePools.put(persistit, pool);
+    }
+
+    void removeExchangePool(final Persistit persistit) {
+        _exchangePools.remove(persistit);
+    }
+
     boolean interrupt() {
         final Thread t = _owner.get();
         if (t != null && t != Thread.currentThread()) {
@@ -72,6 +72,12 @@ abstract class SharedResource {
      */
     final static int TEMPORARY_MASK = 0x00400000;
 
+    /**
+     * Status field mask indicating a resource (a Buffer) was loaded by
+     * read-ahead and has not yet been requested by any other thread.
+     */
+    final static int PREFETCHED_MASK = 0x00800000;
+
     /**
      * Status field mask indicating a resource has been touched. Used by
      * clock-based page replacement algorithm.
@@ -375,6 +381,18 @@ abstract class SharedResource {
         return _sync.testBitsInState(TOUCHED_MASK);
     }
 
+    void setPrefetched() {
+        _sync.setBitsInState(PREFETCHED_MASK);
+    }
+
+    boolean clearPrefetched() {
+        return _sync.clearBitsInState(PREFETCHED_MASK);
+    }
+
+    boolean isPrefetched() {
+        return _sync.testBitsInState(PREFETCHED_MASK);
+    }
+
     public long getGeneration() {
         return _generation.get();
     }
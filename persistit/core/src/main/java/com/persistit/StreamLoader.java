@@ -20,12 +20,26 @@ import java.io.BufferedInputStream;
 import java.io.DataInputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.persistit.CLI.Arg;
 import com.persistit.CLI.Cmd;
 import com.persistit.exception.CorruptImportStreamException;
 import com.persistit.exception.PersistitException;
+import com.persistit.exception.PersistitInterruptedException;
 import com.persistit.policy.SplitPolicy;
 import com.persistit.util.Util;
 
@@ -41,6 +55,7 @@ public class StreamLoader extends Task {
      * Default for BufferedInputStream buffer size.
      */
     public final static int DEFAULT_BUFFER_SIZE = 65536;
+    private final static int MAXIMUM_THREADS = 64;
     protected String _filePath;
     protected DataInputStream _dis;
 
@@ -57,6 +72,127 @@ public class StreamLoader extends Task {
     protected boolean _createMissingVolumes;
     protected boolean _createMissingTrees;
     protected ImportHandler _handler;
+    protected int _threadCount = 1;
+    protected boolean _bulkLoadEnabled = true;
+
+    private List<Segment> _segments;
+    private SegmentInputStream _segmentStream;
+
+    /**
+     * Location of a SEGMENT in a stream file and, once its leading records
+     * have been read, the tree it loads.
+     */
+    private static class Segment {
+        private final long _offset;
+        private final long _length;
+        private Tree _tree;
+        private BulkLoader _partition;
+
+        private Segment(final long offset, final long length) {
+            _offset = offset;
+            _length = length;
+        }
+    }
+
+    /**
+     * InputStream that counts the bytes read through it and reads no more
+     * than a fixed limit.
+     */
+    private static class SegmentInputStream extends FilterInputStream {
+        private final long _limit;
+        private long _position;
+
+        private SegmentInputStream(final InputStream in, final long limit) {
+            super(in);
+            _limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (_position >= _limit) {
+                return -1;
+            }
+            final int b = super.read();
+            if (b != -1) {
+                _position++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (_position >= _limit) {
+                return -1;
+            }
+            final int count = super.read(bytes, offset, (int) Math.min(length, _limit - _position));
+            if (count > 0) {
+                _position += count;
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(final long count) throws IOException {
+            final long skipped = super.skip(Math.min(count, _limit - _position));
+            _position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(super.available(), _limit - _position);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        private long getPosition() {
+            return _position;
+        }
+    }
+
+    /**
+     * ImportHandler for one SEGMENT. Records notice of the START record, and
+     * appends data records to a {@link BulkLoader} partition when one is
+     * supplied.
+     */
+    private static class SegmentHandler extends ImportHandler {
+        private final BulkLoader _partition;
+        private boolean _started;
+
+        private SegmentHandler(final Persistit persistit, final TreeSelector treeSelector,
+                final boolean createMissingVolumes, final boolean createMissingTrees, final BulkLoader partition) {
+            super(persistit, treeSelector, createMissingVolumes, createMissingTrees);
+            _partition = partition;
+        }
+
+        @Override
+        protected void handleStartRecord() throws PersistitException {
+            _started = true;
+        }
+
+        @Override
+        protected void handleDataRecord(final Key key, final Value value) throws PersistitException {
+            if (_partition == null) {
+                super.handleDataRecord(key, value);
+            } else if (_tree != null && (_keyFilter == null || _keyFilter.selected(key))) {
+                _partition.append(key, value);
+            }
+        }
+    }
+
+    private static class SegmentThreadFactory implements ThreadFactory {
+        private final static AtomicInteger _counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "STREAM_LOADER:" + _counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 
     @Cmd("load")
     static Task createStreamLoader(@Arg("file|string:|Load from file path") final String file,
@@ -64,6 +200,7 @@ public class StreamLoader extends Task {
             @Arg("_flag|r|Use regular expressions in tree selector") final boolean regex,
             @Arg("_flag|n|Don't create missing Volumes (Default is to create them)") final boolean dontCreateVolumes,
             @Arg("_flag|t|Don't create missing Trees (Default is to create them)") final boolean dontCreateTrees,
+            @Arg("threads|int:1:1:64|Number of threads loading segments concurrently") final int threads,
             @Arg("_flag|v|verbose") final boolean verbose) throws Exception {
 
         final StreamLoader task = new StreamLoader();
@@ -71,6 +208,7 @@ public class StreamLoader extends Task {
         task._treeSelector = TreeSelector.parseSelector(treeSelectorString, regex, '\\');
         task._createMissingVolumes = !dontCreateVolumes;
         task._createMissingTrees = !dontCreateTrees;
+        task._threadCount = threads;
         task.setMessageLogVerbosity(verbose ? LOG_VERBOSE : LOG_NORMAL);
         return task;
     }
@@ -89,10 +227,59 @@ public class StreamLoader extends Task {
 
     public StreamLoader(final Persistit persistit, final File file) throws IOException {
         this(persistit, new DataInputStream(new BufferedInputStream(new FileInputStream(file))));
+        _filePath = file.getPath();
     }
 
     public StreamLoader(final Persistit persistit, final String fileName) throws IOException {
         this(persistit, new DataInputStream(new BufferedInputStream(new FileInputStream(fileName))));
+        _filePath = fileName;
+    }
+
+    /**
+     * @return the number of threads used to load SEGMENT records. See
+     *         {@link #setThreadCount(int)}.
+     */
+    public int getThreadCount() {
+        return _threadCount;
+    }
+
+    /**
+     * Sets the number of threads used by
+     * {@link #load(TreeSelector, boolean, boolean)}. With more than one thread,
+     * a stream read from a file is first scanned to find its SEGMENT records,
+     * as written by a {@link StreamSaver} using several threads, and the
+     * segments are then loaded concurrently. Records outside any segment are
+     * loaded during the scan. A stream not read from a file is always loaded
+     * by a single thread. The default value is 1.
+     * 
+     * @param count
+     *            the thread count, between 1 and 64
+     */
+    public void setThreadCount(final int count) {
+        _threadCount = Util.rangeCheck(count, 1, MAXIMUM_THREADS);
+    }
+
+    /**
+     * @return whether segments are bulk-loaded into empty trees
+     */
+    public boolean isBulkLoadEnabled() {
+        return _bulkLoadEnabled;
+    }
+
+    /**
+     * Enable or disable bulk loading when segments are loaded concurrently.
+     * When enabled (the default), a tree that is empty before loading begins
+     * is built by writing packed pages directly to its volume, each segment
+     * filling the pages for its own key range, rather than by storing each
+     * record. A checkpoint is performed when loading finishes to make the
+     * bulk-loaded trees durable. The segments of such a tree must hold
+     * ascending, non-overlapping key ranges, as written by
+     * {@link StreamSaver}.
+     * 
+     * @param enabled
+     */
+    public void setBulkLoadEnabled(final boolean enabled) {
+        _bulkLoadEnabled = enabled;
     }
 
     public void close() throws IOException {
@@ -106,10 +293,165 @@ public class StreamLoader extends Task {
     public void load(final TreeSelector treeSelector, final boolean createMissingVolumes,
             final boolean createMissingTrees) throws IOException, PersistitException {
         _handler = new ImportHandler(_persistit, treeSelector, createMissingVolumes, createMissingTrees);
-        load(_handler);
+        if (_threadCount > 1 && _filePath != null) {
+            loadSegments(_handler);
+        } else {
+            load(_handler);
+        }
         close();
     }
 
+    /**
+     * Load the records outside of any SEGMENT while recording the location of
+     * each segment, then load the segments concurrently.
+     */
+    private void loadSegments(final ImportHandler handler) throws IOException, PersistitException {
+        _segmentStream = new SegmentInputStream(_dis, Long.MAX_VALUE);
+        _dis = new DataInputStream(_segmentStream);
+        _segments = new ArrayList<Segment>();
+        try {
+            while (next(handler)) {
+            }
+            loadSegments(_segments, handler);
+        } finally {
+            _segments = null;
+            _segmentStream = null;
+        }
+        postMessage(String.format("DONE - processed %,d data records and %,d other records", _dataRecordCount,
+                _otherRecordCount), Task.LOG_NORMAL);
+    }
+
+    private void loadSegments(final List<Segment> segments, final ImportHandler handler) throws IOException,
+            PersistitException {
+        /*
+         * Read the leading records of each segment on this thread so that any
+         * missing volume or tree is created once, before the segments are
+         * loaded concurrently.
+         */
+        final Map<Tree, List<Segment>> treeSegments = new LinkedHashMap<Tree, List<Segment>>();
+        for (final Segment segment : segments) {
+            final StreamLoader loader = new StreamLoader(_persistit, openSegment(segment));
+            try {
+                final SegmentHandler segmentHandler = newSegmentHandler(handler, null);
+                while (!segmentHandler._started && loader.next(segmentHandler)) {
+                }
+                segment._tree = segmentHandler._tree;
+            } finally {
+                loader.close();
+            }
+            if (segment._tree != null) {
+                List<Segment> list = treeSegments.get(segment._tree);
+                if (list == null) {
+                    list = new ArrayList<Segment>();
+                    treeSegments.put(segment._tree, list);
+                }
+                list.add(segment);
+            }
+        }
+        postMessage("Loading " + segments.size() + " segments on " + _threadCount + " threads", LOG_VERBOSE);
+
+        final Map<BulkLoader, List<BulkLoader>> bulkLoaders = new LinkedHashMap<BulkLoader, List<BulkLoader>>();
+        final ExecutorService executor = Executors.newFixedThreadPool(_threadCount, new SegmentThreadFactory());
+        boolean done = false;
+        try {
+            if (_bulkLoadEnabled) {
+                for (final Map.Entry<Tree, List<Segment>> entry : treeSegments.entrySet()) {
+                    final Exchange exchange = new Exchange(entry.getKey());
+                    if (BulkLoader.isEligible(exchange)) {
+                        final BulkLoader loader = new BulkLoader(exchange, 1.0f);
+                        final List<BulkLoader> partitions = new ArrayList<BulkLoader>();
+                        for (final Segment segment : entry.getValue()) {
+                            segment._partition = loader.newPartition(partitions.isEmpty());
+                            partitions.add(segment._partition);
+                        }
+                        bulkLoaders.put(loader, partitions);
+                    }
+                }
+            }
+            final List<Future<StreamLoader>> futures = new ArrayList<Future<StreamLoader>>();
+            for (final List<Segment> list : treeSegments.values()) {
+                for (final Segment segment : list) {
+                    futures.add(executor.submit(new Callable<StreamLoader>() {
+                        @Override
+                        public StreamLoader call() throws Exception {
+                            return loadSegment(segment, handler);
+                        }
+                    }));
+                }
+            }
+            for (final Future<StreamLoader> future : futures) {
+                final StreamLoader loader;
+                try {
+                    loader = future.get();
+                } catch (final InterruptedException e) {
+                    throw new PersistitInterruptedException(e);
+                } catch (final ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof PersistitException) {
+                        throw (PersistitException) cause;
+                    }
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new PersistitException(cause);
+                }
+                _dataRecordCount += loader._dataRecordCount;
+                _otherRecordCount += loader._otherRecordCount;
+                poll();
+            }
+            for (final Map.Entry<BulkLoader, List<BulkLoader>> entry : bulkLoaders.entrySet()) {
+                entry.getKey().finishPartitions(entry.getValue());
+            }
+            done = true;
+        } finally {
+            executor.shutdownNow();
+            if (!done) {
+                for (final BulkLoader loader : bulkLoaders.keySet()) {
+                    loader.abandon();
+                }
+            }
+        }
+        if (!bulkLoaders.isEmpty()) {
+            _persistit.checkpoint();
+        }
+    }
+
+    private StreamLoader loadSegment(final Segment segment, final ImportHandler handler) throws IOException,
+            PersistitException {
+        final StreamLoader loader = new StreamLoader(_persistit, openSegment(segment));
+        final SegmentHandler segmentHandler = newSegmentHandler(handler, segment._partition);
+        boolean done = false;
+        try {
+            while (loader.next(segmentHandler)) {
+            }
+            if (segment._partition != null) {
+                segment._partition.finish();
+            }
+            done = true;
+        } finally {
+            loader.close();
+            if (!done && segment._partition != null) {
+                segment._partition.abandon();
+            }
+        }
+        return loader;
+    }
+
+    private SegmentHandler newSegmentHandler(final ImportHandler handler, final BulkLoader partition) {
+        return new SegmentHandler(_persistit, handler._treeSelector, handler._createMissingVolumes,
+                handler._createMissingTrees, partition);
+    }
+
+    private DataInputStream openSegment(final Segment segment) throws IOException {
+        final FileInputStream fis = new FileInputStream(_filePath);
+        fis.getChannel().position(segment._offset);
+        return new DataInputStream(new BufferedInputStream(new SegmentInputStream(fis, segment._length),
+                DEFAULT_BUFFER_SIZE));
+    }
+
     public void load(final ImportHandler handler) throws IOException, PersistitException {
         while (next(handler)) {
         }
@@ -136,9 +478,9 @@ public class StreamLoader extends Task {
             final int elisionCount = _dis.readShort();
             final int valueSize = _dis.readInt();
             _value.ensureFit(valueSize);
-            _dis.read(_key.getEncodedBytes(), elisionCount, keySize - elisionCount);
+            _dis.readFully(_key.getEncodedBytes(), elisionCount, keySize - elisionCount);
             _key.setEncodedSize(keySize);
-            _dis.read(_value.getEncodedBytes(), 0, valueSize);
+            _dis.readFully(_value.getEncodedBytes(), 0, valueSize);
             _value.setEncodedSize(valueSize);
             handler.handleDataRecord(_key, _value);
             _dataRecordCount++;
@@ -222,6 +564,28 @@ public class StreamLoader extends Task {
             _otherRecordCount++;
             break;
         }
+        case StreamSaver.RECORD_TYPE_SEGMENT: {
+            final long length = _dis.readLong();
+            handler.handleSegmentRecord(length);
+            _otherRecordCount++;
+            if (_segments != null) {
+                _segments.add(new Segment(_segmentStream.getPosition(), length));
+                long remaining = length;
+                while (remaining > 0) {
+                    final long skipped = _dis.skip(remaining);
+                    if (skipped > 0) {
+                        remaining -= skipped;
+                    } else if (_dis.read() != -1) {
+                        remaining--;
+                    } else {
+                        throw new CorruptImportStreamException("Truncated segment of " + length + " bytes after "
+                                + _dataRecordCount + " data records" + " and " + _otherRecordCount
+                                + " other records");
+                    }
+                }
+            }
+            break;
+        }
         default: {
             throw new CorruptImportStreamException("Invalid record type " + recordType + " ("
                     + Util.bytesToHex(new byte[] { (byte) (recordType >>> 8), (byte) recordType }) + " after reading "
@@ -358,6 +722,9 @@ public class StreamLoader extends Task {
         protected void handleCompletionRecord() throws PersistitException {
         }
 
+        protected void handleSegmentRecord(final long length) throws PersistitException {
+        }
+
     }
 
     @Override
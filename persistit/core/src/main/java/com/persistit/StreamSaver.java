@@ -16,17 +16,29 @@
 
 package com.persistit;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.DataOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.persistit.CLI.Arg;
 import com.persistit.CLI.Cmd;
 import com.persistit.exception.PersistitException;
+import com.persistit.exception.PersistitInterruptedException;
 import com.persistit.util.Util;
 
 /**
@@ -95,6 +107,12 @@ public class StreamSaver extends Task {
      * Record type marker for COMPLETION records
      */
     public final static int RECORD_TYPE_COMPLETION = ('Z' << 8) + 'Z';
+    /**
+     * Record type marker for SEGMENT records. A SEGMENT record holds the
+     * length in bytes of a self-contained stream of records for one tree or
+     * key range of a tree that immediately follows it.
+     */
+    public final static int RECORD_TYPE_SEGMENT = ('S' << 8) + 'G';
     /**
      * Default count of records to written with elided keys.
      */
@@ -105,6 +123,8 @@ public class StreamSaver extends Task {
      */
     public final static int DEFAULT_BUFFER_SIZE = 65536;
 
+    private final static int MAXIMUM_THREADS = 64;
+
     protected String _filePath;
     protected DataOutputStream _dos;
 
@@ -118,6 +138,32 @@ public class StreamSaver extends Task {
     protected Exception _lastException;
     protected int _recordCount;
     protected TreeSelector _treeSelector;
+    protected int _threadCount = 1;
+
+    private static class Segment {
+        private final Tree _tree;
+        private final KeyFilter _filter;
+        private final Key _from;
+        private final Key _to;
+
+        private Segment(final Tree tree, final KeyFilter filter, final Key from, final Key to) {
+            _tree = tree;
+            _filter = filter;
+            _from = from;
+            _to = to;
+        }
+    }
+
+    private static class SegmentThreadFactory implements ThreadFactory {
+        private final static AtomicInteger _counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "STREAM_SAVER:" + _counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 
     /**
      * Package-private constructor used by {@link ManagementImpl} to instantiate
@@ -158,11 +204,13 @@ public class StreamSaver extends Task {
     @Cmd("save")
     static StreamSaver createTask(@Arg("file|string:|Save to file") final String file,
             @Arg("trees|string:*|Tree selector - specify Volumes/Trees/Keys to save") final String treeSelectorString,
+            @Arg("threads|int:1:1:64|Number of threads saving trees concurrently") final int threads,
             @Arg("_flag|v|verbose") final boolean verbose,
             @Arg("_flag|r|Use regular expressions in tree selector") final boolean regex) throws Exception {
         final StreamSaver task = new StreamSaver();
         task._filePath = file;
         task._treeSelector = TreeSelector.parseSelector(treeSelectorString, regex, '\\');
+        task._threadCount = threads;
         task.setMessageLogVerbosity(verbose ? LOG_VERBOSE : LOG_NORMAL);
         return task;
     }
@@ -232,6 +280,33 @@ public class StreamSaver extends Task {
         _cycleCount = count;
     }
 
+    /**
+     * Returns the number of threads used to save trees. See
+     * {@link #setThreadCount(int)}.
+     * 
+     * @return The thread count
+     */
+    public int getThreadCount() {
+        return _threadCount;
+    }
+
+    /**
+     * Sets the number of threads used by the <code>saveTrees</code> and
+     * {@link #saveAll()} methods. With more than one thread, each selected tree
+     * is divided into key ranges at keys found in its index pages and each
+     * range is written concurrently to a temporary file. The temporary files
+     * are then copied to the stream in order, each as a SEGMENT record, which
+     * a {@link StreamLoader} can load sequentially or, from a file,
+     * concurrently. The default value is 1, which writes a stream with no
+     * SEGMENT records.
+     * 
+     * @param count
+     *            The thread count, between 1 and 64
+     */
+    public void setThreadCount(final int count) {
+        _threadCount = Util.rangeCheck(count, 1, MAXIMUM_THREADS);
+    }
+
     /**
      * Closes this StreamSaver and the underlying DataOutputStream. If the save
      * operation ran to completion without error, this method writes a
@@ -444,6 +519,11 @@ public class StreamSaver extends Task {
      * @throws IOException
      */
     public void save(final Exchange exchange, final KeyFilter filter) throws PersistitException, IOException {
+        save(exchange, filter, null, null);
+    }
+
+    private void save(final Exchange exchange, final KeyFilter filter, final Key from, final Key to)
+            throws PersistitException, IOException {
         postMessage("Saving Tree " + exchange.getTree().getName() + " in volume " + exchange.getVolume().getPath()
                 + (filter == null ? "" : " using KeyFilter: " + filter.toString()), LOG_VERBOSE);
 
@@ -454,9 +534,19 @@ public class StreamSaver extends Task {
             _dos.writeUTF(filter.toString());
         }
         final Key key = exchange.getKey();
-        key.clear().append(Key.BEFORE);
-        while (exchange.traverse(Key.GT, filter, Integer.MAX_VALUE) & !_stop) {
+        Key.Direction direction = Key.GT;
+        if (from == null) {
+            key.clear().append(Key.BEFORE);
+        } else {
+            from.copyTo(key);
+            direction = Key.GTEQ;
+        }
+        while (exchange.traverse(direction, filter, Integer.MAX_VALUE) & !_stop) {
+            if (to != null && key.compareTo(to) >= 0) {
+                break;
+            }
             writeData(exchange);
+            direction = Key.GT;
         }
         writeRecordCount(_dataRecordCount, _otherRecordCount);
         _dos.writeChar(RECORD_TYPE_END);
@@ -494,6 +584,15 @@ public class StreamSaver extends Task {
      * @throws IOException
      */
     public void saveTrees(final Volume volume, final String[] selectedTreeNames) throws PersistitException, IOException {
+        final List<Segment> segments = _threadCount > 1 ? new ArrayList<Segment>() : null;
+        saveTrees(volume, selectedTreeNames, segments);
+        if (segments != null) {
+            saveSegments(segments);
+        }
+    }
+
+    private void saveTrees(final Volume volume, final String[] selectedTreeNames, final List<Segment> segments)
+            throws PersistitException, IOException {
         final String[] treeNames = volume.getTreeNames();
         writeComment("Volume " + volume.getPath());
         for (int index = 0; index < treeNames.length & !_stop; index++) {
@@ -511,7 +610,7 @@ public class StreamSaver extends Task {
                 writeComment("Tree " + treeNames[index]);
                 try {
                     final Exchange exchange = _persistit.getExchange(volume, treeNames[index], false);
-                    save(exchange, null);
+                    save(exchange, null, segments);
                 } catch (final PersistitException exception) {
                     _lastException = exception;
                     writeException(exception);
@@ -530,6 +629,7 @@ public class StreamSaver extends Task {
      * @throws IOException
      */
     public void saveTrees(final TreeSelector treeSelector) throws PersistitException, IOException {
+        final List<Segment> segments = _threadCount > 1 ? new ArrayList<Segment>() : null;
         final List<Tree> trees = _persistit.getSelectedTrees(treeSelector);
         for (final Tree tree : trees) {
             if (tree.getVolume().getDirectoryTree() == tree) {
@@ -538,7 +638,7 @@ public class StreamSaver extends Task {
                     try {
                         writeComment("Tree " + treeName + " in " + tree.getVolume().getPath());
                         final Exchange exchange = new Exchange(t);
-                        save(exchange, null);
+                        save(exchange, null, segments);
                     } catch (final PersistitException exception) {
                         _lastException = exception;
                         writeException(exception);
@@ -548,13 +648,16 @@ public class StreamSaver extends Task {
                 try {
                     writeComment("Tree " + tree.getName() + " in " + tree.getVolume().getPath());
                     final Exchange exchange = new Exchange(tree);
-                    save(exchange, treeSelector.keyFilter(tree.getVolume().getName(), tree.getName()));
+                    save(exchange, treeSelector.keyFilter(tree.getVolume().getName(), tree.getName()), segments);
                 } catch (final PersistitException exception) {
                     _lastException = exception;
                     writeException(exception);
                 }
             }
         }
+        if (segments != null) {
+            saveSegments(segments);
+        }
     }
 
     /**
@@ -564,15 +667,151 @@ public class StreamSaver extends Task {
      * @throws IOException
      */
     public void saveAll() throws PersistitException, IOException {
-
+        final List<Segment> segments = _threadCount > 1 ? new ArrayList<Segment>() : null;
         for (final Volume volume : _persistit.getVolumes()) {
             if (_stop) {
                 break;
             }
-            saveTrees(volume, null);
+            saveTrees(volume, null, segments);
+        }
+        if (segments != null) {
+            saveSegments(segments);
+        }
+    }
+
+    /**
+     * Save a tree immediately or, if <code>segments</code> is not null, add
+     * one or more key ranges of the tree to be saved later by
+     * {@link #saveSegments(List)}. A tree having index pages is divided at
+     * keys sampled from its lowest index level into about as many ranges as
+     * there are threads.
+     */
+    private void save(final Exchange exchange, final KeyFilter filter, final List<Segment> segments)
+            throws PersistitException, IOException {
+        if (segments == null) {
+            save(exchange, filter);
+            return;
+        }
+        final Tree tree = exchange.getTree();
+        Key from = null;
+        if (tree.getDepth() > 1) {
+            final KeyHistogram histogram = exchange.computeHistogram(null, null, _threadCount, 0, null, 1);
+            for (final KeyHistogram.KeyCount sample : histogram.getSamples()) {
+                final Key to = new Key(_persistit);
+                System.arraycopy(sample.getBytes(), 0, to.getEncodedBytes(), 0, sample.getBytes().length);
+                to.setEncodedSize(sample.getBytes().length);
+                if (from == null || to.compareTo(from) > 0) {
+                    segments.add(new Segment(tree, filter, from, to));
+                    from = to;
+                }
+            }
+        }
+        segments.add(new Segment(tree, filter, from, null));
+    }
+
+    /**
+     * Write the supplied segments concurrently, each to its own temporary
+     * file, and copy the files in order to this stream as SEGMENT records.
+     */
+    private void saveSegments(final List<Segment> segments) throws PersistitException, IOException {
+        postMessage("Saving " + segments.size() + " segments on " + _threadCount + " threads", LOG_VERBOSE);
+        final ExecutorService executor = Executors.newFixedThreadPool(_threadCount, new SegmentThreadFactory());
+        final List<Future<File>> futures = new ArrayList<Future<File>>();
+        try {
+            for (final Segment segment : segments) {
+                futures.add(executor.submit(new Callable<File>() {
+                    @Override
+                    public File call() throws Exception {
+                        return saveSegment(segment);
+                    }
+                }));
+            }
+            for (final Future<File> future : futures) {
+                final File file;
+                try {
+                    file = future.get();
+                } catch (final InterruptedException e) {
+                    throw new PersistitInterruptedException(e);
+                } catch (final ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof PersistitException) {
+                        throw (PersistitException) cause;
+                    }
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new PersistitException(cause);
+                }
+                try {
+                    copySegment(file);
+                } finally {
+                    file.delete();
+                }
+                poll();
+            }
+        } finally {
+            executor.shutdownNow();
         }
     }
 
+    private File saveSegment(final Segment segment) throws PersistitException, IOException {
+        String directoryName = _persistit.getConfiguration().getTmpVolDir();
+        if (directoryName == null) {
+            directoryName = System.getProperty("java.io.tmpdir");
+        }
+        final File file = File.createTempFile("persistit_segment", ".sav", new File(directoryName));
+        file.deleteOnExit();
+        final StreamSaver saver = new StreamSaver(_persistit, file);
+        boolean done = false;
+        try {
+            saver.setCycleCount(_cycleCount);
+            final Exchange exchange = new Exchange(segment._tree);
+            saver.writeVolumeInfo(exchange);
+            saver.writeTreeInfo(exchange);
+            try {
+                saver.save(exchange, segment._filter, segment._from, segment._to);
+            } catch (final PersistitException exception) {
+                saver._lastException = exception;
+                saver.writeException(exception);
+            }
+            saver._dos.close();
+            synchronized (this) {
+                _dataRecordCount += saver._dataRecordCount;
+                _otherRecordCount += saver._otherRecordCount;
+                _recordCount += saver._recordCount;
+                if (saver._lastException != null) {
+                    _lastException = saver._lastException;
+                }
+            }
+            done = true;
+        } finally {
+            if (!done) {
+                saver._dos.close();
+                file.delete();
+            }
+        }
+        return file;
+    }
+
+    private void copySegment(final File file) throws IOException {
+        _dos.writeChar(RECORD_TYPE_SEGMENT);
+        _dos.writeLong(file.length());
+        final InputStream is = new BufferedInputStream(new FileInputStream(file), DEFAULT_BUFFER_SIZE);
+        try {
+            final byte[] bytes = new byte[DEFAULT_BUFFER_SIZE];
+            int count;
+            while ((count = is.read(bytes)) != -1) {
+                _dos.write(bytes, 0, count);
+            }
+        } finally {
+            is.close();
+        }
+        _otherRecordCount++;
+    }
+
     @Override
     protected void runTask() throws PersistitException, IOException {
         _dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(_filePath), DEFAULT_BUFFER_SIZE));
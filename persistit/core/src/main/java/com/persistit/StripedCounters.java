@@ -0,0 +1,149 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size array of counters updated by many threads. As in
+ * {@link Accumulator}, updates go to a single base array until two threads
+ * collide; the counters then add an array of striped cells, one stripe per
+ * group of threads chosen by thread id, each stripe starting on its own cache
+ * line. Reads combine the base array with every stripe, so they are slower
+ * than updates and return approximate values while updates are in progress.
+ * <p>
+ * Each element is either a sum, updated with {@link #add(int, long)} and read
+ * with {@link #get(int)}, or a maximum, updated with {@link #max(int, long)}
+ * and read with {@link #getMax(int)}.
+ */
+final class StripedCounters {
+
+    /*
+     * Number of stripes added once updates contend: the number of processors
+     * rounded down to a power of two, up to 16
+     */
+    final static int STRIPE_COUNT = Math.min(16, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+
+    /*
+     * Number of longs in one cache line
+     */
+    private final static int LINE_LONGS = 8;
+
+    private final int _length;
+
+    private final int _stride;
+
+    private final AtomicLongArray _base;
+
+    private volatile AtomicLongArray _cells;
+
+    StripedCounters(final int length) {
+        _length = length;
+        _stride = (length + LINE_LONGS - 1) / LINE_LONGS * LINE_LONGS;
+        _base = new AtomicLongArray(length);
+    }
+
+    int length() {
+        return _length;
+    }
+
+    void increment(final int index) {
+        add(index, 1);
+    }
+
+    void add(final int index, final long delta) {
+        AtomicLongArray cells = _cells;
+        if (cells == null) {
+            final long previous = _base.get(index);
+            if (_base.compareAndSet(index, previous, previous + delta)) {
+                return;
+            }
+            cells = cells();
+        }
+        cells.addAndGet(stripe() + index, delta);
+    }
+
+    void max(final int index, final long value) {
+        AtomicLongArray cells = _cells;
+        if (cells == null) {
+            final long previous = _base.get(index);
+            if (value <= previous || _base.compareAndSet(index, previous, value)) {
+                return;
+            }
+            cells = cells();
+        }
+        final int at = stripe() + index;
+        long previous;
+        while (value > (previous = cells.get(at))) {
+            if (cells.compareAndSet(at, previous, value)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the sum of all contributions to the element
+     */
+    long get(final int index) {
+        long sum = _base.get(index);
+        final AtomicLongArray cells = _cells;
+        if (cells != null) {
+            for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+                sum += cells.get(stripe * _stride + index);
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * @return the largest value supplied to {@link #max(int, long)} for the
+     *         element
+     */
+    long getMax(final int index) {
+        long max = _base.get(index);
+        final AtomicLongArray cells = _cells;
+        if (cells != null) {
+            for (int stripe = 0; stripe < STRIPE_COUNT; stripe++) {
+                max = Math.max(max, cells.get(stripe * _stride + index));
+            }
+        }
+        return max;
+    }
+
+    void reset() {
+        for (int index = 0; index < _length; index++) {
+            _base.set(index, 0);
+        }
+        final AtomicLongArray cells = _cells;
+        if (cells != null) {
+            for (int index = 0; index < cells.length(); index++) {
+                cells.set(index, 0);
+            }
+        }
+    }
+
+    private int stripe() {
+        return ((int) Thread.currentThread().getId() & (STRIPE_COUNT - 1)) * _stride;
+    }
+
+    private synchronized AtomicLongArray cells() {
+        if (_cells == null) {
+            _cells = new AtomicLongArray(STRIPE_COUNT * _stride);
+        }
+        return _cells;
+    }
+}
@@ -861,6 +861,7 @@ public class Transaction {
             if (_rollbackCompleted) {
                 throw new IllegalStateException("Already rolled back " + this);
             }
+            final long start = System.nanoTime();
             for (Delta delta = _transactionStatus.getDelta(); delta != null; delta = delta.getNext()) {
                 writeDeltaToJournal(delta);
             }
@@ -895,6 +896,7 @@ public class Transaction {
                         policy == CommitPolicy.SOFT ? _persistit.getTransactionCommitLeadTime() : 0,
                         policy == CommitPolicy.GROUP ? _persistit.getTransactionCommitStallTime() : 0);
             }
+            _persistit.getCommitLatency(policy).record(System.nanoTime() - start);
         }
     }
 
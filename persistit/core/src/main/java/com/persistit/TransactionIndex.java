@@ -84,6 +84,11 @@ class TransactionIndex implements TransactionIndexMXBean {
      * Maximum length of path in deadlock detector before deadlock is assumed.
      */
     final static int CYCLE_LIMIT = 10;
+    /**
+     * Number of attempts to find a TransactionStatus without locking its
+     * bucket before locking it.
+     */
+    final static int OPTIMISTIC_READ_ATTEMPTS = 8;
     /**
      * Initial size of arrays in ActiveTransactionCaches.
      */
@@ -141,6 +146,8 @@ class TransactionIndex implements TransactionIndexMXBean {
 
     private final AtomicLong _deadlockCounter = new AtomicLong();
 
+    private final AtomicLong _lockedStatusReadCounter = new AtomicLong();
+
     private final AtomicLong _accumulatorSnapshotRetryCounter = new AtomicLong();
 
     private final AtomicLong _accumulatorCheckpointRetryCounter = new AtomicLong();
@@ -675,6 +682,16 @@ class TransactionIndex implements TransactionIndexMXBean {
         return _atCache._count;
     }
 
+    /**
+     * @return Count of TransactionStatus lookups that locked a bucket because
+     *         unlocked reads repeatedly overlapped a concurrent update
+     * @see com.persistit.TransactionIndexMXBean#getLockedStatusReadCount()
+     */
+    @Override
+    public long getLockedStatusReadCount() {
+        return _lockedStatusReadCounter.get();
+    }
+
     /**
      * @return current ActiveTransactionCache instance
      */
@@ -722,37 +739,29 @@ class TransactionIndex implements TransactionIndexMXBean {
         }
 
         /*
-         * There were members on at least one of the lists. Need to lock the
-         * bucket so we can traverse the lists.
+         * There were members on at least one of the lists. Traverse them
+         * without locking the bucket, accepting the result only if no thread
+         * held the bucket lock during the traversal. Only if that keeps
+         * failing, lock the bucket and traverse the lists again.
          */
-        bucket.lock();
-        try {
-            /*
-             * > A transaction with a start timestamp less than or equal to the
-             * floor is committed unless it is found on either the aborted or
-             * longRunning lists.
-             */
-            if (tsv >= bucket.getFloor()) {
-                for (TransactionStatus s = bucket.getCurrent(); s != null; s = s.getNext()) {
-                    if (s.getTs() == tsv) {
-                        return s;
-                    }
-                }
-            }
-            for (TransactionStatus s = bucket.getAborted(); s != null; s = s.getNext()) {
-                if (s.getTs() == tsv) {
-                    return s;
-                }
-            }
-            for (TransactionStatus s = bucket.getLongRunning(); s != null; s = s.getNext()) {
-                if (s.getTs() == tsv) {
-                    return s;
+        for (int attempt = 0; attempt < OPTIMISTIC_READ_ATTEMPTS; attempt++) {
+            final long sequence = bucket.getSequence();
+            if ((sequence & 1) == 0) {
+                final TransactionStatus status = bucket.findStatus(tsv, sequence);
+                if (bucket.getSequence() == sequence) {
+                    return status;
                 }
+            } else {
+                Thread.yield();
             }
+        }
+        _lockedStatusReadCounter.incrementAndGet();
+        bucket.lock();
+        try {
+            return bucket.findStatus(tsv, bucket.getSequence());
         } finally {
             bucket.unlock();
         }
-        return null;
     }
 
     /**
@@ -67,6 +67,11 @@ import com.persistit.exception.RetryException;
  * 
  */
 class TransactionIndexBucket {
+    /**
+     * An unlocked traversal checks whether the sequence has changed each time
+     * it has visited this many plus one list members
+     */
+    private final static int SEQUENCE_CHECK_MASK = 0x3F;
     /**
      * The owner of the hash table that contains this bucket
      */
@@ -149,6 +154,13 @@ class TransactionIndexBucket {
      * structure. Fair to prevent barging.
      */
     ReentrantLock _lock = new ReentrantLock(true);
+    /**
+     * Sequence counter supporting optimistic reads of the lists in this
+     * bucket. It is incremented when a thread acquires the lock and again when
+     * the thread releases it, so it is odd while the lock is held and has
+     * changed if any locked section ran between two reads of it.
+     */
+    private volatile long _sequence;
     /**
      * Singly-linked list of Delta objects available for reuse
      */
@@ -165,12 +177,75 @@ class TransactionIndexBucket {
 
     void lock() {
         _lock.lock();
+        if (_lock.getHoldCount() == 1) {
+            _sequence++;
+        }
     }
 
     void unlock() {
+        if (_lock.getHoldCount() == 1) {
+            _sequence++;
+        }
         _lock.unlock();
     }
 
+    long getSequence() {
+        return _sequence;
+    }
+
+    /**
+     * Find the TransactionStatus for the transaction having start timestamp
+     * <code>tsv</code> on the current, aborted or long-running lists. This
+     * method may be called without holding the lock: the caller reads an even
+     * {@link #getSequence()} value before calling it, and accepts the result
+     * only if the sequence is unchanged afterward. Because a concurrent
+     * writer can briefly link the lists into a different shape, the traversal
+     * gives up and returns <code>null</code> as soon as it notices that the
+     * sequence has changed.
+     * 
+     * @param tsv
+     *            start timestamp
+     * @param sequence
+     *            sequence value read before the traversal
+     * @return the TransactionStatus, or <code>null</code> if there is none or
+     *         the sequence changed
+     */
+    TransactionStatus findStatus(final long tsv, final long sequence) {
+        int steps = 0;
+        /*
+         * A transaction with a start timestamp less than the floor is
+         * committed unless it is found on either the aborted or longRunning
+         * lists.
+         */
+        if (tsv >= _floor) {
+            for (TransactionStatus s = _current; s != null; s = s.getNext()) {
+                if (s.getTs() == tsv) {
+                    return s;
+                }
+                if ((++steps & SEQUENCE_CHECK_MASK) == 0 && _sequence != sequence) {
+                    return null;
+                }
+            }
+        }
+        for (TransactionStatus s = _aborted; s != null; s = s.getNext()) {
+            if (s.getTs() == tsv) {
+                return s;
+            }
+            if ((++steps & SEQUENCE_CHECK_MASK) == 0 && _sequence != sequence) {
+                return null;
+            }
+        }
+        for (TransactionStatus s = _longRunning; s != null; s = s.getNext()) {
+            if (s.getTs() == tsv) {
+                return s;
+            }
+            if ((++steps & SEQUENCE_CHECK_MASK) == 0 && _sequence != sequence) {
+                return null;
+            }
+        }
+        return null;
+    }
+
     TransactionStatus allocateTransactionStatus() throws InterruptedException {
         assert _lock.isHeldByCurrentThread();
         final TransactionStatus status = _free;
@@ -140,6 +140,81 @@ class TransactionPlayer {
 
     }
 
+    /**
+     * Determine which of <code>partitions</code> replay partitions a
+     * transaction belongs to. Every update in a transaction must modify a tree
+     * whose handle, modulo <code>partitions</code>, is the same for the
+     * transaction to be assigned to that partition.
+     * 
+     * @param item
+     *            the transaction
+     * @param partitions
+     *            number of partitions
+     * @return the partition, or -1 if the transaction updates trees in more
+     *         than one partition, updates a directory tree, has no updates or
+     *         cannot be parsed. Such a transaction must be applied after all
+     *         previously partitioned ones.
+     * @throws PersistitException
+     */
+    int partition(final TransactionMapItem item, final int partitions) throws PersistitException {
+        final JournalManager journalManager = _support.getPersistit().getJournalManager();
+        int partition = -1;
+        long address = item.getLastRecordAddress();
+        while (address != 0) {
+            _support.read(address, TX.OVERHEAD);
+            final int recordSize = TX.getLength(_support.getReadBuffer());
+            if (recordSize < TX.OVERHEAD || recordSize > Transaction.TRANSACTION_BUFFER_SIZE + TX.OVERHEAD) {
+                return -1;
+            }
+            _support.read(address, recordSize);
+            final ByteBuffer bb = _support.getReadBuffer();
+            if (TX.getType(bb) != TX.TYPE) {
+                return -1;
+            }
+            final long backchainAddress = TX.getBackchainAddress(bb);
+            final int start = bb.position();
+            final int end = start + recordSize;
+            int position = start + TX.OVERHEAD;
+            while (position < end) {
+                bb.position(position);
+                final int innerSize = JournalRecord.getLength(bb);
+                final int treeHandle;
+                switch (JournalRecord.getType(bb)) {
+                case SR.TYPE:
+                    treeHandle = SR.getTreeHandle(bb);
+                    break;
+                case DR.TYPE:
+                    treeHandle = DR.getTreeHandle(bb);
+                    break;
+                case DT.TYPE:
+                    treeHandle = DT.getTreeHandle(bb);
+                    break;
+                case D0.TYPE:
+                    treeHandle = D0.getTreeHandle(bb);
+                    break;
+                case D1.TYPE:
+                    treeHandle = D1.getTreeHandle(bb);
+                    break;
+                default:
+                    return -1;
+                }
+                final TreeDescriptor td = journalManager.lookupTreeHandle(treeHandle);
+                if (innerSize <= 0 || td == null || VolumeStructure.DIRECTORY_TREE_NAME.equals(td.getTreeName())) {
+                    return -1;
+                }
+                final int p = treeHandle % partitions;
+                if (partition == -1) {
+                    partition = p;
+                } else if (partition != p) {
+                    return -1;
+                }
+                position += innerSize;
+            }
+            address = backchainAddress;
+        }
+        return partition;
+    }
+
     void applyTransactionUpdates(final ByteBuffer byteBuffer, final long address, final int recordSize,
             final long startTimestamp, final long commitTimestamp, final TransactionPlayerListener listener)
             throws PersistitException {
@@ -104,9 +104,11 @@ class TransactionStatus {
      */
     private final Semaphore _wwLock = new Semaphore(1);
     /**
-     * Pointer to next member of singly-linked list.
+     * Pointer to next member of singly-linked list. Volatile because the lists
+     * are traversed without locking by
+     * {@link TransactionIndexBucket#findStatus(long, long)}.
      */
-    private TransactionStatus _next;
+    private volatile TransactionStatus _next;
 
     /**
      * Pointer to TransactionStatus on which we intend to claim a permit. (For
@@ -131,6 +133,10 @@ class TransactionStatus {
         _bucket = bucket;
     }
 
+    TransactionIndexBucket getBucket() {
+        return _bucket;
+    }
+
     /**
      * Constructs a partial copy. Used only in diagnostic code.
      * 
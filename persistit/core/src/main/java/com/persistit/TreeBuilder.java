@@ -23,7 +23,9 @@ import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -34,6 +36,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 import com.persistit.exception.DuplicateKeyException;
@@ -148,6 +157,11 @@ public class TreeBuilder {
     private final static long REPORT_REPORT_MULTIPLE = 1000000;
     private final static String SDF = "yyyyMMddHHmm";
     private final static int STREAM_SIZE = 1024 * 1024;
+    private final static float DEFAULT_FILL_FACTOR = 1.0f;
+    private final static float MINIMUM_FILL_FACTOR = 0.1f;
+    private final static int SAMPLE_INTERVAL = 4096;
+    private final static int PARTITIONS_PER_THREAD = 4;
+    private final static int MAXIMUM_MERGE_THREADS = 64;
 
     private final String _name;
     private final long _uniqueId;
@@ -158,6 +172,16 @@ public class TreeBuilder {
     private final AtomicLong _sortedKeyCount = new AtomicLong();
     private final AtomicLong _mergedKeyCount = new AtomicLong();
     private volatile long _reportKeyCountMultiple = REPORT_REPORT_MULTIPLE;
+    private volatile boolean _bulkLoadEnabled = true;
+    private volatile float _fillFactor = DEFAULT_FILL_FACTOR;
+    private volatile int _mergeThreadCount = 1;
+    private final AtomicLong _sortStartNanos = new AtomicLong();
+    private final AtomicLong _sortNanos = new AtomicLong();
+    private final AtomicLong _saveNanos = new AtomicLong();
+    private final AtomicLong _partitionNanos = new AtomicLong();
+    private final AtomicLong _mergeNanos = new AtomicLong();
+    private final AtomicLong _checkpointNanos = new AtomicLong();
+    private final AtomicInteger _partitionCount = new AtomicInteger();
     private Volume _sortVolume;
     private File _sortFile;
 
@@ -211,6 +235,12 @@ public class TreeBuilder {
         private Handler _handler;
         private boolean _next;
 
+        private final List<Sample> _samples;
+        private final long _offset;
+        private final Tree _rangeTree;
+        private final Key _fromKey;
+        private final Key _toKey;
+
         private class Handler extends StreamLoader.ImportHandler {
 
             private Handler(final Persistit persistit) {
@@ -233,6 +263,26 @@ public class TreeBuilder {
         private Node(final File file, final int index) {
             _file = file;
             _precedence = index;
+            _samples = new ArrayList<Sample>();
+            _offset = 0;
+            _rangeTree = null;
+            _fromKey = null;
+            _toKey = null;
+        }
+
+        /**
+         * Construct a Node that reads only the records of one tree with keys
+         * in the range [from, to) from the sort file of the supplied Node,
+         * starting at a sampled offset.
+         */
+        private Node(final Node node, final long offset, final Tree tree, final Key from, final Key to) {
+            _file = node._file;
+            _precedence = node._precedence;
+            _samples = node._samples;
+            _offset = offset;
+            _rangeTree = tree;
+            _fromKey = from;
+            _toKey = to;
         }
 
         @Override
@@ -268,35 +318,112 @@ public class TreeBuilder {
         }
 
         private void createStreamLoader() throws Exception {
-            _loader = new StreamLoader(_persistit, new DataInputStream(new BufferedInputStream(new FileInputStream(
-                    _file), STREAM_SIZE)));
+            final FileInputStream fis = new FileInputStream(_file);
+            if (_offset > 0) {
+                fis.getChannel().position(_offset);
+            }
+            _loader = new StreamLoader(_persistit, new DataInputStream(new BufferedInputStream(fis, STREAM_SIZE)));
             _handler = new Handler(_persistit);
+            if (_rangeTree != null) {
+                /*
+                 * A sampled offset is always the start of a data record with
+                 * an unelided key, but the tree it belongs to was identified
+                 * by records preceding it.
+                 */
+                _handler._volume = _rangeTree.getVolume();
+                _handler._tree = _rangeTree;
+            }
         }
 
         private boolean next() throws Exception {
-            _next = false;
-            while (_loader.next(_handler) && !_next)
-                ;
-            if (!_next) {
+            for (;;) {
+                _next = false;
+                while (_loader.next(_handler) && !_next)
+                    ;
+                if (_next && _rangeTree != null) {
+                    if (_tree != _rangeTree || _toKey != null && _key.compareTo(_toKey) >= 0) {
+                        _next = false;
+                    } else if (_fromKey != null && _key.compareTo(_fromKey) < 0) {
+                        continue;
+                    }
+                }
+                if (!_next) {
+                    close();
+                }
+                return _next;
+            }
+        }
+
+        private void close() throws IOException {
+            if (_loader != null) {
                 _loader.close();
+                _loader = null;
             }
-            return _next;
         }
 
     }
 
+    /**
+     * The key and file offset of a data record in a sort file. Samples are
+     * taken at the first record of each tree and then every
+     * {@value #SAMPLE_INTERVAL} records; each sampled record is written with
+     * an unelided key so that the file can be read starting at its offset.
+     */
+    private static class Sample {
+        private final Tree _tree;
+        private final Key _key;
+        private final long _offset;
+
+        private Sample(final Tree tree, final Key key, final long offset) {
+            _tree = tree;
+            _key = new Key(key);
+            _offset = offset;
+        }
+    }
+
+    /**
+     * Counts the bytes written through it so that sort file offsets can be
+     * recorded as records are written.
+     */
+    private static class OffsetOutputStream extends FilterOutputStream {
+        private long _offset;
+
+        private OffsetOutputStream(final OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            _offset++;
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            out.write(bytes, offset, length);
+            _offset += length;
+        }
+    }
+
     private class SortStreamSaver extends StreamSaver {
 
         Tree _sortTree = null;
+        private final OffsetOutputStream _offsetStream;
+        private final List<Sample> _samples;
+        private Tree _sampleTree;
+        private long _nextSample;
 
-        SortStreamSaver(final Persistit persistit, final DataOutputStream stream) {
+        SortStreamSaver(final Persistit persistit, final DataOutputStream stream, final OffsetOutputStream offsetStream,
+                final List<Sample> samples) {
             super(persistit, stream);
+            _offsetStream = offsetStream;
+            _samples = samples;
         }
 
         @Override
         protected void writeData(final Exchange exchange) throws IOException {
+            final Tree source = _sortTreeMap.get(exchange.getTree().getName());
             if (exchange.getTree() != _sortTree) {
-                final Tree source = _sortTreeMap.get(exchange.getTree().getName());
                 if (_lastVolume != source.getVolume()) {
                     writeVolumeInfo(source.getVolume());
                     _lastVolume = source.getVolume();
@@ -306,11 +433,29 @@ public class TreeBuilder {
                     _lastTree = source;
                 }
             }
+            if (source != _sampleTree || _recordCount >= _nextSample) {
+                _lastKey.clear();
+                _samples.add(new Sample(source, exchange.getKey(), _offsetStream._offset));
+                _sampleTree = source;
+                _nextSample = _recordCount + SAMPLE_INTERVAL;
+            }
             writeData(exchange.getKey(), exchange.getValue());
             _recordCount++;
         }
     }
 
+    private static class MergeThreadFactory implements ThreadFactory {
+
+        private final static AtomicInteger COUNTER = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "TREE_BUILDER_MERGE:" + COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     public TreeBuilder(final Persistit persistit) {
         this(persistit, new SimpleDateFormat(SDF).format(new Date()), -1, DEFAULT_BUFFER_POOL_FRACTION);
     }
@@ -363,6 +508,120 @@ public class TreeBuilder {
         return _reportKeyCountMultiple;
     }
 
+    /**
+     * Enable or disable bulk loading of empty destination trees. When enabled
+     * (the default), {@link #merge()} builds each destination tree that is
+     * empty when merging begins by writing packed pages directly to the volume
+     * rather than inserting records one at a time. A checkpoint is performed
+     * at the end of the merge to make the bulk-loaded trees durable.
+     * Destination trees that already contain records are always merged by
+     * storing each record.
+     * 
+     * @param enabled
+     */
+    public final void setBulkLoadEnabled(final boolean enabled) {
+        _bulkLoadEnabled = enabled;
+    }
+
+    /**
+     * @return whether empty destination trees are bulk-loaded by
+     *         {@link #merge()}
+     */
+    public final boolean isBulkLoadEnabled() {
+        return _bulkLoadEnabled;
+    }
+
+    /**
+     * Set the fraction of each page filled when a destination tree is
+     * bulk-loaded. The default value of 1.0 packs pages fully, which gives the
+     * smallest tree; a lower value leaves room in each page so that records
+     * inserted later do not immediately cause page splits.
+     * 
+     * @param fillFactor
+     *            fraction between 0.1 and 1.0
+     */
+    public final void setFillFactor(final float fillFactor) {
+        _fillFactor = Util.rangeCheck(fillFactor, MINIMUM_FILL_FACTOR, 1.0f);
+    }
+
+    /**
+     * @return the fraction of each page filled when a destination tree is
+     *         bulk-loaded
+     */
+    public final float getFillFactor() {
+        return _fillFactor;
+    }
+
+    /**
+     * Set the number of threads used by {@link #merge()}. With more than one
+     * thread, the records of each destination tree are divided into key
+     * ranges using keys sampled while the sort files were written, and the
+     * ranges are merged concurrently. Note that the
+     * {@link #beforeMergeKey(Exchange)}, {@link #afterMergeKey(Exchange)} and
+     * {@link #duplicateKeyDetected(Tree, Key, Value, Value)} methods are then
+     * called concurrently from several threads. A merge performed within an
+     * active transaction always uses a single thread. The default value is 1.
+     * 
+     * @param threadCount
+     *            number of threads, between 1 and 64
+     */
+    public final void setMergeThreadCount(final int threadCount) {
+        _mergeThreadCount = Util.rangeCheck(threadCount, 1, MAXIMUM_MERGE_THREADS);
+    }
+
+    /**
+     * @return the number of threads used by {@link #merge()}
+     */
+    public final int getMergeThreadCount() {
+        return _mergeThreadCount;
+    }
+
+    /**
+     * @return Elapsed time in milliseconds from the first key stored until the
+     *         last sort volume was written at the start of {@link #merge()}
+     */
+    public long getSortMillis() {
+        return _sortNanos.get() / Util.NS_PER_MS;
+    }
+
+    /**
+     * @return Time in milliseconds spent writing sort volumes to sort files
+     */
+    public long getSaveMillis() {
+        return _saveNanos.get() / Util.NS_PER_MS;
+    }
+
+    /**
+     * @return Time in milliseconds spent choosing the key ranges merged
+     *         concurrently
+     */
+    public long getPartitionMillis() {
+        return _partitionNanos.get() / Util.NS_PER_MS;
+    }
+
+    /**
+     * @return Time in milliseconds spent merging sort files into destination
+     *         trees
+     */
+    public long getMergeMillis() {
+        return _mergeNanos.get() / Util.NS_PER_MS;
+    }
+
+    /**
+     * @return Time in milliseconds spent in the checkpoint that follows a bulk
+     *         load
+     */
+    public long getCheckpointMillis() {
+        return _checkpointNanos.get() / Util.NS_PER_MS;
+    }
+
+    /**
+     * @return Number of key ranges merged concurrently
+     */
+    public int getMergePartitionCount() {
+        return _partitionCount.get();
+    }
+
     /**
      * @return Count of sort trees that have been created while sorting keys
      */
@@ -493,6 +752,9 @@ public class TreeBuilder {
      * @throws Exception
      */
     public final void store(final Tree tree, final Key key, final Value value) throws Exception {
+        if (_sortStartNanos.get() == 0) {
+            _sortStartNanos.compareAndSet(0, System.nanoTime());
+        }
         final Map<Tree, Exchange> map = _sortExchangeMapThreadLocal.get();
         Exchange ex = map.get(tree);
         if (ex == null || ex.getTree().getVolume().getNextAvailablePage() > _pageLimit) {
@@ -553,63 +815,245 @@ public class TreeBuilder {
      * @throws Exception
      */
     public synchronized void merge() throws Exception {
+        final long sortStart = _sortStartNanos.getAndSet(0);
         finishSortVolume();
+        if (sortStart != 0) {
+            _sortNanos.addAndGet(System.nanoTime() - sortStart);
+        }
         if ((_mergedKeyCount.get() % _reportKeyCountMultiple) != 0) {
             reportSorted(_mergedKeyCount.get());
         }
+        final long mergeStart = System.nanoTime();
+        final boolean bulkLoaded;
+        if (_mergeThreadCount > 1 && !_persistit.getTransaction().isActive()) {
+            bulkLoaded = mergeConcurrently();
+        } else {
+            bulkLoaded = mergeNodes(_sortNodes, true, null);
+        }
+        _mergeNanos.addAndGet(System.nanoTime() - mergeStart);
+        if (bulkLoaded) {
+            final long checkpointStart = System.nanoTime();
+            _persistit.checkpoint();
+            _checkpointNanos.addAndGet(System.nanoTime() - checkpointStart);
+        }
+        if ((_mergedKeyCount.get() % _reportKeyCountMultiple) != 0) {
+            reportMerged(_mergedKeyCount.get());
+        }
+        reset();
+    }
+
+    /**
+     * Merge the records of the supplied sort file Nodes into their destination
+     * trees. When <code>allowBulkLoad</code> is true, each destination tree
+     * that is eligible is built by its own {@link BulkLoader}; otherwise, if a
+     * partition loader is supplied, all records are appended to it.
+     * 
+     * @return <code>true</code> if any tree was bulk-loaded
+     */
+    private boolean mergeNodes(final List<Node> nodes, final boolean allowBulkLoad, final BulkLoader partitionLoader)
+            throws Exception {
         Tree currentTree = null;
         Exchange ex = null;
+        BulkLoader loader = partitionLoader;
+        boolean bulkLoaded = false;
         final SortedMap<Node, Node> sorted = new TreeMap<Node, Node>();
 
-        for (final Node node : _sortNodes) {
-            node.createStreamLoader();
-            if (node.next()) {
-                insertNode(sorted, node);
+        try {
+            for (final Node node : nodes) {
+                node.createStreamLoader();
+                if (node.next()) {
+                    insertNode(sorted, node);
+                }
             }
-        }
 
-        for (;;) {
-            if (sorted.isEmpty()) {
-                break;
+            for (;;) {
+                if (sorted.isEmpty()) {
+                    break;
+                }
+                Node node = sorted.firstKey();
+                node = sorted.remove(node);
+                if (node._tree != currentTree) {
+                    if (allowBulkLoad && loader != null) {
+                        loader.finish();
+                        loader = null;
+                    }
+                    ex = new Exchange(node._tree);
+                    currentTree = node._tree;
+                    if (allowBulkLoad && _bulkLoadEnabled && BulkLoader.isEligible(ex)) {
+                        loader = new BulkLoader(ex, _fillFactor);
+                        bulkLoaded = true;
+                    }
+                }
+                node._key.copyTo(ex.getKey());
+                node._value.copyTo(ex.getValue());
+
+                if (beforeMergeKey(ex)) {
+                    boolean stored = true;
+                    if (loader != null) {
+                        loader.append(ex.getKey(), ex.getValue());
+                    } else {
+                        ex.fetchAndStore();
+                        if (ex.getValue().isDefined()) {
+                            if (!duplicateKeyDetected(ex.getTree(), ex.getKey(), ex.getValue(), node._value)) {
+                                ex.store();
+                                stored = false;
+                            }
+                        }
+                    }
+                    if (stored) {
+                        afterMergeKey(ex);
+                        if ((_mergedKeyCount.incrementAndGet() % _reportKeyCountMultiple) == 0) {
+                            reportMerged(_mergedKeyCount.get());
+                        }
+                    }
+                }
+                while (node != null) {
+                    final Node next = node._duplicate;
+                    node._duplicate = null;
+                    if (node.next()) {
+                        insertNode(sorted, node);
+                    }
+                    node = next;
+                }
+            }
+            if (loader != null) {
+                loader.finish();
+                loader = null;
             }
-            Node node = sorted.firstKey();
-            node = sorted.remove(node);
-            if (node._tree != currentTree) {
-                ex = new Exchange(node._tree);
-                currentTree = node._tree;
+        } finally {
+            if (loader != null) {
+                loader.abandon();
             }
-            node._key.copyTo(ex.getKey());
-            node._value.copyTo(ex.getValue());
+            for (final Node node : nodes) {
+                node.close();
+            }
+        }
+        return bulkLoaded;
+    }
 
-            if (beforeMergeKey(ex)) {
-                ex.fetchAndStore();
-                boolean stored = true;
-                if (ex.getValue().isDefined()) {
-                    if (!duplicateKeyDetected(ex.getTree(), ex.getKey(), ex.getValue(), node._value)) {
-                        ex.store();
-                        stored = false;
+    /**
+     * Merge each destination tree by dividing its key space into ranges at
+     * keys sampled while the sort files were written, and merging the ranges
+     * concurrently. Trees are merged one after another in the order defined
+     * by {@link #getTreeComparator()}. An empty destination tree is
+     * bulk-loaded by building the data pages of each range concurrently and
+     * then building its index levels.
+     * 
+     * @return <code>true</code> if any tree was bulk-loaded
+     */
+    private boolean mergeConcurrently() throws Exception {
+        boolean bulkLoaded = false;
+        final List<Tree> trees = new ArrayList<Tree>(_allTrees);
+        Collections.sort(trees, getTreeComparator());
+        final ExecutorService executor = Executors.newFixedThreadPool(_mergeThreadCount, new MergeThreadFactory());
+        try {
+            for (final Tree tree : trees) {
+                final long start = System.nanoTime();
+                final List<Key> splitKeys = splitKeys(tree, _mergeThreadCount * PARTITIONS_PER_THREAD);
+                _partitionNanos.addAndGet(System.nanoTime() - start);
+                _partitionCount.addAndGet(splitKeys.size() + 1);
+
+                final Exchange exchange = new Exchange(tree);
+                final BulkLoader loader = _bulkLoadEnabled && BulkLoader.isEligible(exchange) ? new BulkLoader(
+                        exchange, _fillFactor) : null;
+                final List<BulkLoader> partitions = new ArrayList<BulkLoader>();
+                final List<Future<Boolean>> futures = new ArrayList<Future<Boolean>>();
+                boolean done = false;
+                try {
+                    for (int index = 0; index <= splitKeys.size(); index++) {
+                        final List<Node> nodes = rangeNodes(tree, index == 0 ? null : splitKeys.get(index - 1),
+                                index == splitKeys.size() ? null : splitKeys.get(index));
+                        final BulkLoader partition = loader == null ? null : loader.newPartition(index == 0);
+                        if (partition != null) {
+                            partitions.add(partition);
+                        }
+                        futures.add(executor.submit(new Callable<Boolean>() {
+                            @Override
+                            public Boolean call() throws Exception {
+                                return mergeNodes(nodes, false, partition);
+                            }
+                        }));
                     }
-                }
-                if (stored) {
-                    afterMergeKey(ex);
-                    if ((_mergedKeyCount.incrementAndGet() % _reportKeyCountMultiple) == 0) {
-                        reportMerged(_mergedKeyCount.get());
+                    for (final Future<Boolean> future : futures) {
+                        try {
+                            future.get();
+                        } catch (final ExecutionException e) {
+                            if (e.getCause() instanceof Exception) {
+                                throw (Exception) e.getCause();
+                            }
+                            throw e;
+                        }
+                    }
+                    if (loader != null) {
+                        loader.finishPartitions(partitions);
+                        bulkLoaded = true;
+                    }
+                    done = true;
+                } finally {
+                    if (!done) {
+                        for (final Future<Boolean> future : futures) {
+                            future.cancel(true);
+                        }
+                        if (loader != null) {
+                            loader.abandon();
+                        }
                     }
                 }
             }
-            while (node != null) {
-                final Node next = node._duplicate;
-                node._duplicate = null;
-                if (node.next()) {
-                    insertNode(sorted, node);
+        } finally {
+            executor.shutdownNow();
+        }
+        return bulkLoaded;
+    }
+
+    /**
+     * Choose keys that divide the records of a tree into ranges of roughly
+     * equal size, using the keys sampled from every sort file.
+     */
+    private List<Key> splitKeys(final Tree tree, final int partitions) {
+        final List<Key> keys = new ArrayList<Key>();
+        for (final Node node : _sortNodes) {
+            for (final Sample sample : node._samples) {
+                if (sample._tree == tree) {
+                    keys.add(sample._key);
                 }
-                node = next;
             }
         }
-        if ((_mergedKeyCount.get() % _reportKeyCountMultiple) != 0) {
-            reportMerged(_mergedKeyCount.get());
+        Collections.sort(keys);
+        final List<Key> splitKeys = new ArrayList<Key>();
+        for (int index = 1; index < partitions; index++) {
+            final Key key = keys.isEmpty() ? null : keys.get((int) ((long) index * keys.size() / partitions));
+            if (key != null && (splitKeys.isEmpty() || key.compareTo(splitKeys.get(splitKeys.size() - 1)) > 0)
+                    && key.compareTo(keys.get(0)) > 0) {
+                splitKeys.add(key);
+            }
         }
-        reset();
+        return splitKeys;
+    }
+
+    /**
+     * Create Nodes that read the records of a tree with keys in the range
+     * [from, to) from each sort file, each starting at the last sample taken
+     * at or before the start of the range.
+     */
+    private List<Node> rangeNodes(final Tree tree, final Key from, final Key to) {
+        final List<Node> nodes = new ArrayList<Node>();
+        for (final Node node : _sortNodes) {
+            Sample start = null;
+            for (final Sample sample : node._samples) {
+                if (sample._tree == tree) {
+                    if (start == null || from != null && sample._key.compareTo(from) <= 0) {
+                        start = sample;
+                    } else {
+                        break;
+                    }
+                }
+            }
+            if (start != null && (to == null || start._key.compareTo(to) < 0)) {
+                nodes.add(new Node(node, start._offset, tree, from, to));
+            }
+        }
+        return nodes;
     }
 
     private synchronized void reset() throws Exception {
@@ -648,6 +1092,12 @@ public class TreeBuilder {
     public void clear() throws Exception {
         _sortedKeyCount.set(0);
         _mergedKeyCount.set(0);
+        _sortNanos.set(0);
+        _saveNanos.set(0);
+        _partitionNanos.set(0);
+        _mergeNanos.set(0);
+        _checkpointNanos.set(0);
+        _partitionCount.set(0);
         reset();
     }
 
@@ -690,11 +1140,19 @@ public class TreeBuilder {
     }
 
     private void saveSortVolume(final Volume volume, final File file) throws Exception {
-        final DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file),
-                STREAM_SIZE));
+        final long start = System.nanoTime();
+        final OffsetOutputStream offsetStream = new OffsetOutputStream(new BufferedOutputStream(new FileOutputStream(
+                file), STREAM_SIZE));
+        final DataOutputStream dos = new DataOutputStream(offsetStream);
         final List<Tree> sorted = new ArrayList<Tree>(_allTrees);
         Collections.sort(sorted, getTreeComparator());
-        final StreamSaver saver = new SortStreamSaver(_persistit, dos);
+        List<Sample> samples = new ArrayList<Sample>();
+        for (final Node node : _sortNodes) {
+            if (node.getFile().equals(file)) {
+                samples = node._samples;
+            }
+        }
+        final StreamSaver saver = new SortStreamSaver(_persistit, dos, offsetStream, samples);
         for (final Tree tree : sorted) {
             final String sortTreeName = "_" + tree.getHandle();
             final Tree sortTree = volume.getTree(sortTreeName, false);
@@ -705,6 +1163,7 @@ public class TreeBuilder {
         }
         file.deleteOnExit();
         dos.close();
+        _saveNanos.addAndGet(System.nanoTime() - start);
     }
 
     /**
@@ -38,6 +38,12 @@ import com.persistit.util.Util;
  * <li>Remove</li>
  * </ul>
  * </p>
+ * <p>
+ * In addition, each operation has a {@link LatencyHistogram} of its elapsed
+ * times, and buffer pool hits and misses on pages of this tree are counted by
+ * {@link PageCategory}. These are not serialized and start from zero each time
+ * the tree is opened.
+ * </p>
  * 
  * @author peter
  */
@@ -49,6 +55,14 @@ public class TreeStatistics {
     private final AtomicLong _storeCounter = new AtomicLong();
     private final AtomicLong _removeCounter = new AtomicLong();
 
+    private final LatencyHistogram _fetchLatency = new LatencyHistogram();
+    private final LatencyHistogram _traverseLatency = new LatencyHistogram();
+    private final LatencyHistogram _storeLatency = new LatencyHistogram();
+    private final LatencyHistogram _removeLatency = new LatencyHistogram();
+
+    private final StripedCounters _pageHitCounters = new StripedCounters(PageCategory.values().length);
+    private final StripedCounters _pageMissCounters = new StripedCounters(PageCategory.values().length);
+
     private final AtomicBoolean _dirty = new AtomicBoolean();
     /*
      * Array of AtomicLong instances currently used in serializing and
@@ -114,6 +128,58 @@ public class TreeStatistics {
         return _removeCounter.get();
     }
 
+    /**
+     * @return the elapsed times of operations counted by
+     *         {@link #getFetchCounter()}
+     */
+    public LatencyHistogram getFetchLatency() {
+        return _fetchLatency;
+    }
+
+    /**
+     * @return the elapsed times of operations counted by
+     *         {@link #getTraverseCounter()}
+     */
+    public LatencyHistogram getTraverseLatency() {
+        return _traverseLatency;
+    }
+
+    /**
+     * @return the elapsed times of operations counted by
+     *         {@link #getStoreCounter()}
+     */
+    public LatencyHistogram getStoreLatency() {
+        return _storeLatency;
+    }
+
+    /**
+     * @return the elapsed times of operations counted by
+     *         {@link #getRemoveCounter()}
+     */
+    public LatencyHistogram getRemoveLatency() {
+        return _removeLatency;
+    }
+
+    /**
+     * @param category
+     *            the kind of page
+     * @return the count of requests for pages of this tree that were found in
+     *         the buffer pool
+     */
+    public long getPageHitCounter(final PageCategory category) {
+        return _pageHitCounters.get(category.ordinal());
+    }
+
+    /**
+     * @param category
+     *            the kind of page
+     * @return the count of requests for pages of this tree that had to be
+     *         read from the volume
+     */
+    public long getPageMissCounter(final PageCategory category) {
+        return _pageMissCounters.get(category.ordinal());
+    }
+
     boolean isDirty() {
         return _dirty.get();
     }
@@ -132,9 +198,23 @@ public class TreeStatistics {
         _traverseCounter.set(0);
         _storeCounter.set(0);
         _removeCounter.set(0);
+        resetMetrics();
         setDirty(true);
     }
 
+    /**
+     * Reset the latency histograms and page hit and miss counters, leaving the
+     * serialized counters unchanged.
+     */
+    void resetMetrics() {
+        _fetchLatency.reset();
+        _traverseLatency.reset();
+        _storeLatency.reset();
+        _removeLatency.reset();
+        _pageHitCounters.reset();
+        _pageMissCounters.reset();
+    }
+
     void bumpFetchCounter() {
         _fetchCounter.incrementAndGet();
         setDirty(true);
@@ -155,6 +235,14 @@ public class TreeStatistics {
         setDirty(true);
     }
 
+    void bumpPageHitCounter(final PageCategory category) {
+        _pageHitCounters.increment(category.ordinal());
+    }
+
+    void bumpPageMissCounter(final PageCategory category) {
+        _pageMissCounters.increment(category.ordinal());
+    }
+
     /**
      * <p>
      * Serialize the statistics value in a variable-length byte array. The
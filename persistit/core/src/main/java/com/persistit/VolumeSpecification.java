@@ -41,6 +41,7 @@ public class VolumeSpecification {
     private final static String ATTR_READONLY = "readOnly";
     private final static String ATTR_CREATEONLY = "createOnly";
     private final static String ATTR_PAGE_SIZE = "pageSize";
+    private final static String ATTR_COMPRESS = "compress";
 
     private final static String ATTR_INITIAL_SIZE = "initialSize";
     private final static String ATTR_EXTENSION_SIZE = "extensionSize";
@@ -56,6 +57,7 @@ public class VolumeSpecification {
     private boolean create = false;
     private boolean createOnly = false;
     private boolean aliased = false;
+    private boolean compress = false;
 
     private int pageSize = -1;
     private int version = -1;
@@ -145,6 +147,11 @@ public class VolumeSpecification {
      * <dd>Creates the a new, empty volume regardless of whether an existing
      * volume file already exists.</dd>
      * 
+     * <dt><code>compress</code></dt>
+     * <dd>Compress pages as they are written to the volume file. Pages are
+     * always held uncompressed in the buffer pool, and a volume file may be
+     * read regardless of this setting.</dd>
+     * 
      * <dt><code>pageSize:<i>NNN</i></code></dt>
      * <dd>Specifies <i>NNN</i> as the volume's buffer size when creating a new
      * volume. <i>NNN</i> must be 1024, 2048, 4096, 8192 or 16384.</dd>
@@ -185,6 +192,8 @@ public class VolumeSpecification {
                     create = true;
                 } else if (ATTR_CREATEONLY.equals(attr)) {
                     createOnly = true;
+                } else if (ATTR_COMPRESS.equals(attr)) {
+                    compress = true;
                 } else if (ATTR_NAME.equals(attr) || ATTR_ALIAS.equals(attr)) {
                     final String valueString = innerTokenizer.nextToken().trim();
                     if (valueString != null && !valueString.isEmpty()) {
@@ -354,6 +363,18 @@ public class VolumeSpecification {
         this.createOnly = createOnly;
     }
 
+    /**
+     * @return <code>true</code> if pages are compressed when written to the
+     *         volume file
+     */
+    public boolean isCompress() {
+        return compress;
+    }
+
+    public void setCompress(final boolean compress) {
+        this.compress = compress;
+    }
+
     public int getPageSize() {
         return pageSize;
     }
@@ -438,6 +459,9 @@ public class VolumeSpecification {
         if (readOnly) {
             sb.append(',').append(ATTR_READONLY);
         }
+        if (compress) {
+            sb.append(',').append(ATTR_COMPRESS);
+        }
         if (createOnly) {
             sb.append(',').append(ATTR_CREATEONLY);
         } else if (create) {
@@ -468,8 +492,9 @@ public class VolumeSpecification {
         }
         final VolumeSpecification v = (VolumeSpecification) object;
         return path.equals(v.path) && name.equals(v.name) && readOnly == v.readOnly && create == v.create
-                && createOnly == v.createOnly && aliased == v.aliased && pageSize == v.pageSize && version == v.version
-                && id == v.id && initialPages == v.initialPages && initialSize == v.initialSize
+                && createOnly == v.createOnly && aliased == v.aliased && compress == v.compress
+                && pageSize == v.pageSize && version == v.version && id == v.id && initialPages == v.initialPages
+                && initialSize == v.initialSize
                 && extensionPages == v.extensionPages && extensionSize == v.extensionSize
                 && maximumPages == v.maximumPages && maximumSize == v.maximumSize;
     }
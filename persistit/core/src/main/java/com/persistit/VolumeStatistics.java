@@ -41,6 +41,13 @@ class VolumeStatistics {
     private final AtomicLong _traverseCounter = new AtomicLong();
     private final AtomicLong _storeCounter = new AtomicLong();
     private final AtomicLong _removeCounter = new AtomicLong();
+    private final AtomicLong _compressCounter = new AtomicLong();
+    private final AtomicLong _compressedCounter = new AtomicLong();
+    private final AtomicLong _compressInputBytes = new AtomicLong();
+    private final AtomicLong _compressOutputBytes = new AtomicLong();
+    private final AtomicLong _compressNanos = new AtomicLong();
+    private final AtomicLong _expandCounter = new AtomicLong();
+    private final AtomicLong _expandNanos = new AtomicLong();
 
     /**
      * @return the count of physical disk read requests performed on this
@@ -99,6 +106,61 @@ class VolumeStatistics {
         return _removeCounter.get();
     }
 
+    /**
+     * @return the count of page images offered for compression on their way
+     *         to the volume file
+     */
+    public long getCompressCounter() {
+        return _compressCounter.get();
+    }
+
+    /**
+     * @return the count of page images actually written in compressed form;
+     *         the remainder did not compress well enough to save space
+     */
+    public long getCompressedCounter() {
+        return _compressedCounter.get();
+    }
+
+    /**
+     * @return the total size in bytes of the page images offered for
+     *         compression
+     */
+    public long getCompressInputBytes() {
+        return _compressInputBytes.get();
+    }
+
+    /**
+     * @return the total number of bytes written to the volume file for the
+     *         page images offered for compression
+     */
+    public long getCompressOutputBytes() {
+        return _compressOutputBytes.get();
+    }
+
+    /**
+     * @return the total time in nanoseconds spent compressing page images
+     */
+    public long getCompressNanos() {
+        return _compressNanos.get();
+    }
+
+    /**
+     * @return the count of compressed page images expanded after being read
+     *         from the volume file
+     */
+    public long getExpandCounter() {
+        return _expandCounter.get();
+    }
+
+    /**
+     * @return the total time in nanoseconds spent expanding compressed page
+     *         images
+     */
+    public long getExpandNanos() {
+        return _expandNanos.get();
+    }
+
     /**
      * @return The system time at which this <code>Volume</code> was created
      */
@@ -161,6 +223,13 @@ class VolumeStatistics {
         _traverseCounter.set(0);
         _storeCounter.set(0);
         _readCounter.set(0);
+        _compressCounter.set(0);
+        _compressedCounter.set(0);
+        _compressInputBytes.set(0);
+        _compressOutputBytes.set(0);
+        _compressNanos.set(0);
+        _expandCounter.set(0);
+        _expandNanos.set(0);
     }
 
     void bumpReadCounter() {
@@ -193,6 +262,21 @@ class VolumeStatistics {
         _removeCounter.incrementAndGet();
     }
 
+    void bumpCompressCounters(final int inputBytes, final int outputBytes, final long nanos) {
+        _compressCounter.incrementAndGet();
+        if (outputBytes < inputBytes) {
+            _compressedCounter.incrementAndGet();
+        }
+        _compressInputBytes.addAndGet(inputBytes);
+        _compressOutputBytes.addAndGet(outputBytes);
+        _compressNanos.addAndGet(nanos);
+    }
+
+    void bumpExpandCounters(final long nanos) {
+        _expandCounter.incrementAndGet();
+        _expandNanos.addAndGet(nanos);
+    }
+
     long getNextAvailablePage() {
         return _nextAvailablePage;
     }
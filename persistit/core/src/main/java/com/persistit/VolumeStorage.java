@@ -22,6 +22,7 @@ import java.util.Random;
 
 import com.persistit.exception.InUseException;
 import com.persistit.exception.InvalidPageAddressException;
+import com.persistit.exception.InvalidPageStructureException;
 import com.persistit.exception.PersistitException;
 import com.persistit.exception.PersistitIOException;
 import com.persistit.exception.PersistitInterruptedException;
@@ -150,7 +151,26 @@ abstract class VolumeStorage extends SharedResource {
     abstract void releaseHeadBuffer();
 
     abstract void readPage(Buffer buffer) throws PersistitIOException, InvalidPageAddressException,
-            VolumeClosedException, InUseException, PersistitInterruptedException;
+            InvalidPageStructureException, VolumeClosedException, InUseException, PersistitInterruptedException;
+
+    /**
+     * Read the pages of several claimed buffers. The default implementation
+     * reads each page separately; a storage implementation may read adjacent
+     * pages with a single I/O operation.
+     * 
+     * @param buffers
+     *            Buffers whose page addresses have been set, in ascending page
+     *            order
+     * @param count
+     *            Number of elements of <code>buffers</code> to read
+     */
+    void readPages(final Buffer[] buffers, final int count) throws PersistitIOException,
+            InvalidPageAddressException, InvalidPageStructureException, VolumeClosedException, InUseException,
+            PersistitInterruptedException {
+        for (int index = 0; index < count; index++) {
+            readPage(buffers[index]);
+        }
+    }
 
     abstract void writePage(final Buffer buffer) throws PersistitException;
 
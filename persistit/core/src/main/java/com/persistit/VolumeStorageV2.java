@@ -56,11 +56,14 @@ import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
 import java.nio.channels.OverlappingFileLockException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import com.persistit.AlertMonitor.AlertLevel;
 import com.persistit.AlertMonitor.Event;
 import com.persistit.exception.InUseException;
 import com.persistit.exception.InvalidPageAddressException;
+import com.persistit.exception.InvalidPageStructureException;
 import com.persistit.exception.PersistitException;
 import com.persistit.exception.PersistitIOException;
 import com.persistit.exception.PersistitInterruptedException;
@@ -88,6 +91,13 @@ class VolumeStorageV2 extends VolumeStorage {
     private volatile boolean _opened;
     private volatile boolean _closed;
 
+    private final Queue<PageCompressor> _compressors = new ConcurrentLinkedQueue<PageCompressor>();
+    /*
+     * Running average size of the page images most recently read from or
+     * written to a compressed volume; zero until one has been seen.
+     */
+    private volatile int _imageSizeEstimate;
+
     /**
      * Generate a random positive (non-zero) long value to be used as a
      * validation of a Volume's identity.
@@ -323,6 +333,10 @@ class VolumeStorageV2 extends VolumeStorage {
                 // releasing file lock.
                 pe = new PersistitException(e);
             }
+            PageCompressor compressor;
+            while ((compressor = _compressors.poll()) != null) {
+                compressor.close();
+            }
             if (pe != null) {
                 throw pe;
             }
@@ -434,8 +448,8 @@ class VolumeStorageV2 extends VolumeStorage {
     }
 
     @Override
-    void readPage(final Buffer buffer) throws PersistitIOException, InvalidPageAddressException, VolumeClosedException,
-            PersistitInterruptedException, InUseException {
+    void readPage(final Buffer buffer) throws PersistitIOException, InvalidPageAddressException,
+            InvalidPageStructureException, VolumeClosedException, PersistitInterruptedException, InUseException {
         // non-exclusive claim here intended to conflict with exclusive claim in
         // close and truncate
         if (!claim(false)) {
@@ -452,18 +466,34 @@ class VolumeStorageV2 extends VolumeStorage {
 
             try {
                 final ByteBuffer bb = buffer.getByteBuffer();
-                bb.position(0).limit(buffer.getBufferSize());
-                int read = 0;
-                while (read < buffer.getBufferSize()) {
-                    final long position = page * _volume.getStructure().getPageSize() + bb.position();
-                    final int bytesRead = _channel.read(bb, position);
-                    if (bytesRead <= 0) {
-                        throw new PersistitIOException("Unable to read bytes at position " + position + " in " + this);
+                final int bufferSize = buffer.getBufferSize();
+                /*
+                 * A compressed image occupies only the front of its slot. Read
+                 * about as much as recent images needed, then the rest of the
+                 * image or the rest of an uncompressed page as required.
+                 */
+                int read = page != 0 && _volume.getSpecification().isCompress() ? firstReadSize(bufferSize)
+                        : bufferSize;
+                readFully(bb, page, 0, read);
+                if (page != 0 && PageCompressor.isCompressed(buffer.getBytes())) {
+                    final int size = PageCompressor.imageSize(buffer.getBytes(), bufferSize);
+                    if (size > read) {
+                        readFully(bb, page, read, size);
+                    }
+                    read = Math.max(read, size);
+                    noteImageSize(size);
+                    expandPage(buffer);
+                } else {
+                    if (read < bufferSize) {
+                        readFully(bb, page, read, bufferSize);
+                        read = bufferSize;
+                    }
+                    if (page != 0) {
+                        noteImageSize(bufferSize);
                     }
-                    read += bytesRead;
                 }
-                _persistit.getIOMeter().chargeReadPageFromVolume(this._volume, buffer.getPageAddress(),
-                        buffer.getBufferSize(), buffer.getIndex());
+                _persistit.getIOMeter().chargeReadPageFromVolume(this._volume, buffer.getPageAddress(), read,
+                        buffer.getIndex());
                 _volume.getStatistics().bumpReadCounter();
 
             } catch (final IOException ioe) {
@@ -477,6 +507,115 @@ class VolumeStorageV2 extends VolumeStorage {
         }
     }
 
+    /**
+     * Read pages of several buffers. Pages with newer copies in the journal are
+     * read from the journal; each run of remaining pages with adjacent
+     * addresses is read from the volume file in one operation.
+     */
+    @Override
+    void readPages(final Buffer[] buffers, final int count) throws PersistitIOException,
+            InvalidPageAddressException, InvalidPageStructureException, VolumeClosedException, InUseException,
+            PersistitInterruptedException {
+        // non-exclusive claim here intended to conflict with exclusive claim in
+        // close and truncate
+        if (!claim(false)) {
+            throw new InUseException("Unable to acquire claim on " + this);
+        }
+        try {
+            final boolean[] fromJournal = new boolean[count];
+            for (int index = 0; index < count; index++) {
+                final long page = buffers[index].getPageAddress();
+                if (page < 0 || page >= _nextAvailablePage) {
+                    throw new InvalidPageAddressException("Page " + page + " out of bounds [0-" + _nextAvailablePage
+                            + "]");
+                }
+                fromJournal[index] = _persistit.getJournalManager().readPageFromJournal(buffers[index]);
+            }
+            ByteBuffer bb = null;
+            int from = 0;
+            while (from < count) {
+                if (fromJournal[from]) {
+                    from++;
+                    continue;
+                }
+                int to = from + 1;
+                while (to < count && !fromJournal[to]
+                        && buffers[to].getPageAddress() == buffers[to - 1].getPageAddress() + 1) {
+                    to++;
+                }
+                if (bb == null) {
+                    bb = ByteBuffer.allocate(count * buffers[0].getBufferSize());
+                }
+                readRun(buffers, from, to, bb);
+                from = to;
+            }
+        } finally {
+            release();
+        }
+    }
+
+    private void readFully(final ByteBuffer bb, final long page, final int from, final int to) throws IOException,
+            PersistitIOException {
+        bb.position(from).limit(to);
+        while (bb.hasRemaining()) {
+            final long position = page * _volume.getStructure().getPageSize() + bb.position();
+            final int bytesRead = _channel.read(bb, position);
+            if (bytesRead <= 0) {
+                throw new PersistitIOException("Unable to read bytes at position " + position + " in " + this);
+            }
+        }
+    }
+
+    /**
+     * @return the number of bytes to read first from a page slot of a
+     *         compressed volume: a quarter more than the running average image
+     *         size, rounded up to whole blocks
+     */
+    private int firstReadSize(final int bufferSize) {
+        final int estimate = _imageSizeEstimate;
+        if (estimate <= 0) {
+            return bufferSize;
+        }
+        return Math.min(bufferSize, PageCompressor.roundUp(estimate + estimate / 4));
+    }
+
+    private void noteImageSize(final int size) {
+        final int estimate = _imageSizeEstimate;
+        _imageSizeEstimate = estimate <= 0 ? size : estimate - estimate / 8 + size / 8;
+    }
+
+    private void readRun(final Buffer[] buffers, final int from, final int to, final ByteBuffer bb)
+            throws PersistitIOException, InvalidPageStructureException {
+        final int bufferSize = buffers[from].getBufferSize();
+        final long page = buffers[from].getPageAddress();
+        try {
+            bb.position(0).limit((to - from) * bufferSize);
+            while (bb.hasRemaining()) {
+                final long position = page * _volume.getStructure().getPageSize() + bb.position();
+                final int bytesRead = _channel.read(bb, position);
+                if (bytesRead <= 0) {
+                    throw new PersistitIOException("Unable to read bytes at position " + position + " in " + this);
+                }
+            }
+        } catch (final IOException ioe) {
+            _persistit.getAlertMonitor().post(
+                    new Event(AlertLevel.ERROR, _persistit.getLogBase().readException, ioe, _volume, page,
+                            buffers[from].getIndex()), AlertMonitor.READ_PAGE_CATEGORY);
+            throw new PersistitIOException(ioe);
+        }
+        bb.flip();
+        for (int index = from; index < to; index++) {
+            final Buffer buffer = buffers[index];
+            bb.get(buffer.getBytes(), 0, bufferSize);
+            if (buffer.getPageAddress() != 0 && PageCompressor.isCompressed(buffer.getBytes())) {
+                expandPage(buffer);
+            }
+            _persistit.getIOMeter().chargeReadPageFromVolume(this._volume, buffer.getPageAddress(),
+                    buffer.getBufferSize(), buffer.getIndex());
+            _volume.getStatistics().bumpReadCounter();
+        }
+    }
+
     @Override
     void writePage(final Buffer buffer) throws PersistitException {
         /*
@@ -505,6 +644,28 @@ class VolumeStorageV2 extends VolumeStorage {
             throw new ReadOnlyVolumeException(getPath());
         }
 
+        final PageCompressor compressor = page != 0 && _volume.getSpecification().isCompress() ? allocCompressor()
+                : null;
+        try {
+            final ByteBuffer image = compressor == null ? null : compressPage(compressor, bb);
+            if (image != null) {
+                bb.position(bb.limit());
+                noteImageSize(image.remaining());
+                writeImage(image, page);
+            } else {
+                if (compressor != null) {
+                    noteImageSize(bb.remaining());
+                }
+                writeImage(bb, page);
+            }
+        } finally {
+            if (compressor != null) {
+                _compressors.offer(compressor);
+            }
+        }
+    }
+
+    private void writeImage(final ByteBuffer bb, final long page) throws PersistitIOException {
         try {
             _channel.write(bb, page * _volume.getStructure().getPageSize());
         } catch (final IOException ioe) {
@@ -515,6 +676,38 @@ class VolumeStorageV2 extends VolumeStorage {
         }
     }
 
+    private PageCompressor allocCompressor() {
+        final PageCompressor compressor = _compressors.poll();
+        return compressor != null ? compressor : new PageCompressor(_volume.getStructure().getPageSize());
+    }
+
+    /**
+     * Compress a page image on its way to the volume file, recording the
+     * outcome in the volume's statistics.
+     * 
+     * @return the compressed image, or <code>null</code> if the page should be
+     *         written uncompressed
+     */
+    private ByteBuffer compressPage(final PageCompressor compressor, final ByteBuffer bb) {
+        final long start = System.nanoTime();
+        final ByteBuffer image = compressor.compress(bb);
+        final VolumeStatistics stat = _volume.getStatistics();
+        stat.bumpCompressCounters(bb.remaining(), image != null ? image.remaining() : bb.remaining(),
+                System.nanoTime() - start);
+        return image;
+    }
+
+    private void expandPage(final Buffer buffer) throws InvalidPageStructureException {
+        final PageCompressor compressor = allocCompressor();
+        try {
+            final long start = System.nanoTime();
+            compressor.expand(buffer.getBytes(), buffer.getPageAddress());
+            _volume.getStatistics().bumpExpandCounters(System.nanoTime() - start);
+        } finally {
+            _compressors.offer(compressor);
+        }
+    }
+
     @Override
     long allocNewPage() throws PersistitException {
         long page = -1;
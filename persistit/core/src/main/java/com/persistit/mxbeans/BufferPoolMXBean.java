@@ -149,4 +149,40 @@ public interface BufferPoolMXBean {
     @Description("Earliest timestamp of any dirty page in this BufferPool.")
     public long getEarliestDirtyTimestamp();
 
+    /**
+     * @return The name of the policy used to select pages for eviction
+     */
+    @Description("The name of the policy used to select pages for eviction")
+    public String getEvictionPolicy();
+
+    /**
+     * Return the number of pages read into this <code>BufferPool</code> that
+     * had recently been evicted from it. A high ghost hit count relative to
+     * the miss count indicates that the eviction policy is discarding pages
+     * that are still in use.
+     * 
+     * @return The ghost hit count
+     */
+    @Description("The number of pages read into this BufferPool that had recently been evicted from it")
+    public long getGhostHitCount();
+
+    /**
+     * @return The number of segments, each with its own clock hand, into which
+     *         this <code>BufferPool</code> is partitioned
+     */
+    @Description("The number of segments, each with its own clock hand, into which this BufferPool is partitioned")
+    public int getSegmentCount();
+
+    /**
+     * Return the number of buffers allocated from a segment other than the
+     * requesting thread's home segment. Buffers are taken from another
+     * segment when it has turned over fewer of its buffers than the home
+     * segment, so a steal count that is a large fraction of the miss count
+     * indicates that a few threads account for most of the misses.
+     * 
+     * @return The steal count
+     */
+    @Description("The number of buffers allocated from a segment other than the requesting thread's home segment")
+    public long getStealCount();
+
 }
@@ -82,6 +82,46 @@ public interface IOMeterMXBean {
             + "between \"quiescent\" and \"busy\" states")
     public void setQuiescentIOthreshold(long quiescentIO);
 
+    /**
+     * @return the maximum number of pages read ahead of a sequential scan
+     */
+    @Description("Maximum number of sibling pages read ahead of a sequential scan; 0 disables read-ahead")
+    public int getPrefetchWindow();
+
+    /**
+     * @param prefetchWindow
+     *            the maximum number of pages read ahead of a sequential scan
+     */
+    @Description("Maximum number of sibling pages read ahead of a sequential scan; 0 disables read-ahead")
+    public void setPrefetchWindow(int prefetchWindow);
+
+    /**
+     * @return the number of pages queued for read-ahead
+     */
+    @Description("Number of pages queued for read-ahead")
+    public long getPrefetchRequestCount();
+
+    /**
+     * @return the number of queued pages read into the buffer pool because
+     *         they were not already present
+     */
+    @Description("Number of pages read into the buffer pool by read-ahead")
+    public long getPrefetchReadCount();
+
+    /**
+     * @return the number of pages read ahead that were subsequently found in
+     *         the buffer pool
+     */
+    @Description("Number of pages read ahead that were later found in the buffer pool")
+    public long getPrefetchHitCount();
+
+    /**
+     * @return the number of pages read ahead that were evicted before being
+     *         used
+     */
+    @Description("Number of pages read ahead that were evicted before being used")
+    public long getPrefetchEvictedCount();
+
     /**
      * @return the ioRate
      */
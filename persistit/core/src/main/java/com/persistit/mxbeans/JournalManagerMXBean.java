@@ -79,6 +79,18 @@ public interface JournalManagerMXBean {
      */
     final static long DEFAULT_FLUSH_INTERVAL_MS = 100;
 
+    /**
+     * Default, minimum and maximum target (in milliseconds) for the time
+     * between a transaction commit and the moment its journal records are
+     * durable. A non-zero target enables adaptive mode, in which the interval
+     * between calls to the FileChannel.force() method and the time GROUP
+     * commits wait for other transactions are computed from the commit
+     * arrival rate and the observed force() latency.
+     */
+    final static long DEFAULT_FLUSH_TARGET_MS = 0;
+    final static long MINIMUM_FLUSH_TARGET_MS = 0;
+    final static long MAXIMUM_FLUSH_TARGET_MS = 10000;
+
     /**
      * Default time interval (in milliseconds) between calls to the journal
      * copier method.
@@ -96,6 +108,25 @@ public interface JournalManagerMXBean {
      */
     final static int DEFAULT_COPIES_PER_CYCLE = 1000;
 
+    /**
+     * Default, minimum and maximum number of volumes to which the page copier
+     * writes concurrently.
+     */
+    final static int DEFAULT_COPIER_CONCURRENCY = 1;
+    final static int MINIMUM_COPIER_CONCURRENCY = 1;
+    final static int MAXIMUM_COPIER_CONCURRENCY = 64;
+
+    /**
+     * Journal page compression modes: page images are written as plain PA
+     * records; PA payloads are deflated when that makes them smaller; or, in
+     * addition, pages are written as a deflated delta from an earlier image of
+     * the same page when that is smaller still.
+     */
+    final static String PAGE_COMPRESSION_NONE = "NONE";
+    final static String PAGE_COMPRESSION_DEFLATE = "DEFLATE";
+    final static String PAGE_COMPRESSION_DELTA = "DELTA";
+    final static String DEFAULT_PAGE_COMPRESSION = PAGE_COMPRESSION_NONE;
+
     /**
      * Default time interval (in milliseconds) for logging repetitive I/O
      * exceptions on attempts to write to the journal. Prevents excessively
@@ -151,6 +182,9 @@ public interface JournalManagerMXBean {
     @Description("True if copy-fast mode has been enabled")
     boolean isCopyingFast();
 
+    @Description("True if sealed journal files are read through read-only memory mappings")
+    boolean isJournalMapped();
+
     @Description("True if copying of pages from the journal to their destination volumes is disabled")
     void setAppendOnly(boolean appendOnly);
 
@@ -160,18 +194,48 @@ public interface JournalManagerMXBean {
     @Description("True if copy-fast mode has been enabled")
     void setCopyingFast(boolean fast);
 
+    @Description("True if sealed journal files are read through read-only memory mappings")
+    void setJournalMapped(boolean mapped);
+
     @Description("Interval between data flush cycles in milliseconds")
     long getFlushInterval();
 
     @Description("Interval between data flush cycles in milliseconds")
     void setFlushInterval(long flushInterval);
 
+    @Description("Target in milliseconds for commit durability lag, or zero to flush at the fixed FlushInterval")
+    long getFlushTarget();
+
+    @Description("Target in milliseconds for commit durability lag, or zero to flush at the fixed FlushInterval")
+    void setFlushTarget(long flushTarget);
+
+    @Description("Interval between data flush cycles in milliseconds currently in effect")
+    long getEffectiveFlushInterval();
+
+    @Description("Time in milliseconds GROUP commits currently wait for other transactions to join a flush")
+    long getGroupCommitWindow();
+
+    @Description("Smoothed rate of commits waiting for durability, per second")
+    double getCommitArrivalRate();
+
     @Description("Interval between page copying cycles")
     long getCopierInterval();
 
     @Description("Interval between page copying cycles")
     void setCopierInterval(long copierInterval);
 
+    @Description("Maximum number of volumes to which the page copier writes concurrently")
+    int getCopierConcurrency();
+
+    @Description("Maximum number of volumes to which the page copier writes concurrently")
+    void setCopierConcurrency(int concurrency);
+
+    @Description("Compression of page images written to the journal: NONE, DEFLATE or DELTA")
+    String getPageCompression();
+
+    @Description("Compression of page images written to the journal: NONE, DEFLATE or DELTA")
+    void setPageCompression(String mode);
+
     @Description("True if the journal has been closed")
     boolean isClosed();
 
@@ -187,6 +251,18 @@ public interface JournalManagerMXBean {
     @Description("Total number of page images written to the journal")
     long getJournaledPageCount();
 
+    @Description("Total number of page images written to the journal as deflated PC records")
+    long getCompressedPageCount();
+
+    @Description("Total number of page images written to the journal as deflated deltas from an earlier image")
+    long getDeltaPageCount();
+
+    @Description("Total size in bytes of the page images offered for compression, as PA records would hold them")
+    long getPageCompressionInputBytes();
+
+    @Description("Total size in bytes of the journal records written for page images offered for compression")
+    long getPageCompressionOutputBytes();
+
     @Description("Total number of page images copied from the journal to their destination volumes")
     long getCopiedPageCount();
 
@@ -238,6 +314,12 @@ public interface JournalManagerMXBean {
     @Description("Total aggregate time spent waiting for durable commits in milliseconds")
     long getCommitCompletionWaitTime();
 
+    @Description("Total number of journal flush cycles performed by committing threads on behalf of HARD and GROUP commits")
+    long getTotalGroupCommitFlushes();
+
+    @Description("Total number of journal reads served from memory-mapped journal files")
+    long getTotalMappedReads();
+
     @Description("Threshold in  milliseconds for warnings of long duration flush cycles")
     long getSlowIoAlertThreshold();
 
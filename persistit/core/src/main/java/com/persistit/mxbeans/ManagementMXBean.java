@@ -101,6 +101,27 @@ public interface ManagementMXBean {
      */
     long getRollbackCount() throws RemoteException;
 
+    /**
+     * Return the number of times {@link com.persistit.Persistit#getExchange}
+     * reused an <code>Exchange</code> from the session's pool. Sessions add
+     * their counts in batches, so the value may lag slightly.
+     * 
+     * @return number of pooled <code>Exchange</code>s reused
+     * @throws RemoteException
+     */
+    long getExchangePoolHitCount() throws RemoteException;
+
+    /**
+     * Return the number of times {@link com.persistit.Persistit#getExchange}
+     * created a new <code>Exchange</code> because the session's pool was
+     * empty. Sessions add their counts in batches, so the value may lag
+     * slightly.
+     * 
+     * @return number of <code>Exchange</code>s created by getExchange
+     * @throws RemoteException
+     */
+    long getExchangePoolMissCount() throws RemoteException;
+
     /**
      * Return an array of information of all volumes that Persistit knows about,
      * or null if there are none.
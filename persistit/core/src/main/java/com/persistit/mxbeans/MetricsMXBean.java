@@ -0,0 +1,92 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit.mxbeans;
+
+import java.rmi.RemoteException;
+
+import javax.management.MXBean;
+
+import com.persistit.Management;
+
+/**
+ * Management interface to latency histograms and buffer pool hit ratios.
+ * Elapsed times of <code>Exchange</code> fetch, traverse, store and remove
+ * operations are recorded for each tree, and elapsed times of transaction
+ * commits are recorded for each <code>CommitPolicy</code>. Buffer pool hits and
+ * misses are counted for each tree and in total, broken down by the kind of
+ * page. All times are in nanoseconds.
+ */
+@MXBean
+public interface MetricsMXBean {
+
+    public final static String MXBEAN_NAME = "com.persistit:type=Persistit,class=Metrics";
+
+    /**
+     * @return a summary of commit latencies for each <code>CommitPolicy</code>
+     * @throws RemoteException
+     */
+    @Description("Latencies of transaction commits for each CommitPolicy")
+    Management.LatencyInfo[] getCommitLatencies() throws RemoteException;
+
+    /**
+     * @return buffer pool hit and miss counts for each kind of page, totaled
+     *         over all buffer pools
+     * @throws RemoteException
+     */
+    @Description("Buffer pool hits and misses for each kind of page")
+    Management.PageHitInfo[] getPageHits() throws RemoteException;
+
+    /**
+     * @param volumeName
+     *            name of the volume containing the tree
+     * @param treeName
+     *            name of the tree
+     * @return a summary of the latencies of fetch, traverse, store and remove
+     *         operations on the tree
+     * @throws RemoteException
+     */
+    @Description("Latencies of fetch, traverse, store and remove operations on a tree")
+    Management.LatencyInfo[] treeLatencies(@PName("volumeName") final String volumeName,
+            @PName("treeName") final String treeName) throws RemoteException;
+
+    /**
+     * @param volumeName
+     *            name of the volume containing the tree
+     * @param treeName
+     *            name of the tree
+     * @return buffer pool hit and miss counts for each kind of page in the
+     *         tree
+     * @throws RemoteException
+     */
+    @Description("Buffer pool hits and misses for each kind of page in a tree")
+    Management.PageHitInfo[] treePageHits(@PName("volumeName") final String volumeName,
+            @PName("treeName") final String treeName) throws RemoteException;
+
+    /**
+     * @return a text table of operation latencies and page hit ratios for each
+     *         tree that has been used, followed by commit latencies
+     */
+    @Description("Text report of latencies and page hit ratios for all trees in use")
+    String report();
+
+    /**
+     * Discard recorded latencies and the page hit and miss counts of each
+     * tree. Buffer pool totals are reset with the other buffer pool counters.
+     */
+    @Description("Discard recorded latencies and per-tree page hit counts")
+    void reset();
+}
@@ -38,6 +38,14 @@ public interface RecoveryManagerMXBean {
      */
     final static int APPLY_TRANSACTION_LOG_COUNT = 1000;
 
+    /**
+     * Default and maximum number of threads used to validate journal files
+     * and replay transactions
+     */
+    final static int DEFAULT_RECOVERY_THREADS = 1;
+
+    final static int MAXIMUM_RECOVERY_THREADS = 64;
+
     public String getJournalFilePath();
 
     public int getCommittedCount();
@@ -46,8 +54,29 @@ public interface RecoveryManagerMXBean {
 
     public int getAppliedTransactionCount();
 
+    public int getAbortedTransactionCount();
+
+    /**
+     * @return number of transactions applied by replay threads rather than
+     *         the thread performing recovery
+     */
+    public int getParallelTransactionCount();
+
     public int getErrorCount();
 
+    public int getRecoveryThreads();
+
+    /**
+     * @return time in milliseconds spent finding the keystone journal file,
+     *         scanning it and validating the other required files
+     */
+    public long getPlanTime();
+
+    /**
+     * @return time in milliseconds spent applying recovered transactions
+     */
+    public long getApplyTime();
+
     public long getLastValidCheckpointTimestamp();
 
     public long getLastValidCheckpointAddress();
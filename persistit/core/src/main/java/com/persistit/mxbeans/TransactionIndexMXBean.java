@@ -109,4 +109,14 @@ public interface TransactionIndexMXBean {
      */
     public abstract int getDroppedCount();
 
+    /**
+     * Lookups of a transaction's commit status normally read the hash table
+     * bucket without locking it and retry if a concurrent update is detected.
+     * This count records lookups that retried too many times and locked the
+     * bucket instead.
+     * 
+     * @return The count of commit status lookups that locked a bucket
+     */
+    public abstract long getLockedStatusReadCount();
+
 }
@@ -27,14 +27,18 @@ import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class AccumulatorTest extends PersistitUnitTestCase {
 
@@ -528,6 +532,97 @@ public class AccumulatorTest extends PersistitUnitTestCase {
         }
     }
 
+    @Test
+    public void testStripedLiveValues() throws Exception {
+        final int THREAD_COUNT = 8;
+        final int UPDATE_COUNT = 10000;
+        final TransactionIndex ti = new TransactionIndex(_tsa, 1);
+        final Accumulator sum = Accumulator.accumulator(Accumulator.Type.SUM, null, 0, 5, ti);
+        final Accumulator min = Accumulator.accumulator(Accumulator.Type.MIN, null, 1, 0, ti);
+        final Accumulator max = Accumulator.accumulator(Accumulator.Type.MAX, null, 2, 0, ti);
+
+        final Thread[] threads = new Thread[THREAD_COUNT];
+        for (int thread = 0; thread < THREAD_COUNT; ++thread) {
+            final int t = thread;
+            threads[thread] = ConcurrentUtil.createThread("Thread_" + thread, new ConcurrentUtil.ThrowingRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    final TransactionStatus status = ti.registerTransaction();
+                    for (int up = 0; up < UPDATE_COUNT; ++up) {
+                        sum.update(1, status, 0);
+                        min.update(-(t * UPDATE_COUNT + up), status, 0);
+                        max.update(t * UPDATE_COUNT + up, status, 0);
+                    }
+                    status.commit(_tsa.updateTimestamp());
+                    ti.notifyCompleted(status, _tsa.getCurrentTimestamp());
+                }
+            });
+        }
+        ConcurrentUtil.startAndJoinAssertSuccess(50000, threads);
+
+        assertEquals(5 + THREAD_COUNT * UPDATE_COUNT, sum.getLiveValue());
+        assertEquals(-(THREAD_COUNT * UPDATE_COUNT - 1), min.getLiveValue());
+        assertEquals(THREAD_COUNT * UPDATE_COUNT - 1, max.getLiveValue());
+        assertEquals(5 + THREAD_COUNT * UPDATE_COUNT, sum.getSnapshotValue(_tsa.updateTimestamp(), 0));
+        /*
+         * Recovery resets the live value to the base value
+         */
+        sum.updateBaseValue(10, _tsa.updateTimestamp());
+        assertEquals(15, sum.getLiveValue());
+    }
+
+    @Test
+    public void testSeqAllocationRange() throws Exception {
+        final int THREAD_COUNT = 8;
+        final int ALLOCATE_COUNT = 1000;
+        final int RANGE = 16;
+        final TransactionIndex ti = new TransactionIndex(_tsa, 1);
+        final SeqAccumulator seq = (SeqAccumulator) Accumulator.accumulator(Accumulator.Type.SEQ, null, 0, 100, ti);
+        seq.setAllocationRange(RANGE);
+        assertEquals(RANGE, seq.getAllocationRange());
+        /*
+         * A single thread still receives consecutive values
+         */
+        final TransactionStatus status = ti.registerTransaction();
+        for (int i = 1; i <= RANGE + 1; i++) {
+            assertEquals(100 + i, seq.update(1, status, 0));
+        }
+        assertEquals(100 + 2 * RANGE, seq.getLiveValue());
+        status.commit(_tsa.updateTimestamp());
+        ti.notifyCompleted(status, _tsa.getCurrentTimestamp());
+        assertEquals(100 + RANGE + 1, seq.getSnapshotValue(_tsa.updateTimestamp(), 0));
+
+        final Set<Long> allocated = Collections.synchronizedSet(new HashSet<Long>());
+        final Thread[] threads = new Thread[THREAD_COUNT];
+        for (int thread = 0; thread < THREAD_COUNT; ++thread) {
+            threads[thread] = ConcurrentUtil.createThread("Thread_" + thread, new ConcurrentUtil.ThrowingRunnable() {
+                @Override
+                public void run() throws Throwable {
+                    final TransactionStatus status = ti.registerTransaction();
+                    for (int i = 0; i < ALLOCATE_COUNT; ++i) {
+                        assertTrue(allocated.add(seq.update(1, status, 0)));
+                    }
+                    status.commit(_tsa.updateTimestamp());
+                    ti.notifyCompleted(status, _tsa.getCurrentTimestamp());
+                }
+            });
+        }
+        ConcurrentUtil.startAndJoinAssertSuccess(50000, threads);
+
+        assertEquals(THREAD_COUNT * ALLOCATE_COUNT, allocated.size());
+        final long highest = Collections.max(allocated);
+        assertTrue(highest > 100 + RANGE + 1);
+        assertTrue(highest <= seq.getLiveValue());
+        assertEquals(highest, seq.getSnapshotValue(_tsa.updateTimestamp(), 0));
+
+        try {
+            seq.setAllocationRange(0);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
     private static int countDeltas(final TransactionStatus status) {
         int count = 0;
         Accumulator.Delta d = status.getDelta();
@@ -18,17 +18,27 @@ package com.persistit;
 
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Random;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class BackupTaskTest extends PersistitUnitTestCase {
   private final static int TRANSACTION_COUNT = 50000;
@@ -76,6 +86,247 @@ public class BackupTaskTest extends PersistitUnitTestCase {
     assertTrue(comparison);
   }
 
+  @Test
+  public void testParallelDirectoryBackup() throws Exception {
+
+    final PrintWriter writer = new PrintWriter(System.out);
+    final PersistitMap<Integer, String> pmap1 = new PersistitMap<Integer, String>(_persistit.getExchange(
+      "persistit", "BackupTest", true));
+    for (int index = 0; index < 50000; index++) {
+      pmap1.put(new Integer(index), "This is the record for index=" + index);
+    }
+
+    final TreeMap<Integer, String> tmap = new TreeMap<Integer, String>(pmap1);
+    final File dir = temp.newFolder("backup");
+
+    final BackupTask backup1 = (BackupTask) CLI.parseTask(_persistit,
+      "backup -z -c threads=4 dir=" + dir.getAbsolutePath().replaceAll("\\\\", "/"));
+
+    backup1.setMessageWriter(writer);
+    backup1.setup(1, "backup dir=" + dir.getAbsolutePath(), "cli", 0, 5);
+    backup1.run();
+    assertTrue(new File(dir, BackupTask.MANIFEST_NAME).exists());
+    for (final String path : backup1.getFileList()) {
+      assertTrue(new File(dir, new File(path).getName() + BackupTask.GZIP_SUFFIX).exists());
+    }
+
+    final Configuration config = _persistit.getConfiguration();
+    _persistit.close();
+
+    final BackupTask backup2 = new BackupTask();
+    backup2.setMessageWriter(writer);
+    backup2.setPersistit(_persistit);
+    backup2.doRestore(dir.getAbsolutePath());
+
+    _persistit = new Persistit(config);
+    _persistit.checkAllVolumes();
+
+    final PersistitMap<Integer, String> pmap2 = new PersistitMap<Integer, String>(_persistit.getExchange(
+      "persistit", "BackupTest", false));
+    assertTrue(pmap2.equals(tmap));
+  }
+
+  @Test
+  public void testBackupToSink() throws Exception {
+    final Exchange ex = _persistit.getExchange("persistit", "BackupTest", true);
+    for (int index = 0; index < 10000; index++) {
+      ex.getValue().put("This is the record for index=" + index);
+      ex.to(index).store();
+    }
+    final Map<String, ByteArrayOutputStream> streams = new TreeMap<String, ByteArrayOutputStream>();
+    final BackupTask backup = new BackupTask();
+    backup.setPersistit(_persistit);
+    backup.setCompressed(true);
+    backup.setThreadCount(3);
+    backup.setSink(new BackupTask.BackupSink() {
+      @Override
+      public OutputStream open(final String path, final boolean compressed, final boolean pageImages) {
+        assertTrue(compressed);
+        assertFalse(pageImages);
+        final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        streams.put(path, bos);
+        return bos;
+      }
+    });
+    backup.setup(1, "backup", "test", 0, 5);
+    backup.run();
+
+    final Set<String> expected = new HashSet<String>(backup.getFileList());
+    assertEquals(expected, streams.keySet());
+    final Volume volume = _persistit.getVolume("persistit");
+    final byte[] copy = gunzip(streams.get(volume.getPath()).toByteArray());
+    assertTrue(copy.length > 0);
+    assertEquals(0, copy.length % volume.getPageSize());
+  }
+
+  @Test
+  public void testBackupToFailingSinkFails() throws Exception {
+    final Exchange ex = _persistit.getExchange("persistit", "BackupTest", true);
+    for (int index = 0; index < 1000; index++) {
+      ex.getValue().put("This is the record for index=" + index);
+      ex.to(index).store();
+    }
+    final boolean wasAppendOnly = _persistit.getJournalManager().isAppendOnly();
+    final BackupTask backup = new BackupTask();
+    backup.setPersistit(_persistit);
+    backup.setSink(new BackupTask.BackupSink() {
+      @Override
+      public OutputStream open(final String path, final boolean compressed, final boolean pageImages)
+        throws IOException {
+        throw new IOException("Sink unavailable");
+      }
+    });
+    backup.setup(1, "backup", "test", 0, 5);
+    backup.run();
+    assertEquals(Task.STATE_FAILED, backup._state);
+    assertTrue(backup._lastException instanceof IOException);
+    assertTrue(backup.getStatus().contains("Sink unavailable"));
+    assertEquals(wasAppendOnly, _persistit.getJournalManager().isAppendOnly());
+  }
+
+  @Test
+  public void testIncrementalBackupChain() throws Exception {
+    final PrintWriter writer = new PrintWriter(System.out);
+    final Exchange ex = _persistit.getExchange("persistit", "BackupTest", true);
+    final TreeMap<Integer, String> expected = new TreeMap<Integer, String>();
+    for (int index = 0; index < 50000; index++) {
+      put(ex, expected, index, "This is the record for index=" + index);
+    }
+    final File full = temp.newFolder("full");
+    runBackup("backup -c -y -z threads=2 dir=" + path(full), writer);
+
+    for (int index = 0; index < 50000; index += 1000) {
+      put(ex, expected, index, "First update for index=" + index);
+    }
+    final File incremental1 = temp.newFolder("incremental1");
+    final BackupTask backup1 = runBackup("backup -c -y dir=" + path(incremental1) + " base=" + path(full), writer);
+    assertTrue(backup1.isIncremental());
+    final String volumePath = _persistit.getVolume("persistit").getPath();
+    final File pages = new File(incremental1, new File(volumePath).getName() + BackupTask.PAGES_SUFFIX);
+    assertTrue("Incremental backup should be much smaller than the volume",
+      pages.length() < new File(volumePath).length() / 2);
+
+    for (int index = 50000; index < 51000; index++) {
+      put(ex, expected, index, "Appended record for index=" + index);
+    }
+    final File incremental2 = temp.newFolder("incremental2");
+    runBackup("backup -c -z dir=" + path(incremental2) + " base=" + path(incremental1), writer);
+
+    final Configuration config = _persistit.getConfiguration();
+    _persistit.close();
+    cleanUpDirectory(new File(DATA_PATH));
+
+    final BackupTask restore = (BackupTask) BackupTask.setupRestoreTask(path(full) + "," + path(incremental1) + ","
+      + path(incremental2));
+    restore.setMessageWriter(writer);
+    restore.runTask();
+
+    _persistit = new Persistit(config);
+    _persistit.checkAllVolumes();
+    final Exchange ex2 = _persistit.getExchange("persistit", "BackupTest", false);
+    ex2.to(Key.BEFORE);
+    int count = 0;
+    while (ex2.next()) {
+      final int key = ex2.getKey().reset().decodeInt();
+      assertEquals(expected.get(key), ex2.getValue().getString());
+      count++;
+    }
+    assertEquals(expected.size(), count);
+  }
+
+  @Test
+  public void testIncrementalBackupToFileFails() throws Exception {
+    final File full = temp.newFolder("full");
+    runBackup("backup -c dir=" + path(full), new PrintWriter(System.out));
+    final File file = new File(temp.newFolder("incremental"), "backup.zip");
+    final String command = "backup -c file=" + path(file) + " base=" + path(full);
+    final BackupTask backup = (BackupTask) CLI.parseTask(_persistit, command);
+    backup.setMessageWriter(new PrintWriter(System.out));
+    backup.setup(1, command, "cli", 0, 5);
+    backup.run();
+    assertEquals(Task.STATE_FAILED, backup._state);
+    assertTrue(backup._lastException instanceof IllegalArgumentException);
+    assertFalse(file.exists());
+  }
+
+  @Test
+  public void testFailedIncrementalBackupFails() throws Exception {
+    final PrintWriter writer = new PrintWriter(System.out);
+    final Exchange ex = _persistit.getExchange("persistit", "BackupTest", true);
+    final Map<Integer, String> expected = new TreeMap<Integer, String>();
+    for (int index = 0; index < 1000; index++) {
+      put(ex, expected, index, "This is the record for index=" + index);
+    }
+    final File full = temp.newFolder("full");
+    runBackup("backup -c dir=" + path(full), writer);
+    final File incremental = temp.newFolder("incremental");
+    runBackup("backup -c dir=" + path(incremental) + " base=" + path(full), writer);
+    assertTrue(new File(incremental, BackupTask.MANIFEST_NAME).exists());
+
+    for (int index = 0; index < 1000; index += 10) {
+      put(ex, expected, index, "Update for index=" + index);
+    }
+    final String volumePath = _persistit.getVolume("persistit").getPath();
+    final File pages = new File(incremental, new File(volumePath).getName() + BackupTask.PAGES_SUFFIX);
+    assertTrue(pages.delete());
+    assertTrue(pages.mkdir());
+    final String command = "backup -c dir=" + path(incremental) + " base=" + path(full);
+    final BackupTask backup = (BackupTask) CLI.parseTask(_persistit, command);
+    backup.setMessageWriter(writer);
+    backup.setup(1, command, "cli", 0, 5);
+    backup.run();
+    assertTrue(backup.isIncremental());
+    assertEquals(Task.STATE_FAILED, backup._state);
+    assertTrue(backup._lastException instanceof IOException);
+    assertFalse(new File(incremental, BackupTask.MANIFEST_NAME).exists());
+  }
+
+  @Test
+  public void testRestoreChainRequiresFullBackupFirst() throws Exception {
+    final File full = temp.newFolder("full");
+    runBackup("backup -c dir=" + path(full), new PrintWriter(System.out));
+    final File incremental = temp.newFolder("incremental");
+    runBackup("backup -c dir=" + path(incremental) + " base=" + path(full), new PrintWriter(System.out));
+    final BackupTask restore = new BackupTask();
+    try {
+      restore.doRestoreChain(Arrays.asList(path(incremental), path(full)));
+      fail("Expected IOException");
+    } catch (final IOException e) {
+      // expected
+    }
+  }
+
+  private void put(final Exchange ex, final Map<Integer, String> expected, final int index, final String value)
+    throws Exception {
+    ex.getValue().put(value);
+    ex.to(index).store();
+    expected.put(index, value);
+  }
+
+  private String path(final File file) {
+    return file.getAbsolutePath().replaceAll("\\\\", "/");
+  }
+
+  private BackupTask runBackup(final String command, final PrintWriter writer) throws Exception {
+    final BackupTask backup = (BackupTask) CLI.parseTask(_persistit, command);
+    backup.setMessageWriter(writer);
+    backup.setup(1, command, "cli", 0, 5);
+    backup.run();
+    assertTrue(backup.getBackupTimestamp() > 0);
+    return backup;
+  }
+
+  private byte[] gunzip(final byte[] bytes) throws Exception {
+    final GZIPInputStream is = new GZIPInputStream(new ByteArrayInputStream(bytes));
+    final ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[65536];
+    int count;
+    while ((count = is.read(buffer)) != -1) {
+      bos.write(buffer, 0, count);
+    }
+    return bos.toByteArray();
+  }
+
   @Test
   public void testBackupWithConcurrentTransactions() throws Exception {
     final PrintWriter writer = new PrintWriter(System.out);
@@ -167,6 +418,12 @@ public class BackupTaskTest extends PersistitUnitTestCase {
   @Override
   public void runAllTests() throws Exception {
     testSimpleBackup();
+    testParallelDirectoryBackup();
+    testBackupToSink();
+    testBackupToFailingSinkFails();
+    testIncrementalBackupChain();
+    testFailedIncrementalBackupFails();
+    testRestoreChainRequiresFullBackupFirst();
     testBackupWithConcurrentTransactions();
   }
 
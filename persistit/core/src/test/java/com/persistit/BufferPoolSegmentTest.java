@@ -0,0 +1,133 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Test;
+
+public class BufferPoolSegmentTest extends PersistitUnitTestCase {
+
+    private final static int BUFFERS = 640;
+
+    private final static int SEGMENTS = 4;
+
+    @Override
+    protected Properties doGetProperties(final boolean cleanup) {
+        final Properties p = getProperties(cleanup);
+        p.setProperty("buffer.count.16384", Integer.toString(BUFFERS));
+        p.setProperty("buffersegments", Integer.toString(SEGMENTS));
+        return p;
+    }
+
+    @Test
+    public void segmentGeometry() throws Exception {
+        final BufferPool pool = _persistit.getBufferPool(16384);
+        assertEquals(SEGMENTS, pool.getSegmentCount());
+        int expectedStart = 0;
+        for (int index = 0; index < BUFFERS; index++) {
+            final BufferPool.Segment segment = pool.segment(index);
+            assertEquals("Segments must be contiguous", expectedStart, segment.getStart());
+            assertTrue(index < segment.getEnd());
+            if (index + 1 == segment.getEnd()) {
+                expectedStart = segment.getEnd();
+                assertTrue("Segments must be aligned on bit map words", expectedStart % 64 == 0
+                        || expectedStart == BUFFERS);
+            }
+        }
+        assertEquals(BUFFERS, expectedStart);
+
+        final BufferPool small = new BufferPool(BufferPool.MINIMUM_POOL_COUNT, 1024, 8, _persistit);
+        assertEquals("Tiny pool cannot be segmented", 1, small.getSegmentCount());
+    }
+
+    @Test
+    public void concurrentEviction() throws Exception {
+        final int threadCount = SEGMENTS * 2;
+        final int keysPerThread = 20000;
+        final List<Thread> threads = new ArrayList<Thread>();
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        for (int t = 0; t < threadCount; t++) {
+            final int id = t;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        final Exchange ex = _persistit.getExchange("persistit", "segments" + id, true);
+                        ex.getValue().put(createString(200));
+                        for (int i = 0; i < keysPerThread; i++) {
+                            ex.to(i).store();
+                        }
+                        for (int i = 0; i < keysPerThread; i++) {
+                            ex.to(i).fetch();
+                            assertTrue(ex.getValue().isDefined());
+                        }
+                        _persistit.releaseExchange(ex);
+                    } catch (final Throwable e) {
+                        synchronized (errors) {
+                            errors.add(e);
+                        }
+                    }
+                }
+            }, "SEGMENT_TEST_" + t));
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue("Errors: " + errors, errors.isEmpty());
+        final BufferPool pool = _persistit.getBufferPool(16384);
+        assertTrue("Workload must exceed the pool", pool.getMissCounter() > 0);
+    }
+
+    @Test
+    public void skewedHitRatio() throws Exception {
+        /*
+         * A single thread works on a tree that fits in the pool but is several
+         * times larger than one segment. Once loaded, it should be served
+         * from memory rather than confined to the thread's home segment.
+         */
+        final BufferPool pool = _persistit.getBufferPool(16384);
+        final Exchange ex = _persistit.getExchange("persistit", "skewed", true);
+        ex.getValue().put(createString(500));
+        final int keys = 10000;
+        for (int i = 0; i < keys; i++) {
+            ex.to(i).store();
+        }
+        for (int i = 0; i < keys; i++) {
+            ex.to(i).fetch();
+        }
+        final long dataPages = keys * 500L / 16384;
+        assertTrue("Tree must be larger than one segment", dataPages > BUFFERS / SEGMENTS);
+        final long misses = pool.getPageMissCounter(PageCategory.DATA);
+        for (int i = 0; i < keys; i++) {
+            ex.to(i).fetch();
+            assertTrue(ex.getValue().isDefined());
+        }
+        assertTrue("Loaded tree should stay in the pool",
+                pool.getPageMissCounter(PageCategory.DATA) - misses < dataPages / 10);
+        assertTrue(pool.getStealCounter() > 0);
+        _persistit.releaseExchange(ex);
+    }
+}
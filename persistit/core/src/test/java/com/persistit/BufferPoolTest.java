@@ -26,6 +26,7 @@ import java.util.TreeSet;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class BufferPoolTest extends PersistitUnitTestCase {
 
@@ -184,4 +185,92 @@ public class BufferPoolTest extends PersistitUnitTestCase {
         }
     }
 
+    @Test
+    public void testClockEvictionPolicy() throws Exception {
+        final Volume volume = _persistit.getVolume("persistit");
+        final EvictionPolicy policy = EvictionPolicy.create("clock", 8);
+        assertEquals(EvictionPolicy.CLOCK_NAME, policy.getName());
+        final Buffer buffer = new Buffer(1024, 0, volume.getPool(), _persistit);
+        buffer.setPageAddressAndVolume(1, volume);
+        policy.admit(buffer, true);
+        buffer.setTouched();
+        assertTrue("Touched buffer should be spared", !policy.isReplaceable(buffer, false));
+        assertTrue("Untouched buffer should be replaced", policy.isReplaceable(buffer, false));
+    }
+
+    @Test
+    public void testTwoQueueEvictionPolicy() throws Exception {
+        final Volume volume = _persistit.getVolume("persistit");
+        final EvictionPolicy.TwoQueue policy = (EvictionPolicy.TwoQueue) EvictionPolicy.create("2q", 8);
+        final Buffer[] buffers = new Buffer[8];
+        for (int index = 0; index < buffers.length; index++) {
+            buffers[index] = new Buffer(1024, index, volume.getPool(), _persistit);
+            buffers[index].setPageAddressAndVolume(index + 1, volume);
+            policy.admit(buffers[index], true);
+            buffers[index].setTouched();
+        }
+        /*
+         * A page touched only by the access that loaded it survives one pass
+         * of the hand and is then replaced.
+         */
+        final Buffer scanned = buffers[0];
+        assertTrue(!policy.isReplaceable(scanned, false));
+        assertTrue(policy.isReplaceable(scanned, false));
+        /*
+         * A page touched again after the first pass is promoted and protected.
+         */
+        final Buffer hot = buffers[1];
+        assertTrue(!policy.isReplaceable(hot, false));
+        hot.setTouched();
+        assertTrue(!policy.isReplaceable(hot, false));
+        assertEquals(1, policy.getHotCount());
+        for (int pass = 0; pass < 4; pass++) {
+            assertTrue("Hot page should not be replaced", !policy.isReplaceable(hot, false));
+        }
+        assertTrue("Forced replacement ignores the hot set", policy.isReplaceable(hot, true));
+        /*
+         * A page read shortly after it was evicted is a ghost hit and is
+         * admitted directly to the hot set.
+         */
+        policy.evicted(scanned);
+        policy.admit(scanned, true);
+        assertEquals(1, policy.getGhostHitCounter());
+        assertEquals(2, policy.getHotCount());
+        assertTrue(!policy.isReplaceable(scanned, false));
+        /*
+         * Reassigning a hot buffer to a new page removes it from the hot set.
+         */
+        scanned.setPageAddressAndVolume(100, volume);
+        policy.admit(scanned, true);
+        assertEquals(1, policy.getHotCount());
+        assertEquals(1, policy.getGhostHitCounter());
+    }
+
+    @Test
+    public void testEvictionPolicyNames() throws Exception {
+        final BufferPool pool = _persistit.getVolume("persistit").getPool();
+        final String original = pool.getEvictionPolicy();
+        try {
+            pool.setEvictionPolicy("2Q");
+            assertEquals("2Q", pool.getEvictionPolicy());
+            final Exchange ex = _persistit.getExchange("persistit", "BufferPoolTest", true);
+            ex.getValue().put(RED_FOX);
+            for (int i = 0; i < 10000; i++) {
+                ex.to(i).store();
+            }
+            for (int i = 0; i < 10000; i++) {
+                ex.to(i).fetch();
+                assertTrue(ex.getValue().isDefined());
+            }
+        } finally {
+            pool.setEvictionPolicy(original);
+        }
+        try {
+            EvictionPolicy.create("LRU", 8);
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+
 }
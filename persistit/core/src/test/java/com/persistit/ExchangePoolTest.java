@@ -0,0 +1,138 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import java.lang.ref.WeakReference;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ExchangePoolTest extends PersistitUnitTestCase {
+
+    @Test
+    public void treeAffinity() throws Exception {
+        final Exchange ex1 = _persistit.getExchange("persistit", "ExchangePoolTestA", true);
+        final Exchange ex2 = _persistit.getExchange("persistit", "ExchangePoolTestB", true);
+        ex1.to(1).getValue().put("a");
+        ex1.store();
+        _persistit.releaseExchange(ex1);
+        _persistit.releaseExchange(ex2);
+        /*
+         * The Exchange last used on the requested tree is preferred over the
+         * one on top of the stack
+         */
+        final Exchange ex3 = _persistit.getExchange("persistit", "ExchangePoolTestA", false);
+        assertSame(ex1, ex3);
+        assertEquals(0, ex3.getKey().getEncodedSize());
+        ex3.to(1).fetch();
+        assertEquals("a", ex3.getValue().getString());
+        final Exchange ex4 = _persistit.getExchange("persistit", "ExchangePoolTestA", false);
+        assertSame(ex2, ex4);
+        assertEquals("ExchangePoolTestA", ex4.getTree().getName());
+        _persistit.releaseExchange(ex3);
+        _persistit.releaseExchange(ex4);
+    }
+
+    @Test
+    public void poolPerSession() throws Exception {
+        final Exchange ex1 = _persistit.getExchange("persistit", "ExchangePoolTest", true);
+        _persistit.releaseExchange(ex1);
+        final SessionId original = _persistit.getSessionId();
+        _persistit.setSessionId(new SessionId());
+        try {
+            _persistit.releaseExchange(ex1);
+            fail("Expected IllegalStateException");
+        } catch (final IllegalStateException e) {
+            // expected
+        }
+        final Exchange ex2 = _persistit.getExchange("persistit", "ExchangePoolTest", false);
+        assertNotSame(ex1, ex2);
+        _persistit.releaseExchange(ex2);
+        _persistit.setSessionId(original);
+        assertSame(ex1, _persistit.getExchange("persistit", "ExchangePoolTest", false));
+    }
+
+    @Test
+    public void sessionSharedBetweenInstances() throws Exception {
+        final Properties properties = getAlternateProperties(false);
+        properties.setProperty("datapath", temp.newFolder("other").getAbsolutePath());
+        properties.setProperty("jmx", "false");
+        Persistit other = new Persistit(properties);
+        final SessionId sessionId = _persistit.getSessionId();
+        other.setSessionId(sessionId);
+
+        final Exchange ex1 = _persistit.getExchange("persistit", "ExchangePoolTest", true);
+        Exchange ex2 = other.getExchange("persistit", "ExchangePoolTest", true);
+        _persistit.releaseExchange(ex1);
+        other.releaseExchange(ex2);
+        assertSame(ex1, _persistit.getExchange("persistit", "ExchangePoolTest", false));
+        assertSame(ex2, other.getExchange("persistit", "ExchangePoolTest", false));
+        other.releaseExchange(ex2);
+        _persistit.releaseExchange(ex1);
+
+        other.close();
+        assertNull(sessionId.getExchangePool(other));
+        final WeakReference<Persistit> ref = new WeakReference<Persistit>(other);
+        other = null;
+        ex2 = null;
+        assertTrue("Closed instance should not be reachable from the session", doesRefBecomeNull(ref));
+        assertSame(ex1, _persistit.getExchange("persistit", "ExchangePoolTest", false));
+    }
+
+    @Test
+    public void statistics() throws Exception {
+        _persistit.releaseExchange(_persistit.getExchange("persistit", "ExchangePoolTest", true));
+        final long hits = _persistit.getManagement().getExchangePoolHitCount();
+        final long misses = _persistit.getManagement().getExchangePoolMissCount();
+        final Exchange[] exchanges = new Exchange[4];
+        for (int i = 0; i < exchanges.length; i++) {
+            exchanges[i] = _persistit.getExchange("persistit", "ExchangePoolTest", true);
+        }
+        for (int i = 0; i < exchanges.length; i++) {
+            _persistit.releaseExchange(exchanges[i]);
+        }
+        for (int i = 0; i < 5; i++) {
+            _persistit.releaseExchange(_persistit.getExchange("persistit", "ExchangePoolTest", false));
+        }
+        assertEquals(hits + 6, _persistit.getManagement().getExchangePoolHitCount());
+        assertEquals(misses + 3, _persistit.getManagement().getExchangePoolMissCount());
+    }
+
+    @Test
+    public void statisticsOfShortSessions() throws Exception {
+        final long hits = _persistit.getManagement().getExchangePoolHitCount();
+        final long misses = _persistit.getManagement().getExchangePoolMissCount();
+        /*
+         * One session per request, each taking two Exchanges in turn
+         */
+        for (int i = 0; i < 10; i++) {
+            _persistit.setSessionId(new SessionId());
+            for (int j = 0; j < 2; j++) {
+                _persistit.releaseExchange(_persistit.getExchange("persistit", "ExchangePoolTest", true));
+            }
+        }
+        assertEquals(hits + 10, _persistit.getManagement().getExchangePoolHitCount());
+        assertEquals(misses + 10, _persistit.getManagement().getExchangePoolMissCount());
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import com.persistit.Transaction.CommitPolicy;
+import com.persistit.util.Util;
+
+public class GroupCommitTest extends PersistitUnitTestCase {
+
+    private final static int THREADS = 8;
+
+    private final static int COMMITS = 100;
+
+    private void commitConcurrently(final CommitPolicy policy) throws Exception {
+        final List<Thread> threads = new ArrayList<Thread>();
+        final List<Throwable> errors = new ArrayList<Throwable>();
+        for (int t = 0; t < THREADS; t++) {
+            final int id = t;
+            threads.add(new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        final Exchange ex = _persistit.getExchange("persistit", "groupcommit", true);
+                        final Transaction txn = ex.getTransaction();
+                        for (int i = 0; i < COMMITS; i++) {
+                            txn.begin();
+                            try {
+                                ex.getValue().put(RED_FOX);
+                                ex.to(policy.name()).append(id).append(i).store();
+                                txn.commit(policy);
+                            } finally {
+                                txn.end();
+                            }
+                        }
+                    } catch (final Throwable e) {
+                        synchronized (errors) {
+                            errors.add(e);
+                        }
+                    }
+                }
+            }));
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue("Errors: " + errors, errors.isEmpty());
+    }
+
+    private int count(final CommitPolicy policy) throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "groupcommit", false);
+        ex.to(policy.name()).append(Key.BEFORE);
+        int count = 0;
+        while (ex.traverse(Key.GT, true)) {
+            if (ex.getKey().reset().decodeString().equals(policy.name())) {
+                count++;
+            } else {
+                break;
+            }
+        }
+        return count;
+    }
+
+    @Test
+    public void hardCommitsAreBatched() throws Exception {
+        final JournalManager jman = _persistit.getJournalManager();
+        final long commits = jman.getTotalCompletedCommits();
+        final long flushes = jman.getTotalGroupCommitFlushes();
+
+        commitConcurrently(CommitPolicy.HARD);
+
+        final long committed = jman.getTotalCompletedCommits() - commits;
+        final long forced = jman.getTotalGroupCommitFlushes() - flushes;
+        assertEquals(THREADS * COMMITS, committed);
+        assertTrue("Leaders must force the journal", forced > 0);
+        assertTrue("No more than one force per commit", forced <= committed);
+    }
+
+    @Test
+    public void adaptiveIntervalAndWindow() throws Exception {
+        final long ms = Util.NS_PER_MS;
+        // Idle: the longer fixed interval is kept
+        assertEquals(100, JournalManager.adaptiveFlushInterval(50, 0, 0, 100));
+        assertEquals(50, JournalManager.adaptiveFlushInterval(50, 0, 1000, 100));
+        // Target less a flush already in progress and the commit's own flush
+        assertEquals(40, JournalManager.adaptiveFlushInterval(50, 5 * ms, 1000, 100));
+        assertEquals(1, JournalManager.adaptiveFlushInterval(5, 10 * ms, 1000, 100));
+
+        // No other commit expected within the target
+        assertEquals(0, JournalManager.adaptiveGroupCommitWindow(50, 0, 0));
+        assertEquals(0, JournalManager.adaptiveGroupCommitWindow(50, 0, 10));
+        // Time to gather a batch, less commits arriving during the flush
+        assertEquals(8, JournalManager.adaptiveGroupCommitWindow(50, 0, 1000));
+        assertEquals(6, JournalManager.adaptiveGroupCommitWindow(50, 2 * ms, 1000));
+        // Capped at half the budget
+        assertEquals(25, JournalManager.adaptiveGroupCommitWindow(50, 0, 100));
+        // Batches fill without waiting
+        assertEquals(0, JournalManager.adaptiveGroupCommitWindow(50, 0, 100000));
+    }
+
+    @Test
+    public void adaptiveFlushTarget() throws Exception {
+        final JournalManager jman = _persistit.getJournalManager();
+        assertEquals(jman.getFlushInterval(), jman.getEffectiveFlushInterval());
+        jman.setFlushTarget(20);
+        try {
+            commitConcurrently(CommitPolicy.GROUP);
+            commitConcurrently(CommitPolicy.SOFT);
+            assertTrue("Commit rate must be measured", jman.getCommitArrivalRate() > 0);
+            assertTrue(jman.getEffectiveFlushInterval() <= Math.max(20, jman.getFlushInterval()));
+            assertTrue(jman.getGroupCommitWindow() <= 10);
+        } finally {
+            jman.setFlushTarget(0);
+        }
+        assertEquals(jman.getFlushInterval(), jman.getEffectiveFlushInterval());
+        assertEquals(THREADS * COMMITS, count(CommitPolicy.GROUP));
+    }
+
+    @Test
+    public void committedTransactionsSurviveCrash() throws Exception {
+        commitConcurrently(CommitPolicy.HARD);
+        commitConcurrently(CommitPolicy.GROUP);
+        crashWithoutFlushAndRestoreProperties();
+        assertEquals(THREADS * COMMITS, count(CommitPolicy.HARD));
+        assertEquals(THREADS * COMMITS, count(CommitPolicy.GROUP));
+    }
+}
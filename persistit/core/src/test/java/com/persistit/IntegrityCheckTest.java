@@ -17,6 +17,7 @@
 package com.persistit;
 
 import com.persistit.exception.PersistitException;
+import com.persistit.util.Util;
 
 import org.junit.Ignore;
 import org.junit.Test;
@@ -201,7 +202,7 @@ public class IntegrityCheckTest extends PersistitUnitTestCase {
         }
         assertTrue(_persistit.getTransactionIndex().getAbortedCount() > 0);
 
-        final IntegrityCheck icheck = IntegrityCheck.icheck("*", false, false, false, false, true, true, false);
+        final IntegrityCheck icheck = IntegrityCheck.icheck("*", false, false, false, false, true, true, false, 1, 0);
         icheck.setPersistit(_persistit);
         icheck.setMessageWriter(new PrintWriter(System.out));
 
@@ -221,6 +222,55 @@ public class IntegrityCheckTest extends PersistitUnitTestCase {
         assertTrue(icheck.getFaults().length > 0);
     }
 
+    @Test
+    public void testParallelCheck() throws Exception {
+        final Exchange ex = _persistit.getExchange(_volumeName, "deep", true);
+        deepStore(ex);
+        assertTrue(ex.getTree().getDepth() >= 3);
+
+        final IntegrityCheck serial = icheck();
+        serial.checkTree(ex.getTree());
+        assertEquals(0, serial.getFaults().length);
+
+        final IntegrityCheck parallel = icheck();
+        parallel.setThreadCount(4);
+        parallel.checkTree(ex.getTree());
+        assertEquals(0, parallel.getFaults().length);
+        assertEquals(serial.getIndexPageCount(), parallel.getIndexPageCount());
+        assertEquals(serial.getIndexByteCount(), parallel.getIndexByteCount());
+        assertEquals(serial.getDataPageCount(), parallel.getDataPageCount());
+        assertEquals(serial.getDataByteCount(), parallel.getDataByteCount());
+        assertEquals(serial.getIndexHoleCount(), parallel.getIndexHoleCount());
+    }
+
+    @Test
+    public void testParallelCheckFindsFaults() throws Exception {
+        final Exchange ex = _persistit.getExchange(_volumeName, "deep", true);
+        deepStore(ex);
+        corrupt1(ex);
+        final IntegrityCheck icheck = icheck();
+        icheck.setThreadCount(4);
+        icheck.checkVolume(ex.getVolume());
+        assertTrue(icheck.getFaults().length > 0);
+    }
+
+    @Test
+    public void testPageBudget() throws Exception {
+        final Exchange ex = _persistit.getExchange(_volumeName, "primordial", true);
+        nonTransactionalStore(ex);
+        final IntegrityCheck icheck = icheck();
+        icheck.checkTree(ex.getTree());
+        final long pages = icheck.getIndexPageCount() + icheck.getDataPageCount();
+
+        final IntegrityCheck budgeted = icheck();
+        budgeted.setPageBudget((int) pages * 2);
+        final long start = System.nanoTime();
+        budgeted.checkTree(ex.getTree());
+        final long elapsed = System.nanoTime() - start;
+        assertEquals(0, budgeted.getFaults().length);
+        assertTrue("Check should take about half a second: " + elapsed, elapsed > Util.NS_PER_S / 4);
+    }
+
     private String key(final int i) {
         return String.format("%05d%s", i, RED_FOX);
     }
@@ -237,6 +287,15 @@ public class IntegrityCheckTest extends PersistitUnitTestCase {
         }
     }
 
+    private void deepStore(final Exchange ex) throws PersistitException {
+        final String padding = createString(200);
+        ex.getValue().put(RED_FOX);
+        for (int i = 0; i < SIZE * 50; i++) {
+            ex.to(key(i) + padding);
+            ex.store();
+        }
+    }
+
     private void waitForCleanupManager(final CleanupManager cm) throws InterruptedException {
         for (int wait = 0; wait < 60 && cm.getEnqueuedCount() > 0; wait++) {
             Thread.sleep(1000);
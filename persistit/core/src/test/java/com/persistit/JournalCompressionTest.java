@@ -0,0 +1,148 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.persistit.mxbeans.JournalManagerMXBean;
+
+public class JournalCompressionTest extends PersistitUnitTestCase {
+
+    private final static int KEYS = 10000;
+
+    @Override
+    protected Properties doGetProperties(final boolean cleanup) {
+        final Properties p = getProperties(cleanup);
+        p.setProperty("journalcompression", JournalManagerMXBean.PAGE_COMPRESSION_DELTA);
+        return p;
+    }
+
+    private void populate(final int generation) throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "compressed", true);
+        for (int i = 0; i < KEYS; i++) {
+            ex.getValue().put(value(i, generation));
+            ex.to(i).store();
+        }
+        _persistit.flush();
+        _persistit.checkpoint();
+    }
+
+    private void update(final int generation) throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "compressed", false);
+        for (int i = 0; i < KEYS; i += 50) {
+            ex.getValue().put(value(i, generation));
+            ex.to(i).store();
+        }
+        _persistit.flush();
+        _persistit.checkpoint();
+    }
+
+    private void verify(final int generation) throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "compressed", false);
+        ex.to(Key.BEFORE);
+        int count = 0;
+        while (ex.next()) {
+            final int key = ex.getKey().decodeInt();
+            assertEquals(count, key);
+            assertEquals(value(key, key % 50 == 0 ? generation : 0), ex.getValue().getString());
+            ex.getKey().reset();
+            count++;
+        }
+        assertEquals(KEYS, count);
+    }
+
+    private String value(final int key, final int generation) {
+        return "value " + key + " generation " + generation;
+    }
+
+    @Test
+    public void compressedPagesAreSmaller() throws Exception {
+        final JournalManager jman = _persistit.getJournalManager();
+        assertEquals(JournalManagerMXBean.PAGE_COMPRESSION_DELTA, jman.getPageCompression());
+        populate(0);
+        assertTrue(jman.getCompressedPageCount() > 0);
+        assertTrue(jman.getPageCompressionOutputBytes() < jman.getPageCompressionInputBytes());
+    }
+
+    @Test
+    public void deltaPagesRecovered() throws Exception {
+        final JournalManager jman = _persistit.getJournalManager();
+        populate(0);
+        for (int generation = 1; generation < 5; generation++) {
+            /*
+             * Each generation starts after a flush, so the earlier images are
+             * no longer in the journal write buffer
+             */
+            final long deltas = jman.getDeltaPageCount();
+            update(generation);
+            assertTrue("Rewritten pages should be written as deltas", jman.getDeltaPageCount() > deltas);
+        }
+        crashWithoutFlushAndRestoreProperties();
+        verify(4);
+    }
+
+    @Test
+    public void deltaPagesCopiedBack() throws Exception {
+        populate(0);
+        for (int generation = 1; generation < 5; generation++) {
+            update(generation);
+        }
+        _persistit.copyBackPages();
+        verify(4);
+        safeCrashAndRestoreProperties();
+        verify(4);
+    }
+
+    @Test
+    public void longRecordsRecovered() throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "compressed", true);
+        final Transaction txn = ex.getTransaction();
+        final String longValue = createString(50000);
+        for (int i = 0; i < 10; i++) {
+            txn.begin();
+            try {
+                ex.getValue().put(longValue + i);
+                ex.to(i).store();
+                txn.commit();
+            } finally {
+                txn.end();
+            }
+        }
+        _persistit.flush();
+        crashWithoutFlushAndRestoreProperties();
+        final Exchange ex2 = _persistit.getExchange("persistit", "compressed", false);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(longValue + i, ex2.to(i).fetch().getValue().getString());
+        }
+    }
+
+    @Test
+    public void invalidCompressionMode() throws Exception {
+        try {
+            _persistit.getJournalManager().setPageCompression("LZ4");
+            fail("Expected IllegalArgumentException");
+        } catch (final IllegalArgumentException e) {
+            // expected
+        }
+    }
+}
@@ -591,6 +591,62 @@ public class JournalManagerTest extends PersistitUnitTestCase {
         assertTrue("Size is less than ROLLOVER after copyBack: " + curSize, curSize < JournalManager.ROLLOVER_THRESHOLD);
     }
 
+    @Test
+    public void earliestUncopiedTimestamp() throws Exception {
+        final JournalManager jman = _persistit.getJournalManager();
+        final Exchange ex = _persistit.getExchange(VOLUME_NAME, "JournalManagerTest", true);
+        for (int i = 0; i < 1000; i++) {
+            ex.clear().append(i).getValue().put(RED_FOX);
+            ex.store();
+        }
+        _persistit.checkpoint();
+        assertTrue(jman.getPageMapSize() > 0);
+        final long earliest = jman.getEarliestUncopiedTimestamp();
+        assertTrue("Journaled pages precede the checkpoint",
+                earliest < jman.getLastValidCheckpointTimestamp());
+
+        _persistit.copyBackPages();
+        assertEquals(0, jman.getPageMapSize());
+        assertEquals(jman.getLastValidCheckpointTimestamp(), jman.getEarliestUncopiedTimestamp());
+    }
+
+    @Test
+    public void parallelCopyToSeveralVolumes() throws Exception {
+        final int VOLUMES = 3;
+        final int COUNT = 2000;
+        final JournalManager jman = _persistit.getJournalManager();
+        jman.setCopierConcurrency(VOLUMES);
+        final Volume[] volumes = new Volume[VOLUMES];
+        for (int i = 0; i < VOLUMES; i++) {
+            volumes[i] = new Volume(_config.volumeSpecification("${datapath}/parallel" + i + ",create,"
+                    + "pageSize:16384,initialPages:1,extensionPages:1,maximumPages:25000"));
+            volumes[i].open(_persistit);
+            final Exchange ex = _persistit.getExchange(volumes[i], "parallel", true);
+            ex.getValue().put(RED_FOX);
+            for (int j = 0; j < COUNT; j++) {
+                ex.to(j).store();
+            }
+        }
+        final long copied = jman.getCopiedPageCount();
+        drainJournal();
+        assertTrue("Pages should have been copied", jman.getCopiedPageCount() - copied >= VOLUMES);
+
+        boolean writerSeen = false;
+        for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+            writerSeen |= thread.getName().startsWith("JOURNAL_COPIER_WRITER");
+        }
+        assertTrue("Copy writer threads should have been started", writerSeen);
+
+        for (int i = 0; i < VOLUMES; i++) {
+            _persistit.getBufferPool(16384).invalidate(volumes[i]);
+            final Exchange ex = _persistit.getExchange(volumes[i], "parallel", false);
+            for (int j = 0; j < COUNT; j++) {
+                ex.to(j).fetch();
+                assertEquals(RED_FOX, ex.getValue().getString());
+            }
+        }
+    }
+
     @Test
     public void concurrentReadAndInvalidationOfPageNodes() throws Exception {
         final int COUNT = 5000;
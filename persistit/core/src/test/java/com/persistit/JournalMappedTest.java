@@ -0,0 +1,96 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+public class JournalMappedTest extends PersistitUnitTestCase {
+
+    private final static int BUFFERS = 256;
+
+    private final static int KEYS = 20000;
+
+    @Override
+    protected Properties doGetProperties(final boolean cleanup) {
+        final Properties p = getProperties(cleanup);
+        p.setProperty("buffer.count.16384", Integer.toString(BUFFERS));
+        p.setProperty("journalmapped", "true");
+        p.setProperty("appendonly", "true");
+        return p;
+    }
+
+    private void populate() throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "mapped", true);
+        ex.getValue().put(createString(500));
+        for (int i = 0; i < KEYS; i++) {
+            ex.to(i).store();
+        }
+        _persistit.flush();
+        _persistit.checkpoint();
+    }
+
+    private int scan() throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "mapped", false);
+        ex.to(Key.BEFORE);
+        int count = 0;
+        while (ex.traverse(Key.GT, true)) {
+            assertEquals(count, ex.getKey().decodeInt());
+            ex.getKey().reset();
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    public void pagesReadFromSealedJournalFile() throws Exception {
+        final JournalManager jman = _persistit.getJournalManager();
+        assertTrue(jman.isJournalMapped());
+        populate();
+        jman.rolloverWithNewFile();
+
+        final long mappedReads = jman.getTotalMappedReads();
+        assertEquals(KEYS, scan());
+        assertTrue("Pool misses should be served from the mapping", jman.getTotalMappedReads() > mappedReads);
+    }
+
+    @Test
+    public void currentJournalFileIsNotMapped() throws Exception {
+        final JournalManager jman = _persistit.getJournalManager();
+        populate();
+        assertEquals(null, jman.getMappedFile(jman.getCurrentAddress()));
+
+        final long mappedReads = jman.getTotalMappedReads();
+        assertEquals(KEYS, scan());
+        assertEquals(mappedReads, jman.getTotalMappedReads());
+    }
+
+    @Test
+    public void recoveryFromMappedJournal() throws Exception {
+        populate();
+        crashWithoutFlushAndRestoreProperties();
+
+        assertTrue(_persistit.getRecoveryManager().isJournalMapped());
+        final JournalManager jman = _persistit.getJournalManager();
+        assertEquals(KEYS, scan());
+        assertTrue("Recovered pages should be served from the mapping", jman.getTotalMappedReads() > 0);
+    }
+}
@@ -0,0 +1,257 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.junit.Test;
+
+import com.persistit.Management.LatencyInfo;
+import com.persistit.Management.PageHitInfo;
+import com.persistit.Transaction.CommitPolicy;
+import com.persistit.mxbeans.MetricsMXBean;
+
+public class MetricsTest extends PersistitUnitTestCase {
+
+    @Test
+    public void histogramBuckets() throws Exception {
+        for (long value = 0; value < 100000; value += 7) {
+            final int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.lowestEquivalentValue(index) <= value);
+            assertTrue(LatencyHistogram.highestEquivalentValue(index) >= value);
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+
+        final LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getValueAtPercentile(99));
+        for (int value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500500, histogram.getMean());
+        assertEquals(1000000, histogram.getMax());
+        final long median = histogram.getValueAtPercentile(50);
+        assertTrue(median >= 500000 && median <= 500000 * 9 / 8);
+        final long p99 = histogram.getValueAtPercentile(99);
+        assertTrue(p99 >= 990000 && p99 <= 1000000);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    @Test
+    public void concurrentRecording() throws Exception {
+        final int threadCount = 8;
+        final int perThread = 100000;
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final StripedCounters counters = new StripedCounters(PageCategory.values().length);
+        final Thread[] threads = new Thread[threadCount];
+        for (int t = 0; t < threadCount; t++) {
+            final long base = (long) t * perThread;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 1; i <= perThread; i++) {
+                        histogram.record(base + i);
+                        counters.increment(i % counters.length());
+                    }
+                }
+            });
+        }
+        for (final Thread thread : threads) {
+            thread.start();
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        final long total = (long) threadCount * perThread;
+        assertTrue(StripedCounters.STRIPE_COUNT <= Runtime.getRuntime().availableProcessors());
+        assertEquals(total, histogram.getCount());
+        assertEquals(total, histogram.getMax());
+        assertEquals((total + 1) / 2, histogram.getMean());
+        long sum = 0;
+        for (int index = 0; index < counters.length(); index++) {
+            sum += counters.get(index);
+        }
+        assertEquals(total, sum);
+        histogram.reset();
+        counters.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, counters.get(0));
+    }
+
+    @Test
+    public void treeLatencies() throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "MetricsTest", true);
+        for (int i = 0; i < 100; i++) {
+            ex.to(i).getValue().put(RED_FOX);
+            ex.store();
+        }
+        for (int i = 0; i < 50; i++) {
+            ex.to(i).fetch();
+        }
+        ex.to(Key.BEFORE);
+        int count = 0;
+        while (ex.next()) {
+            count++;
+        }
+        ex.to(0).remove();
+
+        final TreeStatistics stats = ex.getTree().getStatistics();
+        assertEquals(100, stats.getStoreLatency().getCount());
+        assertEquals(50, stats.getFetchLatency().getCount());
+        assertEquals(count + 1, stats.getTraverseLatency().getCount());
+        assertEquals(1, stats.getRemoveLatency().getCount());
+
+        final LatencyInfo[] infos = _persistit.getManagement().getTreeLatencyInfoArray("persistit", "MetricsTest");
+        assertEquals(4, infos.length);
+        assertEquals("store", infos[2].getName());
+        assertEquals(100, infos[2].getCount());
+        assertTrue(infos[2].getMedian() <= infos[2].getMax());
+
+        final PageHitInfo[] hits = _persistit.getManagement().getPageHitInfoArray("persistit", "MetricsTest");
+        assertEquals(PageCategory.values().length, hits.length);
+        final PageHitInfo data = hits[PageCategory.DATA.ordinal()];
+        assertEquals("DATA", data.getCategory());
+        assertTrue(data.getHitCount() > 0);
+        assertTrue(data.getHitRatio() > 0.5);
+        assertEquals(0, _persistit.getManagement().getTreeLatencyInfoArray("nosuchvolume", "MetricsTest").length);
+
+        final MetricsMXBeanImpl bean = new MetricsMXBeanImpl(_persistit);
+        assertTrue(bean.report().contains("persistit:MetricsTest"));
+        bean.reset();
+        assertEquals(0, stats.getStoreLatency().getCount());
+        assertEquals(0, stats.getPageHitCounter(PageCategory.DATA));
+        assertEquals(99, stats.getStoreCounter() - stats.getRemoveCounter());
+    }
+
+    @Test
+    public void splitsAndRangeRemovesRecordedOnce() throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "MetricsTest", true);
+        ex.getValue().put(createString(100));
+        for (int i = 0; i < 5000; i++) {
+            ex.to(i).store();
+        }
+        final TreeStatistics stats = ex.getTree().getStatistics();
+        assertTrue("Expected index levels", ex.getTree().getDepth() > 1);
+        assertEquals(5000, stats.getStoreLatency().getCount());
+        /*
+         * Re-inserting an index key, as a split or join does, is internal
+         */
+        ex.to(2500).fetch();
+        assertTrue(ex.fixIndexHole(ex.fetchBufferCopy(0).getPageAddress(), 0));
+        assertEquals(5000, stats.getStoreLatency().getCount());
+
+        ex.removeKeyRange(new Key(_persistit).append(10), new Key(_persistit).append(4990));
+        assertEquals(1, stats.getRemoveLatency().getCount());
+        assertEquals(5000, stats.getStoreLatency().getCount());
+    }
+
+    @Test
+    public void transactionalRemoveRecordedAsRemove() throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "MetricsTest", true);
+        for (int i = 0; i < 10; i++) {
+            ex.to(i).getValue().put(RED_FOX);
+            ex.store();
+        }
+        final Transaction txn = ex.getTransaction();
+        txn.begin();
+        try {
+            ex.to(3).remove();
+            ex.to(4).fetchAndRemove();
+            txn.commit();
+        } finally {
+            txn.end();
+        }
+        final TreeStatistics stats = ex.getTree().getStatistics();
+        assertEquals(10, stats.getStoreLatency().getCount());
+        assertEquals(2, stats.getRemoveLatency().getCount());
+    }
+
+    @Test
+    public void longRecordPageHits() throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "MetricsTest", true);
+        final StringBuilder sb = new StringBuilder();
+        while (sb.length() < 100000) {
+            sb.append(RED_FOX);
+        }
+        ex.to(1).getValue().put(sb.toString());
+        ex.store();
+        ex.getValue().clear();
+        ex.fetch();
+        assertEquals(sb.toString(), ex.getValue().getString());
+        final TreeStatistics stats = ex.getTree().getStatistics();
+        assertTrue(stats.getPageHitCounter(PageCategory.LONG_RECORD)
+                + stats.getPageMissCounter(PageCategory.LONG_RECORD) > 0);
+        long poolTotal = 0;
+        for (final BufferPool pool : _persistit.getBufferPoolHashMap().values()) {
+            poolTotal += pool.getPageHitCounter(PageCategory.LONG_RECORD)
+                    + pool.getPageMissCounter(PageCategory.LONG_RECORD);
+        }
+        assertTrue(poolTotal > 0);
+    }
+
+    @Test
+    public void commitLatencies() throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "MetricsTest", true);
+        final Transaction txn = ex.getTransaction();
+        final long soft = _persistit.getCommitLatency(CommitPolicy.SOFT).getCount();
+        final long hard = _persistit.getCommitLatency(CommitPolicy.HARD).getCount();
+        for (int i = 0; i < 3; i++) {
+            txn.begin();
+            try {
+                ex.to(i).getValue().put(i);
+                ex.store();
+                txn.commit(i == 0 ? CommitPolicy.HARD : CommitPolicy.SOFT);
+            } finally {
+                txn.end();
+            }
+        }
+        /*
+         * Nested commits are not counted separately
+         */
+        txn.begin();
+        try {
+            txn.begin();
+            try {
+                txn.commit(CommitPolicy.SOFT);
+            } finally {
+                txn.end();
+            }
+            txn.commit(CommitPolicy.SOFT);
+        } finally {
+            txn.end();
+        }
+        assertEquals(soft + 3, _persistit.getCommitLatency(CommitPolicy.SOFT).getCount());
+        assertEquals(hard + 1, _persistit.getCommitLatency(CommitPolicy.HARD).getCount());
+        final LatencyInfo[] infos = _persistit.getManagement().getCommitLatencyInfoArray();
+        assertEquals(CommitPolicy.values().length, infos.length);
+        assertEquals("HARD", infos[CommitPolicy.HARD.ordinal()].getName());
+        assertEquals(hard + 1, infos[CommitPolicy.HARD.ordinal()].getCount());
+
+        final CompositeData[] attribute = (CompositeData[]) ManagementFactory.getPlatformMBeanServer().getAttribute(
+                new ObjectName(MetricsMXBean.MXBEAN_NAME), "CommitLatencies");
+        assertEquals(hard + 1, attribute[CommitPolicy.HARD.ordinal()].get("count"));
+    }
+}
@@ -198,7 +198,8 @@ public abstract class PersistitUnitTestCase {
   }
 
   private final static String[] PERSISTIT_THREAD_NAMES = {"CHECKPOINT_WRITER", "JOURNAL_COPIER", "JOURNAL_FLUSHER",
-    "PAGE_WRITER", "TXN_UPDATE"};
+    "JOURNAL_WRITER", "PAGE_WRITER", "PAGE_READER", "BUFFER_PRELOAD", "RECOVERY_WORKER", "TREE_BUILDER_MERGE",
+    "TXN_UPDATE"};
 
   protected boolean checkNoPersistitThreads() {
     boolean alive = false;
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2026 Open Identity Platform Community
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.persistit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.persistit.Key.Direction;
+
+public class ReadAheadTest extends PersistitUnitTestCase {
+
+    private final static int BUFFERS = 256;
+
+    private final static int KEYS = 20000;
+
+    @Override
+    protected Properties doGetProperties(final boolean cleanup) {
+        final Properties p = getProperties(cleanup);
+        p.setProperty("buffer.count.16384", Integer.toString(BUFFERS));
+        return p;
+    }
+
+    private Exchange populate() throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "readahead", true);
+        ex.getValue().put(createString(500));
+        for (int i = 0; i < KEYS; i++) {
+            ex.to(i).store();
+        }
+        return ex;
+    }
+
+    private int scan(final Exchange ex, final Direction direction) throws Exception {
+        ex.to(direction == Key.GT ? Key.BEFORE : Key.AFTER);
+        int count = 0;
+        while (ex.traverse(direction, true)) {
+            count++;
+        }
+        return count;
+    }
+
+    private void waitForPrefetchReads(final IOMeter meter, final long previous) throws Exception {
+        for (int wait = 0; wait < 100 && meter.getPrefetchReadCount() == previous; wait++) {
+            Thread.sleep(50);
+        }
+    }
+
+    @Test
+    public void forwardScan() throws Exception {
+        final Exchange ex = populate();
+        final IOMeter meter = _persistit.getIOMeter();
+        final long requests = meter.getPrefetchRequestCount();
+        final long reads = meter.getPrefetchReadCount();
+
+        assertEquals(KEYS, scan(ex, Key.GT));
+        assertTrue("Forward scan should request read-ahead", meter.getPrefetchRequestCount() > requests);
+        waitForPrefetchReads(meter, reads);
+        assertTrue("Read-ahead should read pages", meter.getPrefetchReadCount() > reads);
+    }
+
+    @Test
+    public void reverseScan() throws Exception {
+        final Exchange ex = populate();
+        final IOMeter meter = _persistit.getIOMeter();
+        final long requests = meter.getPrefetchRequestCount();
+
+        assertEquals(KEYS, scan(ex, Key.LT));
+        assertTrue("Reverse scan should request read-ahead", meter.getPrefetchRequestCount() > requests);
+    }
+
+    @Test
+    public void disabled() throws Exception {
+        final Exchange ex = populate();
+        final IOMeter meter = _persistit.getIOMeter();
+        meter.setPrefetchWindow(0);
+        final long requests = meter.getPrefetchRequestCount();
+
+        assertEquals(KEYS, scan(ex, Key.GT));
+        assertEquals(KEYS, scan(ex, Key.LT));
+        assertEquals("Window of zero disables read-ahead", requests, meter.getPrefetchRequestCount());
+    }
+
+    @Test
+    public void forwardScanAcrossIndexPages() throws Exception {
+        /*
+         * Long keys limit the fan-out of index pages so that the scan runs
+         * past the end of many level-1 parents.
+         */
+        final Exchange ex = _persistit.getExchange("persistit", "readahead", true);
+        final String suffix = createString(400);
+        ex.getValue().put(createString(500));
+        for (int i = 0; i < KEYS; i++) {
+            ex.to(String.format("%05d", i) + suffix).store();
+        }
+        final IOMeter meter = _persistit.getIOMeter();
+        final long requests = meter.getPrefetchRequestCount();
+        final long reads = meter.getPrefetchReadCount();
+
+        assertEquals(KEYS, scan(ex, Key.GT));
+        waitForPrefetchReads(meter, reads);
+        /*
+         * About 18 records fit on a data page and each index page holds about
+         * 36 pointers, so read-ahead confined to one parent would request a
+         * few dozen pages.
+         */
+        assertTrue("Read-ahead should continue into following parents",
+                meter.getPrefetchRequestCount() - requests > KEYS / 40);
+        assertTrue("Read-ahead should read pages", meter.getPrefetchReadCount() > reads);
+    }
+}
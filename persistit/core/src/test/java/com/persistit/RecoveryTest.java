@@ -316,6 +316,74 @@ public class RecoveryTest extends PersistitUnitTestCase {
     assertTrue(keys.isEmpty());
   }
 
+  @Test
+  public void testParallelRecovery() throws Exception {
+    final int trees = 8;
+    final int count = 200;
+    final Exchange[] exchanges = new Exchange[trees];
+    for (int index = 0; index < trees; index++) {
+      exchanges[index] = _persistit.getExchange(_volumeName, "RecoveryTest_parallel_" + index, true);
+    }
+    final Transaction txn = _persistit.getTransaction();
+    for (int i = 0; i < count; i++) {
+      for (int index = 0; index < trees; index++) {
+        final Exchange ex = exchanges[index];
+        txn.begin();
+        try {
+          ex.clear().append(i).getValue().put(String.format("index=%d i=%d", index, i));
+          ex.store();
+          ex.getTree().getSumAccumulator(0).add(i);
+          txn.commit();
+        } finally {
+          txn.end();
+        }
+      }
+      if (i % 10 == 0) {
+        /*
+         * A transaction that spans partitions is applied only after all
+         * earlier transactions.
+         */
+        txn.begin();
+        try {
+          for (int index = 0; index < trees; index++) {
+            exchanges[index].clear().append("spanning").append(i).getValue().put(i);
+            exchanges[index].store();
+          }
+          txn.commit();
+        } finally {
+          txn.end();
+        }
+      }
+    }
+
+    _config.setRecoveryThreads(4);
+    _persistit.getJournalManager().flush();
+    _persistit.crash();
+    _persistit = new Persistit(_config);
+
+    final RecoveryManager rman = _persistit.getRecoveryManager();
+    assertEquals(4, rman.getRecoveryThreads());
+    assertTrue("Transactions should be replayed concurrently", rman.getParallelTransactionCount() > 0);
+    assertEquals(0, rman.getErrorCount());
+
+    long expectedSum = 0;
+    for (int i = 0; i < count; i++) {
+      expectedSum += i;
+    }
+    for (int index = 0; index < trees; index++) {
+      final Exchange ex = _persistit.getExchange(_volumeName, "RecoveryTest_parallel_" + index, false);
+      for (int i = 0; i < count; i++) {
+        ex.clear().append(i).fetch();
+        assertEquals(String.format("index=%d i=%d", index, i), ex.getValue().getString());
+        if (i % 10 == 0) {
+          ex.clear().append("spanning").append(i).fetch();
+          assertEquals(i, ex.getValue().getInt());
+        }
+      }
+      assertEquals(expectedSum, ex.getTree().getSumAccumulator(0).getLiveValue());
+    }
+  }
+
   @Test
   public void testLargePageMap() throws Exception {
     final Volume vd = new Volume("foo", 123);
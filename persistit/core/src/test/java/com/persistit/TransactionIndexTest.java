@@ -20,6 +20,7 @@ import junit.framework.TestCase;
 import org.junit.Test;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static com.persistit.TransactionStatus.ABORTED;
 import static com.persistit.TransactionStatus.UNCOMMITTED;
@@ -100,6 +101,55 @@ public class TransactionIndexTest extends TestCase {
         assertEquals(0, ti.getAbortedCount());
     }
 
+    @Test
+    public void testOptimisticStatusRead() throws Exception {
+        final TransactionIndex ti = new TransactionIndex(_tsa, 1);
+        final TransactionStatus ts1 = ti.registerTransaction();
+        final TransactionStatus ts2 = ti.registerTransaction();
+        ts1.commit(_tsa.updateTimestamp());
+        final TransactionIndexBucket bucket = ts1.getBucket();
+        final long sequence = bucket.getSequence();
+        assertEquals(0, sequence & 1);
+        /*
+         * Lookups do not lock the bucket
+         */
+        assertSame(ts1, ti.getStatus(ts1.getTs()));
+        assertSame(ts2, ti.getStatus(ts2.getTs()));
+        assertEquals(sequence, bucket.getSequence());
+        assertEquals(0, ti.getLockedStatusReadCount());
+        /*
+         * Sequence is odd while the lock is held, including reentrantly
+         */
+        bucket.lock();
+        bucket.lock();
+        assertEquals(sequence + 1, bucket.getSequence());
+        bucket.unlock();
+        assertEquals(sequence + 1, bucket.getSequence());
+        bucket.unlock();
+        assertEquals(sequence + 2, bucket.getSequence());
+        /*
+         * A lookup that keeps overlapping a writer falls back to locking
+         */
+        final AtomicReference<TransactionStatus> found = new AtomicReference<TransactionStatus>();
+        final Thread reader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                found.set(ti.getStatus(ts2.getTs()));
+            }
+        });
+        bucket.lock();
+        try {
+            reader.start();
+            Thread.sleep(100);
+            assertNull(found.get());
+        } finally {
+            bucket.unlock();
+        }
+        reader.join();
+        assertSame(ts2, found.get());
+        assertEquals(1, ti.getLockedStatusReadCount());
+    }
+
     private boolean isCommitted(final long tc) {
         return tc >= 0 && tc != UNCOMMITTED;
     }
@@ -19,10 +19,13 @@ package com.persistit;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.RandomAccessFile;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -279,4 +282,222 @@ public class TreeBuilderTest extends PersistitUnitTestCase {
         }
     }
 
+    @Test
+    public void bulkLoadEmptyTree() throws Exception {
+        final TreeBuilder tb = getBasicTreeBuilder();
+        final Exchange ex = _persistit.getExchange(VOLUME_NAME, "bulk", true);
+        final Random random = new Random(1);
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < COUNT; i++) {
+            ex.to(random.nextInt()).getValue().put(RED_FOX + "," + i);
+            tb.store(ex);
+        }
+        for (int i = 0; i < 10; i++) {
+            sb.setLength(0);
+            while (sb.length() < 50000) {
+                sb.append(RED_FOX).append(i);
+            }
+            ex.to("long" + i).getValue().put(sb.toString());
+            tb.store(ex);
+        }
+        final long pagesBefore = ex.getVolume().getNextAvailablePage();
+        tb.merge();
+        assertTrue("Expect an index level", ex.getTree().getDepth() > 1);
+        assertTrue("Expect root page built at end of volume", ex.getTree().getRootPageAddr() >= pagesBefore);
+        verifyTree(ex.getTree(), COUNT - _duplicates.get() + 10);
+
+        for (int i = 0; i < 10; i++) {
+            final String v = ex.to("long" + i).fetch().getValue().getString();
+            assertTrue(v.length() >= 50000 && v.endsWith(Integer.toString(i)));
+        }
+        /*
+         * The bulk-loaded pages must survive a crash
+         */
+        crashWithoutFlushAndRestoreProperties();
+        final Exchange ex2 = _persistit.getExchange(VOLUME_NAME, "bulk", false);
+        verifyTree(ex2.getTree(), COUNT - _duplicates.get() + 10);
+        /*
+         * And accept ordinary inserts
+         */
+        for (int i = 0; i < 1000; i++) {
+            ex2.to(i).getValue().put("after " + i);
+            ex2.store();
+        }
+        verifyTree(ex2.getTree(), -1);
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("after " + i, ex2.to(i).fetch().getValue().getString());
+        }
+    }
+
+    @Test
+    public void bulkLoadFillFactor() throws Exception {
+        final long full = bulkLoadPageCount("full", 1.0f);
+        final long half = bulkLoadPageCount("half", 0.5f);
+        assertTrue("Expect half-filled pages to need more pages: " + half + " vs " + full, half > full * 3 / 2);
+    }
+
+    @Test
+    public void bulkLoadSkipsNonEmptyTree() throws Exception {
+        final TreeBuilder tb = getBasicTreeBuilder();
+        final Exchange ex = _persistit.getExchange(VOLUME_NAME, "nonempty", true);
+        ex.to(-1).getValue().put("existing");
+        ex.store();
+        for (int i = 0; i < COUNT; i++) {
+            ex.to(i).getValue().put(i);
+            tb.store(ex);
+        }
+        tb.merge();
+        assertEquals("existing", ex.to(-1).fetch().getValue().getString());
+        verifyTree(ex.getTree(), COUNT + 1);
+    }
+
+    @Test
+    public void bulkLoadInAppendOnlyMode() throws Exception {
+        final Exchange ex = _persistit.getExchange(VOLUME_NAME, "appendonly", true);
+        _persistit.checkpoint();
+        _persistit.getJournalManager().setAppendOnly(true);
+        assertTrue(!BulkLoader.isEligible(ex));
+        /*
+         * While append-only mode is on, as during a backup, the volume file
+         * must not change
+         */
+        final File file = new File(ex.getVolume().getPath());
+        final byte[] before = readFile(file);
+        for (final int threads : new int[] { 1, 4 }) {
+            final TreeBuilder tb = getBasicTreeBuilder();
+            tb.setMergeThreadCount(threads);
+            for (int i = 0; i < COUNT; i++) {
+                ex.to(threads * COUNT + i).getValue().put(RED_FOX);
+                tb.store(ex);
+            }
+            tb.merge();
+        }
+        final byte[] after = readFile(file);
+        assertTrue(after.length >= before.length);
+        for (int index = 0; index < after.length; index++) {
+            assertEquals("Volume file changed at " + index, index < before.length ? before[index] : 0, after[index]);
+        }
+        _persistit.getJournalManager().setAppendOnly(false);
+        verifyTree(ex.getTree(), COUNT * 2);
+        _persistit.checkpoint();
+        crashWithoutFlushAndRestoreProperties();
+        verifyTree(_persistit.getExchange(VOLUME_NAME, "appendonly", false).getTree(), COUNT * 2);
+    }
+
+    @Test
+    public void appendOnlyWaitsForBulkLoad() throws Exception {
+        final Exchange ex = _persistit.getExchange(VOLUME_NAME, "appendonly", true);
+        assertTrue(BulkLoader.isEligible(ex));
+        final BulkLoader loader = new BulkLoader(ex, 1.0f);
+        for (int i = 0; i < COUNT; i++) {
+            ex.to(i).getValue().put(RED_FOX);
+            loader.append(ex.getKey(), ex.getValue());
+        }
+        final Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                _persistit.getJournalManager().setAppendOnly(true);
+            }
+        });
+        thread.start();
+        thread.join(500);
+        assertTrue("Append-only mode should wait for the bulk load", thread.isAlive());
+        assertTrue(_persistit.getJournalManager().isAppendOnly());
+        loader.finish();
+        thread.join(10000);
+        assertTrue(!thread.isAlive());
+        _persistit.getJournalManager().setAppendOnly(false);
+        verifyTree(ex.getTree(), COUNT);
+    }
+
+    private byte[] readFile(final File file) throws Exception {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final byte[] bytes = new byte[(int) raf.length()];
+            raf.readFully(bytes);
+            return bytes;
+        } finally {
+            raf.close();
+        }
+    }
+
+    @Test
+    public void parallelMergeBulkLoad() throws Exception {
+        parallelMerge(true);
+    }
+
+    @Test
+    public void parallelMergeStore() throws Exception {
+        parallelMerge(false);
+    }
+
+    private void parallelMerge(final boolean bulkLoad) throws Exception {
+        final TreeBuilder tb = getBasicTreeBuilder();
+        tb.setBulkLoadEnabled(bulkLoad);
+        tb.setMergeThreadCount(4);
+        final Exchange ex1 = _persistit.getExchange(VOLUME_NAME, "parallel1", true);
+        final Exchange ex2 = _persistit.getExchange(VOLUME_NAME, "parallel2", true);
+        final Set<Integer> keys1 = new HashSet<Integer>();
+        final Set<Integer> keys2 = new HashSet<Integer>();
+        final Random random = new Random(2);
+        for (int i = 0; i < COUNT; i++) {
+            final int k = random.nextInt(COUNT * 4);
+            final Exchange ex = (i % 3) == 0 ? ex2 : ex1;
+            ex.to(k).getValue().put(RED_FOX + "," + k);
+            tb.store(ex);
+            ((i % 3) == 0 ? keys2 : keys1).add(k);
+            if (((i + 1) % (COUNT / 5)) == 0) {
+                tb.unitTestNextSortFile();
+            }
+        }
+        tb.merge();
+        assertTrue("Expect several partitions", tb.getMergePartitionCount() > 2);
+        assertEquals(keys1.size() + keys2.size(), tb.getMergedKeyCount());
+        assertTrue(tb.getSortMillis() >= 0 && tb.getSaveMillis() >= 0 && tb.getPartitionMillis() >= 0);
+        assertTrue(tb.getMergeMillis() >= 0 && tb.getCheckpointMillis() >= 0);
+
+        verifyTree(ex1.getTree(), keys1.size());
+        verifyTree(ex2.getTree(), keys2.size());
+        for (final Exchange ex : new Exchange[] { ex1, ex2 }) {
+            int previous = -1;
+            ex.to(Key.BEFORE);
+            while (ex.next()) {
+                final int k = ex.getKey().decodeInt();
+                assertTrue("Keys in order", k > previous);
+                assertEquals(RED_FOX + "," + k, ex.getValue().getString());
+                previous = k;
+            }
+        }
+    }
+
+    private long bulkLoadPageCount(final String treeName, final float fillFactor) throws Exception {
+        final TreeBuilder tb = getBasicTreeBuilder();
+        tb.setFillFactor(fillFactor);
+        final Exchange ex = _persistit.getExchange(VOLUME_NAME, treeName, true);
+        for (int i = 0; i < COUNT; i++) {
+            ex.to(i).getValue().put(RED_FOX);
+            tb.store(ex);
+        }
+        tb.merge();
+        final IntegrityCheck icheck = new IntegrityCheck(_persistit);
+        icheck.checkTree(ex.getTree());
+        assertEquals(0, icheck.getFaults().length);
+        return icheck.getDataPageCount();
+    }
+
+    private void verifyTree(final Tree tree, final int expectedCount) throws Exception {
+        final IntegrityCheck icheck = new IntegrityCheck(_persistit);
+        icheck.checkTree(tree);
+        assertEquals("Expect no faults", 0, icheck.getFaults().length);
+        if (expectedCount >= 0) {
+            final Exchange ex = new Exchange(tree);
+            int count = 0;
+            ex.to(Key.BEFORE);
+            while (ex.next()) {
+                count++;
+            }
+            assertEquals("Expect every key", expectedCount, count);
+        }
+    }
+
 }
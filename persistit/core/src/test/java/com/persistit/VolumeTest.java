@@ -24,7 +24,10 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -264,6 +267,106 @@ public class VolumeTest extends PersistitUnitTestCase {
     }
   }
 
+  @Test
+  public void compressedPageRoundTrip() throws Exception {
+    final PageCompressor compressor = new PageCompressor(16384);
+    final byte[] page = new byte[16384];
+    for (int i = 0; i < page.length; i++) {
+      page[i] = (byte) RED_FOX.charAt(i % RED_FOX.length());
+    }
+    page[0] = Buffer.PAGE_TYPE_DATA;
+    final ByteBuffer image = compressor.compress(ByteBuffer.wrap(page));
+    assertTrue("Repetitive page should compress", image != null && image.remaining() < page.length / 4);
+    assertEquals(0, image.remaining() % PageCompressor.COMPRESSED_BLOCK_SIZE);
+
+    final byte[] bytes = new byte[16384];
+    image.get(bytes, 0, image.remaining());
+    assertTrue(PageCompressor.isCompressed(bytes));
+    compressor.expand(bytes, 1);
+    assertTrue(Arrays.equals(page, bytes));
+
+    new Random(1).nextBytes(page);
+    page[0] = Buffer.PAGE_TYPE_DATA;
+    assertNull("Random page should be written uncompressed", compressor.compress(ByteBuffer.wrap(page)));
+    compressor.close();
+  }
+
+  @Test
+  public void compressedVolume() throws Exception {
+    final VolumeSpecification vs = validVolumeSpecification("${datapath}/ctest, pageSize:16k, initialSize:1m, maximumSize:10m, extensionSize:1m, create, compress");
+    assertTrue(vs.isCompress());
+    assertEquals(vs, validVolumeSpecification(vs.toString()));
+    final Volume volume = _persistit.loadVolume(vs);
+    final Exchange ex = _persistit.getExchange(volume, "CompressedVolumeTest", true);
+    for (int i = 0; i < 5000; i++) {
+      ex.clear().append(i).getValue().put(RED_FOX + " " + i);
+      ex.store();
+    }
+    _persistit.releaseExchange(ex);
+    _persistit.flush();
+    _persistit.copyBackPages();
+
+    final Management.VolumeInfo info = _persistit.getManagement().getVolumeInfo("ctest");
+    assertTrue(info.isCompressed());
+    assertTrue(info.getCompressedCounter() > 0);
+    assertTrue("Expected a compression ratio above 2 but was " + info.getCompressionRatio(),
+      info.getCompressionRatio() > 2.0);
+
+    final RandomAccessFile raf = new RandomAccessFile(volume.getPath(), "r");
+    int compressed = 0;
+    try {
+      for (long page = 1; page < volume.getStorage().getNextAvailablePage(); page++) {
+        raf.seek(page * 16384);
+        if ((raf.read() & 0xFF) == PageCompressor.COMPRESSED_PAGE_TYPE) {
+          compressed++;
+        }
+      }
+    } finally {
+      raf.close();
+    }
+    assertTrue("Expected compressed pages in the volume file", compressed > 0);
+
+    volume.close();
+    final Volume reopened = _persistit.loadVolume(vs);
+    final Exchange ex2 = _persistit.getExchange(reopened, "CompressedVolumeTest", false);
+    for (int i = 0; i < 5000; i++) {
+      ex2.clear().append(i).fetch();
+      assertEquals(RED_FOX + " " + i, ex2.getValue().getString());
+    }
+    _persistit.releaseExchange(ex2);
+  }
+
+  @Test
+  public void compressedPageReadSize() throws Exception {
+    final VolumeSpecification vs = validVolumeSpecification("${datapath}/ctest, pageSize:16k, initialSize:1m, maximumSize:10m, extensionSize:1m, create, compress");
+    final Volume volume = _persistit.loadVolume(vs);
+    final Exchange ex = _persistit.getExchange(volume, "CompressedReadTest", true);
+    for (int i = 0; i < 5000; i++) {
+      ex.clear().append(i).getValue().put(RED_FOX + " " + i);
+      ex.store();
+    }
+    _persistit.releaseExchange(ex);
+    _persistit.flush();
+    _persistit.copyBackPages();
+    volume.close();
+
+    final IOMeter meter = _persistit.getIOMeter();
+    final long operations = meter.totalOperations("RV");
+    final long bytes = meter.totalBytes("RV");
+    final Volume reopened = _persistit.loadVolume(vs);
+    final Exchange ex2 = _persistit.getExchange(reopened, "CompressedReadTest", false);
+    for (int i = 0; i < 5000; i++) {
+      ex2.clear().append(i).fetch();
+      assertEquals(RED_FOX + " " + i, ex2.getValue().getString());
+    }
+    _persistit.releaseExchange(ex2);
+    final long pages = meter.totalOperations("RV") - operations;
+    final long read = meter.totalBytes("RV") - bytes;
+    assertTrue("Expected pages to be read from the volume", pages > 1);
+    assertTrue("Expected compressed pages to be read in less than half a page each, but read " + read + " bytes in "
+      + pages + " pages", read < pages * 16384 / 2);
+  }
+
   private VolumeSpecification validVolumeSpecification(final String specification) throws Exception {
     try {
       return _persistit.getConfiguration().volumeSpecification(specification);
@@ -19,7 +19,10 @@ package com.persistit;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Properties;
+import java.util.Set;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -63,6 +66,88 @@ public class WarmupTest extends PersistitUnitTestCase {
     }
   }
 
+  @Test
+  public void testParallelWarmup() throws Exception {
+    _config.setBufferPreloadThreads(4);
+    final Set<Long> pages = populateAndClose();
+    _persistit = new Persistit(_config);
+    assertEquals(pages, poolPages());
+  }
+
+  @Test
+  public void testBackgroundWarmup() throws Exception {
+    _config.setBufferPreloadThreads(2);
+    _config.setBufferPreloadBackground(true);
+    final Set<Long> pages = populateAndClose();
+    _persistit = new Persistit(_config);
+    /*
+     * The database can be used while the preload continues
+     */
+    final Exchange ex = _persistit.getExchange("persistit", "WarmupTest", false);
+    assertTrue(ex.to(1).fetch().getValue().isDefined());
+    _persistit.waitForBufferPreload();
+    assertEquals(pages, poolPages());
+  }
+
+  @Test
+  public void testWarmupAcrossSegments() throws Exception {
+    /*
+     * Restart with a pool of four 64-buffer segments
+     */
+    _persistit.close();
+    _config.getBufferPoolMap().get(16384).setCount(256);
+    _config.setBufferSegments(4);
+    _config.setBufferPreloadThreads(1);
+    _persistit = new Persistit(_config);
+    final Exchange ex = _persistit.getExchange("persistit", "WarmupTest", true);
+    ex.getValue().put(createString(2000));
+    for (int i = 1; i <= 1500; i++) {
+      ex.clear().append(i).store();
+    }
+    final Set<Long> pages = poolPages();
+    _persistit.close();
+
+    _persistit = new Persistit(_config);
+    assertEquals(pages, poolPages());
+    final BufferPool pool = _persistit.getVolume("persistit").getStructure().getPool();
+    assertEquals(4, pool.getSegmentCount());
+    final int[] loaded = new int[pool.getSegmentCount()];
+    for (int i = 0; i < pool.getBufferCount(); ++i) {
+      final Buffer bufferCopy = pool.getBufferCopy(i);
+      if (bufferCopy.isValid() && pages.contains(bufferCopy.getPageAddress())) {
+        loaded[i * loaded.length / pool.getBufferCount()]++;
+      }
+    }
+    for (int segment = 0; segment < loaded.length; segment++) {
+      assertTrue("Preload should spread pages over every segment: " + Arrays.toString(loaded),
+        loaded[segment] >= pages.size() / loaded.length - 4);
+    }
+  }
+
+  private Set<Long> populateAndClose() throws Exception {
+    final Exchange ex = _persistit.getExchange("persistit", "WarmupTest", true);
+    for (int i = 1; i <= 1000; i++) {
+      ex.getValue().put(RED_FOX);
+      ex.clear().append(i).store();
+    }
+    final Set<Long> pages = poolPages();
+    _persistit.close();
+    return pages;
+  }
+
+  private Set<Long> poolPages() throws Exception {
+    final BufferPool pool = _persistit.getVolume("persistit").getStructure().getPool();
+    final Set<Long> pages = new HashSet<Long>();
+    for (int i = 0; i < pool.getBufferCount(); ++i) {
+      final Buffer bufferCopy = pool.getBufferCopy(i);
+      if (bufferCopy.isValid() && bufferCopy.getVolume() != null
+          && bufferCopy.getVolume().getName().equals("persistit")) {
+        pages.add(bufferCopy.getPageAddress());
+      }
+    }
+    return pages;
+  }
+
   @Test
   @Ignore
   public void readOrderIsSequential() throws Exception {
@@ -93,7 +93,7 @@ public class StartStop extends AbstractSuite {
 
     static void confirmIntegrity(final Persistit persistit) throws Exception {
         final IntegrityCheck icheck = IntegrityCheck.icheck("persistit:*", false, false, false, false, false, false,
-                false);
+                false, 1, 0);
         icheck.setPersistit(persistit);
         icheck.setMessageWriter(null);
         icheck.run();
@@ -21,6 +21,7 @@ import com.persistit.Key;
 import com.persistit.KeyFilter;
 import com.persistit.PersistitUnitTestCase;
 import com.persistit.Transaction;
+import com.persistit.Value;
 import com.persistit.Volume;
 import com.persistit.exception.KeyTooLongException;
 import com.persistit.exception.PersistitException;
@@ -28,9 +29,11 @@ import org.junit.Test;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.Random;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -492,6 +495,69 @@ public class ExchangeTest extends PersistitUnitTestCase {
         keyCheck(ex, deep ? "{1,2}" : "{1}");
     }
 
+    @Test
+    public void testStoreAllAndFetchAll() throws PersistitException {
+        final Exchange ex = _persistit.getExchange("persistit", "batch", true);
+        final Random random = new Random(1);
+        final int count = 5000;
+        final Key[] keys = new Key[count];
+        final Value[] values = new Value[count];
+        for (int i = 0; i < count; i++) {
+            final int k = random.nextInt(count * 2) * 2;
+            keys[i] = new Key(_persistit).append(k);
+            values[i] = new Value(_persistit);
+            values[i].put("value " + k);
+        }
+        ex.clear().append("unchanged");
+        ex.storeAll(keys, values);
+        assertEquals("{\"unchanged\"}", ex.getKey().toString());
+
+        final Key[] fetchKeys = new Key[count];
+        for (int i = 0; i < count; i++) {
+            fetchKeys[i] = new Key(_persistit).append(i % 2 == 0 ? keys[count - i - 1].reset().decodeInt() : i * 4 + 1);
+        }
+        final Value[] fetched = ex.fetchAll(fetchKeys);
+        assertEquals(count, fetched.length);
+        for (int i = 0; i < count; i++) {
+            final int k = fetchKeys[i].reset().decodeInt();
+            if (i % 2 == 0) {
+                assertEquals("value " + k, fetched[i].getString());
+            } else {
+                assertFalse("Expect no value for " + k, fetched[i].isDefined());
+            }
+            assertEquals(ex.clear().append(k).fetch().getValue().isDefined(), fetched[i].isDefined());
+        }
+    }
+
+    @Test
+    public void testFetchAllInTransaction() throws Exception {
+        final Exchange ex = _persistit.getExchange("persistit", "batch", true);
+        for (int i = 0; i < 1000; i++) {
+            ex.clear().append(i).getValue().put("committed " + i);
+            ex.store();
+        }
+        final Key[] keys = new Key[] { new Key(_persistit).append(900), new Key(_persistit).append(5),
+                new Key(_persistit).append(500) };
+        final Transaction txn = _persistit.getTransaction();
+        txn.begin();
+        try {
+            ex.clear().append(500).getValue().put("uncommitted");
+            ex.store();
+            ex.clear().append(5).remove();
+            final Value[] values = ex.fetchAll(keys);
+            assertEquals("committed 900", values[0].getString());
+            assertFalse(values[1].isDefined());
+            assertEquals("uncommitted", values[2].getString());
+        } finally {
+            txn.rollback();
+            txn.end();
+        }
+        final Value[] values = ex.fetchAll(keys);
+        assertEquals("committed 900", values[0].getString());
+        assertEquals("committed 5", values[1].getString());
+        assertEquals("committed 500", values[2].getString());
+    }
+
     private void keyCheck(final Exchange ex, final String expected) {
         assertEquals("Key should be " + expected, expected, ex.getKey().toString());
     }
@@ -16,10 +16,14 @@
 
 package com.persistit.unit;
 
+import com.persistit.Exchange;
+import com.persistit.IntegrityCheck;
+import com.persistit.Key;
 import com.persistit.PersistitMap;
 import com.persistit.PersistitUnitTestCase;
 import com.persistit.StreamLoader;
 import com.persistit.StreamSaver;
+import com.persistit.TreeSelector;
 import com.persistit.exception.PersistitException;
 import org.junit.Test;
 
@@ -27,6 +31,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.TreeMap;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class SaveLoadTest1 extends PersistitUnitTestCase {
@@ -56,6 +61,93 @@ public class SaveLoadTest1 extends PersistitUnitTestCase {
         System.out.println("- done");
     }
 
+    @Test
+    public void test2() throws PersistitException, IOException {
+        System.out.print("test2 ");
+        final File saveFile = saveConcurrently("SaveLoadTest2");
+        /*
+         * Empty trees are bulk-loaded
+         */
+        removeTrees("SaveLoadTest2");
+        final StreamLoader loader = new StreamLoader(_persistit, saveFile);
+        loader.setThreadCount(4);
+        loader.load(null, false, true);
+        verifyTrees("SaveLoadTest2");
+        System.out.println("- done");
+    }
+
+    @Test
+    public void test3() throws PersistitException, IOException {
+        System.out.print("test3 ");
+        final File saveFile = saveConcurrently("SaveLoadTest3");
+        /*
+         * A stream containing SEGMENT records can be loaded sequentially
+         */
+        removeTrees("SaveLoadTest3");
+        final StreamLoader loader1 = new StreamLoader(_persistit, saveFile);
+        loader1.load(null, false, true);
+        verifyTrees("SaveLoadTest3");
+        /*
+         * Or concurrently into trees that already contain records
+         */
+        removeTrees("SaveLoadTest3");
+        for (final String suffix : new String[] { "a", "b" }) {
+            final Exchange exchange = _persistit.getExchange("persistit", "SaveLoadTest3" + suffix, true);
+            exchange.to(-1).getValue().put("existing");
+            exchange.store();
+        }
+        final StreamLoader loader2 = new StreamLoader(_persistit, saveFile);
+        loader2.setThreadCount(4);
+        loader2.load(null, false, true);
+        verifyTrees("SaveLoadTest3");
+        System.out.println("- done");
+    }
+
+    private File saveConcurrently(final String treeName) throws PersistitException, IOException {
+        for (final String suffix : new String[] { "a", "b" }) {
+            final Exchange exchange = _persistit.getExchange("persistit", treeName + suffix, true);
+            for (int index = 0; index < 20000; index++) {
+                exchange.to(index).getValue().put("This is the record for index=" + index + " in " + suffix);
+                exchange.store();
+            }
+        }
+        final File saveFile = File.createTempFile("SaveLoadTest", ".sav");
+        saveFile.deleteOnExit();
+        final StreamSaver saver = new StreamSaver(_persistit, saveFile);
+        saver.setThreadCount(4);
+        saver.saveTrees(TreeSelector.parseSelector("persistit:" + treeName + "*", false, '\\'));
+        saver.close();
+        return saveFile;
+    }
+
+    private void removeTrees(final String treeName) throws PersistitException {
+        for (final String suffix : new String[] { "a", "b" }) {
+            _persistit.getExchange("persistit", treeName + suffix, false).removeTree();
+        }
+    }
+
+    private void verifyTrees(final String treeName) throws PersistitException {
+        for (final String suffix : new String[] { "a", "b" }) {
+            final Exchange exchange = _persistit.getExchange("persistit", treeName + suffix, false);
+            final IntegrityCheck icheck = new IntegrityCheck(_persistit);
+            icheck.checkTree(exchange.getTree());
+            assertEquals(0, icheck.getFaults().length);
+            exchange.to(Key.BEFORE);
+            int index = 0;
+            while (exchange.next()) {
+                final int k = exchange.getKey().reset().decodeInt();
+                if (k == -1) {
+                    continue;
+                }
+                assertEquals(index, k);
+                assertEquals("This is the record for index=" + index + " in " + suffix, exchange.getValue()
+                        .getString());
+                index++;
+            }
+            assertEquals(20000, index);
+        }
+    }
+
     public static void main(final String[] args) throws Exception {
         new SaveLoadTest1().initAndRunTest();
     }
@@ -63,6 +155,8 @@ public class SaveLoadTest1 extends PersistitUnitTestCase {
     @Override
     public void runAllTests() throws Exception {
         test1();
+        test2();
+        test3();
     }
 
 }